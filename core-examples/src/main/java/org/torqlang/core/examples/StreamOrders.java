@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.examples;
+
+import org.torqlang.core.klvm.*;
+import org.torqlang.core.lang.JsonParser;
+import org.torqlang.core.local.Actor;
+import org.torqlang.core.local.ActorImage;
+import org.torqlang.core.local.ActorRef;
+import org.torqlang.core.local.Address;
+import org.torqlang.core.local.Envelope;
+import org.torqlang.core.local.StreamClient;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * A stream publisher that answers a GET request with every order, in batches of 10, followed by `eof#{'more': false}`.
+ * It can be the target of a streaming API route. See `ApiRouteMode`.
+ *
+ * The publisher keeps no state between requests, therefore it can be captured as an image. A streaming route to an
+ * image spawns a new publisher per stream, so concurrent clients never share a position in the orders.
+ */
+public final class StreamOrders extends AbstractExample {
+
+    public static final String SOURCE = """
+        actor StreamOrders() in
+            import system[ArrayList, ValueIter]
+            import system.Procs.respond
+            var orders = ${1}
+            handle ask 'GET'#{'headers': headers, 'path': path, 'query': query, 'context': context} in
+                var batch = ArrayList.new()
+                for order in ValueIter.new(orders) do
+                    batch.add(order)
+                    if batch.size() == 10 then
+                        respond(batch.to_tuple())
+                        batch.clear()
+                    end
+                end
+                if batch.size() > 0 then
+                    respond(batch.to_tuple())
+                end
+                eof#{'more': false}
+            end
+        end""";
+
+    public static void main(String[] args) throws Exception {
+        new StreamOrders().performWithErrorCheck();
+        System.exit(0);
+    }
+
+    @Override
+    public final void perform() throws Exception {
+
+        String source = SOURCE.replace("${1}", NorthwindCache.ordersJsonText());
+        ActorImage image = Actor.captureImage(source);
+
+        CompleteRec m = Rec.completeRecBuilder()
+            .setLabel(Str.of("GET"))
+            .addField(Str.of("headers"), Rec.completeRecBuilder().build())
+            .addField(Str.of("path"), Rec.completeTupleBuilder().addValue(Str.of("orders")).build())
+            .addField(Str.of("query"), Rec.completeRecBuilder().build())
+            .addField(Str.of("context"), Rec.completeRecBuilder().build())
+            .build();
+
+        // Spawn a publisher per stream, as a streaming API route does. Each stream receives every order.
+        List<?> orders = (List<?>) JsonParser.parse(NorthwindCache.ordersJsonText());
+        for (int i = 0; i < 2; i++) {
+            ActorRef actorRef = Actor.spawn(Address.create(getClass().getName() + "Publisher" + i), image);
+            Queue<Envelope> response = StreamClient.builder()
+                .sendAndAwaitEof(actorRef, m, 1, TimeUnit.SECONDS);
+            int orderCount = 0;
+            int batchCount = 0;
+            while (response.size() > 1) {
+                Envelope next = response.remove();
+                checkNotFailedValue(next.message());
+                if (!(next.message() instanceof CompleteTuple batch)) {
+                    throw new IllegalStateException("Envelope is not a CompleteTuple");
+                }
+                if (batch.fieldCount() > 10) {
+                    throw new IllegalStateException("Batch size is greater than 10");
+                }
+                orderCount += batch.fieldCount();
+                batchCount++;
+            }
+            Envelope last = response.remove();
+            if (!(last.message() instanceof CompleteRec eof) || !eof.label().equals(Eof.SINGLETON)) {
+                throw new IllegalStateException("Last envelope is not an eof");
+            }
+            checkExpectedResponse(Bool.FALSE, eof.findValue(Str.of("more")));
+            checkExpectedResponse(orders.size(), orderCount);
+            checkExpectedResponse((orders.size() + 9) / 10, batchCount);
+        }
+    }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.examples;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.infra.Blackhole;
+import org.torqlang.core.klvm.Str;
+import org.torqlang.core.local.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Compares the default fixed thread pool with the work-stealing executor. Each operation spawns a batch of
+ * ConcurrentMath or MergeIntStreams actors, asks each one concurrently, and awaits all responses. The actors send
+ * many small messages to their children, which is where actor affinity and local queues help.
+ */
+public class BenchScheduler {
+
+    private static final int BATCH_SIZE = 64;
+
+    public static void main(String[] args) throws Exception {
+        BenchSchedulerState state = new BenchSchedulerState();
+        state.setup();
+        try {
+            for (int i = 0; i < 5; i++) {
+                System.out.println("Round " + i);
+                time("  concurrentMathFixed", () -> perform(state.fixedSystem, ConcurrentMath.SOURCE, "calculate"));
+                time("  concurrentMathWorkStealing",
+                    () -> perform(state.workStealingSystem, ConcurrentMath.SOURCE, "calculate"));
+                time("  mergeIntStreamsFixed", () -> perform(state.fixedSystem, MergeIntStreams.SOURCE, "merge"));
+                time("  mergeIntStreamsWorkStealing",
+                    () -> perform(state.workStealingSystem, MergeIntStreams.SOURCE, "merge"));
+            }
+        } finally {
+            state.tearDown();
+        }
+    }
+
+    private static List<Object> perform(ActorSystem system, String source, String message) throws Exception {
+        List<RequestClientResponse> clients = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            ActorRef actorRef = Actor.builder()
+                .setSystem(system)
+                .spawn(source)
+                .actorRef();
+            clients.add(RequestClient.builder().send(actorRef, Str.of(message)));
+        }
+        List<Object> responses = new ArrayList<>(BATCH_SIZE);
+        for (RequestClientResponse client : clients) {
+            responses.add(client.awaitResponse(5, TimeUnit.SECONDS));
+        }
+        return responses;
+    }
+
+    private static void time(String label, Performer performer) throws Exception {
+        int iterations = 200;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            performer.perform();
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%s: %.3f ms/op%n", label, elapsed / 1_000_000.0 / iterations);
+    }
+
+    //@Benchmark
+    public void concurrentMathFixed(BenchSchedulerState state, Blackhole blackhole) throws Exception {
+        blackhole.consume(perform(state.fixedSystem, ConcurrentMath.SOURCE, "calculate"));
+    }
+
+    //@Benchmark
+    public void concurrentMathWorkStealing(BenchSchedulerState state, Blackhole blackhole) throws Exception {
+        blackhole.consume(perform(state.workStealingSystem, ConcurrentMath.SOURCE, "calculate"));
+    }
+
+    //@Benchmark
+    public void mergeIntStreamsFixed(BenchSchedulerState state, Blackhole blackhole) throws Exception {
+        blackhole.consume(perform(state.fixedSystem, MergeIntStreams.SOURCE, "merge"));
+    }
+
+    //@Benchmark
+    public void mergeIntStreamsWorkStealing(BenchSchedulerState state, Blackhole blackhole) throws Exception {
+        blackhole.consume(perform(state.workStealingSystem, MergeIntStreams.SOURCE, "merge"));
+    }
+
+    private interface Performer {
+        void perform() throws Exception;
+    }
+
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.examples;
+
+import org.openjdk.jmh.annotations.*;
+import org.torqlang.core.local.ActorSystem;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@State(Scope.Benchmark)
+public class BenchSchedulerState {
+
+    public static final int PARALLELISM = Math.max(4, Runtime.getRuntime().availableProcessors());
+
+    public ExecutorService fixedExecutor;
+    public ExecutorService workStealingExecutor;
+    public ActorSystem fixedSystem;
+    public ActorSystem workStealingSystem;
+
+    private static ActorSystem createSystem(String name, ExecutorService executor) {
+        return ActorSystem.builder()
+            .setName(name)
+            .setExecutor(executor)
+            .addDefaultModules()
+            .addModule("examples", ExamplesMod.moduleRec())
+            .build();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        fixedExecutor = Executors.newFixedThreadPool(PARALLELISM);
+        workStealingExecutor = ActorSystem.createWorkStealingExecutor(PARALLELISM);
+        fixedSystem = createSystem("FixedSystem", fixedExecutor);
+        workStealingSystem = createSystem("WorkStealingSystem", workStealingExecutor);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixedExecutor.shutdown();
+        workStealingExecutor.shutdown();
+    }
+
+}
@@ -39,7 +39,7 @@ public abstract class AbstractClosure implements Closure {
         } else {
             bodyEnv = capturedEnv;
         }
-        machine.pushStackEntry(procDef.stmt, bodyEnv);
+        machine.computeNext(procDef.stmt, bodyEnv);
     }
 
     @Override
@@ -7,36 +7,39 @@
 
 package org.torqlang.core.klvm;
 
-import org.torqlang.core.util.BinarySearchTools;
-
 import java.util.Arrays;
 
+/*
+ * A complete record stores its values in a flat array ordered by the features of its shape. The shape is shared by
+ * all records with the same label and features, so a record costs one object and one array regardless of its field
+ * count. Fields are created on demand by fieldAt().
+ */
 public abstract class AbstractCompleteRec implements CompleteRec {
 
-    private CompleteField[] completeFields;
-    private Literal label;
+    private RecShape shape;
+    private Complete[] values;
     private int hashCode;
     private boolean hashCodeIsZero;
 
-    /*
-     * Return the index of the field if found, otherwise return -(low + 1).
-     */
-    private int binarySearchFields(Feature feature) {
-        return BinarySearchTools.search(completeFields, (f) -> FEATURE_COMPARATOR.compare(feature, f.feature));
-    }
-
     private void checkForDuplicateFeatures() {
-        CompleteField prev = null;
-        for (CompleteField f : completeFields) {
-            if (prev != null) {
-                if (FeatureProviderComparator.SINGLETON.compare(prev, f) == 0) {
-                    throw new DuplicateFeatureError(this, f.feature);
-                }
+        for (int i = 1; i < shape.fieldCount(); i++) {
+            if (FEATURE_COMPARATOR.compare(shape.featureAt(i - 1), shape.featureAt(i)) == 0) {
+                throw new DuplicateFeatureError(this, shape.featureAt(i));
             }
-            prev = f;
         }
     }
 
+    /*
+     * Records of one shape have equal labels and features. Otherwise, compare features one by one.
+     */
+    @Override
+    public final boolean equalFeatures(Rec other) {
+        if (other instanceof AbstractCompleteRec completeRec && completeRec.shape == shape) {
+            return true;
+        }
+        return CompleteRec.super.equalFeatures(other);
+    }
+
     @Override
     public final boolean equals(Object other) {
         return equalsComplete(other);
@@ -44,35 +47,27 @@ public abstract class AbstractCompleteRec implements CompleteRec {
 
     @Override
     public final Feature featureAt(int i) {
-        return completeFields[i].feature;
+        return shape.featureAt(i);
     }
 
     @Override
     public final CompleteField fieldAt(int index) {
-        return completeFields[index];
+        return new CompleteField(shape.featureAt(index), values[index]);
     }
 
     @Override
     public final int fieldCount() {
-        return completeFields.length;
+        return values.length;
     }
 
     /*
-     * Use binarySearchFields() to return the field if found, otherwise return null.
-     */
-    private CompleteField findField(Feature feature) {
-        int index = binarySearchFields(feature);
-        return index > -1 ? completeFields[index] : null;
-    }
-
-    /*
-     * Return the value at feature. If not found, return null. This implementation uses findField() to return the
-     * value or null if the value is not found.
+     * Return the value at feature. If not found, return null. This implementation searches the shape for the index of
+     * the feature.
      */
     @Override
     public final Complete findValue(Feature feature) {
-        CompleteField f = findField(feature);
-        return f == null ? null : f.value;
+        int index = shape.indexOf(feature);
+        return index > -1 ? values[index] : null;
     }
 
     @Override
@@ -99,14 +94,31 @@ public abstract class AbstractCompleteRec implements CompleteRec {
 
     @Override
     public final Literal label() {
-        return label;
+        return shape.label();
     }
 
     void restore(Literal label, CompleteField[] completeFields) {
-        this.label = label == null ? Rec.DEFAULT_LABEL : label;
-        this.completeFields = completeFields;
         Arrays.sort(completeFields, FeatureProviderComparator.comparator());
+        Feature[] features = new Feature[completeFields.length];
+        Complete[] values = new Complete[completeFields.length];
+        for (int i = 0; i < features.length; i++) {
+            features[i] = completeFields[i].feature;
+            values[i] = completeFields[i].value;
+        }
+        // Use an uninterned shape until we know the features are unique
+        this.shape = new RecShape(label == null ? Rec.DEFAULT_LABEL : label, features);
+        this.values = values;
         checkForDuplicateFeatures();
+        this.shape = RecShape.canonical(shape);
+    }
+
+    /*
+     * Restore a record of a known shape. The values must be in the order of the shape features, so we do not sort or
+     * check for duplicates. The values array must not be modified after this call.
+     */
+    void restore(RecShape shape, Complete[] values) {
+        this.shape = shape;
+        this.values = values;
     }
 
     @Override
@@ -118,6 +130,10 @@ public abstract class AbstractCompleteRec implements CompleteRec {
         return result;
     }
 
+    public final RecShape shape() {
+        return shape;
+    }
+
     /*
      * When called, two fields of two records have been unified. This method is called on each record to store the
      * unified value or variable. Accepting the given argument can result in replacing a variable with a value or
@@ -125,10 +141,7 @@ public abstract class AbstractCompleteRec implements CompleteRec {
      */
     @Override
     public final void setUnifiedValue(int index, ValueOrVar unifiedValueOrVar) {
-        CompleteField currentField = completeFields[index];
-        if (currentField.value != unifiedValueOrVar) {
-            completeFields[index] = new CompleteField(currentField.feature, (Complete) unifiedValueOrVar);
-        }
+        values[index] = (Complete) unifiedValueOrVar;
     }
 
     @Override
@@ -138,7 +151,7 @@ public abstract class AbstractCompleteRec implements CompleteRec {
 
     @Override
     public final Complete valueAt(int i) {
-        return completeFields[i].value;
+        return values[i];
     }
 
 }
@@ -18,10 +18,18 @@ final class BasicCompleteRec extends AbstractCompleteRec {
         restore(label, completeFields);
     }
 
+    private BasicCompleteRec(RecShape shape, Complete[] values) {
+        restore(shape, values);
+    }
+
     static CompleteRec createPrivatelyForKlvm(Literal label, List<CompleteField> completeFields) {
         return new BasicCompleteRec(label, completeFields.toArray(new CompleteField[0]));
     }
 
+    static CompleteRec createPrivatelyForKlvm(RecShape shape, Complete[] values) {
+        return new BasicCompleteRec(shape, values);
+    }
+
     static BasicCompleteRec instanceForRestore() {
         return new BasicCompleteRec();
     }
@@ -68,7 +68,9 @@ final class BasicPartialRec implements PartialRec {
         BasicCompleteRec thisCompleteRec = BasicCompleteRec.instanceForRestore();
         // Place an empty complete value into memos so that circular references can be closed
         memos.put(this, thisCompleteRec);
-        CompleteField[] thisCompleteFields = new CompleteField[partialFields.size()];
+        // Our fields are sorted and unique once determined, so the complete record can be restored without sorting
+        Feature[] features = new Feature[partialFields.size()];
+        Complete[] completeValues = new Complete[partialFields.size()];
         for (int i = 0; i < partialFields.size(); i++) {
             // We know we have partial fields (as opposed to future fields) because sweepUndeterminedVars did
             // not throw a WaitException
@@ -83,10 +85,10 @@ final class BasicPartialRec implements PartialRec {
                 // complete, so this check may throw an exception other than a WaitException.
                 completeValue = value.checkComplete();
             }
-            CompleteField completeField = new CompleteField(partialField.feature, completeValue);
-            thisCompleteFields[i] = completeField;
+            features[i] = partialField.feature;
+            completeValues[i] = completeValue;
         }
-        thisCompleteRec.restore(label, thisCompleteFields);
+        thisCompleteRec.restore(RecShape.intern(new RecShape(label, features)), completeValues);
         return thisCompleteRec;
     }
 
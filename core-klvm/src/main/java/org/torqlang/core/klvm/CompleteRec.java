@@ -60,8 +60,8 @@ public interface CompleteRec extends Complete, Rec {
         memos.put(this, Value.PRESENT);
         int hash = 17;
         for (int i = 0; i < fieldCount(); i++) {
-            CompleteField f = fieldAt(i);
-            if (f.value instanceof CompleteRec completeRec) {
+            Complete value = valueAt(i);
+            if (value instanceof CompleteRec completeRec) {
                 if (memos.containsKey(this)) {
                     // Circular references get a constant hash
                     hash = 31 * hash + 11;
@@ -69,9 +69,9 @@ public interface CompleteRec extends Complete, Rec {
                     hash = 31 * hash + completeRec.hashCodeComplete(memos);
                 }
             } else {
-                hash = 31 * hash + f.value.hashCode();
+                hash = 31 * hash + value.hashCode();
             }
-            hash = 31 * hash + f.feature.hashCode();
+            hash = 31 * hash + featureAt(i).hashCode();
         }
         return hash;
     }
@@ -98,13 +98,13 @@ public interface CompleteRec extends Complete, Rec {
         memos.put(this, Value.PRESENT);
         Map<Object, Object> map = new HashMap<>(fieldCount());
         for (int i = 0; i < fieldCount(); i++) {
-            CompleteField f = fieldAt(i);
-            Object k = f.feature.toNativeValue();
+            Object k = featureAt(i).toNativeValue();
+            Complete value = valueAt(i);
             Object v;
-            if (f.value instanceof CompleteRec completeRec) {
+            if (value instanceof CompleteRec completeRec) {
                 v = completeRec.toNativeValue(memos);
             } else {
-                v = f.value.toNativeValue();
+                v = value.toNativeValue();
             }
             map.put(k, v);
         }
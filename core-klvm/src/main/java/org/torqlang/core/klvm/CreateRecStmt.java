@@ -37,6 +37,32 @@ public final class CreateRecStmt extends AbstractStmt implements CreateStmt {
 
     @Override
     public final void compute(Env env, Machine machine) throws WaitException {
+        Rec rec = recDef.shape() != null ? createCompleteRec(env) : null;
+        if (rec == null) {
+            rec = createRec(env);
+        }
+        ValueOrVar xRes = x.resolveValueOrVar(env);
+        xRes.bindToValue(rec, null);
+    }
+
+    /*
+     * Create a complete record of the known shape without sorting or checking for duplicate features. Return null if
+     * a value is not complete.
+     */
+    private CompleteRec createCompleteRec(Env env) {
+        RecShape shape = recDef.shape();
+        Complete[] values = new Complete[shape.fieldCount()];
+        for (int i = 0; i < values.length; i++) {
+            ValueOrVar v = recDef.fieldDefAtShapeIndex(i).value.resolveValueOrVar(env);
+            if (!(v instanceof Complete complete)) {
+                return null;
+            }
+            values[i] = complete;
+        }
+        return BasicCompleteRec.createPrivatelyForKlvm(shape, values);
+    }
+
+    private Rec createRec(Env env) {
         PartialRecBuilder builder = Rec.partialRecBuilder();
         LiteralOrVar labelRes = (LiteralOrVar) recDef.label.resolveValueOrVar(env);
         builder.setLabel(labelRes);
@@ -45,9 +71,7 @@ public final class CreateRecStmt extends AbstractStmt implements CreateStmt {
             ValueOrVar v = fd.value.resolveValueOrVar(env);
             builder.addField(f, v);
         }
-        Rec rec = builder.build();
-        ValueOrVar xRes = x.resolveValueOrVar(env);
-        xRes.bindToValue(rec, null);
+        return builder.build();
     }
 
 }
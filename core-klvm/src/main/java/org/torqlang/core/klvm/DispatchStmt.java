@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.klvm;
+
+import org.torqlang.core.util.SourceSpan;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/*
+ * Select a statement by the label and arity of a value in constant time. A record is keyed by its label and field
+ * count. A literal that is not a record is keyed by itself and NO_ARITY. If no branch matches the key, or if the value
+ * is neither, the alternate is selected.
+ *
+ * A dispatch statement with features selects by the value of a record field instead. The record must lead with the
+ * given features in sorted order, and the value at the last feature is keyed as a literal. A record value is not
+ * keyed, since a case statement comparing it to a literal would not wait for its label. For example, a dispatch on
+ * features [0, 1] selects a branch by the second value of a tuple whose first value was dispatched earlier. If the
+ * record does not lead with the features, the alternate is selected. If the value is unbound, the dispatch waits,
+ * like a case statement matching a literal at that feature would. Branches must have NO_ARITY.
+ *
+ * A dispatch statement does not match patterns. It narrows a sequence of case statements to those that could match,
+ * and each branch is usually a sequence of case statements ending in the alternate.
+ */
+public final class DispatchStmt extends AbstractStmt {
+
+    public static final int NO_ARITY = -1;
+
+    public final CompleteOrIdent x;
+    public final List<Feature> features;
+    public final List<Branch> branches;
+    public final Stmt alternate;
+
+    // Branch statements by label, and then by arity + 1
+    private final HashMap<Literal, Stmt[]> table;
+
+    public DispatchStmt(CompleteOrIdent x, List<Branch> branches, Stmt alternate, SourceSpan sourceSpan) {
+        this(x, List.of(), branches, alternate, sourceSpan);
+    }
+
+    public DispatchStmt(CompleteOrIdent x, List<Feature> features, List<Branch> branches, Stmt alternate,
+                        SourceSpan sourceSpan)
+    {
+        super(sourceSpan);
+        this.x = x;
+        this.features = List.copyOf(features);
+        this.branches = List.copyOf(branches);
+        this.alternate = alternate;
+        HashMap<Literal, Integer> maxArities = new HashMap<>();
+        for (Branch b : this.branches) {
+            if (b.arity < NO_ARITY || (!this.features.isEmpty() && b.arity != NO_ARITY)) {
+                throw new IllegalArgumentException("Invalid dispatch arity: " + b.arity);
+            }
+            maxArities.merge(b.label, b.arity, Math::max);
+        }
+        this.table = new HashMap<>();
+        for (Branch b : this.branches) {
+            Stmt[] stmts = table.computeIfAbsent(b.label, k -> new Stmt[maxArities.get(k) + 2]);
+            if (stmts[b.arity + 1] != null) {
+                throw new IllegalArgumentException("Duplicate dispatch key: " + b.label + ", " + b.arity);
+            }
+            stmts[b.arity + 1] = b.stmt;
+        }
+    }
+
+    @Override
+    public final <T, R> R accept(KernelVisitor<T, R> visitor, T state)
+        throws Exception
+    {
+        return visitor.visitDispatchStmt(this, state);
+    }
+
+    @Override
+    public final void captureLexicallyFree(Set<Ident> knownBound, Set<Ident> lexicallyFree) {
+        CompleteOrIdent.captureLexicallyFree(x, knownBound, lexicallyFree);
+        // Copy knownBound to hide out-of-scope identifiers from peer statements
+        for (Branch b : branches) {
+            b.stmt.captureLexicallyFree(new HashSet<>(knownBound), lexicallyFree);
+        }
+        // No need to copy knownBound since there are no more peer statements
+        alternate.captureLexicallyFree(knownBound, lexicallyFree);
+    }
+
+    @Override
+    public final void compute(Env env, Machine machine) throws WaitException {
+        Value xRes = x.resolveValue(env).checkNotFailedValue();
+        Stmt branch = null;
+        if (!features.isEmpty()) {
+            if (selectValue(xRes) instanceof Literal literal) {
+                branch = select(literal, NO_ARITY);
+            }
+        } else if (xRes instanceof Rec rec) {
+            // Wait like a case statement would before rejecting the record
+            rec.checkDetermined();
+            branch = select(rec.label(), rec.fieldCount());
+        } else if (xRes instanceof Literal literal) {
+            branch = select(literal, NO_ARITY);
+        }
+        machine.pushStackEntry(branch != null ? branch : alternate, env);
+    }
+
+    private Stmt select(Literal label, int arity) {
+        Stmt[] stmts = table.get(label);
+        if (stmts == null || arity + 1 >= stmts.length) {
+            return null;
+        }
+        return stmts[arity + 1];
+    }
+
+    /*
+     * Return the value at the last feature if the record leads with our features, otherwise return null
+     */
+    private Value selectValue(Value value) throws WaitException {
+        if (!(value instanceof Rec rec)) {
+            return null;
+        }
+        rec.checkDetermined();
+        int last = features.size() - 1;
+        if (rec.fieldCount() <= last) {
+            return null;
+        }
+        for (int i = 0; i <= last; i++) {
+            if (!rec.featureAt(i).entails(features.get(i), null)) {
+                return null;
+            }
+        }
+        return rec.valueAt(last).resolveValue();
+    }
+
+    public static final class Branch {
+
+        public final Literal label;
+        public final int arity;
+        public final Stmt stmt;
+
+        public Branch(Literal label, int arity, Stmt stmt) {
+            this.label = label;
+            this.arity = arity;
+            this.stmt = stmt;
+        }
+
+    }
+
+}
@@ -50,7 +50,7 @@ public final class DivideStmt extends AbstractStmt {
     public void compute(Env env, Machine machine) throws WaitException {
         Value aRes = a.resolveValue(env);
         Value bRes = b.resolveValue(env);
-        Value result = aRes.divide(bRes);
+        Value result = NumFastPath.divide(aRes, bRes);
         ValueOrVar xRes = x.resolveValueOrVar(env);
         xRes.bindToValue(result, null);
     }
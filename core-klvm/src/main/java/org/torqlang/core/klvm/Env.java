@@ -91,13 +91,18 @@ public interface Env extends Kernel, Iterable<EnvEntry> {
         return new ArrayEnv(null, new EnvEntry[]{e1, e2});
     }
 
+    /*
+     * Create a root environment of complete values. The bindings are placed in name order, which is the layout of an
+     * environment captured by a closure, so that lexical addresses computed for a closure body hold.
+     */
     static Env createComplete(Map<Ident, Complete> bindings) {
         EnvEntry[] completeEntries = new EnvEntry[bindings.size()];
         int i = 0;
         for (Map.Entry<Ident, Complete> e : bindings.entrySet()) {
-            completeEntries[i++] = new EnvEntry(e.getKey(), new Var(e.getValue()));
+            completeEntries[i++] = new EnvEntry(e.getKey().withoutAddress(), new Var(e.getValue()));
         }
-        return new ArrayEnv(ArrayEnv.EMPTY_ENV, completeEntries);
+        Arrays.sort(completeEntries, Comparator.comparing(e -> e.ident.name));
+        return new ArrayEnv(null, completeEntries);
     }
 
     /*
@@ -259,14 +264,53 @@ public interface Env extends Kernel, Iterable<EnvEntry> {
             return sb.toString();
         }
 
+        /*
+         * Return the Var bound to the given identifier. If the identifier carries a lexical address, try the addressed
+         * binding first. A lexical address is only a hint, so we fall back to a search by name when the addressed
+         * binding does not hold the identifier.
+         */
         @Override
         public final Var get(Ident ident) {
+            if (ident.slot >= 0) {
+                Var var = getAtAddress(ident);
+                if (var != null) {
+                    return var;
+                }
+            }
+            return getByName(ident);
+        }
+
+        private Var getAtAddress(Ident ident) {
+            ArrayEnv current = this;
+            for (int depth = ident.depth; depth > 0; depth--) {
+                if (!(current.parentEnv instanceof ArrayEnv parentArrayEnv)) {
+                    return null;
+                }
+                current = parentArrayEnv;
+            }
+            EnvEntry[] currentBindings = current.bindings;
+            if (ident.slot < currentBindings.length) {
+                EnvEntry envEntry = currentBindings[ident.slot];
+                if (envEntry.ident.equals(ident)) {
+                    return envEntry.var;
+                }
+            }
+            return null;
+        }
+
+        private Var getByName(Ident ident) {
             for (EnvEntry envEntry : bindings) {
                 if (envEntry.ident.equals(ident)) {
                     return envEntry.var;
                 }
             }
-            return parentEnv == null ? null : parentEnv.get(ident);
+            if (parentEnv == null) {
+                return null;
+            }
+            if (parentEnv instanceof ArrayEnv parentArrayEnv) {
+                return parentArrayEnv.getByName(ident);
+            }
+            return parentEnv.get(ident);
         }
 
         @Override
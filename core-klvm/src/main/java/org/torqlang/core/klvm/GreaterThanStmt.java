@@ -50,7 +50,7 @@ public final class GreaterThanStmt extends AbstractStmt {
     public void compute(Env env, Machine machine) throws WaitException {
         Value aRes = a.resolveValue(env);
         Value bRes = b.resolveValue(env);
-        Value result = aRes.greaterThan(bRes);
+        Value result = NumFastPath.greaterThan(aRes, bRes);
         ValueOrVar xRes = x.resolveValueOrVar(env);
         xRes.bindToValue(result, null);
     }
@@ -9,33 +9,51 @@ package org.torqlang.core.klvm;
 
 import org.torqlang.core.util.EscapeChar;
 
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public final class Ident implements Decl, LiteralOrIdent {
 
-    public static final Ident $ACT = new Ident("$act");
-    public static final Ident $ACTOR_CFGTR = new Ident("$actor_cfgtr");
-    public static final Ident $ELSE = new Ident("$else");
-    public static final Ident $FINALLY = new Ident("$finally");
-    public static final Ident $FOR = new Ident("$for");
-    public static final Ident $GUARD = new Ident("$guard");
-    public static final Ident $HANDLER = new Ident("$handler");
-    public static final Ident $HANDLERS = new Ident("$handlers");
-    public static final Ident $HANDLERS_CTOR = new Ident("$handlers_ctor");
-    public static final Ident $IMPORT = new Ident("$import");
-    public static final Ident $ITER = new Ident("$iter");
-    public static final Ident $M = new Ident("$m");
-    public static final Ident $NEXT = new Ident("$next");
-    public static final Ident $RESPOND = new Ident("$respond");
-    public static final Ident $R = new Ident("$r");
-    public static final Ident $SELF = new Ident("$self");
-    public static final Ident $SPAWN = new Ident("$spawn");
-    public static final Ident $WHILE = new Ident("$while");
+    /*
+     * Identifiers are interned so that equal identifiers share one canonical instance and one canonical name. Lexical
+     * address copies reuse the canonical name, which lets `equals` usually compare names by reference. The table holds
+     * its identifiers weakly, so the names of programs that are no longer referenced are released. An address copy
+     * can outlive its canonical identifier, therefore `equals` falls back to comparing names. The table must be
+     * initialized before the system constants below.
+     */
+    private static final ConcurrentHashMap<String, InternedRef> INTERNED = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<Ident> COLLECTED = new ReferenceQueue<>();
+
+    public static final Ident $ACT = intern("$act");
+    public static final Ident $ACTOR_CFGTR = intern("$actor_cfgtr");
+    public static final Ident $ELSE = intern("$else");
+    public static final Ident $FINALLY = intern("$finally");
+    public static final Ident $FOR = intern("$for");
+    public static final Ident $GUARD = intern("$guard");
+    public static final Ident $HANDLER = intern("$handler");
+    public static final Ident $HANDLERS = intern("$handlers");
+    public static final Ident $HANDLERS_CTOR = intern("$handlers_ctor");
+    public static final Ident $IMPORT = intern("$import");
+    public static final Ident $ITER = intern("$iter");
+    public static final Ident $M = intern("$m");
+    public static final Ident $NEXT = intern("$next");
+    public static final Ident $RESPOND = intern("$respond");
+    public static final Ident $R = intern("$r");
+    public static final Ident $SELF = intern("$self");
+    public static final Ident $SPAWN = intern("$spawn");
+    public static final Ident $WHILE = intern("$while");
 
     private static final String $_ = "$_";
     private static final String $A = "$a";
     private static final String $V = "$v";
 
+    private static final int SYSTEM_IDENT_CACHE_SIZE = 256;
+    private static final Ident[] SYSTEM_ANONYMOUS_IDENTS = new Ident[SYSTEM_IDENT_CACHE_SIZE];
+    private static final Ident[] SYSTEM_ARG_IDENTS = new Ident[SYSTEM_IDENT_CACHE_SIZE];
+    private static final Ident[] SYSTEM_VAR_IDENTS = new Ident[SYSTEM_IDENT_CACHE_SIZE];
+
     private static final char UPPER_CASE_A = 'A';
     private static final char UPPER_CASE_Z = 'Z';
     private static final char LOWER_CASE_A = 'a';
@@ -44,9 +62,25 @@ public final class Ident implements Decl, LiteralOrIdent {
     private static final char DIGIT_NINE = '9';
 
     public final String name;
+    private final int hash;
+
+    /*
+     * A lexical address (depth, slot) is an optional hint computed at generation time. The depth is the number of
+     * parent environments to skip and the slot is the binding index within the environment found. A depth and slot
+     * of -1 means the identifier is unaddressed and must be found by name.
+     */
+    public final int depth;
+    public final int slot;
 
     private Ident(String name) {
+        this(name, -1, -1);
+    }
+
+    private Ident(String name, int depth, int slot) {
         this.name = name;
+        this.hash = name.hashCode();
+        this.depth = depth;
+        this.slot = slot;
     }
 
     /*
@@ -67,23 +101,64 @@ public final class Ident implements Decl, LiteralOrIdent {
         if (name.charAt(0) == '$') {
             throw new IllegalArgumentException(KlvmMessageText.USER_IDENTIFIERS_CANNOT_BEGIN_WITH_A_DOLLAR_SIGN);
         }
-        return new Ident(name);
+        return intern(name);
     }
 
     public static Ident createPrivately(String name) {
-        return new Ident(name);
+        return intern(name);
     }
 
     public static Ident createSystemAnonymousIdent(int suffix) {
-        return new Ident($_ + suffix);
+        return systemIdent(SYSTEM_ANONYMOUS_IDENTS, $_, suffix);
     }
 
     public static Ident createSystemArgIdent(int suffix) {
-        return new Ident($A + suffix);
+        return systemIdent(SYSTEM_ARG_IDENTS, $A, suffix);
     }
 
     public static Ident createSystemVarIdent(int suffix) {
-        return new Ident($V + suffix);
+        return systemIdent(SYSTEM_VAR_IDENTS, $V, suffix);
+    }
+
+    private static Ident intern(String name) {
+        removeCollected();
+        while (true) {
+            InternedRef ref = INTERNED.get(name);
+            if (ref != null) {
+                Ident ident = ref.get();
+                if (ident != null) {
+                    return ident;
+                }
+                INTERNED.remove(name, ref);
+            }
+            Ident ident = new Ident(name);
+            if (INTERNED.putIfAbsent(name, new InternedRef(ident)) == null) {
+                return ident;
+            }
+        }
+    }
+
+    private static void removeCollected() {
+        InternedRef ref;
+        while ((ref = (InternedRef) COLLECTED.poll()) != null) {
+            INTERNED.remove(ref.name, ref);
+        }
+    }
+
+    /*
+     * The generator numbers system identifiers from zero on every compile. Low suffixes are served from an array to
+     * avoid concatenating a name only to discover it is already interned.
+     */
+    private static Ident systemIdent(Ident[] cache, String prefix, int suffix) {
+        if (suffix >= 0 && suffix < cache.length) {
+            Ident ident = cache[suffix];
+            if (ident == null) {
+                ident = intern(prefix + suffix);
+                cache[suffix] = ident;
+            }
+            return ident;
+        }
+        return intern(prefix + suffix);
     }
 
     public static boolean isAlphaNumericOrUnderscore(char c) {
@@ -152,11 +227,8 @@ public final class Ident implements Decl, LiteralOrIdent {
         if (this == other) {
             return true;
         }
-        if (other == null || getClass() != other.getClass()) {
-            return false;
-        }
-        Ident that = (Ident) other;
-        return name.equals(that.name);
+        // Names are interned, therefore a reference check is usually sufficient for address copies
+        return other instanceof Ident that && (name == that.name || hash == that.hash && name.equals(that.name));
     }
 
     public final String formatValue() {
@@ -165,7 +237,11 @@ public final class Ident implements Decl, LiteralOrIdent {
 
     @Override
     public final int hashCode() {
-        return name.hashCode();
+        return hash;
+    }
+
+    public final boolean isAddressed() {
+        return slot >= 0;
     }
 
     public final boolean isAnonymous() {
@@ -199,6 +275,24 @@ public final class Ident implements Decl, LiteralOrIdent {
         return formatValue();
     }
 
+    /*
+     * Return a copy of this identifier with the given lexical address. The copy shares the interned name and is equal
+     * to this identifier.
+     */
+    public final Ident withAddress(int depth, int slot) {
+        if (depth < 0 || slot < 0) {
+            throw new IllegalArgumentException("Invalid lexical address: (" + depth + ", " + slot + ")");
+        }
+        return new Ident(name, depth, slot);
+    }
+
+    /*
+     * Return the canonical identifier without a lexical address.
+     */
+    public final Ident withoutAddress() {
+        return slot < 0 ? this : intern(name);
+    }
+
     @Override
     public final Var toVar(Env env) {
         Var var = env.get(this);
@@ -208,4 +302,13 @@ public final class Ident implements Decl, LiteralOrIdent {
         return var;
     }
 
+    private static final class InternedRef extends WeakReference<Ident> {
+        private final String name;
+
+        private InternedRef(Ident ident) {
+            super(ident, COLLECTED);
+            this.name = ident.name;
+        }
+    }
+
 }
@@ -14,14 +14,18 @@ import java.util.Set;
 @SuppressWarnings("ClassCanBeRecord")
 final class Int32Impl implements Int32 {
 
-    private static final int I32_CACHE_SIZE = 10;
+    /*
+     * Small values are cached so that loop counters, indexes and sums in the common range do not allocate
+     */
+    private static final int I32_CACHE_LOW = -128;
+    private static final int I32_CACHE_HIGH = 1023;
 
     private static final Int32Impl[] I32_CACHE;
 
     static {
-        I32_CACHE = new Int32Impl[I32_CACHE_SIZE];
-        for (int i = 0; i < I32_CACHE_SIZE; i++) {
-            I32_CACHE[i] = new Int32Impl(i);
+        I32_CACHE = new Int32Impl[I32_CACHE_HIGH - I32_CACHE_LOW + 1];
+        for (int i = 0; i < I32_CACHE.length; i++) {
+            I32_CACHE[i] = new Int32Impl(I32_CACHE_LOW + i);
         }
     }
 
@@ -32,8 +36,8 @@ final class Int32Impl implements Int32 {
     }
 
     static Int32Impl of(int num) {
-        if (num > -1 && num < I32_CACHE_SIZE) {
-            return I32_CACHE[num];
+        if (num >= I32_CACHE_LOW && num <= I32_CACHE_HIGH) {
+            return I32_CACHE[num - I32_CACHE_LOW];
         }
         return new Int32Impl(num);
     }
@@ -298,6 +298,41 @@ public final class KernelFormatter implements KernelVisitor<FormatterState, Void
         return null;
     }
 
+    @Override
+    public final Void visitDispatchStmt(DispatchStmt stmt, FormatterState state) throws Exception {
+        state.write("dispatch ");
+        stmt.x.accept(this, state.inline());
+        if (!stmt.features.isEmpty()) {
+            state.write('[');
+            for (int i = 0; i < stmt.features.size(); i++) {
+                if (i > 0) {
+                    state.write(", ");
+                }
+                stmt.features.get(i).accept(this, state.inline());
+            }
+            state.write(']');
+        }
+        state.write(" of");
+        for (DispatchStmt.Branch b : stmt.branches) {
+            FormatterState branchState = state.nextLevel();
+            branchState.writeNewLineAndIndent();
+            b.label.accept(this, branchState.inline());
+            if (b.arity != DispatchStmt.NO_ARITY) {
+                branchState.write("#" + b.arity);
+            }
+            branchState.write(" then");
+            FormatterState nextLevelState = branchState.nextLevel();
+            nextLevelState.writeNewLineAndIndent();
+            b.stmt.accept(this, nextLevelState);
+        }
+        state.writeAfterNewLineAndIdent("else");
+        FormatterState nextLevelState = state.nextLevel();
+        nextLevelState.writeNewLineAndIndent();
+        stmt.alternate.accept(this, nextLevelState);
+        state.writeAfterNewLineAndIdent("end");
+        return null;
+    }
+
     @Override
     public final Void visitDivideStmt(DivideStmt stmt, FormatterState state) throws Exception {
         formatBinaryStmt($DIV, stmt.a, stmt.b, stmt.x, state);
@@ -519,6 +554,29 @@ public final class KernelFormatter implements KernelVisitor<FormatterState, Void
         return null;
     }
 
+    @Override
+    public final Void visitLoopStmt(LoopStmt stmt, FormatterState state) throws Exception {
+        state.write("loop ");
+        for (int i = 0; i < stmt.xs.size(); i++) {
+            if (i > 0) {
+                state.write(',');
+                state.write(FormatterState.SPACE);
+            }
+            stmt.xs.get(i).ident.accept(this, state.inline());
+        }
+        state.write(" in");
+        FormatterState nextLevelState = state.nextLevel();
+        nextLevelState.writeNewLineAndIndent();
+        stmt.test.accept(this, nextLevelState);
+        state.writeAfterNewLineAndIdent("while ");
+        stmt.x.accept(this, state.inline());
+        state.write(" do");
+        nextLevelState.writeNewLineAndIndent();
+        stmt.body.accept(this, nextLevelState);
+        state.writeAfterNewLineAndIdent("end");
+        return null;
+    }
+
     @Override
     public final Void visitModuloStmt(ModuloStmt stmt, FormatterState state) throws Exception {
         formatBinaryStmt($MOD, stmt.a, stmt.b, stmt.x, state);
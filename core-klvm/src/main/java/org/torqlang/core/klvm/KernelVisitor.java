@@ -51,6 +51,8 @@ public interface KernelVisitor<T, R> {
 
     R visitDisentailsStmt(DisentailsStmt kernel, T state) throws Exception;
 
+    R visitDispatchStmt(DispatchStmt kernel, T state) throws Exception;
+
     R visitDivideStmt(DivideStmt kernel, T state) throws Exception;
 
     R visitEntailsStmt(EntailsStmt kernel, T state) throws Exception;
@@ -99,6 +101,8 @@ public interface KernelVisitor<T, R> {
 
     R visitLocalStmt(LocalStmt kernel, T state) throws Exception;
 
+    R visitLoopStmt(LoopStmt kernel, T state) throws Exception;
+
     R visitModuloStmt(ModuloStmt kernel, T state) throws Exception;
 
     R visitMultiplyStmt(MultiplyStmt kernel, T state) throws Exception;
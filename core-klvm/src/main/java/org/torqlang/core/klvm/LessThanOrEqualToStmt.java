@@ -50,7 +50,7 @@ public final class LessThanOrEqualToStmt extends AbstractStmt {
     public void compute(Env env, Machine machine) throws WaitException {
         Value aRes = a.resolveValue(env);
         Value bRes = b.resolveValue(env);
-        Value result = aRes.lessThanOrEqualTo(bRes);
+        Value result = NumFastPath.lessThanOrEqualTo(aRes, bRes);
         ValueOrVar xRes = x.resolveValueOrVar(env);
         xRes.bindToValue(result, null);
     }
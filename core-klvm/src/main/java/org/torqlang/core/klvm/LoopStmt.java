@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.klvm;
+
+import org.torqlang.core.util.SourceSpan;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.torqlang.core.util.ListTools.nullSafeCopyOf;
+
+/*
+ * A native loop. Each iteration computes `test` in a new environment of fresh variables `xs`. If `x` is true, the
+ * iteration computes `body` in the same environment and then repeats the loop in the original environment.
+ *
+ *     loop <xs> in
+ *         <test>
+ *     while <x> do
+ *         <body>
+ *     end
+ *
+ * A loop replaces the recursive closures `$while` and `$for`. There is no closure to create or apply per iteration,
+ * and the stack stays flat, so a `break` or `continue` jump unwinds at most one iteration.
+ */
+public final class LoopStmt extends AbstractStmt {
+
+    public final List<IdentDef> xs;
+    public final Stmt test;
+    public final Ident x;
+    public final Stmt body;
+
+    private final LoopWhileStmt loopWhileStmt;
+
+    public LoopStmt(List<IdentDef> xs, Stmt test, Ident x, Stmt body, SourceSpan sourceSpan) {
+        super(sourceSpan);
+        this.xs = nullSafeCopyOf(xs);
+        this.test = test;
+        this.x = x;
+        this.body = body;
+        this.loopWhileStmt = new LoopWhileStmt(this);
+        validate();
+    }
+
+    @Override
+    public final <T, R> R accept(KernelVisitor<T, R> visitor, T state)
+        throws Exception
+    {
+        return visitor.visitLoopStmt(this, state);
+    }
+
+    @Override
+    public final void captureLexicallyFree(Set<Ident> knownBound, Set<Ident> lexicallyFree) {
+        for (IdentDef idef : xs) {
+            idef.captureLexicallyFree(knownBound, lexicallyFree);
+        }
+        test.captureLexicallyFree(knownBound, lexicallyFree);
+        CompleteOrIdent.captureLexicallyFree(x, knownBound, lexicallyFree);
+        body.captureLexicallyFree(knownBound, lexicallyFree);
+    }
+
+    @Override
+    public final void compute(Env env, Machine machine) {
+        Env iterationEnv = createIterationEnv(env);
+        machine.pushStackEntry(loopWhileStmt, iterationEnv);
+        test.pushStackEntries(machine, iterationEnv);
+    }
+
+    private Env createIterationEnv(Env env) {
+        EnvEntry[] iterationBindings = new EnvEntry[xs.size()];
+        int index = 0;
+        for (IdentDef id : xs) {
+            Var var = id.value != null ? new Var(id.value) : new Var();
+            iterationBindings[index++] = new EnvEntry(id.ident, var);
+        }
+        return Env.createPrivatelyForKlvm(env, iterationBindings);
+    }
+
+    private void validate() {
+        for (int i = 0; i < xs.size(); i++) {
+            for (int j = i + 1; j < xs.size(); j++) {
+                if (xs.get(i).equals(xs.get(j))) {
+                    throw new DuplicateIdentError(xs.get(i).ident);
+                }
+            }
+        }
+    }
+
+    /*
+     * The second half of an iteration, computed in the iteration environment after `test`. It is never generated, and
+     * it formats as its loop when a stack is printed.
+     */
+    private static final class LoopWhileStmt extends AbstractStmt {
+
+        private final LoopStmt loopStmt;
+
+        private LoopWhileStmt(LoopStmt loopStmt) {
+            super(loopStmt.sourceSpan);
+            this.loopStmt = loopStmt;
+        }
+
+        @Override
+        public final <T, R> R accept(KernelVisitor<T, R> visitor, T state)
+            throws Exception
+        {
+            return visitor.visitLoopStmt(loopStmt, state);
+        }
+
+        @Override
+        public final void captureLexicallyFree(Set<Ident> knownBound, Set<Ident> lexicallyFree) {
+            loopStmt.captureLexicallyFree(knownBound, lexicallyFree);
+        }
+
+        @Override
+        public final void compute(Env env, Machine machine) throws WaitException {
+            Value xRes = loopStmt.x.resolveValue(env);
+            if (!(xRes instanceof Bool bool)) {
+                throw new NotBoolError(xRes, this);
+            }
+            if (bool.value) {
+                // Repeat in the environment that computed the loop, which is the parent of the iteration environment
+                machine.pushStackEntry(loopStmt, env.parentEnv());
+                loopStmt.body.pushStackEntries(machine, env);
+            }
+        }
+    }
+
+}
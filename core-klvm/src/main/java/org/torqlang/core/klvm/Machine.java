@@ -13,6 +13,11 @@ public final class Machine {
 
     private Stack stack;
     private Stack current;
+    private Stmt currentStmt;
+    private Env currentEnv;
+    private Stack currentNext;
+    private Stmt nextStmt;
+    private Env nextEnv;
     private long computeCount;
 
     public Machine(Object owner, Stack stack) {
@@ -50,6 +55,16 @@ public final class Machine {
         compute(new Machine(stack), timeSlice);
     }
 
+    /*
+     * The next-statement register holds the logical top of the stack. A statement that pushes one entry as its last
+     * action, such as a procedure application pushing the procedure body, may place that entry in the register
+     * instead. The machine computes the register before popping the stack, so the entry is computed without ever
+     * allocating a stack entry. In particular, a chain of tail calls runs without allocating a stack entry per call.
+     *
+     * The register is invisible outside the machine. Any operation that reads or changes the stack first moves a
+     * pending register entry onto the stack, and the current stack entry of a statement computed from the register
+     * is only allocated if someone asks for it.
+     */
     public final ComputeAdvice compute(long timeSlice) {
         if (stack == null) {
             return ComputeEnd.SINGLETON;
@@ -57,61 +72,117 @@ public final class Machine {
         long computeAllowed = computeCount + timeSlice;
         while (computeCount < computeAllowed) {
             computeCount++;
-            current = stack;
-            stack = stack.next;
+            Stmt stmt;
+            Env env;
+            if (nextStmt != null) {
+                stmt = nextStmt;
+                env = nextEnv;
+                nextStmt = null;
+                nextEnv = null;
+                current = null;
+                currentStmt = stmt;
+                currentEnv = env;
+                currentNext = stack;
+            } else {
+                current = stack;
+                currentStmt = null;
+                stack = stack.next;
+                stmt = current.stmt;
+                env = current.env;
+            }
             try {
-                current.stmt.compute(current.env, this);
+                stmt.compute(env, this);
             } catch (WaitException wx) {
-                stack = current;
+                clearNext();
+                stack = current();
                 current = null;
                 return new ComputeWait(wx.barrier());
             } catch (NativeThrow nt) {
-                ThrowStmt ts = new ThrowStmt(nt.error, nt, current.stmt);
-                stack = new Stack(ts, current.env, current);
+                clearNext();
+                Stack c = current();
+                ThrowStmt ts = new ThrowStmt(nt.error, nt, c.stmt);
+                stack = new Stack(ts, c.env, c);
             } catch (MachineError error) {
-                return error.asComputeHalt(current);
+                clearNext();
+                return error.asComputeHalt(current());
             } catch (Throwable throwable) {
+                clearNext();
+                Stack c = current();
                 Complete ne = new NativeError(throwable);
-                ThrowStmt ts = new ThrowStmt(ne, throwable, current.stmt);
-                stack = new Stack(ts, current.env, current);
+                ThrowStmt ts = new ThrowStmt(ne, throwable, c.stmt);
+                stack = new Stack(ts, c.env, c);
             }
-            if (stack == null) {
+            if (stack == null && nextStmt == null) {
                 // INVARIANT: Even though we completed the computation, the field 'current' still holds the last
                 // instruction.
+                current();
                 return ComputeEnd.SINGLETON;
             }
         }
+        pushNext();
         return ComputePreempt.SINGLETON;
     }
 
+    private void clearNext() {
+        nextStmt = null;
+        nextEnv = null;
+    }
+
     public final long computeCount() {
         return computeCount;
     }
 
     public final Stack current() {
+        if (current == null && currentStmt != null) {
+            current = new Stack(currentStmt, currentEnv, currentNext);
+            currentStmt = null;
+            currentEnv = null;
+            currentNext = null;
+        }
         return current;
     }
 
+    /*
+     * Compute the given statement next, exactly as if it were pushed on the stack.
+     */
+    public final void computeNext(Stmt stmt, Env env) {
+        pushNext();
+        nextStmt = stmt;
+        nextEnv = env;
+    }
+
     @SuppressWarnings("unchecked")
     public final <T> T owner() {
         return (T) owner;
     }
 
+    private void pushNext() {
+        if (nextStmt != null) {
+            stack = new Stack(nextStmt, nextEnv, stack);
+            nextStmt = null;
+            nextEnv = null;
+        }
+    }
+
     public final void pushStackEntries(StmtList stmtList, Env env) {
+        pushNext();
         for (StmtList.Entry current = stmtList.lastEntry(); current != null; current = current.prev()) {
             stack = new Stack(current.stmt(), env, stack);
         }
     }
 
     public final void pushStackEntry(Stmt stmt, Env env) {
+        pushNext();
         stack = new Stack(stmt, env, stack);
     }
 
     public final Stack stack() {
+        pushNext();
         return stack;
     }
 
     final void unwindToJumpCatchStmt(JumpThrowStmt jumpThrowStmt) {
+        pushNext();
         int jumpThrowId = jumpThrowStmt.id;
         while (stack != null) {
             if (stack.stmt instanceof JumpCatchStmt jumpCatchStmt && jumpCatchStmt.id == jumpThrowId) {
@@ -127,6 +198,7 @@ public final class Machine {
     }
 
     final void unwindToNextCatchStmt(Complete error, Throwable nativeCause) {
+        pushNext();
         while (stack != null) {
             if (stack.stmt instanceof CatchStmt catchStmt) {
                 Env catchEnv = Env.createPrivatelyForKlvm(stack.env,
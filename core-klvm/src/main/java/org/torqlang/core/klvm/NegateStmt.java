@@ -42,7 +42,7 @@ public final class NegateStmt extends AbstractStmt {
     @Override
     public void compute(Env env, Machine machine) throws WaitException {
         Value aRes = a.resolveValue(env);
-        Value result = aRes.negate();
+        Value result = NumFastPath.negate(aRes);
         ValueOrVar xRes = x.resolveValueOrVar(env);
         xRes.bindToValue(result, null);
     }
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.klvm;
+
+/*
+ * Arithmetic and comparison of Int32, Int64 and Flt64 operands without double dispatch. The operands are classified
+ * by their exact implementation class, and the result takes the widest of the two kinds, which is the same result
+ * the Num methods return for these pairs. Any other operand, such as a Char, Flt32 or Dec128, falls back to the Num
+ * methods.
+ */
+final class NumFastPath {
+
+    private static final int OTHER = 0;
+    private static final int INT32 = 1;
+    private static final int INT64 = 2;
+    private static final int FLT64 = 3;
+
+    private NumFastPath() {
+    }
+
+    static Value add(Value a, Value b) {
+        int kind = kindOf(a, b);
+        if (kind == INT32) {
+            return Int32Impl.of(((Int32Impl) a).value + ((Int32Impl) b).value);
+        }
+        if (kind == INT64) {
+            return Int64Impl.of(longValue(a) + longValue(b));
+        }
+        if (kind == FLT64) {
+            return Flt64Impl.of(doubleValue(a) + doubleValue(b));
+        }
+        return a.add(b);
+    }
+
+    /*
+     * Return the comparison of two operands, or Integer.MIN_VALUE if one is not a fast path kind
+     */
+    private static int compare(Value a, Value b) {
+        int kind = kindOf(a, b);
+        if (kind == INT32 || kind == INT64) {
+            return Long.compare(longValue(a), longValue(b));
+        }
+        if (kind == FLT64) {
+            return Double.compare(doubleValue(a), doubleValue(b));
+        }
+        return Integer.MIN_VALUE;
+    }
+
+    static Value divide(Value a, Value b) {
+        int kind = kindOf(a, b);
+        if (kind == INT32) {
+            return Int32Impl.of(((Int32Impl) a).value / ((Int32Impl) b).value);
+        }
+        if (kind == INT64) {
+            return Int64Impl.of(longValue(a) / longValue(b));
+        }
+        if (kind == FLT64) {
+            return Flt64Impl.of(doubleValue(a) / doubleValue(b));
+        }
+        return a.divide(b);
+    }
+
+    private static double doubleValue(Value v) {
+        if (v instanceof Flt64Impl f) {
+            return f.doubleValue();
+        }
+        return longValue(v);
+    }
+
+    static Value greaterThan(Value a, Value b) {
+        int c = compare(a, b);
+        return c != Integer.MIN_VALUE ? Bool.of(c > 0) : a.greaterThan(b);
+    }
+
+    static Value greaterThanOrEqualTo(Value a, Value b) {
+        int c = compare(a, b);
+        return c != Integer.MIN_VALUE ? Bool.of(c >= 0) : a.greaterThanOrEqualTo(b);
+    }
+
+    /*
+     * Return the widest kind of the two operands, or OTHER if either operand is not a fast path kind
+     */
+    private static int kindOf(Value a, Value b) {
+        int ka = kindOf(a);
+        if (ka == OTHER) {
+            return OTHER;
+        }
+        int kb = kindOf(b);
+        if (kb == OTHER) {
+            return OTHER;
+        }
+        return Math.max(ka, kb);
+    }
+
+    private static int kindOf(Value v) {
+        if (v instanceof Int32Impl) {
+            return INT32;
+        }
+        if (v instanceof Int64Impl) {
+            return INT64;
+        }
+        if (v instanceof Flt64Impl) {
+            return FLT64;
+        }
+        return OTHER;
+    }
+
+    static Value lessThan(Value a, Value b) {
+        int c = compare(a, b);
+        return c != Integer.MIN_VALUE ? Bool.of(c < 0) : a.lessThan(b);
+    }
+
+    static Value lessThanOrEqualTo(Value a, Value b) {
+        int c = compare(a, b);
+        return c != Integer.MIN_VALUE ? Bool.of(c <= 0) : a.lessThanOrEqualTo(b);
+    }
+
+    private static long longValue(Value v) {
+        if (v instanceof Int32Impl i) {
+            return i.value;
+        }
+        return ((Int64Impl) v).value;
+    }
+
+    static Value modulo(Value a, Value b) {
+        int kind = kindOf(a, b);
+        if (kind == INT32) {
+            return Int32Impl.of(((Int32Impl) a).value % ((Int32Impl) b).value);
+        }
+        if (kind == INT64) {
+            return Int64Impl.of(longValue(a) % longValue(b));
+        }
+        if (kind == FLT64) {
+            return Flt64Impl.of(doubleValue(a) % doubleValue(b));
+        }
+        return a.modulo(b);
+    }
+
+    static Value multiply(Value a, Value b) {
+        int kind = kindOf(a, b);
+        if (kind == INT32) {
+            return Int32Impl.of(((Int32Impl) a).value * ((Int32Impl) b).value);
+        }
+        if (kind == INT64) {
+            return Int64Impl.of(longValue(a) * longValue(b));
+        }
+        if (kind == FLT64) {
+            return Flt64Impl.of(doubleValue(a) * doubleValue(b));
+        }
+        return a.multiply(b);
+    }
+
+    static Value negate(Value a) {
+        if (a instanceof Int32Impl i) {
+            return Int32Impl.of(-1 * i.value);
+        }
+        if (a instanceof Int64Impl i) {
+            return Int64Impl.of(-1 * i.value);
+        }
+        if (a instanceof Flt64Impl f) {
+            return Flt64Impl.of(-1.0 * f.doubleValue());
+        }
+        return a.negate();
+    }
+
+    static Value subtract(Value a, Value b) {
+        int kind = kindOf(a, b);
+        if (kind == INT32) {
+            return Int32Impl.of(((Int32Impl) a).value - ((Int32Impl) b).value);
+        }
+        if (kind == INT64) {
+            return Int64Impl.of(longValue(a) - longValue(b));
+        }
+        if (kind == FLT64) {
+            return Flt64Impl.of(doubleValue(a) - doubleValue(b));
+        }
+        return a.subtract(b);
+    }
+
+}
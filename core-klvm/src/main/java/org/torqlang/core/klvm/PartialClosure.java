@@ -11,12 +11,21 @@ import java.util.IdentityHashMap;
 
 public class PartialClosure extends AbstractClosure implements Partial {
 
+    // The complete copy of this closure. Once every captured variable is bound, the copy can never change. It is
+    // computed once and shared, for example, by every actor spawned with this closure as its handlers constructor.
+    private volatile Complete completeClosure;
+
     public PartialClosure(ProcDef procDef, Env capturedEnv) {
         super(procDef, capturedEnv);
     }
 
     public Complete checkComplete() throws WaitVarException {
-        return checkComplete(new IdentityHashMap<>());
+        Complete answer = completeClosure;
+        if (answer == null) {
+            answer = checkComplete(new IdentityHashMap<>());
+            completeClosure = answer;
+        }
+        return answer;
     }
 
     @Override
@@ -9,9 +9,7 @@ package org.torqlang.core.klvm;
 
 import org.torqlang.core.util.SourceSpan;
 
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
 
 import static org.torqlang.core.util.ListTools.nullSafeCopyOf;
 
@@ -29,7 +27,23 @@ public final class ProcDef implements Decl {
         HashSet<Ident> kb = new HashSet<>(this.xs);
         HashSet<Ident> lf = new HashSet<>();
         stmt.captureLexicallyFree(kb, lf);
-        freeIdents = Set.copyOf(lf);
+        freeIdents = sortFreeIdents(lf);
+    }
+
+    /*
+     * Free identifiers are kept in name order so that the layout of a captured environment is a function of the
+     * procedure definition alone. A generator can therefore compute lexical addresses into captured environments.
+     *
+     * An identifier collected from the body carries its address within the body. A closure is created in the
+     * enclosing environment, where that address is wrong, so free identifiers are kept unaddressed.
+     */
+    private static Set<Ident> sortFreeIdents(Set<Ident> lexicallyFree) {
+        List<Ident> sorted = new ArrayList<>(lexicallyFree.size());
+        for (Ident ident : lexicallyFree) {
+            sorted.add(ident.withoutAddress());
+        }
+        sorted.sort(Comparator.comparing(ident -> ident.name));
+        return Collections.unmodifiableSet(new LinkedHashSet<>(sorted));
     }
 
     @Override
@@ -9,6 +9,8 @@ package org.torqlang.core.klvm;
 
 import org.torqlang.core.util.SourceSpan;
 
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Set;
 
@@ -21,10 +23,56 @@ public final class RecDef implements Decl {
     public final List<FieldDef> fieldDefs;
     public final SourceSpan sourceSpan;
 
+    // The shape of records created from this definition, or null if the label or a feature is an identifier or if
+    // the features are not unique. Shape index `i` is the field definition at `fieldDefIndexes[i]`.
+    private final RecShape shape;
+    private final int[] fieldDefIndexes;
+
     public RecDef(LiteralOrIdent label, List<FieldDef> fieldDefs, SourceSpan sourceSpan) {
         this.label = label;
         this.fieldDefs = nullSafeCopyOf(fieldDefs);
         this.sourceSpan = sourceSpan;
+        Integer[] sortedIndexes = sortedConstantIndexes(label, this.fieldDefs);
+        if (sortedIndexes != null) {
+            Feature[] features = new Feature[sortedIndexes.length];
+            int[] indexes = new int[sortedIndexes.length];
+            for (int i = 0; i < sortedIndexes.length; i++) {
+                indexes[i] = sortedIndexes[i];
+                features[i] = (Feature) this.fieldDefs.get(indexes[i]).feature;
+            }
+            Literal literal = label == null ? Rec.DEFAULT_LABEL : (Literal) label;
+            this.shape = RecShape.intern(new RecShape(literal, features));
+            this.fieldDefIndexes = indexes;
+        } else {
+            this.shape = null;
+            this.fieldDefIndexes = null;
+        }
+    }
+
+    /*
+     * Return the field definition indexes in feature order if the label and features are constant and the features
+     * are unique, otherwise return null. Duplicate features are left for the record builder to report.
+     */
+    private static Integer[] sortedConstantIndexes(LiteralOrIdent label, List<FieldDef> fieldDefs) {
+        if (label instanceof Ident) {
+            return null;
+        }
+        Integer[] indexes = new Integer[fieldDefs.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            if (!(fieldDefs.get(i).feature instanceof Feature)) {
+                return null;
+            }
+            indexes[i] = i;
+        }
+        Comparator<Integer> byFeature = (a, b) ->
+            FeatureComparator.SINGLETON.compare((Feature) fieldDefs.get(a).feature, (Feature) fieldDefs.get(b).feature);
+        Arrays.sort(indexes, byFeature);
+        for (int i = 1; i < indexes.length; i++) {
+            if (byFeature.compare(indexes[i - 1], indexes[i]) == 0) {
+                return null;
+            }
+        }
+        return indexes;
     }
 
     @Override
@@ -50,6 +98,21 @@ public final class RecDef implements Decl {
         return fieldDefs.get(i);
     }
 
+    /*
+     * Return the field definition at the given index of our shape
+     */
+    final FieldDef fieldDefAtShapeIndex(int i) {
+        return fieldDefs.get(fieldDefIndexes[i]);
+    }
+
+    /*
+     * Return the shape of records created from this definition, or null if the shape is not known until the record
+     * is built
+     */
+    public final RecShape shape() {
+        return shape;
+    }
+
     @Override
     public final String toString() {
         return toKernelString();
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.klvm;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * A record shape is a label and an array of features in sorted order. Complete records created with the same label
+ * and features share one interned shape, so records can be tested for equal features by reference, and a feature
+ * index computed for one record can be reused for every record of the same shape.
+ *
+ * Only the shapes of programs are interned: the shapes of record definitions and of partial records made complete.
+ * A record built from data, such as a JSON request body, shares an interned shape if one exists, but its own shape is
+ * never added to the table. Otherwise, payloads with varying keys would fill the table and crowd out the shapes of
+ * programs compiled later.
+ *
+ * Shapes are compared with `equals`, like `Rec.equalFeatures`, so Int32 and Int64 features of the same value belong to
+ * different shapes. Once MAX_INTERNED_COUNT shapes are interned, new shapes are returned without interning.
+ */
+public final class RecShape {
+
+    public static final int MAX_INTERNED_COUNT = 8192;
+
+    private static final ConcurrentHashMap<RecShape, RecShape> INTERNED = new ConcurrentHashMap<>();
+
+    private final Literal label;
+    private final Feature[] features;
+    private final int hash;
+    private final boolean interned;
+
+    /*
+     * The features must be sorted, and the array must not be modified after this call
+     */
+    RecShape(Literal label, Feature[] features) {
+        this(label, features, false);
+    }
+
+    private RecShape(Literal label, Feature[] features, boolean interned) {
+        this.label = label;
+        this.features = features;
+        this.hash = 31 * label.hashCode() + Arrays.hashCode(features);
+        this.interned = interned;
+    }
+
+    /*
+     * Return the interned instance equal to the given shape if one exists, otherwise return the given shape. The table
+     * is not modified.
+     */
+    static RecShape canonical(RecShape shape) {
+        if (shape.interned) {
+            return shape;
+        }
+        RecShape existing = INTERNED.get(shape);
+        return existing != null ? existing : shape;
+    }
+
+    /*
+     * Return the canonical instance of the given shape, interning it if the table is not full. The shape features must
+     * be unique.
+     */
+    static RecShape intern(RecShape shape) {
+        if (shape.interned) {
+            return shape;
+        }
+        RecShape existing = INTERNED.get(shape);
+        if (existing != null) {
+            return existing;
+        }
+        if (INTERNED.size() >= MAX_INTERNED_COUNT) {
+            return shape;
+        }
+        RecShape candidate = new RecShape(shape.label, shape.features, true);
+        existing = INTERNED.putIfAbsent(candidate, candidate);
+        return existing != null ? existing : candidate;
+    }
+
+    @Override
+    public final boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof RecShape that)) {
+            return false;
+        }
+        return hash == that.hash && label.equals(that.label) && Arrays.equals(features, that.features);
+    }
+
+    public final Feature featureAt(int index) {
+        return features[index];
+    }
+
+    public final int fieldCount() {
+        return features.length;
+    }
+
+    @Override
+    public final int hashCode() {
+        return hash;
+    }
+
+    /*
+     * Return the index of the feature if found, otherwise return -(low + 1).
+     */
+    public final int indexOf(Feature feature) {
+        int low = 0;
+        int high = features.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            Feature midFeature = features[mid];
+            if (midFeature == feature) {
+                return mid;
+            }
+            int c = FeatureComparator.SINGLETON.compare(feature, midFeature);
+            if (c > 0) {
+                low = mid + 1;
+            } else if (c < 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    public final boolean isInterned() {
+        return interned;
+    }
+
+    public final Literal label() {
+        return label;
+    }
+
+}
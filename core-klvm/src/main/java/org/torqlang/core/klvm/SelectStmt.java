@@ -17,6 +17,12 @@ public final class SelectStmt extends AbstractStmt {
     public final CompleteOrIdent feature;
     public final Ident target;
 
+    // An inline cache of the last interned record shape selected by a constant feature and the index of the feature
+    // within that shape. The cache is replaced as a unit so that concurrent machines never see a torn entry. Shapes
+    // of records built from data are not interned and are not cached, because each such record may have its own
+    // shape instance.
+    private ShapeIndex shapeIndex;
+
     public SelectStmt(CompleteOrIdent rec, CompleteOrIdent feature, Ident target, SourceSpan sourceSpan) {
         super(sourceSpan);
         this.rec = rec;
@@ -41,8 +47,13 @@ public final class SelectStmt extends AbstractStmt {
     @Override
     public final void compute(Env env, Machine machine) throws WaitException {
         Composite recRes = (Composite) rec.resolveValue(env);
-        Feature featureRes = (Feature) feature.resolveValue(env);
-        ValueOrVar selectedValue = recRes.select(featureRes);
+        ValueOrVar selectedValue;
+        if (recRes instanceof AbstractCompleteRec completeRec && feature instanceof Feature constant) {
+            selectedValue = selectByShape(completeRec, constant);
+        } else {
+            Feature featureRes = (Feature) feature.resolveValue(env);
+            selectedValue = recRes.select(featureRes);
+        }
 
         // CRITICAL: Within this method, DO NOT resolve identifiers to their Value -- stop at Var. We must unify
         //           on Vars so that matching values become just one value in memory.
@@ -54,4 +65,30 @@ public final class SelectStmt extends AbstractStmt {
         targetVar.bindToValueOrVar(selectedValue, null);
     }
 
+    private Complete selectByShape(AbstractCompleteRec rec, Feature constant) {
+        RecShape shape = rec.shape();
+        ShapeIndex cached = shapeIndex;
+        if (cached != null && cached.shape == shape) {
+            return rec.valueAt(cached.index);
+        }
+        int index = shape.indexOf(constant);
+        if (index < 0) {
+            throw new FeatureNotFoundError(rec, constant);
+        }
+        if (shape.isInterned()) {
+            shapeIndex = new ShapeIndex(shape, index);
+        }
+        return rec.valueAt(index);
+    }
+
+    private static final class ShapeIndex {
+        private final RecShape shape;
+        private final int index;
+
+        private ShapeIndex(RecShape shape, int index) {
+            this.shape = shape;
+            this.index = index;
+        }
+    }
+
 }
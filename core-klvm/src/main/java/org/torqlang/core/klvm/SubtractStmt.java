@@ -50,7 +50,7 @@ public final class SubtractStmt extends AbstractStmt {
     public final void compute(Env env, Machine machine) throws WaitException {
         Value aRes = a.resolveValue(env);
         Value bRes = b.resolveValue(env);
-        Value result = aRes.subtract(bRes);
+        Value result = NumFastPath.subtract(aRes, bRes);
         ValueOrVar xRes = x.resolveValueOrVar(env);
         xRes.bindToValue(result, null);
     }
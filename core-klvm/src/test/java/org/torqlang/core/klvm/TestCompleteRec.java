@@ -9,6 +9,7 @@ package org.torqlang.core.klvm;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.HashMap;
 import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
@@ -357,6 +358,37 @@ public class TestCompleteRec {
         assertEquals("Feature not found", exc.getMessage());
     }
 
+    @Test
+    public void testHashCodeAndEquals() throws WaitVarException {
+
+        Str zero = Str.of("0-zero");
+        Str one = Str.of("1-one");
+
+        Str a = Str.of("a");
+        Str b = Str.of("b");
+
+        // The same record created from fields, by a builder, and by completing a partial record
+        CompleteRec r1 = CompleteRec.create(List.of(new CompleteField(one, b), new CompleteField(zero, a)));
+        CompleteRec r2 = Rec.completeRecBuilder().addField(zero, a).addField(one, b).build();
+        Var bVar = new Var();
+        PartialRec p3 = (PartialRec) Rec.partialRecBuilder().addField(zero, a).addField(one, bVar).build();
+        bVar.bindToValue(b, null);
+        Complete r3 = p3.checkComplete();
+
+        assertEquals(r1, r2);
+        assertEquals(r1, r3);
+        assertEquals(r1.hashCode(), r2.hashCode());
+        assertEquals(r1.hashCode(), r3.hashCode());
+        Map<Complete, Str> map = new HashMap<>();
+        map.put(r1, a);
+        assertEquals(a, map.get(r2));
+        assertEquals(a, map.get(r3));
+
+        CompleteRec r4 = CompleteRec.create(List.of(new CompleteField(zero, b), new CompleteField(one, a)));
+        assertNotEquals(r1, r4);
+        assertNull(map.get(r4));
+    }
+
     @Test
     public void testIndexException0() {
 
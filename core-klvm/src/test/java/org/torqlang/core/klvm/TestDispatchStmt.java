@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.klvm;
+
+import org.junit.jupiter.api.Test;
+import org.torqlang.core.util.SourceSpan;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestDispatchStmt {
+
+    private static final SourceSpan emptySpan = SourceSpan.emptySourceSpan();
+
+    private static final Ident x = Ident.create("x");
+    private static final Ident y = Ident.create("y");
+
+    /*
+     * Each branch binds `y` to a distinct value so that we can tell which branch was selected
+     */
+    private static DispatchStmt create() {
+        return new DispatchStmt(x, List.of(
+            new DispatchStmt.Branch(Str.of("a"), 1, new BindCompleteToIdentStmt(Str.of("a#1"), y, emptySpan)),
+            new DispatchStmt.Branch(Str.of("a"), 2, new BindCompleteToIdentStmt(Str.of("a#2"), y, emptySpan)),
+            new DispatchStmt.Branch(Str.of("a"), DispatchStmt.NO_ARITY,
+                new BindCompleteToIdentStmt(Str.of("a"), y, emptySpan)),
+            new DispatchStmt.Branch(Null.SINGLETON, 0, new BindCompleteToIdentStmt(Str.of("{}"), y, emptySpan))
+        ), new BindCompleteToIdentStmt(Str.of("alternate"), y, emptySpan), emptySpan);
+    }
+
+    /*
+     * Dispatch the second value of a tuple whose first value is 'orders'
+     */
+    private static DispatchStmt createFeatures() {
+        return new DispatchStmt(x, List.of(Int32.I32_0, Int32.I32_1), List.of(
+            new DispatchStmt.Branch(Str.of("recent"), DispatchStmt.NO_ARITY,
+                new BindCompleteToIdentStmt(Str.of("recent"), y, emptySpan)),
+            new DispatchStmt.Branch(Bool.TRUE, DispatchStmt.NO_ARITY,
+                new BindCompleteToIdentStmt(Str.of("true"), y, emptySpan))
+        ), new BindCompleteToIdentStmt(Str.of("alternate"), y, emptySpan), emptySpan);
+    }
+
+    private static Complete compute(DispatchStmt stmt, Value value) throws Exception {
+        Var yVar = new Var();
+        Env env = Env.create(new EnvEntry(x, new Var(value)), new EnvEntry(y, yVar));
+        Machine.compute(new Stack(stmt, env, null), 100);
+        return yVar.resolveValue().checkComplete();
+    }
+
+    private static CompleteRec rec(Literal label, int fieldCount) {
+        CompleteRecBuilder builder = Rec.completeRecBuilder().setLabel(label);
+        for (int i = 0; i < fieldCount; i++) {
+            builder.addField(Str.of("f" + i), Int32.of(i));
+        }
+        return builder.build();
+    }
+
+    private static CompleteTuple tuple(Complete... values) {
+        return CompleteTuple.create(List.of(values));
+    }
+
+    @Test
+    public void testCaptureLexicallyFree() {
+        DispatchStmt stmt = create();
+        Set<Ident> knownBound = new HashSet<>();
+        Set<Ident> lexicallyFree = new HashSet<>();
+        stmt.captureLexicallyFree(knownBound, lexicallyFree);
+        assertEquals(Set.of(x, y), lexicallyFree);
+        knownBound = new HashSet<>(List.of(x, y));
+        lexicallyFree = new HashSet<>();
+        stmt.captureLexicallyFree(knownBound, lexicallyFree);
+        assertEquals(0, lexicallyFree.size());
+    }
+
+    @Test
+    public void testCompute() throws Exception {
+        DispatchStmt stmt = create();
+        assertEquals(Str.of("a#1"), compute(stmt, rec(Str.of("a"), 1)));
+        assertEquals(Str.of("a#2"), compute(stmt, rec(Str.of("a"), 2)));
+        assertEquals(Str.of("a"), compute(stmt, Str.of("a")));
+        assertEquals(Str.of("{}"), compute(stmt, Rec.completeRecBuilder().build()));
+        assertEquals(Str.of("alternate"), compute(stmt, rec(Str.of("a"), 0)));
+        assertEquals(Str.of("alternate"), compute(stmt, rec(Str.of("a"), 3)));
+        assertEquals(Str.of("alternate"), compute(stmt, rec(Str.of("b"), 1)));
+        assertEquals(Str.of("alternate"), compute(stmt, Str.of("b")));
+        assertEquals(Str.of("alternate"), compute(stmt, Null.SINGLETON));
+        assertEquals(Str.of("alternate"), compute(stmt, Bool.TRUE));
+        assertEquals(Str.of("alternate"), compute(stmt, Int32.I32_1));
+        assertEquals(Str.of("alternate"), compute(stmt, rec(Bool.TRUE, 1)));
+    }
+
+    @Test
+    public void testComputeFeatures() throws Exception {
+        DispatchStmt stmt = createFeatures();
+        assertEquals(Str.of("recent"), compute(stmt, tuple(Str.of("orders"), Str.of("recent"))));
+        assertEquals(Str.of("recent"), compute(stmt, tuple(Str.of("orders"), Str.of("recent"), Int32.I32_0)));
+        assertEquals(Str.of("true"), compute(stmt, tuple(Str.of("orders"), Bool.TRUE)));
+        assertEquals(Str.of("alternate"), compute(stmt, tuple(Str.of("orders"), Str.of("other"))));
+        assertEquals(Str.of("alternate"), compute(stmt, tuple(Str.of("orders"), Int32.I32_1)));
+        assertEquals(Str.of("alternate"), compute(stmt, tuple(Str.of("orders"), rec(Str.of("recent"), 0))));
+        assertEquals(Str.of("alternate"), compute(stmt, tuple(Str.of("orders"))));
+        assertEquals(Str.of("alternate"), compute(stmt, rec(Str.of("recent"), 2)));
+        assertEquals(Str.of("alternate"), compute(stmt, Str.of("recent")));
+        // The value at the feature is unbound, therefore the dispatch waits
+        Var yVar = new Var();
+        Rec partial = Rec.partialRecBuilder()
+            .addField(Int32.I32_0, Str.of("orders"))
+            .addField(Int32.I32_1, new Var())
+            .build();
+        Env env = Env.create(new EnvEntry(x, new Var(partial)), new EnvEntry(y, yVar));
+        assertTrue(new Machine(new Stack(stmt, env, null)).compute(100).isWait());
+        assertEquals(VarSet.EMPTY_VAR_SET, yVar.valueOrVarSet());
+    }
+
+    @Test
+    public void testErrors() {
+        Stmt skip = new SkipStmt(emptySpan);
+        assertThrows(IllegalArgumentException.class, () -> new DispatchStmt(x,
+            List.of(new DispatchStmt.Branch(Str.of("a"), -2, skip)), skip, emptySpan));
+        assertThrows(IllegalArgumentException.class, () -> new DispatchStmt(x,
+            List.of(new DispatchStmt.Branch(Str.of("a"), 1, skip), new DispatchStmt.Branch(Str.of("a"), 1, skip)),
+            skip, emptySpan));
+        assertThrows(IllegalArgumentException.class, () -> new DispatchStmt(x, List.of(Int32.I32_0),
+            List.of(new DispatchStmt.Branch(Str.of("a"), 1, skip)), skip, emptySpan));
+    }
+
+    @Test
+    public void testToString() {
+        String expected = """
+            dispatch x of
+                'a'#1 then
+                    $bind('a#1', y)
+                'a'#2 then
+                    $bind('a#2', y)
+                'a' then
+                    $bind('a', y)
+                null#0 then
+                    $bind('{}', y)
+            else
+                $bind('alternate', y)
+            end""";
+        assertEquals(expected, create().toString());
+    }
+
+    @Test
+    public void testToStringFeatures() {
+        String expected = """
+            dispatch x[0, 1] of
+                'recent' then
+                    $bind('recent', y)
+                true then
+                    $bind('true', y)
+            else
+                $bind('alternate', y)
+            end""";
+        assertEquals(expected, createFeatures().toString());
+    }
+
+}
@@ -9,6 +9,7 @@ package org.torqlang.core.klvm;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -44,6 +45,47 @@ public class TestEnv {
         assertEquals("Duplicate ident", exc.getMessage());
     }
 
+    @Test
+    public void testAddressed() {
+
+        Ident a = Ident.create("a");
+        Ident b = Ident.create("b");
+        Ident c = Ident.create("c");
+        Var aVar = new Var(Int32.of(1));
+        Var bVar = new Var(Int32.of(2));
+        Var cVar = new Var(Int32.of(3));
+
+        Env e1 = Env.create(new EnvEntry(a, aVar), new EnvEntry(b, bVar));
+        Env e2 = Env.create(e1, new EnvEntry(c, cVar));
+
+        // Addresses that match the environment layout
+        assertSame(cVar, e2.get(c.withAddress(0, 0)));
+        assertSame(aVar, e2.get(a.withAddress(1, 0)));
+        assertSame(bVar, e2.get(b.withAddress(1, 1)));
+
+        // Stale addresses fall back to a search by name
+        assertSame(aVar, e2.get(a.withAddress(0, 0)));
+        assertSame(bVar, e2.get(b.withAddress(1, 5)));
+        assertSame(cVar, e2.get(c.withAddress(7, 0)));
+
+        // Addressed identifiers that are not bound
+        assertNull(e2.get(Ident.create("d").withAddress(0, 0)));
+    }
+
+    @Test
+    public void testAddressedComplete() {
+        Map<Ident, Complete> bindings = new HashMap<>();
+        bindings.put(Ident.create("c"), Int32.of(3));
+        bindings.put(Ident.create("a"), Int32.of(1));
+        bindings.put(Ident.create("b"), Int32.of(2));
+        Env e = Env.createComplete(bindings);
+        // A complete environment is laid out like a captured environment: one level in name order
+        assertNull(e.parentEnv());
+        assertEquals(Int32.of(1), e.get(Ident.create("a").withAddress(0, 0)).valueOrVarSet());
+        assertEquals(Int32.of(2), e.get(Ident.create("b").withAddress(0, 1)).valueOrVarSet());
+        assertEquals(Int32.of(3), e.get(Ident.create("c").withAddress(0, 2)).valueOrVarSet());
+    }
+
     @Test
     public void testCreate() {
 
@@ -16,6 +16,27 @@ import static org.junit.jupiter.api.Assertions.*;
 
 public class TestIdent {
 
+    @Test
+    public void testAddressed() {
+        Ident i = Ident.create("a");
+        assertFalse(i.isAddressed());
+        assertEquals(-1, i.depth);
+        assertEquals(-1, i.slot);
+
+        Ident addressed = i.withAddress(2, 3);
+        assertTrue(addressed.isAddressed());
+        assertEquals(2, addressed.depth);
+        assertEquals(3, addressed.slot);
+        assertEquals(i, addressed);
+        assertEquals(i.hashCode(), addressed.hashCode());
+        assertEquals("a", addressed.toString());
+        assertSame(i, addressed.withoutAddress());
+        assertSame(i, i.withoutAddress());
+
+        assertThrows(IllegalArgumentException.class, () -> i.withAddress(-1, 0));
+        assertThrows(IllegalArgumentException.class, () -> i.withAddress(0, -1));
+    }
+
     @Test
     public void testCaptureFree() {
         Ident i;
@@ -81,6 +102,42 @@ public class TestIdent {
         assertNotEquals(a, Int32.I32_0);
     }
 
+    @Test
+    public void testInterned() {
+        // Build names at runtime so they are distinct String instances
+        String name = new StringBuilder("inter").append("ned").toString();
+        Ident a = Ident.create(name);
+        Ident a_2 = Ident.create(new String(name));
+        assertSame(a, a_2);
+        assertSame(a.name, a_2.name);
+        assertSame(a, Ident.createPrivately(new String(name)));
+
+        assertSame(Ident.createSystemVarIdent(1), Ident.createSystemVarIdent(1));
+        assertSame(Ident.createSystemArgIdent(3), Ident.createSystemArgIdent(3));
+        assertSame(Ident.createSystemAnonymousIdent(5), Ident.createSystemAnonymousIdent(5));
+        assertSame(Ident.createSystemVarIdent(100_000), Ident.createSystemVarIdent(100_000));
+        assertSame(Ident.createSystemVarIdent(2), Ident.createPrivately("$v2"));
+        assertSame(Ident.$R, Ident.createPrivately("$r"));
+
+        Ident addressed = a.withAddress(0, 1);
+        assertNotSame(a, addressed);
+        assertSame(a.name, addressed.name);
+        assertEquals(a, addressed);
+    }
+
+    @Test
+    public void testRecreatedEqualsAddressed() {
+        String name = new StringBuilder("weak").append("ly_interned").toString();
+        Ident addressed = Ident.create(name).withAddress(0, 1);
+        // Whether or not the table still holds the canonical identifier, a new canonical identifier is equal to an
+        // address copy of the old one
+        Ident recreated = Ident.create(new String(name));
+        assertEquals(recreated, addressed);
+        assertEquals(addressed, recreated);
+        assertEquals(recreated.hashCode(), addressed.hashCode());
+        assertSame(recreated, Ident.create(name));
+    }
+
     @Test
     public void testIsMethods() {
 
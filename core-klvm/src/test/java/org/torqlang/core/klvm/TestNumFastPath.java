@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.klvm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.BinaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * The fast path must return the same kind and value as the Num methods for every pair of operands. Results are
+ * compared by their string form because NaN is not equal to itself, and 0.0 is equal to -0.0.
+ */
+public class TestNumFastPath {
+
+    private static final List<Value> OPERANDS = List.of(
+        Int32.I32_0,
+        Int32.I32_3,
+        Int32.of(-7),
+        Int32.of(1023),
+        Int32.of(1024),
+        Int32.of(Integer.MAX_VALUE),
+        Int32.of(Integer.MIN_VALUE),
+        Int64.I64_0,
+        Int64.of(5),
+        Int64.of(-1_000_000_000_000L),
+        Int64.of(Long.MAX_VALUE),
+        Flt64.of(0.0),
+        Flt64.of(-0.0),
+        Flt64.of(2.5),
+        Flt64.of(Double.NaN),
+        Flt64.of(Double.POSITIVE_INFINITY),
+        Char.of('a'),
+        Flt32.of(1.5f),
+        Dec128.of("3.25")
+    );
+
+    private static void assertSameResult(BinaryOperator<Value> fast, BinaryOperator<Value> generic) {
+        for (Value a : OPERANDS) {
+            for (Value b : OPERANDS) {
+                Object expected;
+                try {
+                    expected = generic.apply(a, b);
+                } catch (Exception exc) {
+                    expected = exc.getClass();
+                }
+                Object actual;
+                try {
+                    actual = fast.apply(a, b);
+                } catch (Exception exc) {
+                    actual = exc.getClass();
+                }
+                String message = a + " and " + b;
+                assertEquals(expected.getClass(), actual.getClass(), message);
+                assertEquals(expected.toString(), actual.toString(), message);
+            }
+        }
+    }
+
+    @Test
+    public void testArithmetic() {
+        assertSameResult(NumFastPath::add, Value::add);
+        assertSameResult(NumFastPath::subtract, Value::subtract);
+        assertSameResult(NumFastPath::multiply, Value::multiply);
+        assertSameResult(NumFastPath::divide, Value::divide);
+        assertSameResult(NumFastPath::modulo, Value::modulo);
+    }
+
+    @Test
+    public void testCache() {
+        assertSame(Int32.of(-128), Int32.of(-128));
+        assertSame(Int32.of(1023), NumFastPath.add(Int32.of(1000), Int32.of(23)));
+        assertNotSame(Int32.of(1024), Int32.of(1024));
+        assertNotSame(Int32.of(-129), Int32.of(-129));
+        assertSame(Int64.of(-128), Int64.of(-128));
+        assertSame(Int64.of(1023), NumFastPath.add(Int64.of(1000), Int32.of(23)));
+        assertNotSame(Int64.of(1024), Int64.of(1024));
+        assertEquals(-128, Int32.of(-128).intValue());
+        assertEquals(1023L, Int64.of(1023).longValue());
+    }
+
+    @Test
+    public void testComparison() {
+        assertSameResult(NumFastPath::lessThan, Value::lessThan);
+        assertSameResult(NumFastPath::lessThanOrEqualTo, Value::lessThanOrEqualTo);
+        assertSameResult(NumFastPath::greaterThan, Value::greaterThan);
+        assertSameResult(NumFastPath::greaterThanOrEqualTo, Value::greaterThanOrEqualTo);
+    }
+
+    @Test
+    public void testFallback() {
+        // Operands that are not numbers use the Value methods
+        assertEquals(Str.of("ab"), NumFastPath.add(Str.of("a"), Str.of("b")));
+        assertThrows(IllegalArgumentException.class, () -> NumFastPath.add(Int32.I32_1, Str.of("b")));
+        assertEquals(Bool.TRUE, NumFastPath.lessThan(Str.of("a"), Str.of("b")));
+        assertThrows(UnsupportedOperationException.class, () -> NumFastPath.lessThan(Null.SINGLETON, Int32.I32_1));
+    }
+
+    @Test
+    public void testNegate() {
+        for (Value a : OPERANDS) {
+            Value expected = a.negate();
+            Value actual = NumFastPath.negate(a);
+            assertEquals(expected.getClass(), actual.getClass(), a.toString());
+            assertEquals(expected.toString(), actual.toString(), a.toString());
+        }
+    }
+
+    @Test
+    public void testOverflow() {
+        // Int32 operations wrap around like the Num methods
+        Value sum = NumFastPath.add(Int32.of(Integer.MAX_VALUE), Int32.I32_1);
+        assertInstanceOf(Int32.class, sum);
+        assertEquals(Integer.MIN_VALUE, ((Int32) sum).intValue());
+        Value product = NumFastPath.multiply(Int32.of(Integer.MAX_VALUE), Int32.I32_2);
+        assertEquals(Int32.of(-2), product);
+        // An Int64 operand widens the result
+        sum = NumFastPath.add(Int32.of(Integer.MAX_VALUE), Int64.of(1));
+        assertInstanceOf(Int64.class, sum);
+        assertEquals(Integer.MAX_VALUE + 1L, ((Int64) sum).longValue());
+    }
+
+}
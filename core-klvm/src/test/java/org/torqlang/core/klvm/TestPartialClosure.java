@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.klvm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.torqlang.core.util.SourceSpan.emptySourceSpan;
+
+public class TestPartialClosure {
+
+    @Test
+    public void testCheckComplete() throws Exception {
+        Ident a = Ident.create("a");
+        Ident b = Ident.create("b");
+        Ident x = Ident.create("x");
+        // proc (x) in $add(a, b, x) end
+        ProcDef procDef = new ProcDef(List.of(x), new AddStmt(a, b, x, emptySourceSpan()), emptySourceSpan());
+        Var aVar = new Var(Int32.of(1));
+        Var bVar = new Var();
+        Env capturedEnv = Env.createPrivatelyForKlvm(null, new EnvEntry[]{
+            new EnvEntry(a, aVar),
+            new EnvEntry(b, bVar)
+        });
+        PartialClosure closure = new PartialClosure(procDef, capturedEnv);
+        // A closure with an unbound captured variable is not complete
+        WaitVarException exc = assertThrows(WaitVarException.class, closure::checkComplete);
+        assertSame(bVar, exc.barrier());
+        bVar.bindToValue(Int32.of(2), null);
+        CompleteClosure complete = (CompleteClosure) closure.checkComplete();
+        // The complete copy is computed once and shared
+        assertSame(complete, closure.checkComplete());
+        assertSame(procDef, complete.procDef());
+        // The captured environment keeps its layout, therefore lexical addresses remain valid
+        List<Ident> idents = new ArrayList<>();
+        for (EnvEntry entry : complete.capturedEnv()) {
+            idents.add(entry.ident);
+        }
+        assertEquals(List.of(a, b), idents);
+        assertEquals(Int32.of(2), complete.capturedEnv().get(b).valueOrVarSet());
+    }
+
+}
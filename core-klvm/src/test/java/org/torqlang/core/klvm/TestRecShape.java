@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.klvm;
+
+import org.junit.jupiter.api.Test;
+import org.torqlang.core.util.SourceSpan;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestRecShape {
+
+    private static final SourceSpan emptySpan = SourceSpan.emptySourceSpan();
+
+    private static final Ident a = Ident.create("a");
+    private static final Ident x = Ident.create("x");
+    private static final Ident y = Ident.create("y");
+
+    private static Value create(RecDef recDef, Env env) throws Exception {
+        Var xVar = new Var();
+        Env createEnv = Env.create(env, List.of(new EnvEntry(x, xVar)));
+        new CreateRecStmt(x, recDef, emptySpan).compute(createEnv, null);
+        return xVar.resolveValue();
+    }
+
+    private static Value select(SelectStmt stmt, Value rec) throws Exception {
+        Var yVar = new Var();
+        Env env = Env.create(List.of(new EnvEntry(x, new Var(rec)), new EnvEntry(y, yVar)));
+        stmt.compute(env, null);
+        return yVar.resolveValue();
+    }
+
+    @Test
+    public void testCreateRecStmt() throws Exception {
+        // 'order'#{'id': 1, 'amount': a}
+        RecDef recDef = new RecDef(Str.of("order"), List.of(
+            new FieldDef(Str.of("id"), Int32.I32_1, emptySpan),
+            new FieldDef(Str.of("amount"), a, emptySpan)
+        ), emptySpan);
+        RecShape shape = recDef.shape();
+        assertNotNull(shape);
+        assertEquals(Str.of("order"), shape.label());
+        assertEquals(2, shape.fieldCount());
+        assertEquals(Str.of("amount"), shape.featureAt(0));
+        assertEquals(Str.of("id"), shape.featureAt(1));
+
+        Env env = Env.create(List.of(new EnvEntry(a, new Var(Int32.of(10)))));
+        AbstractCompleteRec r1 = assertInstanceOf(AbstractCompleteRec.class, create(recDef, env));
+        env = Env.create(List.of(new EnvEntry(a, new Var(Int32.of(20)))));
+        AbstractCompleteRec r2 = assertInstanceOf(AbstractCompleteRec.class, create(recDef, env));
+        assertSame(shape, r1.shape());
+        assertSame(shape, r2.shape());
+        assertEquals(Int32.of(10), r1.select(Str.of("amount")));
+        assertEquals(Int32.I32_1, r1.select(Str.of("id")));
+        assertEquals(Int32.of(20), r2.select(Str.of("amount")));
+        assertEquals("'order'#{'amount': 10, 'id': 1}", r1.toString());
+
+        // A record built from the same label and features in another order shares the shape
+        CompleteRec r3 = Rec.completeRecBuilder()
+            .setLabel(Str.of("order"))
+            .addField(Str.of("id"), Int32.I32_1)
+            .addField(Str.of("amount"), Int32.of(10))
+            .build();
+        assertSame(shape, ((AbstractCompleteRec) r3).shape());
+        assertEquals(r1, r3);
+        assertEquals(r1.hashCode(), r3.hashCode());
+        assertNotEquals(r1, r2);
+
+        // A partial record is created without the shape and gains it when complete
+        Var aVar = new Var();
+        env = Env.create(List.of(new EnvEntry(a, aVar)));
+        PartialRec partialRec = assertInstanceOf(PartialRec.class, create(recDef, env));
+        aVar.bindToValue(Int32.of(10), null);
+        AbstractCompleteRec r4 = (AbstractCompleteRec) partialRec.checkComplete();
+        assertSame(shape, r4.shape());
+        assertEquals(r1, r4);
+    }
+
+    @Test
+    public void testDataShapesAreNotInterned() {
+        // Records built from data do not add their shapes to the table
+        CompleteRec r1 = Rec.completeRecBuilder()
+            .setLabel(Str.of("payload"))
+            .addField(Str.of("key-1"), Int32.I32_1)
+            .build();
+        CompleteRec r2 = Rec.completeRecBuilder()
+            .setLabel(Str.of("payload"))
+            .addField(Str.of("key-1"), Int32.I32_2)
+            .build();
+        RecShape s1 = ((AbstractCompleteRec) r1).shape();
+        RecShape s2 = ((AbstractCompleteRec) r2).shape();
+        assertFalse(s1.isInterned());
+        assertNotSame(s1, s2);
+        assertEquals(s1, s2);
+        assertTrue(r1.equalFeatures(r2));
+        // A record definition interns its shape, and later records built from data share it
+        RecDef recDef = new RecDef(Str.of("payload"), List.of(
+            new FieldDef(Str.of("key-1"), Int32.I32_3, emptySpan)
+        ), emptySpan);
+        assertTrue(recDef.shape().isInterned());
+        assertEquals(s1, recDef.shape());
+        CompleteRec r3 = Rec.completeRecBuilder()
+            .setLabel(Str.of("payload"))
+            .addField(Str.of("key-1"), Int32.I32_3)
+            .build();
+        assertSame(recDef.shape(), ((AbstractCompleteRec) r3).shape());
+    }
+
+    @Test
+    public void testDuplicateFeatures() {
+        RecDef recDef = new RecDef(Str.of("order"), List.of(
+            new FieldDef(Str.of("id"), Int32.I32_1, emptySpan),
+            new FieldDef(Str.of("id"), Int32.I32_0, emptySpan)
+        ), emptySpan);
+        assertNull(recDef.shape());
+        assertThrows(DuplicateFeatureError.class, () -> create(recDef, Env.emptyEnv()));
+    }
+
+    @Test
+    public void testIndexOf() {
+        CompleteRec rec = Rec.completeRecBuilder()
+            .addField(Str.of("b"), Int32.I32_1)
+            .addField(Int32.I32_0, Int32.I32_0)
+            .addField(Bool.TRUE, Int32.I32_1)
+            .addField(Str.of("a"), Int32.I32_0)
+            .build();
+        RecShape shape = ((AbstractCompleteRec) rec).shape();
+        assertEquals(Rec.DEFAULT_LABEL, shape.label());
+        assertEquals(0, shape.indexOf(Int32.I32_0));
+        assertEquals(0, shape.indexOf(Int64.I64_0));
+        assertEquals(1, shape.indexOf(Str.of("a")));
+        assertEquals(2, shape.indexOf(Str.of("b")));
+        assertEquals(3, shape.indexOf(Bool.TRUE));
+        assertEquals(-3, shape.indexOf(Str.of("ab")));
+        assertEquals(-4, shape.indexOf(Bool.FALSE));
+        assertEquals(-5, shape.indexOf(Null.SINGLETON));
+    }
+
+    @Test
+    public void testLabelIsPartOfShape() {
+        CompleteRec r1 = CompleteRec.create(Str.of("a"), List.of(new CompleteField(Str.of("f"), Int32.I32_0)));
+        CompleteRec r2 = CompleteRec.create(Str.of("b"), List.of(new CompleteField(Str.of("f"), Int32.I32_0)));
+        CompleteRec r3 = CompleteRec.create(Str.of("a"), List.of(new CompleteField(Str.of("f"), Int32.I32_1)));
+        assertNotEquals(((AbstractCompleteRec) r1).shape(), ((AbstractCompleteRec) r2).shape());
+        assertEquals(((AbstractCompleteRec) r1).shape(), ((AbstractCompleteRec) r3).shape());
+        assertNotEquals(r1, r2);
+    }
+
+    @Test
+    public void testSelectStmt() throws Exception {
+        SelectStmt stmt = new SelectStmt(x, Str.of("b"), y, emptySpan);
+        CompleteRec r1 = CompleteRec.create(List.of(
+            new CompleteField(Str.of("a"), Int32.I32_0),
+            new CompleteField(Str.of("b"), Int32.I32_1)
+        ));
+        CompleteRec r2 = CompleteRec.create(List.of(
+            new CompleteField(Str.of("b"), Int32.I32_2),
+            new CompleteField(Str.of("c"), Int32.I32_3)
+        ));
+        CompleteRec r3 = CompleteRec.create(List.of(
+            new CompleteField(Str.of("a"), Int32.I32_4),
+            new CompleteField(Str.of("b"), Int32.I32_5)
+        ));
+        // Alternate between shapes so that the cached index is replaced
+        assertEquals(Int32.I32_1, select(stmt, r1));
+        assertEquals(Int32.I32_2, select(stmt, r2));
+        assertEquals(Int32.I32_5, select(stmt, r3));
+        assertEquals(Int32.I32_1, select(stmt, r1));
+        CompleteRec r4 = CompleteRec.create(List.of(new CompleteField(Str.of("a"), Int32.I32_0)));
+        assertThrows(FeatureNotFoundError.class, () -> select(stmt, r4));
+        // Partial records are selected without the cache
+        Rec r5 = Rec.partialRecBuilder()
+            .addField(Str.of("b"), Int32.I32_3)
+            .addField(Str.of("c"), new Var())
+            .build();
+        assertInstanceOf(PartialRec.class, r5);
+        assertEquals(Int32.I32_3, select(stmt, r5));
+        assertEquals(Int32.I32_2, select(stmt, r2));
+    }
+
+}
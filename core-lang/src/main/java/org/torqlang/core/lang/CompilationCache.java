@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.lang;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ * A bounded, thread-safe cache of front-end results (parsed and generated kernel code) keyed by source text. Users,
+ * such as `Evaluator` and `ActorBuilder`, skip the lexer, parser, and generator for byte-identical source.
+ *
+ * An entry is keyed by its source and a variant chosen by the user. The variant distinguishes results generated
+ * differently from the same source, for example, a statement versus an expression bound to an identifier. Keys
+ * compare the full source text. The source hash only selects a bucket, so a hash collision can never return code
+ * generated for another source.
+ *
+ * The cache is bounded by an entry count and by the total length of the cached source text. When either bound is
+ * exceeded, the least recently used entries are evicted. Compilation runs outside the lock. If two threads miss on the
+ * same source at the same time, both compile and the last result is kept.
+ *
+ * Cached results are shared. Generated kernel code is immutable and safe to compute on many machines at once.
+ *
+ * A cache may have a `KernelImageStore`, which persists generated kernel code across processes. The cache only holds
+ * the store. Users load from the store inside their compiler, before running the front end, and store what they
+ * generate. Results loaded from a store have no parse tree.
+ */
+public final class CompilationCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 1_000;
+    public static final long DEFAULT_MAX_SOURCE_LENGTH = 16 * 1024 * 1024;
+
+    private final int maxEntries;
+    private final long maxSourceLength;
+    private final KernelImageStore imageStore;
+    private final LinkedHashMap<Key, Object> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long sourceLength;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    public CompilationCache(int maxEntries, long maxSourceLength) {
+        this(maxEntries, maxSourceLength, null);
+    }
+
+    public CompilationCache(int maxEntries, long maxSourceLength, KernelImageStore imageStore) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Invalid max entries: " + maxEntries);
+        }
+        if (maxSourceLength < 1) {
+            throw new IllegalArgumentException("Invalid max source length: " + maxSourceLength);
+        }
+        this.maxEntries = maxEntries;
+        this.maxSourceLength = maxSourceLength;
+        this.imageStore = imageStore;
+    }
+
+    public static CompilationCache create() {
+        return new CompilationCache(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_SOURCE_LENGTH);
+    }
+
+    public static CompilationCache create(KernelImageStore imageStore) {
+        return new CompilationCache(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_SOURCE_LENGTH, imageStore);
+    }
+
+    /*
+     * The cache shared by all evaluators and actor builders that are not given a cache of their own.
+     */
+    public static CompilationCache defaultCache() {
+        return DefaultCacheHolder.DEFAULT_CACHE;
+    }
+
+    public final synchronized void clear() {
+        entries.clear();
+        sourceLength = 0;
+    }
+
+    /*
+     * Return the result cached for the source and variant, or compile, cache, and return a new result. A compiler
+     * that throws caches nothing, and the exception is propagated.
+     */
+    @SuppressWarnings("unchecked")
+    public final <T> T compute(String source, Object variant, Compiler<T> compiler) throws Exception {
+        if (source == null) {
+            throw new NullPointerException("source");
+        }
+        Key key = new Key(source, variant);
+        synchronized (this) {
+            Object value = entries.get(key);
+            if (value != null) {
+                hitCount++;
+                return (T) value;
+            }
+            missCount++;
+        }
+        T value = compiler.compile();
+        if (source.length() > maxSourceLength) {
+            return value;
+        }
+        synchronized (this) {
+            Object previous = entries.put(key, value);
+            if (previous == null) {
+                sourceLength += source.length();
+            }
+            evictEldest();
+        }
+        return value;
+    }
+
+    public final synchronized long evictionCount() {
+        return evictionCount;
+    }
+
+    private void evictEldest() {
+        Iterator<Map.Entry<Key, Object>> iter = entries.entrySet().iterator();
+        while (entries.size() > maxEntries || sourceLength > maxSourceLength) {
+            Map.Entry<Key, Object> eldest = iter.next();
+            sourceLength -= eldest.getKey().source.length();
+            iter.remove();
+            evictionCount++;
+        }
+    }
+
+    public final synchronized long hitCount() {
+        return hitCount;
+    }
+
+    /*
+     * Return the image store of this cache, or null if generated code is not persisted.
+     */
+    public final KernelImageStore imageStore() {
+        return imageStore;
+    }
+
+    public final int maxEntries() {
+        return maxEntries;
+    }
+
+    public final long maxSourceLength() {
+        return maxSourceLength;
+    }
+
+    public final synchronized long missCount() {
+        return missCount;
+    }
+
+    public final synchronized int size() {
+        return entries.size();
+    }
+
+    public final synchronized long sourceLength() {
+        return sourceLength;
+    }
+
+    @FunctionalInterface
+    public interface Compiler<T> {
+        T compile() throws Exception;
+    }
+
+    private record Key(String source, Object variant) {
+    }
+
+    private static final class DefaultCacheHolder {
+        private static final CompilationCache DEFAULT_CACHE = create();
+    }
+
+}
@@ -30,19 +30,24 @@ import java.util.List;
  *
  * INIT
  *   properties: (none)
- *   methods:    setRootEnv, setExprIdent, setMaxTime, addVar, setSource, setSntcOrExpr
+ *   methods:    setRootEnv, setExprIdent, setMaxTime, setCompilationCache, addVar, setSource, setSntcOrExpr
  * READY
- *   properties: rootEnv, exprIdent, maxTime, source
+ *   properties: rootEnv, exprIdent, maxTime, compilationCache, source
  *   methods:    parse, generate, perform
  * PARSED
- *   properties: rootEnv, exprIdent, maxTime, source, sntcOrExpr
+ *   properties: rootEnv, exprIdent, maxTime, compilationCache, source, sntcOrExpr
  *   methods:    generate, perform
  * GENERATED
- *   properties: rootEnv, exprIdent, maxTime, source, sntcOrExpr, kernel
+ *   properties: rootEnv, exprIdent, maxTime, compilationCache, source, sntcOrExpr, kernel
  *   methods:    perform
  * PERFORMED
- *   properties: rootEnv, env, exprIdent, maxTime, source, sntcOrExpr, kernel
+ *   properties: rootEnv, env, exprIdent, maxTime, compilationCache, source, sntcOrExpr, kernel
  *   methods:    (none)
+ *
+ * Generating from source (READY) consults the compilation cache, which is the default cache unless set otherwise. On
+ * a hit, the evaluator moves directly to GENERATED with the cached sntcOrExpr and kernel. Set a null cache to always
+ * parse and generate. If the cache has an image store, a miss loads the kernel from the store before parsing. A kernel
+ * loaded from a store has a null sntcOrExpr.
  */
 public final class Evaluator implements EvaluatorInit, EvaluatorReady, EvaluatorParsed,
     EvaluatorGenerated, EvaluatorPerformed
@@ -58,9 +63,11 @@ public final class Evaluator implements EvaluatorInit, EvaluatorReady, Evaluator
     private SntcOrExpr sntcOrExpr;
     private Kernel kernel;
     private long maxTime;
+    private CompilationCache compilationCache;
 
     private Evaluator() {
         rootEnv = Env.emptyEnv();
+        compilationCache = CompilationCache.defaultCache();
         maxTime = 10_000;
         envEntries = new ArrayList<>();
         state = State.INIT;
@@ -88,6 +95,29 @@ public final class Evaluator implements EvaluatorInit, EvaluatorReady, Evaluator
         return this;
     }
 
+    private static Compiled compile(String source, Ident exprIdent, KernelImageStore imageStore) throws Exception {
+        String imageVariant = exprIdent != null ? "Evaluator:" + exprIdent.name : "Evaluator";
+        if (imageStore != null) {
+            List<Kernel> kernels = imageStore.load(source, imageVariant);
+            if (kernels != null && kernels.size() == 1) {
+                return new Compiled(null, kernels.get(0));
+            }
+        }
+        Parser p = new Parser(source);
+        SntcOrExpr sntcOrExpr = p.parse();
+        Generator g = new Generator();
+        Kernel kernel = exprIdent != null ? g.acceptExpr(sntcOrExpr, exprIdent) : g.acceptSntc(sntcOrExpr);
+        if (imageStore != null) {
+            imageStore.store(source, imageVariant, List.of(kernel));
+        }
+        return new Compiled(sntcOrExpr, kernel);
+    }
+
+    @Override
+    public final CompilationCache compilationCache() {
+        return compilationCache;
+    }
+
     @Override
     public final Env env() {
         return env;
@@ -100,6 +130,14 @@ public final class Evaluator implements EvaluatorInit, EvaluatorReady, Evaluator
 
     @Override
     public final EvaluatorGenerated generate() throws Exception {
+        if (state == State.READY && compilationCache != null) {
+            Compiled compiled = compilationCache.compute(source, new CompiledVariant(exprIdent),
+                () -> compile(source, exprIdent, compilationCache.imageStore()));
+            sntcOrExpr = compiled.sntcOrExpr;
+            kernel = compiled.kernel;
+            state = State.GENERATED;
+            return this;
+        }
         if (state == State.READY) {
             parse();
         }
@@ -139,10 +177,7 @@ public final class Evaluator implements EvaluatorInit, EvaluatorReady, Evaluator
 
     @Override
     public final EvaluatorPerformed perform() throws Exception {
-        if (state == State.READY) {
-            parse();
-        }
-        if (state == State.PARSED) {
+        if (state == State.READY || state == State.PARSED) {
             generate();
         }
         if (state != State.GENERATED) {
@@ -160,6 +195,15 @@ public final class Evaluator implements EvaluatorInit, EvaluatorReady, Evaluator
         return rootEnv;
     }
 
+    @Override
+    public final EvaluatorInit setCompilationCache(CompilationCache compilationCache) {
+        if (state != State.INIT) {
+            throw new IllegalStateException("Cannot setCompilationCache at state: " + state);
+        }
+        this.compilationCache = compilationCache;
+        return this;
+    }
+
     @Override
     public final EvaluatorInit setExprIdent(Ident exprIdent) {
         if (state != State.INIT) {
@@ -222,6 +266,12 @@ public final class Evaluator implements EvaluatorInit, EvaluatorReady, Evaluator
         return env.get(Ident.createPrivately(name));
     }
 
+    private record Compiled(SntcOrExpr sntcOrExpr, Kernel kernel) {
+    }
+
+    private record CompiledVariant(Ident exprIdent) {
+    }
+
     private enum State {
         INIT,
         READY,
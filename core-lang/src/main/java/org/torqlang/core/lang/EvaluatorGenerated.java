@@ -12,6 +12,8 @@ import org.torqlang.core.klvm.Ident;
 import org.torqlang.core.klvm.Kernel;
 
 public interface EvaluatorGenerated {
+    CompilationCache compilationCache();
+
     Ident exprIdent();
 
     Kernel kernel();
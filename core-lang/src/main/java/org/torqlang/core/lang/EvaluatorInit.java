@@ -16,6 +16,8 @@ public interface EvaluatorInit {
 
     EvaluatorInit addVar(Ident ident, Var var);
 
+    EvaluatorInit setCompilationCache(CompilationCache compilationCache);
+
     EvaluatorInit setExprIdent(Ident exprIdent);
 
     EvaluatorInit setMaxTime(long maxTime);
@@ -13,6 +13,8 @@ import org.torqlang.core.klvm.Kernel;
 import org.torqlang.core.klvm.Var;
 
 public interface EvaluatorPerformed {
+    CompilationCache compilationCache();
+
     Env env();
 
     Ident exprIdent();
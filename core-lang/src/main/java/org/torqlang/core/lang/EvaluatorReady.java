@@ -11,6 +11,8 @@ import org.torqlang.core.klvm.Env;
 import org.torqlang.core.klvm.Ident;
 
 public interface EvaluatorReady {
+    CompilationCache compilationCache();
+
     Ident exprIdent();
 
     EvaluatorGenerated generate() throws Exception;
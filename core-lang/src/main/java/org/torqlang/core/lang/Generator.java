@@ -12,7 +12,9 @@ import org.torqlang.core.util.NeedsImpl;
 import org.torqlang.core.util.SourceSpan;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /*
  * Generator transforms sentences and expression into kernel statements using the visitor pattern.
@@ -71,9 +73,49 @@ public final class Generator implements LangVisitor<LocalTarget, CompleteOrIdent
     public static final String TELL_NOT_HANDLED_ERROR_MESSAGE = """
         Actor could not match notify message with a 'tell' handler.""";
 
+    private final boolean lexicalAddressing;
+
     private int nextSystemAnonymousSuffix = 0;
     private int nextSystemVarSuffix = 0;
 
+    public Generator() {
+        this(true);
+    }
+
+    /*
+     * When lexical addressing is enabled, identifier references in the generated statements carry a (depth, slot)
+     * hint used by the KLVM to find variables without searching environments by name. See `LexicalAddresser`.
+     */
+    public Generator(boolean lexicalAddressing) {
+        this.lexicalAddressing = lexicalAddressing;
+    }
+
+    /*
+     * Return a sequence that applies a default procedure created by `createDispatchDefaultProc`, or null if there is
+     * no default procedure
+     */
+    private static SeqLang applyDispatchDefaultSeq(Ident defaultIdent, SourceSpan sourceSpan) {
+        if (defaultIdent == null) {
+            return null;
+        }
+        return new SeqLang(List.of(new ApplyLang(new IdentAsExpr(defaultIdent, sourceSpan), List.of(), sourceSpan)),
+            sourceSpan);
+    }
+
+    /*
+     * Return a statement that applies a default procedure created by `createDispatchDefaultProc`, or a skip
+     * statement if there is no default procedure
+     */
+    private static Stmt applyDispatchDefaultStmt(Ident defaultIdent, Ident exprIdent, SourceSpan sourceSpan) {
+        if (defaultIdent == null) {
+            return new SkipStmt(sourceSpan);
+        }
+        if (exprIdent != null) {
+            return new ApplyStmt(defaultIdent, List.of(exprIdent), sourceSpan);
+        }
+        return new ApplyStmt(defaultIdent, List.of(), sourceSpan);
+    }
+
     private static IdentAsPat assertIdentAsPatNotEscaped(Pat pat) {
         if (pat instanceof IdentAsPat identAsPat) {
             if (identAsPat.escaped) {
@@ -133,10 +175,159 @@ public final class Generator implements LangVisitor<LocalTarget, CompleteOrIdent
         return new SeqLang(List.of(errorVar, errorBind, errorThrow), lang);
     }
 
+    /*
+     * Return the arity of a pattern returned by `dispatchLabel`
+     */
+    private static int dispatchArity(Pat pat) {
+        if (pat instanceof RecPat recPat) {
+            return recPat.fields().size();
+        }
+        if (pat instanceof TuplePat tuplePat) {
+            return tuplePat.values().size();
+        }
+        return DispatchStmt.NO_ARITY;
+    }
+
+    /*
+     * Return the fields of each clause pattern, or null if the patterns do not share the same sorted features. See
+     * `dispatchFields`.
+     */
+    private static List<List<Map.Entry<Feature, Pat>>> dispatchClauseFields(List<MatchClause> clauses) {
+        List<List<Map.Entry<Feature, Pat>>> answer = new ArrayList<>(clauses.size());
+        for (MatchClause clause : clauses) {
+            List<Map.Entry<Feature, Pat>> fields = dispatchFields(clause.pat);
+            if (fields == null) {
+                return null;
+            }
+            if (!answer.isEmpty()) {
+                List<Map.Entry<Feature, Pat>> first = answer.get(0);
+                if (first.size() != fields.size()) {
+                    return null;
+                }
+                for (int i = 0; i < fields.size(); i++) {
+                    if (!first.get(i).getKey().equals(fields.get(i).getKey())) {
+                        return null;
+                    }
+                }
+            }
+            answer.add(fields);
+        }
+        return answer;
+    }
+
+    /*
+     * Return the value patterns of a record or tuple pattern in sorted feature order, the order in which a case
+     * statement matches them. Return null if a feature is not a literal.
+     */
+    private static List<Map.Entry<Feature, Pat>> dispatchFields(Pat pat) {
+        List<Map.Entry<Feature, Pat>> fields = new ArrayList<>();
+        if (pat instanceof RecPat recPat) {
+            for (FieldPat fp : recPat.fields()) {
+                if (!(fp.feature instanceof FeatureAsPat featureAsPat)) {
+                    return null;
+                }
+                fields.add(Map.entry(featureAsPat.value(), fp.value));
+            }
+        } else if (pat instanceof TuplePat tuplePat) {
+            for (int i = 0; i < tuplePat.values().size(); i++) {
+                fields.add(Map.entry(Int32.of(i), tuplePat.values().get(i)));
+            }
+        } else {
+            return null;
+        }
+        fields.sort((a, b) -> FeatureComparator.SINGLETON.compare(a.getKey(), b.getKey()));
+        return fields;
+    }
+
+    /*
+     * Return the dispatch label of a pattern, or null if the pattern can match values of more than one label and
+     * arity, such as an identifier, an escaped label, or a partial arity.
+     */
+    private static Literal dispatchLabel(Pat pat) {
+        LabelPat labelPat;
+        if (pat instanceof RecPat recPat) {
+            if (recPat.partialArity()) {
+                return null;
+            }
+            labelPat = recPat.label();
+        } else if (pat instanceof TuplePat tuplePat) {
+            if (tuplePat.partialArity()) {
+                return null;
+            }
+            labelPat = tuplePat.label();
+        } else if (pat instanceof LiteralAsPat literalAsPat) {
+            labelPat = literalAsPat;
+        } else {
+            return null;
+        }
+        if (labelPat == null) {
+            return Rec.DEFAULT_LABEL;
+        }
+        if (labelPat instanceof LiteralAsPat literalAsPat) {
+            return literalAsPat.value();
+        }
+        return null;
+    }
+
+    /*
+     * Return the sorted feature index at which clauses of the same label and arity can be dispatched, starting at
+     * `start`, or -1 if there is none. The clauses must share the same sorted features. An index with an unescaped
+     * identifier in every clause is skipped because it always matches. Otherwise, the clauses leading with a literal
+     * at the index must have at least two literals, or a single literal with another index to dispatch on.
+     */
+    private static int fieldDispatchIndex(List<MatchClause> clauses, int start) {
+        List<List<Map.Entry<Feature, Pat>>> clauseFields = dispatchClauseFields(clauses);
+        if (clauseFields == null) {
+            return -1;
+        }
+        int featureCount = clauseFields.get(0).size();
+        int index = start;
+        while (index < featureCount && isIdentAtFeatureIndex(clauseFields, index)) {
+            index++;
+        }
+        if (index == featureCount) {
+            return -1;
+        }
+        LinkedHashMap<Literal, List<MatchClause>> keyed = groupFieldDispatchRun(clauses, index);
+        if (keyed.size() > 1) {
+            return index;
+        }
+        if (keyed.size() == 1 && fieldDispatchIndex(keyed.values().iterator().next(), index + 1) >= 0) {
+            return index;
+        }
+        return -1;
+    }
+
+    /*
+     * Group the clauses leading with a literal at a sorted feature index by that literal
+     */
+    private static LinkedHashMap<Literal, List<MatchClause>> groupFieldDispatchRun(List<MatchClause> clauses,
+                                                                                  int index)
+    {
+        LinkedHashMap<Literal, List<MatchClause>> keyed = new LinkedHashMap<>();
+        for (MatchClause clause : clauses) {
+            Pat valuePat = dispatchFields(clause.pat).get(index).getValue();
+            if (!(valuePat instanceof LiteralAsPat literalAsPat)) {
+                break;
+            }
+            keyed.computeIfAbsent(literalAsPat.value(), k -> new ArrayList<>()).add(clause);
+        }
+        return keyed;
+    }
+
+    private static boolean isIdentAtFeatureIndex(List<List<Map.Entry<Feature, Pat>>> clauseFields, int index) {
+        for (List<Map.Entry<Feature, Pat>> fields : clauseFields) {
+            if (!(fields.get(index).getValue() instanceof IdentAsPat identAsPat) || identAsPat.escaped) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public final Stmt acceptExpr(SntcOrExpr sntcOrExpr, Ident exprIdent) throws Exception {
         LocalTarget target = LocalTarget.createExprTargetForRoot(exprIdent);
         sntcOrExpr.accept(this, target);
-        return target.build();
+        return addressIfEnabled(target.build());
     }
 
     private Ident acceptOfferedIdentOrNextSystemVarIdent(LocalTarget target) {
@@ -163,7 +354,15 @@ public final class Generator implements LangVisitor<LocalTarget, CompleteOrIdent
     public final Stmt acceptSntc(SntcOrExpr sntcOrExpr) throws Exception {
         LocalTarget target = LocalTarget.createSntcTargetForRoot();
         sntcOrExpr.accept(this, target);
-        return target.build();
+        return addressIfEnabled(target.build());
+    }
+
+    private Stmt addressIfEnabled(Stmt stmt) throws Exception {
+        return lexicalAddressing ? LexicalAddresser.SINGLETON.apply(stmt) : stmt;
+    }
+
+    public final boolean isLexicalAddressing() {
+        return lexicalAddressing;
     }
 
     final Ident allocateNextSystemAnonymousIdent() {
@@ -258,6 +457,43 @@ public final class Generator implements LangVisitor<LocalTarget, CompleteOrIdent
         caseBodyTarget.addStmt(ifStmt);
     }
 
+    /*
+     * Create a default procedure for a dispatch statement that matches the clauses starting at `next` in source
+     * order, and then performs `elseSeq`. Return the procedure identifier, or null if there is nothing to perform.
+     * Like an else procedure, the default procedure of a case expression accepts the result identifier.
+     */
+    private Ident createDispatchDefaultProc(CompleteOrIdent arg, List<MatchClause> clauses, int next, SeqLang elseSeq,
+                                            Ident exprIdent, LocalTarget target)
+        throws Exception
+    {
+        if (next == clauses.size() && elseSeq == null) {
+            return null;
+        }
+        Ident defaultIdent = allocateNextSystemVarIdent();
+        target.addIdentDef(new IdentDef(defaultIdent));
+        LocalTarget defaultTarget;
+        List<Ident> defaultFormalArgs;
+        Ident defaultExprIdent;
+        if (exprIdent != null) {
+            defaultTarget = target.asExprTargetWithNewScope(Ident.$R);
+            defaultFormalArgs = List.of(Ident.$R);
+            defaultExprIdent = Ident.$R;
+        } else {
+            defaultTarget = target.asSntcTargetWithNewScope();
+            defaultFormalArgs = List.of();
+            defaultExprIdent = null;
+        }
+        if (next < clauses.size()) {
+            visitMatchClauses(arg, clauses.get(next), clauses, next + 1, elseSeq, defaultExprIdent, defaultTarget);
+        } else {
+            elseSeq.accept(this, defaultTarget);
+        }
+        Stmt defaultStmt = defaultTarget.build();
+        target.addStmt(new CreateProcStmt(defaultIdent, new ProcDef(defaultFormalArgs, defaultStmt, defaultStmt),
+            defaultStmt));
+        return defaultIdent;
+    }
+
     @SuppressWarnings("unchecked")
     private void createHandlersProc(ActorLang lang, Ident targetIdent, List<? extends MatchClause> handlers,
                                     String notHandledErrorName, String notHandledErrorMessage,
@@ -280,9 +516,8 @@ public final class Generator implements LangVisitor<LocalTarget, CompleteOrIdent
             Ident errorIdent = allocateNextSystemVarIdent();
             SeqLang elseUnhandledSeq = createElseUnhandledSeq(lang, errorIdent, notHandledErrorName,
                 notHandledErrorMessage, notHandledErrorDetails, endOfActorSpan);
-            // Generate match logic using case statements
-            visitMatchClauses(Ident.$M, handlers.get(0), (List<MatchClause>) handlers, 1,
-                elseUnhandledSeq, null, handlerBodyTarget);
+            // Generate match logic using a dispatch table and case statements
+            visitDispatchClauses(Ident.$M, (List<MatchClause>) handlers, elseUnhandledSeq, null, handlerBodyTarget);
             // Add a jump-catch if `return` was used during an `ask`
             if (handlerBodyTarget.isReturnUsed()) {
                 handlerBodyTarget.addStmt(new JumpCatchStmt(RETURN_ID, endOfActorSpan));
@@ -520,7 +755,10 @@ public final class Generator implements LangVisitor<LocalTarget, CompleteOrIdent
     public final CompleteOrIdent visitCaseLang(CaseLang lang, LocalTarget target) throws Exception {
         Ident exprIdent = acceptOfferedIdentOrNull(target);
         CompleteOrIdent arg = lang.arg.accept(this, target);
-        visitMatchClauses(arg, lang.caseClause, lang.altCaseClauses, 0, lang.elseSeq, exprIdent, target);
+        List<MatchClause> clauses = new ArrayList<>(lang.altCaseClauses.size() + 1);
+        clauses.add(lang.caseClause);
+        clauses.addAll(lang.altCaseClauses);
+        visitDispatchClauses(arg, clauses, lang.elseSeq, exprIdent, target);
         return exprIdent;
     }
 
@@ -560,6 +798,124 @@ public final class Generator implements LangVisitor<LocalTarget, CompleteOrIdent
         return exprIdent;
     }
 
+    /*
+     * Translate a list of clauses into a decision tree that dispatches on label and arity, and then on field values,
+     * falling back to sequential case statements for the rest. Leading clauses with a dispatch label (see
+     * `dispatchLabel`) are grouped by key. Each key branch matches its clauses in source order (see
+     * `visitDispatchFields`), and then applies a default procedure that matches the remaining clauses in source
+     * order. A value can only match clauses of its own key, therefore source order is preserved for every value. For
+     * example:
+     *
+     *     handle ask 'a'#{x: x} in ... end        // dispatched as 'a'#1
+     *     handle ask 'b' in ... end               // dispatched as 'b'
+     *     handle ask 'a'#{x: x, y: y} in ... end  // dispatched as 'a'#2
+     *     handle ask ~c in ... end                // default, with all handlers that follow
+     *
+     * If fewer than two keys lead the clauses, and the clauses of a single key cannot be dispatched on field values,
+     * a dispatch statement cannot skip any case statements and we generate sequential case statements only.
+     */
+    private void visitDispatchClauses(CompleteOrIdent arg, List<MatchClause> clauses, SeqLang elseSeq,
+                                      Ident exprIdent, LocalTarget target)
+        throws Exception
+    {
+        LinkedHashMap<Literal, LinkedHashMap<Integer, List<MatchClause>>> keyed = new LinkedHashMap<>();
+        List<MatchClause> lastKeyClauses = null;
+        int keyCount = 0;
+        int defaultNext = 0;
+        while (defaultNext < clauses.size()) {
+            MatchClause clause = clauses.get(defaultNext);
+            Literal label = dispatchLabel(clause.pat);
+            if (label == null) {
+                break;
+            }
+            List<MatchClause> keyClauses = keyed.computeIfAbsent(label, k -> new LinkedHashMap<>())
+                .computeIfAbsent(dispatchArity(clause.pat), k -> new ArrayList<>());
+            if (keyClauses.isEmpty()) {
+                keyCount++;
+                lastKeyClauses = keyClauses;
+            }
+            keyClauses.add(clause);
+            defaultNext++;
+        }
+        if (keyCount == 0 || (keyCount == 1 && fieldDispatchIndex(lastKeyClauses, 0) < 0)) {
+            visitMatchClauses(arg, clauses.get(0), clauses, 1, elseSeq, exprIdent, target);
+            return;
+        }
+        SourceSpan dispatchSpan = SourceSpan.adjoin(clauses);
+        SourceSpan endOfDispatchSpan = dispatchSpan.toSourceSpanEnd();
+        LocalTarget childTarget;
+        if (exprIdent != null) {
+            childTarget = target.asExprTargetWithNewScope(exprIdent);
+        } else {
+            childTarget = target.asSntcTargetWithNewScope();
+        }
+        Ident defaultIdent = createDispatchDefaultProc(arg, clauses, defaultNext, elseSeq, exprIdent, childTarget);
+        List<DispatchStmt.Branch> branches = new ArrayList<>(keyCount);
+        for (Map.Entry<Literal, LinkedHashMap<Integer, List<MatchClause>>> labelEntry : keyed.entrySet()) {
+            for (Map.Entry<Integer, List<MatchClause>> arityEntry : labelEntry.getValue().entrySet()) {
+                LocalTarget branchTarget = childTarget.asSntcTargetWithNewScope();
+                visitDispatchFields(arg, arityEntry.getValue(), 0, defaultIdent, exprIdent, branchTarget);
+                branches.add(new DispatchStmt.Branch(labelEntry.getKey(), arityEntry.getKey(), branchTarget.build()));
+            }
+        }
+        childTarget.addStmt(new DispatchStmt(arg, branches,
+            applyDispatchDefaultStmt(defaultIdent, exprIdent, endOfDispatchSpan), dispatchSpan));
+        target.addStmt(childTarget.build());
+    }
+
+    /*
+     * Translate clauses of the same label and arity into a decision tree over their field values, starting at the
+     * sorted feature index `start` (see `fieldDispatchIndex`). If there is no index to dispatch on, the clauses are
+     * matched by sequential case statements that apply the default procedure last. Otherwise, the clauses leading
+     * with a literal at the index are grouped by that literal, and each group is translated again at the next index.
+     * The clauses that follow are matched by a new default procedure that applies the given one last. For example,
+     * clauses for the paths ['orders'], ['orders', id], ['customers'] and ['customers', id] are dispatched on arity
+     * first, and then on the literal at feature 0.
+     */
+    private void visitDispatchFields(CompleteOrIdent arg, List<MatchClause> clauses, int start, Ident defaultIdent,
+                                     Ident exprIdent, LocalTarget target)
+        throws Exception
+    {
+        SourceSpan dispatchSpan = SourceSpan.adjoin(clauses);
+        SourceSpan endOfDispatchSpan = dispatchSpan.toSourceSpanEnd();
+        int index = fieldDispatchIndex(clauses, start);
+        if (index < 0) {
+            visitMatchClauses(arg, clauses.get(0), clauses, 1, applyDispatchDefaultSeq(defaultIdent, endOfDispatchSpan),
+                exprIdent, target);
+            return;
+        }
+        LinkedHashMap<Literal, List<MatchClause>> keyed = groupFieldDispatchRun(clauses, index);
+        int runSize = 0;
+        for (List<MatchClause> keyClauses : keyed.values()) {
+            runSize += keyClauses.size();
+        }
+        LocalTarget childTarget;
+        if (exprIdent != null) {
+            childTarget = target.asExprTargetWithNewScope(exprIdent);
+        } else {
+            childTarget = target.asSntcTargetWithNewScope();
+        }
+        Ident fieldDefaultIdent = defaultIdent;
+        if (runSize < clauses.size()) {
+            fieldDefaultIdent = createDispatchDefaultProc(arg, clauses, runSize,
+                applyDispatchDefaultSeq(defaultIdent, endOfDispatchSpan), exprIdent, childTarget);
+        }
+        List<DispatchStmt.Branch> branches = new ArrayList<>(keyed.size());
+        for (Map.Entry<Literal, List<MatchClause>> keyEntry : keyed.entrySet()) {
+            LocalTarget branchTarget = childTarget.asSntcTargetWithNewScope();
+            visitDispatchFields(arg, keyEntry.getValue(), index + 1, fieldDefaultIdent, exprIdent, branchTarget);
+            branches.add(new DispatchStmt.Branch(keyEntry.getKey(), DispatchStmt.NO_ARITY, branchTarget.build()));
+        }
+        List<Map.Entry<Feature, Pat>> fields = dispatchFields(clauses.get(0).pat);
+        List<Feature> features = new ArrayList<>(index + 1);
+        for (int i = 0; i <= index; i++) {
+            features.add(fields.get(i).getKey());
+        }
+        childTarget.addStmt(new DispatchStmt(arg, features, branches,
+            applyDispatchDefaultStmt(fieldDefaultIdent, exprIdent, endOfDispatchSpan), dispatchSpan));
+        target.addStmt(childTarget.build());
+    }
+
     @Override
     public final CompleteOrIdent visitDotSelectExpr(DotSelectExpr lang, LocalTarget target) throws Exception {
         Ident exprIdent = acceptOfferedIdentOrNextSystemVarIdent(target);
@@ -622,33 +978,28 @@ public final class Generator implements LangVisitor<LocalTarget, CompleteOrIdent
         LocalTarget iterTarget = childTarget.asExprTargetWithSameScope(Ident.$ITER);
         lang.iter.accept(this, iterTarget);
 
-        // FOR
+        // TEST
 
-        childTarget.addIdentDef(new IdentDef(Ident.$FOR));
-        LocalTarget forTarget = childTarget.asSntcTargetWithNewScope();
         IdentAsPat forNextAsPat = assertIdentAsPatNotEscaped(lang.pat);
         Ident forNext = forNextAsPat.ident;
-        forTarget.addIdentDef(new IdentDef(forNext));
-        forTarget.addStmt(new ApplyStmt(Ident.$ITER, List.of(forNext), lang.iter));
         Ident forBool = allocateNextSystemVarIdent();
-        forTarget.addIdentDef(new IdentDef(forBool));
-        forTarget.addStmt(new DisentailsStmt(forNext, Eof.SINGLETON, forBool, lang.iter));
+        Stmt testStmt = new SeqStmt(List.of(
+            new ApplyStmt(Ident.$ITER, List.of(forNext), lang.iter),
+            new DisentailsStmt(forNext, Eof.SINGLETON, forBool, lang.iter)
+        ), lang.iter);
+
+        // BODY
+
         LocalTarget forBodyTarget = childTarget.asSntcTargetForLoopBodyWithNewScope();
         lang.body.accept(this, forBodyTarget);
         if (forBodyTarget.isContinueUsed()) {
             forBodyTarget.addStmt(new JumpCatchStmt(CONTINUE_ID, lang.body.toSourceSpanEnd()));
         }
-        forBodyTarget.addStmt(new ApplyStmt(Ident.$FOR, List.of(), lang.body.toSourceSpanEnd()));
-        forTarget.addStmt(new IfStmt(forBool, forBodyTarget.build(), lang.body));
-        Stmt forStmt = forTarget.build();
-        childTarget.addStmt(new CreateProcStmt(
-            Ident.$FOR,
-            new ProcDef(List.of(), forStmt, lang.body),
-            lang.body));
 
-        // FIRST INVOCATION
+        // LOOP
 
-        childTarget.addStmt(new ApplyStmt(Ident.$FOR, List.of(), lang.body.toSourceSpanEnd()));
+        childTarget.addStmt(new LoopStmt(List.of(new IdentDef(forNext), new IdentDef(forBool)), testStmt, forBool,
+            forBodyTarget.build(), lang));
         if (forBodyTarget.isBreakUsed()) {
             childTarget.addStmt(new JumpCatchStmt(BREAK_ID, lang.body.toSourceSpanEnd()));
         }
@@ -1363,40 +1714,25 @@ public final class Generator implements LangVisitor<LocalTarget, CompleteOrIdent
 
         LocalTarget childTarget = target.asSntcTargetWithNewScope();
 
-        // GUARD
+        // TEST
 
-        childTarget.addIdentDef(new IdentDef(Ident.$GUARD));
-        LocalTarget guardTarget = childTarget.asExprTargetWithNewScope(Ident.$R);
-        lang.cond.accept(this, guardTarget);
-        Stmt guardStmt = guardTarget.build();
-        childTarget.addStmt(new CreateProcStmt(
-            Ident.$GUARD,
-            new ProcDef(List.of(Ident.$R), guardStmt, lang.cond),
-            lang.cond));
+        Ident whileBool = allocateNextSystemVarIdent();
+        LocalTarget testTarget = childTarget.asExprTargetWithNewScope(whileBool);
+        lang.cond.accept(this, testTarget);
+        Stmt testStmt = testTarget.build();
 
-        // WHILE
+        // BODY
 
-        childTarget.addIdentDef(new IdentDef(Ident.$WHILE));
-        LocalTarget whileTarget = childTarget.asSntcTargetWithNewScope();
-        Ident whileBool = allocateNextSystemVarIdent();
-        whileTarget.addIdentDef(new IdentDef(whileBool));
-        whileTarget.addStmt(new ApplyStmt(Ident.$GUARD, List.of(whileBool), lang.cond));
         LocalTarget whileBodyTarget = childTarget.asSntcTargetForLoopBodyWithNewScope();
         lang.body.accept(this, whileBodyTarget);
         if (whileBodyTarget.isContinueUsed()) {
             whileBodyTarget.addStmt(new JumpCatchStmt(CONTINUE_ID, lang.body.toSourceSpanEnd()));
         }
-        whileBodyTarget.addStmt(new ApplyStmt(Ident.$WHILE, List.of(), lang.body.toSourceSpanEnd()));
-        whileTarget.addStmt(new IfStmt(whileBool, whileBodyTarget.build(), lang.body));
-        Stmt whileStmt = whileTarget.build();
-        childTarget.addStmt(new CreateProcStmt(
-            Ident.$WHILE,
-            new ProcDef(List.of(), whileStmt, lang.body),
-            lang.body));
 
-        // FIRST INVOCATION
+        // LOOP
 
-        childTarget.addStmt(new ApplyStmt(Ident.$WHILE, List.of(), lang.body.toSourceSpanEnd()));
+        childTarget.addStmt(new LoopStmt(List.of(new IdentDef(whileBool)), testStmt, whileBool,
+            whileBodyTarget.build(), lang));
         if (whileBodyTarget.isBreakUsed()) {
             childTarget.addStmt(new JumpCatchStmt(BREAK_ID, lang.body.toSourceSpanEnd()));
         }
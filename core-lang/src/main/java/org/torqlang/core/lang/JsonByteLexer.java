@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.lang;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/*
+ * A JSON lexer over UTF-8 bytes. See `JsonLexer` for the grammar.
+ *
+ * Unlike `JsonLexer`, this lexer does not allocate a token per call. It returns the same `JsonByteLexerToken` from
+ * every call to `nextToken`, overwritten with the next token. Strings are scanned eight bytes at a time for a quote or
+ * backslash, and a string without escapes is later decoded directly from the source bytes.
+ *
+ * Multibyte UTF-8 sequences need no special handling while scanning because every byte of a multibyte sequence is
+ * greater than 0x7F, and therefore never equal to a quote, backslash, or delimiter.
+ */
+public final class JsonByteLexer {
+
+    private static final VarHandle LONG_VIEW = MethodHandles.byteArrayViewVarHandle(long[].class,
+        ByteOrder.LITTLE_ENDIAN);
+
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGHS = 0x8080808080808080L;
+    private static final long QUOTES = ONES * '"';
+    private static final long BACKSLASHES = ONES * '\\';
+
+    private final byte[] source;
+    private final int offset;
+    private final int limit;
+    private final JsonByteLexerToken token;
+
+    private int bytePos;
+
+    public JsonByteLexer(byte[] source) {
+        this(source, 0, source.length);
+    }
+
+    public JsonByteLexer(byte[] source, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > source.length) {
+            throw new IllegalArgumentException("Invalid offset or length: " + offset + ", " + length);
+        }
+        this.source = source;
+        this.offset = offset;
+        this.limit = offset + length;
+        this.token = new JsonByteLexerToken(source, offset);
+        this.bytePos = offset;
+    }
+
+    /*
+     * Lex the remaining bytes of the buffer without consuming them. A heap buffer is lexed in place.
+     */
+    public static JsonByteLexer create(ByteBuffer source) {
+        if (source.hasArray()) {
+            return new JsonByteLexer(source.array(), source.arrayOffset() + source.position(), source.remaining());
+        }
+        byte[] bytes = new byte[source.remaining()];
+        source.duplicate().get(bytes);
+        return new JsonByteLexer(bytes);
+    }
+
+    private static boolean isDelimiter(byte b) {
+        return b == ',' || b == '{' || b == '}' || b == '[' || b == ']' || b == ':';
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static boolean isWhiteSpace(byte b) {
+        return b == ' ' || b == '\r' || b == '\n' || b == '\t' || b == '\f' || b == '\b';
+    }
+
+    /*
+     * Return a word with the high bit set in each byte of `word` that equals the corresponding byte of `pattern`.
+     * Bytes above the first match may be falsely marked because of the borrow, but the lowest marked byte is always
+     * a true match.
+     */
+    private static long matches(long word, long pattern) {
+        long x = word ^ pattern;
+        return (x - ONES) & ~x & HIGHS;
+    }
+
+    public final int bytePos() {
+        return bytePos - offset;
+    }
+
+    private IllegalArgumentException invalidToken(JsonLexerTokenType type, int start, String message) {
+        token.set(type, start, Math.min(bytePos, limit));
+        return new IllegalArgumentException(message + " - " + token);
+    }
+
+    private boolean isTerminatorAt(int index) {
+        return index == limit || isWhiteSpace(source[index]) || isDelimiter(source[index]);
+    }
+
+    public final JsonByteLexerToken nextToken() {
+        skipWhitespace();
+        if (bytePos == limit) {
+            token.set(JsonLexerTokenType.EOF, bytePos, bytePos);
+            return token;
+        }
+        byte b = source[bytePos];
+        if (b == '"') {
+            return parseString();
+        }
+        if (isDigit(b) || b == '-' || b == '+') {
+            return parseNumber();
+        }
+        if (isDelimiter(b)) {
+            int start = bytePos++;
+            token.set(JsonLexerTokenType.DELIMITER, start, bytePos);
+            return token;
+        }
+        return parseKeyword();
+    }
+
+    private void parseDigits(JsonLexerTokenType type, int start, String message) {
+        if (bytePos == limit || !isDigit(source[bytePos])) {
+            bytePos++; // accept the nonsensical byte as part of the value
+            throw invalidToken(type, start, message);
+        }
+        do {
+            bytePos++;
+        } while (bytePos < limit && isDigit(source[bytePos]));
+    }
+
+    private JsonByteLexerToken parseKeyword() {
+        int start = bytePos;
+        byte b = source[start];
+        JsonLexerTokenType type;
+        String keyword;
+        String message;
+        if (b == 't') {
+            type = JsonLexerTokenType.BOOLEAN;
+            keyword = "true";
+            message = JsonLexer.INVALID_BOOLEAN_EXPRESSION;
+        } else if (b == 'f') {
+            type = JsonLexerTokenType.BOOLEAN;
+            keyword = "false";
+            message = JsonLexer.INVALID_BOOLEAN_EXPRESSION;
+        } else if (b == 'n') {
+            type = JsonLexerTokenType.NULL;
+            keyword = "null";
+            message = JsonLexer.INVALID_NULL_EXPRESSION;
+        } else {
+            throw new IllegalArgumentException(JsonLexer.INVALID_KEYWORD_EXPRESSION);
+        }
+        int stop = start + keyword.length();
+        if (stop > limit) {
+            throw new IllegalArgumentException(JsonLexer.INVALID_KEYWORD_EXPRESSION);
+        }
+        for (int i = 1; i < keyword.length(); i++) {
+            if (source[start + i] != keyword.charAt(i)) {
+                throw new IllegalArgumentException(JsonLexer.INVALID_KEYWORD_EXPRESSION);
+            }
+        }
+        bytePos = stop;
+        if (!isTerminatorAt(stop)) {
+            bytePos++; // accept the nonsensical byte as part of the value
+            throw invalidToken(JsonLexerTokenType.INVALID, start, message);
+        }
+        token.set(type, start, stop);
+        return token;
+    }
+
+    /*
+     * A number is an optional sign, digits, an optional fraction, and an optional exponent with an optional sign.
+     */
+    private JsonByteLexerToken parseNumber() {
+        int start = bytePos;
+        if (source[bytePos] == '-' || source[bytePos] == '+') {
+            bytePos++;
+        }
+        parseDigits(JsonLexerTokenType.INVALID, start, JsonLexer.INVALID_NUMBER_EXPRESSION);
+        boolean decimal = false;
+        if (bytePos < limit && source[bytePos] == '.') {
+            bytePos++;
+            parseDigits(JsonLexerTokenType.NUMBER, start, JsonLexer.INVALID_FLOATING_POINT_EXPRESSION);
+            decimal = true;
+        }
+        if (bytePos < limit && (source[bytePos] == 'e' || source[bytePos] == 'E')) {
+            bytePos++;
+            decimal = true;
+            if (bytePos < limit && (source[bytePos] == '-' || source[bytePos] == '+')) {
+                bytePos++;
+            }
+            parseDigits(JsonLexerTokenType.INVALID, start, JsonLexer.INVALID_NUMBER_EXPRESSION);
+        }
+        if (!isTerminatorAt(bytePos)) {
+            bytePos++; // accept the nonsensical byte as part of the value
+            throw invalidToken(JsonLexerTokenType.INVALID, start, JsonLexer.INVALID_NUMBER_EXPRESSION);
+        }
+        token.set(JsonLexerTokenType.NUMBER, start, bytePos);
+        if (decimal) {
+            token.markDecimal();
+        }
+        return token;
+    }
+
+    private JsonByteLexerToken parseString() {
+        int start = bytePos;
+        int i = start + 1;
+        boolean escaped = false;
+        while (true) {
+            // Skip eight bytes at a time until a word contains a quote or backslash
+            while (i + Long.BYTES <= limit) {
+                long word = (long) LONG_VIEW.get(source, i);
+                long found = matches(word, QUOTES) | matches(word, BACKSLASHES);
+                if (found != 0) {
+                    i += Long.numberOfTrailingZeros(found) >>> 3;
+                    break;
+                }
+                i += Long.BYTES;
+            }
+            // Skip the remaining bytes one at a time, if any, until a quote or backslash
+            while (i < limit && source[i] != '"' && source[i] != '\\') {
+                i++;
+            }
+            if (i >= limit) {
+                bytePos = limit;
+                throw invalidToken(JsonLexerTokenType.STRING, start, JsonLexer.STRING_IS_MISSING_CLOSING_QUOTE);
+            }
+            if (source[i] == '"') {
+                break;
+            }
+            // Skip the backslash and the escaped byte. A unicode escape is validated by the token.
+            escaped = true;
+            i += 2;
+        }
+        bytePos = i + 1;
+        token.set(JsonLexerTokenType.STRING, start, bytePos);
+        if (escaped) {
+            token.markEscaped();
+        }
+        return token;
+    }
+
+    public final void skipWhitespace() {
+        while (bytePos < limit && isWhiteSpace(source[bytePos])) {
+            bytePos++;
+        }
+    }
+
+    public final JsonByteLexerToken token() {
+        return token;
+    }
+
+}
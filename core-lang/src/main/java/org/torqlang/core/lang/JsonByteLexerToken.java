@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.lang;
+
+import java.nio.charset.StandardCharsets;
+
+/*
+ * The current token of a `JsonByteLexer`. A lexer has exactly one token, which is overwritten by each call to
+ * `nextToken`. Therefore, a caller must take what it needs from the token before it asks for the next token.
+ *
+ * Positions are byte offsets relative to the start of the source.
+ */
+public final class JsonByteLexerToken {
+
+    private static final int MAX_FAST_LONG_LENGTH = 18;
+
+    private final byte[] source;
+    private final int offset;
+
+    private JsonLexerTokenType type;
+    private int begin;
+    private int end;
+    private boolean decimal;
+    private boolean escaped;
+
+    JsonByteLexerToken(byte[] source, int offset) {
+        this.source = source;
+        this.offset = offset;
+    }
+
+    public final int begin() {
+        return begin - offset;
+    }
+
+    public final double doubleValue() {
+        return Double.parseDouble(substring());
+    }
+
+    public final int end() {
+        return end - offset;
+    }
+
+    public final byte firstByte() {
+        return source[begin];
+    }
+
+    public final boolean isColonChar() {
+        return type == JsonLexerTokenType.DELIMITER && source[begin] == ':';
+    }
+
+    public final boolean isCommaChar() {
+        return type == JsonLexerTokenType.DELIMITER && source[begin] == ',';
+    }
+
+    /*
+     * True if this token is a number with a fraction or exponent
+     */
+    public final boolean isDecimal() {
+        return decimal;
+    }
+
+    /*
+     * True if this token is a string containing at least one escape sequence
+     */
+    public final boolean isEscaped() {
+        return escaped;
+    }
+
+    public final boolean isRightBraceChar() {
+        return type == JsonLexerTokenType.DELIMITER && source[begin] == '}';
+    }
+
+    public final boolean isRightBracketChar() {
+        return type == JsonLexerTokenType.DELIMITER && source[begin] == ']';
+    }
+
+    public final int length() {
+        return end - begin;
+    }
+
+    /*
+     * Return the value of this number token. An integer of up to 18 digits cannot overflow and is accumulated
+     * directly from the source bytes.
+     */
+    public final long longValue() {
+        if (type != JsonLexerTokenType.NUMBER || decimal) {
+            throw new IllegalStateException("Not an integer token: " + this);
+        }
+        int i = begin;
+        boolean negative = source[i] == '-';
+        if (negative || source[i] == '+') {
+            i++;
+        }
+        if (end - i > MAX_FAST_LONG_LENGTH) {
+            return Long.parseLong(substring());
+        }
+        long answer = 0;
+        while (i < end) {
+            answer = answer * 10 + (source[i++] - '0');
+        }
+        return negative ? -answer : answer;
+    }
+
+    final void markDecimal() {
+        decimal = true;
+    }
+
+    final void markEscaped() {
+        escaped = true;
+    }
+
+    final void set(JsonLexerTokenType type, int begin, int end) {
+        this.type = type;
+        this.begin = begin;
+        this.end = end;
+        this.decimal = false;
+        this.escaped = false;
+    }
+
+    /*
+     * Return the value of this string token without quotes. A string without escapes is decoded directly from the
+     * source bytes.
+     */
+    public final String stringValue() {
+        if (type != JsonLexerTokenType.STRING) {
+            throw new IllegalStateException("Not a string token: " + this);
+        }
+        int contentBegin = begin + 1;
+        int contentEnd = end - 1;
+        if (!escaped) {
+            return new String(source, contentBegin, contentEnd - contentBegin, StandardCharsets.UTF_8);
+        }
+        StringBuilder sb = new StringBuilder(contentEnd - contentBegin);
+        int runBegin = contentBegin;
+        int i = contentBegin;
+        while (i < contentEnd) {
+            if (source[i] != '\\') {
+                i++;
+                continue;
+            }
+            if (i > runBegin) {
+                sb.append(new String(source, runBegin, i - runBegin, StandardCharsets.UTF_8));
+            }
+            byte b = source[i + 1];
+            if (b == 'u') {
+                if (i + 6 > contentEnd) {
+                    throw new IllegalArgumentException("Invalid unicode escape - " + this);
+                }
+                int code = 0;
+                for (int j = i + 2; j < i + 6; j++) {
+                    int digit = Character.digit(source[j], 16);
+                    if (digit < 0) {
+                        throw new IllegalArgumentException("Invalid unicode escape - " + this);
+                    }
+                    code = (code << 4) | digit;
+                }
+                sb.append((char) code);
+                i += 6;
+            } else {
+                sb.append(unescape(b));
+                i += 2;
+            }
+            runBegin = i;
+        }
+        if (i > runBegin) {
+            sb.append(new String(source, runBegin, i - runBegin, StandardCharsets.UTF_8));
+        }
+        return sb.toString();
+    }
+
+    public final String substring() {
+        return new String(source, begin, end - begin, StandardCharsets.UTF_8);
+    }
+
+    public final String toString() {
+        return "[" + begin() + ", " + end() + "] " + type + ": " + substring();
+    }
+
+    public final JsonLexerTokenType type() {
+        return type;
+    }
+
+    private char unescape(byte b) {
+        if (b == 't') {
+            return '\t';
+        }
+        if (b == 'b') {
+            return '\b';
+        }
+        if (b == 'n') {
+            return '\n';
+        }
+        if (b == 'r') {
+            return '\r';
+        }
+        if (b == 'f') {
+            return '\f';
+        }
+        if (b == '\\') {
+            return '\\';
+        }
+        if (b == '/') {
+            return '/';
+        }
+        if (b == '"') {
+            return '"';
+        }
+        throw new IllegalArgumentException("Invalid escape sequence: \\" + (char) (b & 0xFF));
+    }
+
+}
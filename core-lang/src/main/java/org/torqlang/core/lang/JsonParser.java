@@ -7,24 +7,44 @@
 
 package org.torqlang.core.lang;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+/*
+ * Parse JSON text into native values: `Map`, `List`, `String`, `Long`, `Double`, `Boolean`, and `JsonNull`.
+ *
+ * Text is lexed as UTF-8 bytes by a `JsonByteLexer`. A string source is encoded first, whereas a byte source is lexed
+ * in place.
+ */
 public class JsonParser {
 
-    private final JsonLexer lexer;
-    private JsonLexerToken currentToken;
+    private final JsonByteLexer lexer;
+    private JsonByteLexerToken currentToken;
 
     public JsonParser(String source) {
-        this.lexer = new JsonLexer(source);
+        this(source.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public JsonParser(byte[] source) {
+        this.lexer = new JsonByteLexer(source);
+    }
+
+    public JsonParser(ByteBuffer source) {
+        this.lexer = JsonByteLexer.create(source);
     }
 
     public static Object parse(String source) {
         return new JsonParser(source).parse();
     }
 
+    public static Object parse(byte[] source) {
+        return new JsonParser(source).parse();
+    }
+
     public static <T> T parseAndCast(String source) {
         return new JsonParser(source).parseAndCast();
     }
@@ -49,23 +69,17 @@ public class JsonParser {
 
     private Object parseAny() {
         if (currentToken.type() == JsonLexerTokenType.STRING) {
-            String answer = unquote(currentToken);
+            String answer = currentToken.stringValue();
             nextToken(); // accept string
             return answer;
         }
         if (currentToken.type() == JsonLexerTokenType.NUMBER) {
-            Number answer;
-            String s = currentToken.substring();
-            if (s.indexOf('.') > -1) {
-                answer = Double.parseDouble(s);
-            } else {
-                answer = Long.parseLong(s);
-            }
+            Number answer = parseNumber(currentToken);
             nextToken(); // accept number
             return answer;
         }
         if (currentToken.type() == JsonLexerTokenType.BOOLEAN) {
-            Boolean answer = currentToken.firstChar() == 't';
+            Boolean answer = currentToken.firstByte() == 't';
             nextToken(); // accept boolean
             return answer;
         }
@@ -74,12 +88,14 @@ public class JsonParser {
             return JsonNull.SINGLETON;
         }
         Object answer;
-        if (currentToken.firstChar() == '{') {
+        if (currentToken.type() == JsonLexerTokenType.DELIMITER && currentToken.firstByte() == '{') {
             answer = parseObject();
-        } else if (currentToken.firstChar() == '[') {
+        } else if (currentToken.type() == JsonLexerTokenType.DELIMITER && currentToken.firstByte() == '[') {
             answer = parseArray();
+        } else if (currentToken.type() == JsonLexerTokenType.DELIMITER) {
+            throw new IllegalArgumentException("Unexpected delimiter: " + currentToken.substring());
         } else {
-            throw new IllegalArgumentException("Unexpected delimiter: " + currentToken.firstChar());
+            throw new IllegalArgumentException("Unexpected token: " + currentToken);
         }
         return answer;
     }
@@ -105,7 +121,7 @@ public class JsonParser {
             if (currentToken.type() != JsonLexerTokenType.STRING) {
                 throw new IllegalArgumentException("String expected - " + currentToken);
             }
-            String key = unquote(currentToken);
+            String key = currentToken.stringValue();
             nextToken(); // accept key
             if (!currentToken.isColonChar()) {
                 throw new IllegalArgumentException(": expected - " + currentToken);
@@ -121,50 +137,14 @@ public class JsonParser {
         return answer;
     }
 
-    private String unquote(JsonLexerToken stringToken) {
-        String source = stringToken.source();
-        int begin = stringToken.begin() + 1;
-        int end = stringToken.end() - 1;
-        StringBuilder sb = new StringBuilder((end - begin) * 2);
-        int i = begin;
-        while (i < end) {
-            char c1 = source.charAt(i);
-            if (c1 == '\\') {
-                char c2 = source.charAt(i + 1);
-                if (c2 != 'u') {
-                    if (c2 == 't') {
-                        c1 = '\t';
-                    } else if (c2 == 'b') {
-                        c1 = '\b';
-                    } else if (c2 == 'n') {
-                        c1 = '\n';
-                    } else if (c2 == 'r') {
-                        c1 = '\r';
-                    } else if (c2 == 'f') {
-                        c1 = '\f';
-                    } else if (c2 == '\\') {
-                        c1 = '\\';
-                    } else if (c2 == '/') {
-                        c1 = '/';
-                    } else if (c2 == '"') {
-                        c1 = '"';
-                    } else {
-                        throw new IllegalArgumentException("Invalid escape sequence: " + c1 + c2);
-                    }
-                    sb.append(c1);
-                    i += 2;
-                } else {
-                    int code = Integer.parseInt("" + source.charAt(i + 2) + source.charAt(i + 3) +
-                        source.charAt(i + 4) + source.charAt(i + 5), 16);
-                    sb.append(Character.toChars(code));
-                    i += 6;
-                }
-            } else {
-                sb.append(c1);
-                i++;
-            }
+    /*
+     * A number with a fraction or exponent is a Double, otherwise a Long
+     */
+    private Number parseNumber(JsonByteLexerToken numberToken) {
+        if (numberToken.isDecimal()) {
+            return numberToken.doubleValue();
         }
-        return sb.toString();
+        return numberToken.longValue();
     }
 
 }
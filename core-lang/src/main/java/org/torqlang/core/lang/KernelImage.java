@@ -0,0 +1,1199 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.lang;
+
+import org.torqlang.core.klvm.*;
+import org.torqlang.core.util.SourceSpan;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/*
+ * KernelImage encodes generated kernel code as a compact binary image and decodes it again. An image lets a later
+ * process skip the lexer, parser, and generator for the same source.
+ *
+ * Layout (big-endian):
+ *
+ *     magic        int         MAGIC
+ *     version      int         FORMAT_VERSION
+ *     strings      int count, then each string as an int byte length and UTF-8 bytes
+ *     kernels      int count, then each kernel as a tagged tree
+ *
+ * The first two strings are the source and the variant of the image. All other strings, such as identifier names,
+ * `Str` values, and the source text of source spans, are written once and referenced by their index. A kernel is a tag
+ * byte followed by its constructor arguments in order. A source span is a string index, a begin, and an end.
+ *
+ * Only generated kernel code can be encoded. Runtime values, such as closures, cells, vars, and actor configurators,
+ * throw an IllegalArgumentException. Increment FORMAT_VERSION whenever the encoding or the shape of generated code
+ * changes. An image of another version is not decoded.
+ */
+public final class KernelImage {
+
+    public static final int MAGIC = 0x54514B49; // 'TQKI'
+    public static final int FORMAT_VERSION = 3;
+
+    private static final int SPAN_NULL = -1;
+    private static final int SPAN_EMPTY = -2;
+
+    private static final byte NULL_REF = 0;
+
+    private static final byte ACT_STMT = 1;
+    private static final byte ADD_STMT = 2;
+    private static final byte APPLY_STMT = 3;
+    private static final byte BIND_COMPLETE_TO_COMPLETE_STMT = 4;
+    private static final byte BIND_COMPLETE_TO_IDENT_STMT = 5;
+    private static final byte BIND_IDENT_TO_IDENT_STMT = 6;
+    private static final byte CASE_ELSE_STMT = 7;
+    private static final byte CASE_STMT = 8;
+    private static final byte CATCH_STMT = 9;
+    private static final byte CREATE_ACTOR_CFGTR_STMT = 10;
+    private static final byte CREATE_PROC_STMT = 11;
+    private static final byte CREATE_REC_STMT = 12;
+    private static final byte CREATE_TUPLE_STMT = 13;
+    private static final byte DISENTAILS_STMT = 14;
+    private static final byte DIVIDE_STMT = 15;
+    private static final byte ENTAILS_STMT = 16;
+    private static final byte GET_CELL_VALUE_STMT = 17;
+    private static final byte GREATER_THAN_OR_EQUAL_TO_STMT = 18;
+    private static final byte GREATER_THAN_STMT = 19;
+    private static final byte IF_ELSE_STMT = 20;
+    private static final byte IF_STMT = 21;
+    private static final byte JUMP_CATCH_STMT = 22;
+    private static final byte JUMP_THROW_STMT = 23;
+    private static final byte LESS_THAN_OR_EQUAL_TO_STMT = 24;
+    private static final byte LESS_THAN_STMT = 25;
+    private static final byte LOCAL_STMT = 26;
+    private static final byte LOOP_STMT = 27;
+    private static final byte MODULO_STMT = 28;
+    private static final byte MULTIPLY_STMT = 29;
+    private static final byte NEGATE_STMT = 30;
+    private static final byte NOT_STMT = 31;
+    private static final byte SELECT_AND_APPLY_STMT = 32;
+    private static final byte SELECT_STMT = 33;
+    private static final byte SEQ_STMT = 34;
+    private static final byte SET_CELL_VALUE_STMT = 35;
+    private static final byte SKIP_STMT = 36;
+    private static final byte SUBTRACT_STMT = 37;
+    private static final byte THROW_STMT = 38;
+    private static final byte TRY_STMT = 39;
+    private static final byte DISPATCH_STMT = 40;
+
+    private static final byte IDENT = 50;
+    private static final byte IDENT_PTN = 51;
+    private static final byte REC_PTN = 52;
+
+    private static final byte BOOL = 60;
+    private static final byte CHAR = 61;
+    private static final byte COMPLETE_REC = 62;
+    private static final byte COMPLETE_TUPLE = 63;
+    private static final byte DEC128 = 64;
+    private static final byte EOF = 65;
+    private static final byte FLT32 = 66;
+    private static final byte FLT64 = 67;
+    private static final byte INT32 = 68;
+    private static final byte INT64 = 69;
+    private static final byte NULL = 70;
+    private static final byte STR = 71;
+
+    private KernelImage() {
+    }
+
+    /*
+     * Decode the kernels of an image. Return null if the image has another format version, or if it was encoded for
+     * another source or variant. Throw an IllegalArgumentException, or a runtime exception from the buffer, if the
+     * image is corrupt.
+     */
+    public static List<Kernel> decode(ByteBuffer buffer, String source, String variant) {
+        if (buffer.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a kernel image");
+        }
+        if (buffer.getInt() != FORMAT_VERSION) {
+            return null;
+        }
+        Decoder decoder = new Decoder(buffer);
+        if (!decoder.strings[0].equals(source) || !decoder.strings[1].equals(variant)) {
+            return null;
+        }
+        int count = buffer.getInt();
+        List<Kernel> answer = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            answer.add(decoder.readKernel());
+        }
+        if (buffer.hasRemaining()) {
+            throw new IllegalArgumentException("Unexpected bytes after kernel image");
+        }
+        return answer;
+    }
+
+    /*
+     * Encode the given kernels, which were generated from the given source, as an image.
+     */
+    public static byte[] encode(String source, String variant, List<? extends Kernel> kernels) throws Exception {
+        Encoder encoder = new Encoder();
+        encoder.stringIndex(source);
+        encoder.stringIndex(variant);
+        encoder.out.writeInt(kernels.size());
+        for (Kernel kernel : kernels) {
+            encoder.writeKernel(kernel);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(encoder.bytes.size() + source.length() + 64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(encoder.strings.size());
+        for (String s : encoder.strings) {
+            byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(utf8.length);
+            out.write(utf8);
+        }
+        encoder.bytes.writeTo(out);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static final class Decoder {
+
+        private final ByteBuffer buffer;
+        private final String[] strings;
+        private final Str[] strs;
+
+        private Decoder(ByteBuffer buffer) {
+            this.buffer = buffer;
+            int count = buffer.getInt();
+            if (count < 2 || count > buffer.remaining()) {
+                throw new IllegalArgumentException("Invalid string count: " + count);
+            }
+            strings = new String[count];
+            for (int i = 0; i < count; i++) {
+                int length = buffer.getInt();
+                if (length < 0 || length > buffer.remaining()) {
+                    throw new IllegalArgumentException("Invalid string length: " + length);
+                }
+                byte[] utf8 = new byte[length];
+                buffer.get(utf8);
+                strings[i] = new String(utf8, StandardCharsets.UTF_8);
+            }
+            strs = new Str[count];
+        }
+
+        private CompleteOrIdent readCompleteOrIdent() {
+            return (CompleteOrIdent) readKernel();
+        }
+
+        private List<CompleteOrIdent> readCompleteOrIdents() {
+            int count = readCount();
+            List<CompleteOrIdent> answer = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                answer.add(readCompleteOrIdent());
+            }
+            return answer;
+        }
+
+        private int readCount() {
+            int count = buffer.getInt();
+            if (count < 0 || count > buffer.remaining()) {
+                throw new IllegalArgumentException("Invalid count: " + count);
+            }
+            return count;
+        }
+
+        private Ident readIdent() {
+            return (Ident) readKernel();
+        }
+
+        private List<Ident> readIdents() {
+            int count = readCount();
+            List<Ident> answer = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                answer.add(readIdent());
+            }
+            return answer;
+        }
+
+        private List<IdentDef> readIdentDefs() {
+            int count = readCount();
+            List<IdentDef> answer = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                answer.add(new IdentDef(readIdent(), (Complete) readKernel()));
+            }
+            return answer;
+        }
+
+        private Kernel readKernel() {
+            byte tag = buffer.get();
+            if (tag == NULL_REF) {
+                return null;
+            }
+            if (tag < IDENT) {
+                return readStmt(tag);
+            }
+            if (tag == IDENT) {
+                Ident ident = Ident.createPrivately(readString());
+                int depth = buffer.getInt();
+                int slot = buffer.getInt();
+                return slot >= 0 ? ident.withAddress(depth, slot) : ident;
+            }
+            if (tag == IDENT_PTN) {
+                return new IdentPtn(readIdent(), buffer.get() != 0);
+            }
+            if (tag == REC_PTN) {
+                LiteralOrIdentPtn label = (LiteralOrIdentPtn) readKernel();
+                int count = readCount();
+                List<FieldPtn> fields = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    fields.add(new FieldPtn((FeatureOrIdentPtn) readKernel(), (ValueOrIdentPtn) readKernel(),
+                        readSourceSpan()));
+                }
+                return new BasicRecPtn(label, fields, buffer.get() != 0, readSourceSpan());
+            }
+            return readValue(tag);
+        }
+
+        private SourceSpan readSourceSpan() {
+            int sourceIndex = buffer.getInt();
+            if (sourceIndex == SPAN_NULL) {
+                return null;
+            }
+            if (sourceIndex == SPAN_EMPTY) {
+                return SourceSpan.emptySourceSpan();
+            }
+            return new ImageSourceSpan(strings[sourceIndex], buffer.getInt(), buffer.getInt());
+        }
+
+        private Stmt readStmt() {
+            return (Stmt) readKernel();
+        }
+
+        private Stmt readStmt(byte tag) {
+            if (tag == ACT_STMT) {
+                return new ActStmt(readStmt(), readIdent(), readSourceSpan());
+            }
+            if (tag == ADD_STMT) {
+                return new AddStmt(readCompleteOrIdent(), readCompleteOrIdent(), readIdent(), readSourceSpan());
+            }
+            if (tag == APPLY_STMT) {
+                return new ApplyStmt(readCompleteOrIdent(), readCompleteOrIdents(), readSourceSpan());
+            }
+            if (tag == BIND_COMPLETE_TO_COMPLETE_STMT) {
+                return new BindCompleteToCompleteStmt((Complete) readKernel(), (Complete) readKernel(),
+                    readSourceSpan());
+            }
+            if (tag == BIND_COMPLETE_TO_IDENT_STMT) {
+                return new BindCompleteToIdentStmt((Complete) readKernel(), readIdent(), readSourceSpan());
+            }
+            if (tag == BIND_IDENT_TO_IDENT_STMT) {
+                return new BindIdentToIdentStmt(readIdent(), readIdent(), readSourceSpan());
+            }
+            if (tag == CASE_ELSE_STMT) {
+                return new CaseElseStmt(readCompleteOrIdent(), (ValueOrPtn) readKernel(), readStmt(), readStmt(),
+                    readSourceSpan());
+            }
+            if (tag == CASE_STMT) {
+                return new CaseStmt(readCompleteOrIdent(), (ValueOrPtn) readKernel(), readStmt(), readSourceSpan());
+            }
+            if (tag == CATCH_STMT) {
+                return new CatchStmt(readIdent(), readStmt(), readSourceSpan());
+            }
+            if (tag == CREATE_ACTOR_CFGTR_STMT) {
+                return new CreateActorCfgtrStmt(readIdent(), readProcDef(), readSourceSpan());
+            }
+            if (tag == CREATE_PROC_STMT) {
+                return new CreateProcStmt(readIdent(), readProcDef(), readSourceSpan());
+            }
+            if (tag == CREATE_REC_STMT) {
+                Ident x = readIdent();
+                LiteralOrIdent label = (LiteralOrIdent) readKernel();
+                int count = readCount();
+                List<FieldDef> fieldDefs = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    fieldDefs.add(new FieldDef((FeatureOrIdent) readKernel(), readCompleteOrIdent(),
+                        readSourceSpan()));
+                }
+                RecDef recDef = new RecDef(label, fieldDefs, readSourceSpan());
+                return new CreateRecStmt(x, recDef, readSourceSpan());
+            }
+            if (tag == CREATE_TUPLE_STMT) {
+                Ident x = readIdent();
+                LiteralOrIdent label = (LiteralOrIdent) readKernel();
+                int count = readCount();
+                List<ValueDef> valueDefs = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    valueDefs.add(new ValueDef(readCompleteOrIdent(), readSourceSpan()));
+                }
+                TupleDef tupleDef = new TupleDef(label, valueDefs, readSourceSpan());
+                return new CreateTupleStmt(x, tupleDef, readSourceSpan());
+            }
+            if (tag == DISENTAILS_STMT) {
+                return new DisentailsStmt(readCompleteOrIdent(), readCompleteOrIdent(), readIdent(), readSourceSpan());
+            }
+            if (tag == DISPATCH_STMT) {
+                CompleteOrIdent x = readCompleteOrIdent();
+                int featureCount = readCount();
+                List<Feature> features = new ArrayList<>(featureCount);
+                for (int i = 0; i < featureCount; i++) {
+                    features.add((Feature) readKernel());
+                }
+                int count = readCount();
+                List<DispatchStmt.Branch> branches = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    branches.add(new DispatchStmt.Branch((Literal) readKernel(), buffer.getInt(), readStmt()));
+                }
+                return new DispatchStmt(x, features, branches, readStmt(), readSourceSpan());
+            }
+            if (tag == DIVIDE_STMT) {
+                return new DivideStmt(readCompleteOrIdent(), readCompleteOrIdent(), readIdent(), readSourceSpan());
+            }
+            if (tag == ENTAILS_STMT) {
+                return new EntailsStmt(readCompleteOrIdent(), readCompleteOrIdent(), readIdent(), readSourceSpan());
+            }
+            if (tag == GET_CELL_VALUE_STMT) {
+                return new GetCellValueStmt(readIdent(), readIdent(), readSourceSpan());
+            }
+            if (tag == GREATER_THAN_OR_EQUAL_TO_STMT) {
+                return new GreaterThanOrEqualToStmt(readCompleteOrIdent(), readCompleteOrIdent(), readIdent(),
+                    readSourceSpan());
+            }
+            if (tag == GREATER_THAN_STMT) {
+                return new GreaterThanStmt(readCompleteOrIdent(), readCompleteOrIdent(), readIdent(),
+                    readSourceSpan());
+            }
+            if (tag == IF_ELSE_STMT) {
+                return new IfElseStmt(readCompleteOrIdent(), readStmt(), readStmt(), readSourceSpan());
+            }
+            if (tag == IF_STMT) {
+                return new IfStmt(readCompleteOrIdent(), readStmt(), readSourceSpan());
+            }
+            if (tag == JUMP_CATCH_STMT) {
+                return new JumpCatchStmt(buffer.getInt(), readSourceSpan());
+            }
+            if (tag == JUMP_THROW_STMT) {
+                return new JumpThrowStmt(buffer.getInt(), readSourceSpan());
+            }
+            if (tag == LESS_THAN_OR_EQUAL_TO_STMT) {
+                return new LessThanOrEqualToStmt(readCompleteOrIdent(), readCompleteOrIdent(), readIdent(),
+                    readSourceSpan());
+            }
+            if (tag == LESS_THAN_STMT) {
+                return new LessThanStmt(readCompleteOrIdent(), readCompleteOrIdent(), readIdent(), readSourceSpan());
+            }
+            if (tag == LOCAL_STMT) {
+                return new LocalStmt(readIdentDefs(), readStmt(), readSourceSpan());
+            }
+            if (tag == LOOP_STMT) {
+                return new LoopStmt(readIdentDefs(), readStmt(), readIdent(), readStmt(), readSourceSpan());
+            }
+            if (tag == MODULO_STMT) {
+                return new ModuloStmt(readCompleteOrIdent(), readCompleteOrIdent(), readIdent(), readSourceSpan());
+            }
+            if (tag == MULTIPLY_STMT) {
+                return new MultiplyStmt(readCompleteOrIdent(), readCompleteOrIdent(), readIdent(), readSourceSpan());
+            }
+            if (tag == NEGATE_STMT) {
+                return new NegateStmt(readCompleteOrIdent(), readIdent(), readSourceSpan());
+            }
+            if (tag == NOT_STMT) {
+                return new NotStmt(readCompleteOrIdent(), readIdent(), readSourceSpan());
+            }
+            if (tag == SELECT_AND_APPLY_STMT) {
+                CompleteOrIdent rec = readCompleteOrIdent();
+                int count = readCount();
+                List<FeatureOrIdent> path = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    path.add((FeatureOrIdent) readKernel());
+                }
+                return new SelectAndApplyStmt(rec, path, readCompleteOrIdents(), readSourceSpan());
+            }
+            if (tag == SELECT_STMT) {
+                return new SelectStmt(readCompleteOrIdent(), readCompleteOrIdent(), readIdent(), readSourceSpan());
+            }
+            if (tag == SEQ_STMT) {
+                int count = readCount();
+                List<Stmt> stmts = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    stmts.add(readStmt());
+                }
+                return new SeqStmt(stmts, readSourceSpan());
+            }
+            if (tag == SET_CELL_VALUE_STMT) {
+                return new SetCellValueStmt(readIdent(), readCompleteOrIdent(), readSourceSpan());
+            }
+            if (tag == SKIP_STMT) {
+                return new SkipStmt(readSourceSpan());
+            }
+            if (tag == SUBTRACT_STMT) {
+                return new SubtractStmt(readCompleteOrIdent(), readCompleteOrIdent(), readIdent(), readSourceSpan());
+            }
+            if (tag == THROW_STMT) {
+                return new ThrowStmt(readCompleteOrIdent(), readSourceSpan());
+            }
+            if (tag == TRY_STMT) {
+                return new TryStmt(readStmt(), readStmt(), readSourceSpan());
+            }
+            throw new IllegalArgumentException("Invalid statement tag: " + tag);
+        }
+
+        private ProcDef readProcDef() {
+            return new ProcDef(readIdents(), readStmt(), readSourceSpan());
+        }
+
+        private String readString() {
+            return strings[buffer.getInt()];
+        }
+
+        private Complete readValue(byte tag) {
+            if (tag == BOOL) {
+                return Bool.of(buffer.get() != 0);
+            }
+            if (tag == CHAR) {
+                return Char.of(buffer.getChar());
+            }
+            if (tag == COMPLETE_REC) {
+                CompleteRecBuilder builder = Rec.completeRecBuilder();
+                builder.setLabel((Literal) readKernel());
+                int count = readCount();
+                for (int i = 0; i < count; i++) {
+                    builder.addField((Feature) readKernel(), (Complete) readKernel());
+                }
+                return builder.build();
+            }
+            if (tag == COMPLETE_TUPLE) {
+                CompleteTupleBuilder builder = Rec.completeTupleBuilder();
+                builder.setLabel((Literal) readKernel());
+                int count = readCount();
+                for (int i = 0; i < count; i++) {
+                    builder.addValue((Complete) readKernel());
+                }
+                return builder.build();
+            }
+            if (tag == DEC128) {
+                return Dec128.of(new BigDecimal(readString()));
+            }
+            if (tag == EOF) {
+                return Eof.SINGLETON;
+            }
+            if (tag == FLT32) {
+                return Flt32.of(buffer.getFloat());
+            }
+            if (tag == FLT64) {
+                return Flt64.of(buffer.getDouble());
+            }
+            if (tag == INT32) {
+                return Int32.of(buffer.getInt());
+            }
+            if (tag == INT64) {
+                return Int64.of(buffer.getLong());
+            }
+            if (tag == NULL) {
+                return Null.SINGLETON;
+            }
+            if (tag == STR) {
+                // Share one Str per string, such as a feature name that is selected many times
+                int index = buffer.getInt();
+                Str str = strs[index];
+                if (str == null) {
+                    str = Str.of(strings[index]);
+                    strs[index] = str;
+                }
+                return str;
+            }
+            throw new IllegalArgumentException("Invalid kernel tag: " + tag);
+        }
+    }
+
+    private static final class Encoder implements KernelVisitor<Object, Void> {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private final List<String> strings = new ArrayList<>();
+        private final HashMap<String, Integer> stringIndexes = new HashMap<>();
+
+        private static Void notGenerated(Kernel kernel) {
+            throw new IllegalArgumentException("Not a generated kernel: " + kernel.getClass().getName());
+        }
+
+        private int stringIndex(String s) {
+            Integer index = stringIndexes.get(s);
+            if (index == null) {
+                index = strings.size();
+                strings.add(s);
+                stringIndexes.put(s, index);
+            }
+            return index;
+        }
+
+        private Void writeBinary(byte tag, CompleteOrIdent a, CompleteOrIdent b, Ident x, SourceSpan sourceSpan)
+            throws Exception
+        {
+            out.writeByte(tag);
+            writeKernel(a);
+            writeKernel(b);
+            writeKernel(x);
+            writeSourceSpan(sourceSpan);
+            return null;
+        }
+
+        private void writeIdentDefs(List<IdentDef> identDefs) throws Exception {
+            out.writeInt(identDefs.size());
+            for (IdentDef identDef : identDefs) {
+                writeKernel(identDef.ident);
+                writeKernel(identDef.value);
+            }
+        }
+
+        private void writeKernel(Kernel kernel) throws Exception {
+            if (kernel == null) {
+                out.writeByte(NULL_REF);
+            } else {
+                kernel.accept(this, null);
+            }
+        }
+
+        private void writeKernels(List<? extends Kernel> kernels) throws Exception {
+            out.writeInt(kernels.size());
+            for (Kernel kernel : kernels) {
+                writeKernel(kernel);
+            }
+        }
+
+        private void writeProcDef(ProcDef procDef) throws Exception {
+            writeKernels(procDef.xs);
+            writeKernel(procDef.stmt);
+            writeSourceSpan(procDef.sourceSpan);
+        }
+
+        private void writeSourceSpan(SourceSpan sourceSpan) throws IOException {
+            if (sourceSpan == null) {
+                out.writeInt(SPAN_NULL);
+            } else if (sourceSpan == SourceSpan.emptySourceSpan()) {
+                out.writeInt(SPAN_EMPTY);
+            } else {
+                out.writeInt(stringIndex(sourceSpan.source()));
+                out.writeInt(sourceSpan.begin());
+                out.writeInt(sourceSpan.end());
+            }
+        }
+
+        private void writeString(String s) throws IOException {
+            out.writeInt(stringIndex(s));
+        }
+
+        private Void writeUnary(byte tag, CompleteOrIdent a, Ident x, SourceSpan sourceSpan) throws Exception {
+            out.writeByte(tag);
+            writeKernel(a);
+            writeKernel(x);
+            writeSourceSpan(sourceSpan);
+            return null;
+        }
+
+        @Override
+        public final Void visitActStmt(ActStmt kernel, Object state) throws Exception {
+            out.writeByte(ACT_STMT);
+            writeKernel(kernel.stmt);
+            writeKernel(kernel.target);
+            writeSourceSpan(kernel.sourceSpan);
+            return null;
+        }
+
+        @Override
+        public final Void visitActorCfg(ActorCfg kernel, Object state) {
+            return notGenerated(kernel);
+        }
+
+        @Override
+        public final Void visitActorCfgtr(ActorCfgtr kernel, Object state) {
+            return notGenerated(kernel);
+        }
+
+        @Override
+        public final Void visitAddStmt(AddStmt kernel, Object state) throws Exception {
+            return writeBinary(ADD_STMT, kernel.a, kernel.b, kernel.x, kernel.sourceSpan);
+        }
+
+        @Override
+        public final Void visitApplyProcStmt(ApplyStmt kernel, Object state) throws Exception {
+            out.writeByte(APPLY_STMT);
+            writeKernel(kernel.x);
+            writeKernels(kernel.ys);
+            writeSourceSpan(kernel.sourceSpan);
+            return null;
+        }
+
+        @Override
+        public final Void visitBindCompleteToCompleteStmt(BindCompleteToCompleteStmt kernel, Object state)
+            throws Exception
+        {
+            out.writeByte(BIND_COMPLETE_TO_COMPLETE_STMT);
+            writeKernel(kernel.a);
+            writeKernel(kernel.x);
+            writeSourceSpan(kernel.sourceSpan);
+            return null;
+        }
+
+        @Override
+        public final Void visitBindCompleteToIdentStmt(BindCompleteToIdentStmt kernel, Object state)
+            throws Exception
+        {
+            out.writeByte(BIND_COMPLETE_TO_IDENT_STMT);
+            writeKernel(kernel.a);
+            writeKernel(kernel.x);
+            writeSourceSpan(kernel.sourceSpan);
+            return null;
+        }
+
+        @Override
+        public final Void visitBindCompleteToValueOrVarStmt(BindCompleteToValueOrVarStmt kernel, Object state) {
+            return notGenerated(kernel);
+        }
+
+        @Override
+        public final Void visitBindIdentToIdentStmt(BindIdentToIdentStmt kernel, Object state) throws Exception {
+            out.writeByte(BIND_IDENT_TO_IDENT_STMT);
+            writeKernel(kernel.a);
+            writeKernel(kernel.x);
+            writeSourceSpan(kernel.sourceSpan);
+            return null;
+        }
+
+        @Override
+        public final Void visitBool(Bool kernel, Object state) throws Exception {
+            out.writeByte(BOOL);
+            out.writeBoolean(kernel.value);
+            return null;
+        }
+
+        @Override
+        public final Void visitCaseElseStmt(CaseElseStmt kernel, Object state) throws Exception {
+            out.writeByte(CASE_ELSE_STMT);
+            writeKernel(kernel.x);
+            writeKernel(kernel.valueOrPtn);
+            writeKernel(kernel.consequent);
+            writeKernel(kernel.alternate);
+            writeSourceSpan(kernel.sourceSpan);
+            return null;
+        }
+
+        @Override
+        public final Void visitCaseStmt(CaseStmt kernel, Object state) throws Exception {
+            out.writeByte(CASE_STMT);
+            writeKernel(kernel.x);
+            writeKernel(kernel.valueOrPtn);
+            writeKernel(kernel.consequent);
+            writeSourceSpan(kernel.sourceSpan);
+            return null;
+        }
+
+        @Override
+        public final Void visitCatchStmt(CatchStmt kernel, Object state) throws Exception {
+            out.writeByte(CATCH_STMT);
+            writeKernel(kernel.arg);
+            writeKernel(kernel.caseStmt);
+            writeSourceSpan(kernel.sourceSpan);
+            return null;
+        }
+
+        @Override
+        public final Void visitChar(Char kernel, Object state) throws Exception {
+            out.writeByte(CHAR);
+            out.writeChar(kernel.charValue());
+            return null;
+        }
+
+        @Override
+        public final Void visitClosure(Closure kernel, Object state) {
+            return notGenerated(kernel);
+        }
+
+        @Override
+        public final Void visitCreateActorCfgtrStmt(CreateActorCfgtrStmt kernel, Object state) throws Exception {
+            out.writeByte(CREATE_ACTOR_CFGTR_STMT);
+            writeKernel(kernel.x);
+            writeProcDef(kernel.procDef);
+            writeSourceSpan(kernel.sourceSpan);
+            return null;
+        }
+
+        @Override
+        public final Void visitCreateProcStmt(CreateProcStmt kernel, Object state) throws Exception {
+            out.writeByte(CREATE_PROC_STMT);
+            writeKernel(kernel.x);
+            writeProcDef(kernel.procDef);
+            writeSourceSpan(kernel.sourceSpan);
+            return null;
+        }
+
+        @Override
+        public final Void visitCreateRecStmt(CreateRecStmt kernel, Object state) throws Exception {
+            out.writeByte(CREATE_REC_STMT);
+            writeKernel(kernel.x);
+            writeKernel(kernel.recDef.label);
+            out.writeInt(kernel.recDef.fieldDefs.size());
+            for (FieldDef fieldDef : kernel.recDef.fieldDefs) {
+                writeKernel(fieldDef.feature);
+                writeKernel(fieldDef.value);
+                writeSourceSpan(fieldDef.sourceSpan);
+            }
+            writeSourceSpan(kernel.recDef.sourceSpan);
+            writeSourceSpan(kernel.sourceSpan);
+            return null;
+        }
+
+        @Override
+        public final Void visitCreateTupleStmt(CreateTupleStmt kernel, Object state) throws Exception {
+            out.writeByte(CREATE_TUPLE_STMT);
+            writeKernel(kernel.x);
+            writeKernel(kernel.tupleDef.label);
+            out.writeInt(kernel.tupleDef.valueDefs.size());
+            for (ValueDef valueDef : kernel.tupleDef.valueDefs) {
+                writeKernel(valueDef.value);
+                writeSourceSpan(valueDef.sourceSpan);
+            }
+            writeSourceSpan(kernel.tupleDef.sourceSpan);
+            writeSourceSpan(kernel.sourceSpan);
+            return null;
+        }
+
+        @Override
+        public final Void visitDec128(Dec128 kernel, Object state) throws Exception {
+            out.writeByte(DEC128);
+            writeString(kernel.decimal128Value().toString());
+            return null;
+        }
+
+        @Override
+        public final Void visitDisentailsStmt(DisentailsStmt kernel, Object state) throws Exception {
+            return writeBinary(DISENTAILS_STMT, kernel.a, kernel.b, kernel.x, kernel.sourceSpan);
+        }
+
+        @Override
+        public final Void visitDispatchStmt(DispatchStmt kernel, Object state) throws Exception {
+            out.writeByte(DISPATCH_STMT);
+            writeKernel(kernel.x);
+            out.writeInt(kernel.features.size());
+            for (Feature f : kernel.features) {
+                writeKernel(f);
+            }
+            out.writeInt(kernel.branches.size());
+            for (DispatchStmt.Branch b : kernel.branches) {
+                writeKernel(b.label);
+                out.writeInt(b.arity);
+                writeKernel(b.stmt);
+            }
+            writeKernel(kernel.alternate);
+            writeSourceSpan(kernel.sourceSpan);
+            return null;
+        }
+
+        @Override
+        public final Void visitDivideStmt(DivideStmt kernel, Object state) throws Exception {
+            return writeBinary(DIVIDE_STMT, kernel.a, kernel.b, kernel.x, kernel.sourceSpan);
+        }
+
+        @Override
+        public final Void visitEntailsStmt(EntailsStmt kernel, Object state) throws Exception {
+            return writeBinary(ENTAILS_STMT, kernel.a, kernel.b, kernel.x, kernel.sourceSpan);
+        }
+
+        @Override
+        public final Void visitEnv(Env kernel, Object state) {
+            return notGenerated(kernel);
+        }
+
+        @Override
+        public final Void visitEof(Eof kernel, Object state) throws Exception {
+            out.writeByte(EOF);
+            return null;
+        }
+
+        @Override
+        public final Void visitFailedValue(FailedValue kernel, Object state) {
+            return notGenerated(kernel);
+        }
+
+        @Override
+        public final Void visitFieldDef(FieldDef kernel, Object state) {
+            return notGenerated(kernel);
+        }
+
+        @Override
+        public final Void visitFieldPtn(FieldPtn kernel, Object state) {
+            return notGenerated(kernel);
+        }
+
+        @Override
+        public final Void visitFlt32(Flt32 kernel, Object state) throws Exception {
+            out.writeByte(FLT32);
+            out.writeFloat(kernel.floatValue());
+            return null;
+        }
+
+        @Override
+        public final Void visitFlt64(Flt64 kernel, Object state) throws Exception {
+            out.writeByte(FLT64);
+            out.writeDouble(kernel.doubleValue());
+            return null;
+        }
+
+        @Override
+        public final Void visitGetCellValueStmt(GetCellValueStmt kernel, Object state) throws Exception {
+            out.writeByte(GET_CELL_VALUE_STMT);
+            writeKernel(kernel.cell);
+            writeKernel(kernel.target);
+            writeSourceSpan(kernel.sourceSpan);
+            return null;
+        }
+
+        @Override
+        public final Void visitGreaterThanOrEqualToStmt(GreaterThanOrEqualToStmt kernel, Object state)
+            throws Exception
+        {
+            return writeBinary(GREATER_THAN_OR_EQUAL_TO_STMT, kernel.a, kernel.b, kernel.x, kernel.sourceSpan);
+        }
+
+        @Override
+        public final Void visitGreaterThanStmt(GreaterThanStmt kernel, Object state) throws Exception {
+            return writeBinary(GREATER_THAN_STMT, kernel.a, kernel.b, kernel.x, kernel.sourceSpan);
+        }
+
+        @Override
+        public final Void visitIdent(Ident kernel, Object state) throws Exception {
+            out.writeByte(IDENT);
+            writeString(kernel.name);
+            out.writeInt(kernel.depth);
+            out.writeInt(kernel.slot);
+            return null;
+        }
+
+        @Override
+        public final Void visitIdentDef(IdentDef kernel, Object state) {
+            return notGenerated(kernel);
+        }
+
+        @Override
+        public final Void visitIdentPtn(IdentPtn kernel, Object state) throws Exception {
+            out.writeByte(IDENT_PTN);
+            writeKernel(kernel.ident);
+            out.writeBoolean(kernel.escaped);
+            return null;
+        }
+
+        @Override
+        public final Void visitIfElseStmt(IfElseStmt kernel, Object state) throws Exception {
+            out.writeByte(IF_ELSE_STMT);
+            writeKernel(kernel.x);
+            writeKernel(kernel.consequent);
+            writeKernel(kernel.alternate);
+            writeSourceSpan(kernel.sourceSpan);
+            return null;
+        }
+
+        @Override
+        public final Void visitIfStmt(IfStmt kernel, Object state) throws Exception {
+            out.writeByte(IF_STMT);
+            writeKernel(kernel.x);
+            writeKernel(kernel.consequent);
+            writeSourceSpan(kernel.sourceSpan);
+            return null;
+        }
+
+        @Override
+        public final Void visitInt32(Int32 kernel, Object state) throws Exception {
+            out.writeByte(INT32);
+            out.writeInt(kernel.intValue());
+            return null;
+        }
+
+        @Override
+        public final Void visitInt64(Int64 kernel, Object state) throws Exception {
+            out.writeByte(INT64);
+            out.writeLong(kernel.longValue());
+            return null;
+        }
+
+        @Override
+        public final Void visitJumpCatchStmt(JumpCatchStmt kernel, Object state) throws Exception {
+            out.writeByte(JUMP_CATCH_STMT);
+            out.writeInt(kernel.id);
+            writeSourceSpan(kernel.sourceSpan);
+            return null;
+        }
+
+        @Override
+        public final Void visitJumpThrowStmt(JumpThrowStmt kernel, Object state) throws Exception {
+            out.writeByte(JUMP_THROW_STMT);
+            out.writeInt(kernel.id);
+            writeSourceSpan(kernel.sourceSpan);
+            return null;
+        }
+
+        @Override
+        public final Void visitLessThanOrEqualToStmt(LessThanOrEqualToStmt kernel, Object state) throws Exception {
+            return writeBinary(LESS_THAN_OR_EQUAL_TO_STMT, kernel.a, kernel.b, kernel.x, kernel.sourceSpan);
+        }
+
+        @Override
+        public final Void visitLessThanStmt(LessThanStmt kernel, Object state) throws Exception {
+            return writeBinary(LESS_THAN_STMT, kernel.a, kernel.b, kernel.x, kernel.sourceSpan);
+        }
+
+        @Override
+        public final Void visitLocalStmt(LocalStmt kernel, Object state) throws Exception {
+            out.writeByte(LOCAL_STMT);
+            writeIdentDefs(kernel.xs);
+            writeKernel(kernel.body);
+            writeSourceSpan(kernel.sourceSpan);
+            return null;
+        }
+
+        @Override
+        public final Void visitLoopStmt(LoopStmt kernel, Object state) throws Exception {
+            out.writeByte(LOOP_STMT);
+            writeIdentDefs(kernel.xs);
+            writeKernel(kernel.test);
+            writeKernel(kernel.x);
+            writeKernel(kernel.body);
+            writeSourceSpan(kernel.sourceSpan);
+            return null;
+        }
+
+        @Override
+        public final Void visitModuloStmt(ModuloStmt kernel, Object state) throws Exception {
+            return writeBinary(MODULO_STMT, kernel.a, kernel.b, kernel.x, kernel.sourceSpan);
+        }
+
+        @Override
+        public final Void visitMultiplyStmt(MultiplyStmt kernel, Object state) throws Exception {
+            return writeBinary(MULTIPLY_STMT, kernel.a, kernel.b, kernel.x, kernel.sourceSpan);
+        }
+
+        @Override
+        public final Void visitNegateStmt(NegateStmt kernel, Object state) throws Exception {
+            return writeUnary(NEGATE_STMT, kernel.a, kernel.x, kernel.sourceSpan);
+        }
+
+        @Override
+        public final Void visitNotStmt(NotStmt kernel, Object state) throws Exception {
+            return writeUnary(NOT_STMT, kernel.a, kernel.x, kernel.sourceSpan);
+        }
+
+        @Override
+        public final Void visitNull(Null kernel, Object state) throws Exception {
+            out.writeByte(NULL);
+            return null;
+        }
+
+        @Override
+        public final Void visitObj(Obj kernel, Object state) {
+            return notGenerated(kernel);
+        }
+
+        @Override
+        public final Void visitOpaqueValue(OpaqueValue kernel, Object state) {
+            return notGenerated(kernel);
+        }
+
+        @Override
+        public final Void visitProc(Proc kernel, Object state) {
+            return notGenerated(kernel);
+        }
+
+        @Override
+        public final Void visitProcDef(ProcDef kernel, Object state) {
+            return notGenerated(kernel);
+        }
+
+        @Override
+        public final Void visitRec(Rec kernel, Object state) throws Exception {
+            if (kernel instanceof CompleteTuple tuple) {
+                out.writeByte(COMPLETE_TUPLE);
+                writeKernel(tuple.label());
+                out.writeInt(tuple.fieldCount());
+                for (int i = 0; i < tuple.fieldCount(); i++) {
+                    writeKernel(tuple.valueAt(i));
+                }
+                return null;
+            }
+            if (kernel instanceof CompleteRec rec) {
+                out.writeByte(COMPLETE_REC);
+                writeKernel(rec.label());
+                out.writeInt(rec.fieldCount());
+                for (int i = 0; i < rec.fieldCount(); i++) {
+                    writeKernel(rec.featureAt(i));
+                    writeKernel(rec.valueAt(i));
+                }
+                return null;
+            }
+            return notGenerated(kernel);
+        }
+
+        @Override
+        public final Void visitRecDef(RecDef kernel, Object state) {
+            return notGenerated(kernel);
+        }
+
+        @Override
+        public final Void visitRecPtn(RecPtn kernel, Object state) throws Exception {
+            if (!(kernel instanceof BasicRecPtn recPtn)) {
+                return notGenerated(kernel);
+            }
+            out.writeByte(REC_PTN);
+            writeKernel(recPtn.label());
+            out.writeInt(recPtn.fields().size());
+            for (FieldPtn fieldPtn : recPtn.fields()) {
+                writeKernel(fieldPtn.feature);
+                writeKernel(fieldPtn.value);
+                writeSourceSpan(fieldPtn.sourceSpan);
+            }
+            out.writeBoolean(recPtn.partialArity());
+            writeSourceSpan(recPtn.sourceSpan());
+            return null;
+        }
+
+        @Override
+        public final Void visitResolvedFieldPtn(ResolvedFieldPtn kernel, Object state) {
+            return notGenerated(kernel);
+        }
+
+        @Override
+        public final Void visitResolvedIdentPtn(ResolvedIdentPtn kernel, Object state) {
+            return notGenerated(kernel);
+        }
+
+        @Override
+        public final Void visitResolvedRecPtn(ResolvedRecPtn kernel, Object state) {
+            return notGenerated(kernel);
+        }
+
+        @Override
+        public final Void visitSelectAndApplyStmt(SelectAndApplyStmt kernel, Object state) throws Exception {
+            out.writeByte(SELECT_AND_APPLY_STMT);
+            writeKernel(kernel.rec);
+            writeKernels(kernel.path);
+            writeKernels(kernel.args);
+            writeSourceSpan(kernel.sourceSpan);
+            return null;
+        }
+
+        @Override
+        public final Void visitSelectStmt(SelectStmt kernel, Object state) throws Exception {
+            return writeBinary(SELECT_STMT, kernel.rec, kernel.feature, kernel.target, kernel.sourceSpan);
+        }
+
+        @Override
+        public final Void visitSeqStmt(SeqStmt kernel, Object state) throws Exception {
+            out.writeByte(SEQ_STMT);
+            out.writeInt(kernel.seq.size());
+            for (Stmt next : kernel.seq) {
+                writeKernel(next);
+            }
+            writeSourceSpan(kernel.sourceSpan);
+            return null;
+        }
+
+        @Override
+        public final Void visitSetCellValueStmt(SetCellValueStmt kernel, Object state) throws Exception {
+            out.writeByte(SET_CELL_VALUE_STMT);
+            writeKernel(kernel.cell);
+            writeKernel(kernel.value);
+            writeSourceSpan(kernel.sourceSpan);
+            return null;
+        }
+
+        @Override
+        public final Void visitSkipStmt(SkipStmt kernel, Object state) throws Exception {
+            out.writeByte(SKIP_STMT);
+            writeSourceSpan(kernel.sourceSpan);
+            return null;
+        }
+
+        @Override
+        public final Void visitStack(Stack kernel, Object state) {
+            return notGenerated(kernel);
+        }
+
+        @Override
+        public final Void visitStr(Str kernel, Object state) throws Exception {
+            out.writeByte(STR);
+            writeString(kernel.value);
+            return null;
+        }
+
+        @Override
+        public final Void visitSubtractStmt(SubtractStmt kernel, Object state) throws Exception {
+            return writeBinary(SUBTRACT_STMT, kernel.a, kernel.b, kernel.x, kernel.sourceSpan);
+        }
+
+        @Override
+        public final Void visitThrowStmt(ThrowStmt kernel, Object state) throws Exception {
+            if (kernel.nativeCause != null) {
+                return notGenerated(kernel);
+            }
+            out.writeByte(THROW_STMT);
+            writeKernel(kernel.error);
+            writeSourceSpan(kernel.sourceSpan);
+            return null;
+        }
+
+        @Override
+        public final Void visitToken(Token kernel, Object state) {
+            return notGenerated(kernel);
+        }
+
+        @Override
+        public final Void visitTryStmt(TryStmt kernel, Object state) throws Exception {
+            out.writeByte(TRY_STMT);
+            writeKernel(kernel.body);
+            writeKernel(kernel.catchStmt);
+            writeSourceSpan(kernel.sourceSpan);
+            return null;
+        }
+
+        @Override
+        public final Void visitTupleDef(TupleDef kernel, Object state) {
+            return notGenerated(kernel);
+        }
+
+        @Override
+        public final Void visitValueDef(ValueDef kernel, Object state) {
+            return notGenerated(kernel);
+        }
+
+        @Override
+        public final Void visitVar(Var kernel, Object state) {
+            return notGenerated(kernel);
+        }
+
+        @Override
+        public final Void visitVarSet(VarSet kernel, Object state) {
+            return notGenerated(kernel);
+        }
+    }
+
+    /*
+     * A decoded source span. It has no tokens, therefore its begin and end spans are itself.
+     */
+    private record ImageSourceSpan(String source, int begin, int end) implements SourceSpan {
+
+        @Override
+        public final SourceSpan toSourceSpanBegin() {
+            return this;
+        }
+
+        @Override
+        public final SourceSpan toSourceSpanEnd() {
+            return this;
+        }
+    }
+
+}
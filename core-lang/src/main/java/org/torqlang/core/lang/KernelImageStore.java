@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.lang;
+
+import org.torqlang.core.klvm.Kernel;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * A directory of kernel images, one file per source and variant. A `CompilationCache` with a store loads generated
+ * kernel code from the store on a miss, and stores newly generated kernel code, so that a restarted process does not
+ * compile the same sources again.
+ *
+ * A file is named by the SHA-256 hash of its variant and source. A file is memory-mapped and decoded by `load`. An
+ * image with another format version, another source or variant, or corrupt content is rejected and `load` returns
+ * null. The caller then compiles the source and stores the result, which replaces the rejected file.
+ *
+ * Files are written to a temporary file and moved into place, therefore concurrent readers never see a partial image.
+ * Failures are not propagated. A store that cannot be read or written behaves like an empty store.
+ */
+public final class KernelImageStore {
+
+    public static final String FILE_EXTENSION = ".tqki";
+
+    private final Path dir;
+
+    private final AtomicLong loadCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong rejectCount = new AtomicLong();
+    private final AtomicLong storeCount = new AtomicLong();
+
+    public KernelImageStore(Path dir) {
+        if (dir == null) {
+            throw new NullPointerException("dir");
+        }
+        this.dir = dir;
+    }
+
+    private static String hash(String source, String variant) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException exc) {
+            throw new IllegalStateException(exc);
+        }
+        digest.update(variant.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(source.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    public final Path dir() {
+        return dir;
+    }
+
+    /*
+     * Return the path of the image for the given source and variant whether or not it exists.
+     */
+    public final Path imagePath(String source, String variant) {
+        return dir.resolve(hash(source, variant) + FILE_EXTENSION);
+    }
+
+    /*
+     * Return the kernels stored for the given source and variant, or null if there is no valid image.
+     */
+    public final List<Kernel> load(String source, String variant) {
+        Path path = imagePath(source, variant);
+        if (!Files.isRegularFile(path)) {
+            missCount.incrementAndGet();
+            return null;
+        }
+        List<Kernel> answer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            answer = KernelImage.decode(buffer, source, variant);
+        } catch (Exception exc) {
+            answer = null;
+        }
+        if (answer == null) {
+            rejectCount.incrementAndGet();
+            return null;
+        }
+        loadCount.incrementAndGet();
+        return answer;
+    }
+
+    public final long loadCount() {
+        return loadCount.get();
+    }
+
+    public final long missCount() {
+        return missCount.get();
+    }
+
+    public final long rejectCount() {
+        return rejectCount.get();
+    }
+
+    /*
+     * Store the kernels generated for the given source and variant. Return false if the kernels cannot be encoded or
+     * the image cannot be written.
+     */
+    public final boolean store(String source, String variant, List<? extends Kernel> kernels) {
+        byte[] image;
+        try {
+            image = KernelImage.encode(source, variant, kernels);
+        } catch (Exception exc) {
+            return false;
+        }
+        Path path = imagePath(source, variant);
+        Path tempPath = null;
+        try {
+            Files.createDirectories(dir);
+            tempPath = Files.createTempFile(dir, path.getFileName().toString(), ".tmp");
+            Files.write(tempPath, image);
+            try {
+                Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException exc) {
+                Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException exc) {
+            if (tempPath != null) {
+                try {
+                    Files.deleteIfExists(tempPath);
+                } catch (IOException ignored) {
+                }
+            }
+            return false;
+        }
+        storeCount.incrementAndGet();
+        return true;
+    }
+
+    public final long storeCount() {
+        return storeCount.get();
+    }
+
+}
@@ -0,0 +1,539 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.lang;
+
+import org.torqlang.core.klvm.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Parse JSON text encoded as UTF-8 bytes directly into a kernel value. The result is equal to
+ * `ValueTools.toKernelValue(JsonParser.parse(text))`, including `$label` and `$rec` objects, but without the
+ * intermediate native maps, lists, and strings.
+ *
+ * The parser is incremental. Bytes are fed in chunks of any size as they arrive, and a UTF-8 sequence, escape, or
+ * token may span chunks. Call `finish` after the last chunk to get the value, or null if the text is only whitespace.
+ *
+ * Object keys are interned per parser, therefore an array of objects with the same keys shares one `Str` per key.
+ * Containers are accumulated in lists that are reused for every container at the same depth.
+ *
+ * Unlike `JsonParser`, commas are required between members and elements, and a trailing comma is an error.
+ */
+public final class KernelJsonParser {
+
+    private static final Str $LABEL = Str.of(Rec.$LABEL);
+    private static final Str $REC = Str.of(Rec.$REC);
+
+    private static final char REPLACEMENT_CHAR = '\uFFFD';
+
+    private static final int MAX_INTERNED_KEYS = 1024;
+    private static final int MAX_INTERNED_KEY_LENGTH = 64;
+
+    private static final int VALUE = 0;
+    private static final int FIRST_VALUE_OR_END = 1;
+    private static final int FIRST_KEY_OR_END = 2;
+    private static final int KEY = 3;
+    private static final int COLON = 4;
+    private static final int AFTER_VALUE = 5;
+    private static final int STRING = 6;
+    private static final int STRING_ESCAPE = 7;
+    private static final int STRING_UNICODE = 8;
+    private static final int STRING_UTF8 = 9;
+    private static final int NUMBER = 10;
+    private static final int KEYWORD = 11;
+    private static final int END = 12;
+
+    private final List<Frame> frames = new ArrayList<>();
+    private int depth;
+
+    private int state = VALUE;
+    private long position;
+    private Complete result;
+
+    // Chars of the current string or number
+    private char[] chars = new char[64];
+    private int charCount;
+    private boolean stringIsKey;
+    private boolean numberIsDecimal;
+
+    // Pending UTF-8 sequence or unicode escape
+    private int pendingCodePoint;
+    private int pendingCount;
+
+    // Expected keyword and next index to match
+    private String keyword;
+    private int keywordIndex;
+
+    private Str[] internedKeys = new Str[64];
+    private int internedKeyCount;
+
+    private static boolean isWhiteSpace(byte b) {
+        return b == ' ' || b == '\r' || b == '\n' || b == '\t' || b == '\f' || b == '\b';
+    }
+
+    public static Complete parse(String source) {
+        KernelJsonParser parser = new KernelJsonParser();
+        parser.feed(ByteBuffer.wrap(source.getBytes(StandardCharsets.UTF_8)));
+        return parser.finish();
+    }
+
+    private void acceptValue(Complete value) {
+        state = AFTER_VALUE;
+        if (depth == 0) {
+            result = value;
+            state = END;
+            return;
+        }
+        Frame frame = frames.get(depth - 1);
+        if (frame.isObject) {
+            frame.fields.add(new CompleteField(frame.key, value));
+            frame.key = null;
+        } else {
+            frame.values.add(value);
+        }
+    }
+
+    private void appendChar(char c) {
+        if (charCount == chars.length) {
+            char[] larger = new char[chars.length * 2];
+            System.arraycopy(chars, 0, larger, 0, charCount);
+            chars = larger;
+        }
+        chars[charCount++] = c;
+    }
+
+    private void appendCodePoint(int codePoint) {
+        if (Character.isBmpCodePoint(codePoint)) {
+            appendChar((char) codePoint);
+        } else {
+            appendChar(Character.highSurrogate(codePoint));
+            appendChar(Character.lowSurrogate(codePoint));
+        }
+    }
+
+    private void beginContainer(boolean isObject) {
+        Frame frame;
+        if (depth == frames.size()) {
+            frame = new Frame();
+            frames.add(frame);
+        } else {
+            frame = frames.get(depth);
+        }
+        frame.isObject = isObject;
+        depth++;
+        state = isObject ? FIRST_KEY_OR_END : FIRST_VALUE_OR_END;
+    }
+
+    private void beginKeyword(String keyword) {
+        this.keyword = keyword;
+        keywordIndex = 1;
+        state = KEYWORD;
+    }
+
+    private void beginString(boolean isKey) {
+        charCount = 0;
+        stringIsKey = isKey;
+        state = STRING;
+    }
+
+    /*
+     * Return a labeled record if the fields are a `$label` and `$rec` pair, otherwise return null. See
+     * `ValueTools.toKernelValue`.
+     */
+    private CompleteRec buildLabeledObject(List<CompleteField> fields) {
+        Complete label = null;
+        Complete rec = null;
+        for (CompleteField field : fields) {
+            if (field.feature.equals($LABEL)) {
+                label = field.value;
+            } else if (field.feature.equals($REC)) {
+                rec = field.value;
+            }
+        }
+        if (label == null || rec == null) {
+            return null;
+        }
+        if (!(rec instanceof CompleteRec completeRec)) {
+            throw new IllegalArgumentException("Label must precede a Map or List");
+        }
+        if (!completeRec.label().equals(Rec.DEFAULT_LABEL)) {
+            throw new IllegalArgumentException("Label cannot follow a label");
+        }
+        if (!(label instanceof Literal literal)) {
+            throw new IllegalArgumentException("Not a label: " + label);
+        }
+        int count = completeRec.fieldCount();
+        if (completeRec instanceof CompleteTuple) {
+            List<Complete> values = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                values.add(completeRec.valueAt(i));
+            }
+            return CompleteTuple.create(literal, values);
+        }
+        List<CompleteField> recFields = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            recFields.add(completeRec.fieldAt(i));
+        }
+        return CompleteRec.create(literal, recFields);
+    }
+
+    private CompleteRec buildObject(List<CompleteField> fields) {
+        if (fields.size() == 2) {
+            CompleteRec labeled = buildLabeledObject(fields);
+            if (labeled != null) {
+                return labeled;
+            }
+        }
+        try {
+            return CompleteRec.create(fields);
+        } catch (DuplicateFeatureError exc) {
+            // Like a JSON object parsed into a map, the last duplicate wins
+            List<CompleteField> unique = new ArrayList<>(fields.size());
+            for (CompleteField field : fields) {
+                unique.removeIf(f -> f.feature.equals(field.feature));
+                unique.add(field);
+            }
+            return CompleteRec.create(unique);
+        }
+    }
+
+    private void endContainer(boolean isObject) {
+        Frame frame = frames.get(depth - 1);
+        if (frame.isObject != isObject) {
+            throw error("Unexpected delimiter");
+        }
+        depth--;
+        Complete value;
+        if (isObject) {
+            value = buildObject(frame.fields);
+            frame.fields.clear();
+        } else {
+            value = CompleteTuple.create(frame.values);
+            frame.values.clear();
+        }
+        acceptValue(value);
+    }
+
+    private void endNumber() {
+        Complete value;
+        if (numberIsDecimal) {
+            value = Flt64.of(Double.parseDouble(new String(chars, 0, charCount)));
+        } else if (charCount < 19) {
+            int i = 0;
+            boolean negative = false;
+            if (chars[0] == '-' || chars[0] == '+') {
+                negative = chars[0] == '-';
+                i = 1;
+            }
+            if (i == charCount) {
+                throw error("Invalid number");
+            }
+            long n = 0;
+            for (; i < charCount; i++) {
+                char c = chars[i];
+                if (c < '0' || c > '9') {
+                    throw error("Invalid number");
+                }
+                n = n * 10 + (c - '0');
+            }
+            value = Int64.of(negative ? -n : n);
+        } else {
+            value = Int64.of(Long.parseLong(new String(chars, 0, charCount)));
+        }
+        acceptValue(value);
+    }
+
+    private void endString() {
+        if (stringIsKey) {
+            frames.get(depth - 1).key = internKey();
+            state = COLON;
+        } else {
+            acceptValue(Str.of(new String(chars, 0, charCount)));
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at byte " + position);
+    }
+
+    /*
+     * Feed the next chunk of bytes. All remaining bytes in the buffer are consumed.
+     */
+    public final void feed(ByteBuffer chunk) {
+        while (chunk.hasRemaining()) {
+            feedByte(chunk.get());
+            position++;
+        }
+    }
+
+    private void feedByte(byte b) {
+        if (state == STRING) {
+            feedStringByte(b);
+            return;
+        }
+        if (state == NUMBER) {
+            if ((b >= '0' && b <= '9') || b == '.' || b == 'e' || b == 'E' || b == '+' || b == '-') {
+                if (b == '.' || b == 'e' || b == 'E') {
+                    numberIsDecimal = true;
+                }
+                appendChar((char) b);
+                return;
+            }
+            endNumber();
+        } else if (state == STRING_ESCAPE) {
+            feedEscapeByte(b);
+            return;
+        } else if (state == STRING_UNICODE) {
+            int digit = Character.digit(b, 16);
+            if (digit < 0) {
+                throw error("Invalid unicode escape");
+            }
+            pendingCodePoint = (pendingCodePoint << 4) | digit;
+            if (--pendingCount == 0) {
+                appendChar((char) pendingCodePoint);
+                state = STRING;
+            }
+            return;
+        } else if (state == STRING_UTF8) {
+            feedUtf8ContinuationByte(b);
+            return;
+        } else if (state == KEYWORD) {
+            if (b != keyword.charAt(keywordIndex)) {
+                throw error("Invalid keyword");
+            }
+            if (++keywordIndex == keyword.length()) {
+                acceptValue(keyword.equals("true") ? Bool.TRUE : keyword.equals("false") ? Bool.FALSE : Null.SINGLETON);
+            }
+            return;
+        }
+        if (isWhiteSpace(b)) {
+            return;
+        }
+        if (state == VALUE) {
+            feedValueByte(b);
+        } else if (state == FIRST_VALUE_OR_END) {
+            if (b == ']') {
+                endContainer(false);
+            } else {
+                feedValueByte(b);
+            }
+        } else if (state == FIRST_KEY_OR_END) {
+            if (b == '}') {
+                endContainer(true);
+            } else if (b == '"') {
+                beginString(true);
+            } else {
+                throw error("String expected");
+            }
+        } else if (state == KEY) {
+            if (b != '"') {
+                throw error("String expected");
+            }
+            beginString(true);
+        } else if (state == COLON) {
+            if (b != ':') {
+                throw error(": expected");
+            }
+            state = VALUE;
+        } else if (state == AFTER_VALUE) {
+            Frame frame = frames.get(depth - 1);
+            if (b == ',') {
+                state = frame.isObject ? KEY : VALUE;
+            } else if (b == '}' || b == ']') {
+                endContainer(b == '}');
+            } else {
+                throw error("Unexpected character");
+            }
+        } else {
+            throw error("Unexpected character after value");
+        }
+    }
+
+    private void feedEscapeByte(byte b) {
+        state = STRING;
+        if (b == 't') {
+            appendChar('\t');
+        } else if (b == 'b') {
+            appendChar('\b');
+        } else if (b == 'n') {
+            appendChar('\n');
+        } else if (b == 'r') {
+            appendChar('\r');
+        } else if (b == 'f') {
+            appendChar('\f');
+        } else if (b == '\\') {
+            appendChar('\\');
+        } else if (b == '/') {
+            appendChar('/');
+        } else if (b == '"') {
+            appendChar('"');
+        } else if (b == 'u') {
+            pendingCodePoint = 0;
+            pendingCount = 4;
+            state = STRING_UNICODE;
+        } else {
+            throw error("Invalid escape sequence");
+        }
+    }
+
+    private void feedStringByte(byte b) {
+        if (b >= 0) {
+            if (b == '"') {
+                endString();
+            } else if (b == '\\') {
+                state = STRING_ESCAPE;
+            } else {
+                appendChar((char) b);
+            }
+            return;
+        }
+        // Begin a multibyte sequence. An invalid lead byte is replaced the same way as `new String(bytes, UTF_8)`.
+        if ((b & 0xE0) == 0xC0) {
+            pendingCodePoint = b & 0x1F;
+            pendingCount = 1;
+        } else if ((b & 0xF0) == 0xE0) {
+            pendingCodePoint = b & 0x0F;
+            pendingCount = 2;
+        } else if ((b & 0xF8) == 0xF0) {
+            pendingCodePoint = b & 0x07;
+            pendingCount = 3;
+        } else {
+            appendChar(REPLACEMENT_CHAR);
+            return;
+        }
+        state = STRING_UTF8;
+    }
+
+    private void feedUtf8ContinuationByte(byte b) {
+        if ((b & 0xC0) != 0x80) {
+            // A truncated sequence is replaced, and the byte is processed as the next char of the string
+            appendChar(REPLACEMENT_CHAR);
+            state = STRING;
+            feedStringByte(b);
+            return;
+        }
+        pendingCodePoint = (pendingCodePoint << 6) | (b & 0x3F);
+        if (--pendingCount == 0) {
+            if (pendingCodePoint > Character.MAX_CODE_POINT) {
+                appendChar(REPLACEMENT_CHAR);
+            } else {
+                appendCodePoint(pendingCodePoint);
+            }
+            state = STRING;
+        }
+    }
+
+    private void feedValueByte(byte b) {
+        if (b == '{') {
+            beginContainer(true);
+        } else if (b == '[') {
+            beginContainer(false);
+        } else if (b == '"') {
+            beginString(false);
+        } else if ((b >= '0' && b <= '9') || b == '-' || b == '+') {
+            charCount = 0;
+            numberIsDecimal = false;
+            appendChar((char) b);
+            state = NUMBER;
+        } else if (b == 't') {
+            beginKeyword("true");
+        } else if (b == 'f') {
+            beginKeyword("false");
+        } else if (b == 'n') {
+            beginKeyword("null");
+        } else {
+            throw error("Unexpected character");
+        }
+    }
+
+    /*
+     * Return the parsed value, or null if the text is only whitespace
+     */
+    public final Complete finish() {
+        if (state == NUMBER) {
+            endNumber();
+        }
+        if (state == END) {
+            return result;
+        }
+        if (state == VALUE && depth == 0) {
+            return null;
+        }
+        throw error("Unexpected end of JSON text");
+    }
+
+    private Str internKey() {
+        if (charCount > MAX_INTERNED_KEY_LENGTH) {
+            return Str.of(new String(chars, 0, charCount));
+        }
+        int hash = 0;
+        for (int i = 0; i < charCount; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        int mask = internedKeys.length - 1;
+        int index = hash & mask;
+        Str key;
+        while ((key = internedKeys[index]) != null) {
+            if (keyEquals(key.value)) {
+                return key;
+            }
+            index = (index + 1) & mask;
+        }
+        key = Str.of(new String(chars, 0, charCount));
+        if (internedKeyCount < MAX_INTERNED_KEYS) {
+            internedKeys[index] = key;
+            internedKeyCount++;
+            if (internedKeyCount * 2 > internedKeys.length) {
+                rehashKeys();
+            }
+        }
+        return key;
+    }
+
+    private boolean keyEquals(String key) {
+        if (key.length() != charCount) {
+            return false;
+        }
+        for (int i = 0; i < charCount; i++) {
+            if (key.charAt(i) != chars[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void rehashKeys() {
+        Str[] previous = internedKeys;
+        internedKeys = new Str[previous.length * 2];
+        int mask = internedKeys.length - 1;
+        for (Str key : previous) {
+            if (key != null) {
+                // The hash of a String is the same polynomial hash computed by internKey()
+                int index = key.value.hashCode() & mask;
+                while (internedKeys[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                internedKeys[index] = key;
+            }
+        }
+    }
+
+    /*
+     * An open object or array. Frames are reused for each container at the same depth.
+     */
+    private static final class Frame {
+        private final List<CompleteField> fields = new ArrayList<>();
+        private final List<Complete> values = new ArrayList<>();
+        private boolean isObject;
+        private Str key;
+    }
+
+}
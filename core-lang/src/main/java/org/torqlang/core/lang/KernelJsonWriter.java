@@ -0,0 +1,313 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.lang;
+
+import org.torqlang.core.klvm.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+/*
+ * Write a kernel value as JSON text encoded as UTF-8 bytes. Values are written directly from the kernel value, without
+ * converting to a native value first. The JSON text is identical to `JsonFormatter.format(value.toNativeValue())`,
+ * except that object members are written in record field order.
+ *
+ * Bytes are written to buffers acquired from a `ByteSink`. A full buffer is flipped and passed to the sink before the
+ * next buffer is acquired. The last buffer is passed to the sink even if it is empty.
+ *
+ * Values without a JSON counterpart, such as `LocalDate`, are written using their native value and `JsonFormatter`.
+ *
+ * A writer created with `create` appends a sequence of values and separators to the same buffers, such as the
+ * elements of a streamed JSON array, until it is flushed.
+ */
+public final class KernelJsonWriter {
+
+    public static final int MIN_BUFFER_CAPACITY = 32;
+
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private final ByteSink sink;
+    private final ArrayList<CompleteRec> path = new ArrayList<>();
+    private final byte[] digits = new byte[20];
+
+    private ByteBuffer buffer;
+
+    private KernelJsonWriter(ByteSink sink) {
+        this.sink = sink;
+    }
+
+    /*
+     * Return a writer that appends values to buffers acquired from the given sink
+     */
+    public static KernelJsonWriter create(ByteSink sink) {
+        return new KernelJsonWriter(sink);
+    }
+
+    /*
+     * Return the JSON text for the given value
+     */
+    public static String format(Complete value) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        write(value, new ByteSink() {
+            @Override
+            public ByteBuffer acquire() {
+                return ByteBuffer.allocate(256);
+            }
+
+            @Override
+            public void accept(ByteBuffer buffer) {
+                out.write(buffer.array(), buffer.position(), buffer.remaining());
+            }
+        });
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    public static void write(Complete value, ByteSink sink) throws Exception {
+        KernelJsonWriter writer = new KernelJsonWriter(sink);
+        writer.writeValue(value);
+        writer.flush();
+    }
+
+    /*
+     * Append the JSON text of the given value
+     */
+    public final void append(Complete value) throws Exception {
+        writeValue(value);
+    }
+
+    /*
+     * Append an ASCII char without escaping, such as a separator between values
+     */
+    public final void appendAscii(char c) throws Exception {
+        if (c >= 0x80) {
+            throw new IllegalArgumentException("Not an ASCII char: " + (int) c);
+        }
+        put(c);
+    }
+
+    private void ensure(int count) throws Exception {
+        if (buffer != null && buffer.remaining() >= count) {
+            return;
+        }
+        if (buffer != null) {
+            flush();
+        }
+        buffer = sink.acquire();
+        if (buffer.remaining() < MIN_BUFFER_CAPACITY) {
+            throw new IllegalArgumentException("Buffer capacity is less than " + MIN_BUFFER_CAPACITY);
+        }
+    }
+
+    /*
+     * Pass the current buffer to the sink, even if it is empty. The next append acquires a new buffer.
+     */
+    public final void flush() throws Exception {
+        if (buffer == null) {
+            buffer = sink.acquire();
+        }
+        ByteBuffer full = buffer;
+        buffer = null;
+        full.flip();
+        sink.accept(full);
+    }
+
+    private void put(char c) throws Exception {
+        ensure(1);
+        buffer.put((byte) c);
+    }
+
+    /*
+     * Encode the given chars as UTF-8. If `quote` is true, escape the chars as a JSON string. An unpaired surrogate
+     * is written as '?', which is the same replacement used by `String.getBytes`.
+     */
+    private void putChars(String chars, boolean quote) throws Exception {
+        int length = chars.length();
+        for (int i = 0; i < length; i++) {
+            char c = chars.charAt(i);
+            ensure(6);
+            if (c < 0x80) {
+                if (quote && c < 0x20) {
+                    putEscape(c);
+                } else if (quote && (c == '\\' || c == '"')) {
+                    buffer.put((byte) '\\');
+                    buffer.put((byte) c);
+                } else {
+                    buffer.put((byte) c);
+                }
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(chars.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, chars.charAt(i + 1));
+                    buffer.put((byte) (0xF0 | (cp >> 18)));
+                    buffer.put((byte) (0x80 | ((cp >> 12) & 0x3F)));
+                    buffer.put((byte) (0x80 | ((cp >> 6) & 0x3F)));
+                    buffer.put((byte) (0x80 | (cp & 0x3F)));
+                    i++;
+                } else {
+                    buffer.put((byte) '?');
+                }
+            } else {
+                buffer.put((byte) (0xE0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    /*
+     * Same escapes as `EscapeChar`. The caller ensures 6 bytes are available.
+     */
+    private void putEscape(char c) {
+        buffer.put((byte) '\\');
+        if (c == '\r') {
+            buffer.put((byte) 'r');
+        } else if (c == '\n') {
+            buffer.put((byte) 'n');
+        } else if (c == '\t') {
+            buffer.put((byte) 't');
+        } else if (c == '\f') {
+            buffer.put((byte) 'f');
+        } else if (c == '\b') {
+            buffer.put((byte) 'b');
+        } else {
+            buffer.put((byte) 'u');
+            buffer.put(HEX_DIGITS[(c >> 12) & 0xF]);
+            buffer.put(HEX_DIGITS[(c >> 8) & 0xF]);
+            buffer.put(HEX_DIGITS[(c >> 4) & 0xF]);
+            buffer.put(HEX_DIGITS[c & 0xF]);
+        }
+    }
+
+    private void putLong(long n) throws Exception {
+        if (n == Long.MIN_VALUE) {
+            putChars(Long.toString(n), false);
+            return;
+        }
+        ensure(digits.length);
+        if (n < 0) {
+            buffer.put((byte) '-');
+            n = -n;
+        }
+        int i = digits.length;
+        do {
+            digits[--i] = (byte) ('0' + (n % 10));
+            n /= 10;
+        } while (n != 0);
+        buffer.put(digits, i, digits.length - i);
+    }
+
+    /*
+     * Same format as `JsonFormatter`
+     */
+    private void putDouble(double n) throws Exception {
+        String s = String.format("%.16f", n);
+        // Trim trailing zeros
+        int stop = s.length();
+        while (stop > 3) {
+            int next = stop - 1;
+            if (s.charAt(next) != '0' || s.charAt(next - 1) == '.') {
+                break;
+            }
+            stop = next;
+        }
+        putChars(s.substring(0, stop), false);
+    }
+
+    private void putQuoted(String chars) throws Exception {
+        put('"');
+        putChars(chars, true);
+        put('"');
+    }
+
+    private void writeRec(CompleteRec rec) throws Exception {
+        for (CompleteRec next : path) {
+            if (next == rec) {
+                throw new IllegalArgumentException("Circular reference error");
+            }
+        }
+        path.add(rec);
+        boolean labeled = !rec.label().equals(Rec.DEFAULT_LABEL);
+        if (labeled) {
+            put('{');
+            putQuoted(Rec.$LABEL);
+            put(':');
+            writeValue(rec.label());
+            put(',');
+            putQuoted(Rec.$REC);
+            put(':');
+        }
+        int count = rec.fieldCount();
+        if (rec instanceof CompleteTuple) {
+            put('[');
+            for (int i = 0; i < count; i++) {
+                if (i > 0) {
+                    put(',');
+                }
+                writeValue(rec.valueAt(i));
+            }
+            put(']');
+        } else {
+            put('{');
+            for (int i = 0; i < count; i++) {
+                if (i > 0) {
+                    put(',');
+                }
+                Feature feature = rec.featureAt(i);
+                if (!(feature instanceof Str featureStr)) {
+                    throw new IllegalArgumentException("Not a JSON object key: " + feature);
+                }
+                putQuoted(featureStr.value);
+                put(':');
+                writeValue(rec.valueAt(i));
+            }
+            put('}');
+        }
+        if (labeled) {
+            put('}');
+        }
+        path.remove(path.size() - 1);
+    }
+
+    private void writeValue(Complete value) throws Exception {
+        if (value instanceof Str str) {
+            putQuoted(str.value);
+        } else if (value instanceof CompleteRec rec) {
+            writeRec(rec);
+        } else if (value instanceof Int64 int64 && !(value instanceof Char)) {
+            putLong(int64.longValue());
+        } else if (value instanceof Flt64 flt64) {
+            putDouble(flt64.doubleValue());
+        } else if (value instanceof Bool bool) {
+            putChars(bool.value ? "true" : "false", false);
+        } else if (value instanceof Null) {
+            putChars("null", false);
+        } else if (value instanceof Dec128 dec128) {
+            putQuoted(dec128.value().toString());
+        } else {
+            putChars(JsonFormatter.SINGLETON.format(value.toNativeValue()), false);
+        }
+    }
+
+    public interface ByteSink {
+
+        /*
+         * Return an empty buffer ready to be written, with a capacity of at least MIN_BUFFER_CAPACITY
+         */
+        ByteBuffer acquire();
+
+        /*
+         * Accept a buffer ready to be read. The writer does not use the buffer again.
+         */
+        void accept(ByteBuffer buffer) throws Exception;
+    }
+
+}
@@ -0,0 +1,577 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.lang;
+
+import org.torqlang.core.klvm.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/*
+ * LexicalAddresser rewrites a generated kernel statement so that identifier references carry a lexical address
+ * (depth, slot). The addresser mirrors the environments created by the KLVM at runtime:
+ *
+ * -- A `LocalStmt` creates one environment with its identifiers in declaration order.
+ * -- A `LoopStmt` creates one environment per iteration with its identifiers in declaration order. The test and the
+ *    body both run in that environment.
+ * -- A closure body runs in an environment of arguments (only if there are arguments) over a captured environment of
+ *    free identifiers in name order.
+ * -- A `CatchStmt` runs its case statement in an environment containing only the catch argument.
+ * -- A case statement creates one environment if its pattern binds identifiers. We know the depth of that environment,
+ *    but not its slots, because the bindings are ordered by the resolved features at runtime.
+ * -- An `ActStmt` body runs in another actor. Its surrounding environment is unknown.
+ *
+ * Identifiers bound outside the statement (for example, in a root environment) are left unaddressed. A lexical
+ * address is a hint. The environment verifies the binding at the address and falls back to a search by name.
+ */
+final class LexicalAddresser implements KernelVisitor<LexicalAddresser.Frame, Kernel> {
+
+    static final LexicalAddresser SINGLETON = new LexicalAddresser();
+
+    private LexicalAddresser() {
+    }
+
+    private static Ident address(Ident ident, Frame frame) {
+        int depth = 0;
+        for (Frame current = frame; current != null; current = current.parent) {
+            int slot = current.idents.indexOf(ident);
+            if (slot >= 0) {
+                if (!current.slotted) {
+                    return ident;
+                }
+                // Use the binding identifier so that its name is the same String instance
+                return current.idents.get(slot).withAddress(depth, slot);
+            }
+            depth++;
+        }
+        return ident;
+    }
+
+    private static CompleteOrIdent address(CompleteOrIdent completeOrIdent, Frame frame) {
+        if (completeOrIdent instanceof Ident ident) {
+            return address(ident, frame);
+        }
+        return completeOrIdent;
+    }
+
+    private static FeatureOrIdent address(FeatureOrIdent featureOrIdent, Frame frame) {
+        if (featureOrIdent instanceof Ident ident) {
+            return address(ident, frame);
+        }
+        return featureOrIdent;
+    }
+
+    private static LiteralOrIdent address(LiteralOrIdent literalOrIdent, Frame frame) {
+        if (literalOrIdent instanceof Ident ident) {
+            return address(ident, frame);
+        }
+        return literalOrIdent;
+    }
+
+    private static List<CompleteOrIdent> addressAll(List<CompleteOrIdent> completeOrIdents, Frame frame) {
+        List<CompleteOrIdent> answer = new ArrayList<>(completeOrIdents.size());
+        for (CompleteOrIdent completeOrIdent : completeOrIdents) {
+            answer.add(address(completeOrIdent, frame));
+        }
+        return answer;
+    }
+
+    private static Frame createPtnFrame(ValueOrPtn valueOrPtn, Frame frame) {
+        if (!(valueOrPtn instanceof Ptn ptn)) {
+            return frame;
+        }
+        Set<Ident> knownBound = new HashSet<>();
+        ptn.captureLexicallyFree(knownBound, new HashSet<>());
+        if (knownBound.isEmpty()) {
+            return frame;
+        }
+        if (ptn instanceof IdentPtn identPtn) {
+            return new Frame(frame, List.of(identPtn.ident), true);
+        }
+        return new Frame(frame, new ArrayList<>(knownBound), false);
+    }
+
+    private static Kernel notGenerated(Kernel kernel) {
+        throw new IllegalArgumentException("Not a generated kernel statement: " + kernel.getClass().getName());
+    }
+
+    final Stmt apply(Stmt stmt) throws Exception {
+        return (Stmt) stmt.accept(this, null);
+    }
+
+    private ProcDef addressProcDef(ProcDef procDef) throws Exception {
+        Frame capturedFrame = new Frame(null, new ArrayList<>(procDef.freeIdents), true);
+        Frame bodyFrame = procDef.xs.isEmpty() ? capturedFrame : new Frame(capturedFrame, procDef.xs, true);
+        Stmt stmt = (Stmt) procDef.stmt.accept(this, bodyFrame);
+        return new ProcDef(procDef.xs, stmt, procDef.sourceSpan);
+    }
+
+    private Stmt addressStmt(Stmt stmt, Frame frame) throws Exception {
+        return (Stmt) stmt.accept(this, frame);
+    }
+
+    @Override
+    public final Kernel visitActStmt(ActStmt kernel, Frame frame) throws Exception {
+        // An act statement is computed by another actor using an environment unknown to us
+        return new ActStmt(addressStmt(kernel.stmt, null), kernel.target, kernel.sourceSpan);
+    }
+
+    @Override
+    public final Kernel visitActorCfg(ActorCfg kernel, Frame frame) {
+        return notGenerated(kernel);
+    }
+
+    @Override
+    public final Kernel visitActorCfgtr(ActorCfgtr kernel, Frame frame) {
+        return notGenerated(kernel);
+    }
+
+    @Override
+    public final Kernel visitAddStmt(AddStmt kernel, Frame frame) {
+        return new AddStmt(address(kernel.a, frame), address(kernel.b, frame), address(kernel.x, frame),
+            kernel.sourceSpan);
+    }
+
+    @Override
+    public final Kernel visitApplyProcStmt(ApplyStmt kernel, Frame frame) {
+        return new ApplyStmt(address(kernel.x, frame), addressAll(kernel.ys, frame), kernel.sourceSpan);
+    }
+
+    @Override
+    public final Kernel visitBindCompleteToCompleteStmt(BindCompleteToCompleteStmt kernel, Frame frame) {
+        return kernel;
+    }
+
+    @Override
+    public final Kernel visitBindCompleteToIdentStmt(BindCompleteToIdentStmt kernel, Frame frame) {
+        return new BindCompleteToIdentStmt(kernel.a, address(kernel.x, frame), kernel.sourceSpan);
+    }
+
+    @Override
+    public final Kernel visitBindCompleteToValueOrVarStmt(BindCompleteToValueOrVarStmt kernel, Frame frame) {
+        return kernel;
+    }
+
+    @Override
+    public final Kernel visitBindIdentToIdentStmt(BindIdentToIdentStmt kernel, Frame frame) {
+        return new BindIdentToIdentStmt(address(kernel.a, frame), address(kernel.x, frame), kernel.sourceSpan);
+    }
+
+    @Override
+    public final Kernel visitBool(Bool kernel, Frame frame) {
+        return kernel;
+    }
+
+    @Override
+    public final Kernel visitCaseElseStmt(CaseElseStmt kernel, Frame frame) throws Exception {
+        Frame ptnFrame = createPtnFrame(kernel.valueOrPtn, frame);
+        return new CaseElseStmt(address(kernel.x, frame), kernel.valueOrPtn, addressStmt(kernel.consequent, ptnFrame),
+            addressStmt(kernel.alternate, frame), kernel.sourceSpan);
+    }
+
+    @Override
+    public final Kernel visitCaseStmt(CaseStmt kernel, Frame frame) throws Exception {
+        Frame ptnFrame = createPtnFrame(kernel.valueOrPtn, frame);
+        return new CaseStmt(address(kernel.x, frame), kernel.valueOrPtn, addressStmt(kernel.consequent, ptnFrame),
+            kernel.sourceSpan);
+    }
+
+    @Override
+    public final Kernel visitCatchStmt(CatchStmt kernel, Frame frame) throws Exception {
+        Frame catchFrame = new Frame(frame, List.of(kernel.arg), true);
+        return new CatchStmt(kernel.arg, addressStmt(kernel.caseStmt, catchFrame), kernel.sourceSpan);
+    }
+
+    @Override
+    public final Kernel visitChar(Char kernel, Frame frame) {
+        return kernel;
+    }
+
+    @Override
+    public final Kernel visitClosure(Closure kernel, Frame frame) {
+        return notGenerated(kernel);
+    }
+
+    @Override
+    public final Kernel visitCreateActorCfgtrStmt(CreateActorCfgtrStmt kernel, Frame frame) throws Exception {
+        return new CreateActorCfgtrStmt(address(kernel.x, frame), addressProcDef(kernel.procDef), kernel.sourceSpan);
+    }
+
+    @Override
+    public final Kernel visitCreateProcStmt(CreateProcStmt kernel, Frame frame) throws Exception {
+        return new CreateProcStmt(address(kernel.x, frame), addressProcDef(kernel.procDef), kernel.sourceSpan);
+    }
+
+    @Override
+    public final Kernel visitCreateRecStmt(CreateRecStmt kernel, Frame frame) {
+        RecDef recDef = kernel.recDef;
+        List<FieldDef> fieldDefs = new ArrayList<>(recDef.fieldDefs.size());
+        for (FieldDef fieldDef : recDef.fieldDefs) {
+            fieldDefs.add(new FieldDef(address(fieldDef.feature, frame), address(fieldDef.value, frame),
+                fieldDef.sourceSpan));
+        }
+        RecDef addressedRecDef = new RecDef(address(recDef.label, frame), fieldDefs, recDef.sourceSpan);
+        return new CreateRecStmt(address(kernel.x, frame), addressedRecDef, kernel.sourceSpan);
+    }
+
+    @Override
+    public final Kernel visitCreateTupleStmt(CreateTupleStmt kernel, Frame frame) {
+        TupleDef tupleDef = kernel.tupleDef;
+        List<ValueDef> valueDefs = new ArrayList<>(tupleDef.valueDefs.size());
+        for (ValueDef valueDef : tupleDef.valueDefs) {
+            valueDefs.add(new ValueDef(address(valueDef.value, frame), valueDef.sourceSpan));
+        }
+        TupleDef addressedTupleDef = new TupleDef(address(tupleDef.label, frame), valueDefs, tupleDef.sourceSpan);
+        return new CreateTupleStmt(address(kernel.x, frame), addressedTupleDef, kernel.sourceSpan);
+    }
+
+    @Override
+    public final Kernel visitDec128(Dec128 kernel, Frame frame) {
+        return kernel;
+    }
+
+    @Override
+    public final Kernel visitDisentailsStmt(DisentailsStmt kernel, Frame frame) {
+        return new DisentailsStmt(address(kernel.a, frame), address(kernel.b, frame), address(kernel.x, frame),
+            kernel.sourceSpan);
+    }
+
+    @Override
+    public final Kernel visitDispatchStmt(DispatchStmt kernel, Frame frame) throws Exception {
+        List<DispatchStmt.Branch> branches = new ArrayList<>(kernel.branches.size());
+        for (DispatchStmt.Branch b : kernel.branches) {
+            branches.add(new DispatchStmt.Branch(b.label, b.arity, addressStmt(b.stmt, frame)));
+        }
+        return new DispatchStmt(address(kernel.x, frame), kernel.features, branches,
+            addressStmt(kernel.alternate, frame), kernel.sourceSpan);
+    }
+
+    @Override
+    public final Kernel visitDivideStmt(DivideStmt kernel, Frame frame) {
+        return new DivideStmt(address(kernel.a, frame), address(kernel.b, frame), address(kernel.x, frame),
+            kernel.sourceSpan);
+    }
+
+    @Override
+    public final Kernel visitEntailsStmt(EntailsStmt kernel, Frame frame) {
+        return new EntailsStmt(address(kernel.a, frame), address(kernel.b, frame), address(kernel.x, frame),
+            kernel.sourceSpan);
+    }
+
+    @Override
+    public final Kernel visitEnv(Env kernel, Frame frame) {
+        return notGenerated(kernel);
+    }
+
+    @Override
+    public final Kernel visitEof(Eof kernel, Frame frame) {
+        return kernel;
+    }
+
+    @Override
+    public final Kernel visitFailedValue(FailedValue kernel, Frame frame) {
+        return kernel;
+    }
+
+    @Override
+    public final Kernel visitFieldDef(FieldDef kernel, Frame frame) {
+        return notGenerated(kernel);
+    }
+
+    @Override
+    public final Kernel visitFieldPtn(FieldPtn kernel, Frame frame) {
+        return notGenerated(kernel);
+    }
+
+    @Override
+    public final Kernel visitFlt32(Flt32 kernel, Frame frame) {
+        return kernel;
+    }
+
+    @Override
+    public final Kernel visitFlt64(Flt64 kernel, Frame frame) {
+        return kernel;
+    }
+
+    @Override
+    public final Kernel visitGetCellValueStmt(GetCellValueStmt kernel, Frame frame) {
+        return new GetCellValueStmt(address(kernel.cell, frame), address(kernel.target, frame), kernel.sourceSpan);
+    }
+
+    @Override
+    public final Kernel visitGreaterThanOrEqualToStmt(GreaterThanOrEqualToStmt kernel, Frame frame) {
+        return new GreaterThanOrEqualToStmt(address(kernel.a, frame), address(kernel.b, frame),
+            address(kernel.x, frame), kernel.sourceSpan);
+    }
+
+    @Override
+    public final Kernel visitGreaterThanStmt(GreaterThanStmt kernel, Frame frame) {
+        return new GreaterThanStmt(address(kernel.a, frame), address(kernel.b, frame), address(kernel.x, frame),
+            kernel.sourceSpan);
+    }
+
+    @Override
+    public final Kernel visitIdent(Ident kernel, Frame frame) {
+        return address(kernel, frame);
+    }
+
+    @Override
+    public final Kernel visitIdentDef(IdentDef kernel, Frame frame) {
+        return notGenerated(kernel);
+    }
+
+    @Override
+    public final Kernel visitIdentPtn(IdentPtn kernel, Frame frame) {
+        return notGenerated(kernel);
+    }
+
+    @Override
+    public final Kernel visitIfElseStmt(IfElseStmt kernel, Frame frame) throws Exception {
+        return new IfElseStmt(address(kernel.x, frame), addressStmt(kernel.consequent, frame),
+            addressStmt(kernel.alternate, frame), kernel.sourceSpan);
+    }
+
+    @Override
+    public final Kernel visitIfStmt(IfStmt kernel, Frame frame) throws Exception {
+        return new IfStmt(address(kernel.x, frame), addressStmt(kernel.consequent, frame), kernel.sourceSpan);
+    }
+
+    @Override
+    public final Kernel visitInt32(Int32 kernel, Frame frame) {
+        return kernel;
+    }
+
+    @Override
+    public final Kernel visitInt64(Int64 kernel, Frame frame) {
+        return kernel;
+    }
+
+    @Override
+    public final Kernel visitJumpCatchStmt(JumpCatchStmt kernel, Frame frame) {
+        return kernel;
+    }
+
+    @Override
+    public final Kernel visitJumpThrowStmt(JumpThrowStmt kernel, Frame frame) {
+        return kernel;
+    }
+
+    @Override
+    public final Kernel visitLessThanOrEqualToStmt(LessThanOrEqualToStmt kernel, Frame frame) {
+        return new LessThanOrEqualToStmt(address(kernel.a, frame), address(kernel.b, frame),
+            address(kernel.x, frame), kernel.sourceSpan);
+    }
+
+    @Override
+    public final Kernel visitLessThanStmt(LessThanStmt kernel, Frame frame) {
+        return new LessThanStmt(address(kernel.a, frame), address(kernel.b, frame), address(kernel.x, frame),
+            kernel.sourceSpan);
+    }
+
+    @Override
+    public final Kernel visitLocalStmt(LocalStmt kernel, Frame frame) throws Exception {
+        List<Ident> idents = new ArrayList<>(kernel.xs.size());
+        for (IdentDef identDef : kernel.xs) {
+            idents.add(identDef.ident);
+        }
+        Frame bodyFrame = new Frame(frame, idents, true);
+        return new LocalStmt(kernel.xs, addressStmt(kernel.body, bodyFrame), kernel.sourceSpan);
+    }
+
+    @Override
+    public final Kernel visitLoopStmt(LoopStmt kernel, Frame frame) throws Exception {
+        List<Ident> idents = new ArrayList<>(kernel.xs.size());
+        for (IdentDef identDef : kernel.xs) {
+            idents.add(identDef.ident);
+        }
+        Frame iterationFrame = new Frame(frame, idents, true);
+        return new LoopStmt(kernel.xs, addressStmt(kernel.test, iterationFrame), address(kernel.x, iterationFrame),
+            addressStmt(kernel.body, iterationFrame), kernel.sourceSpan);
+    }
+
+    @Override
+    public final Kernel visitModuloStmt(ModuloStmt kernel, Frame frame) {
+        return new ModuloStmt(address(kernel.a, frame), address(kernel.b, frame), address(kernel.x, frame),
+            kernel.sourceSpan);
+    }
+
+    @Override
+    public final Kernel visitMultiplyStmt(MultiplyStmt kernel, Frame frame) {
+        return new MultiplyStmt(address(kernel.a, frame), address(kernel.b, frame), address(kernel.x, frame),
+            kernel.sourceSpan);
+    }
+
+    @Override
+    public final Kernel visitNegateStmt(NegateStmt kernel, Frame frame) {
+        return new NegateStmt(address(kernel.a, frame), address(kernel.x, frame), kernel.sourceSpan);
+    }
+
+    @Override
+    public final Kernel visitNotStmt(NotStmt kernel, Frame frame) {
+        return new NotStmt(address(kernel.a, frame), address(kernel.x, frame), kernel.sourceSpan);
+    }
+
+    @Override
+    public final Kernel visitNull(Null kernel, Frame frame) {
+        return kernel;
+    }
+
+    @Override
+    public final Kernel visitObj(Obj kernel, Frame frame) {
+        return kernel;
+    }
+
+    @Override
+    public final Kernel visitOpaqueValue(OpaqueValue kernel, Frame frame) {
+        return kernel;
+    }
+
+    @Override
+    public final Kernel visitProc(Proc kernel, Frame frame) {
+        return notGenerated(kernel);
+    }
+
+    @Override
+    public final Kernel visitProcDef(ProcDef kernel, Frame frame) throws Exception {
+        return addressProcDef(kernel);
+    }
+
+    @Override
+    public final Kernel visitRec(Rec kernel, Frame frame) {
+        return kernel;
+    }
+
+    @Override
+    public final Kernel visitRecDef(RecDef kernel, Frame frame) {
+        return notGenerated(kernel);
+    }
+
+    @Override
+    public final Kernel visitRecPtn(RecPtn kernel, Frame frame) {
+        return notGenerated(kernel);
+    }
+
+    @Override
+    public final Kernel visitResolvedFieldPtn(ResolvedFieldPtn kernel, Frame frame) {
+        return notGenerated(kernel);
+    }
+
+    @Override
+    public final Kernel visitResolvedIdentPtn(ResolvedIdentPtn kernel, Frame frame) {
+        return notGenerated(kernel);
+    }
+
+    @Override
+    public final Kernel visitResolvedRecPtn(ResolvedRecPtn kernel, Frame frame) {
+        return notGenerated(kernel);
+    }
+
+    @Override
+    public final Kernel visitSelectAndApplyStmt(SelectAndApplyStmt kernel, Frame frame) {
+        List<FeatureOrIdent> path = new ArrayList<>(kernel.path.size());
+        for (FeatureOrIdent feature : kernel.path) {
+            path.add(address(feature, frame));
+        }
+        return new SelectAndApplyStmt(address(kernel.rec, frame), path, addressAll(kernel.args, frame),
+            kernel.sourceSpan);
+    }
+
+    @Override
+    public final Kernel visitSelectStmt(SelectStmt kernel, Frame frame) {
+        return new SelectStmt(address(kernel.rec, frame), address(kernel.feature, frame),
+            address(kernel.target, frame), kernel.sourceSpan);
+    }
+
+    @Override
+    public final Kernel visitSeqStmt(SeqStmt kernel, Frame frame) throws Exception {
+        List<Stmt> stmts = new ArrayList<>(kernel.seq.size());
+        for (Stmt stmt : kernel.seq) {
+            stmts.add(addressStmt(stmt, frame));
+        }
+        return new SeqStmt(stmts, kernel.sourceSpan);
+    }
+
+    @Override
+    public final Kernel visitSetCellValueStmt(SetCellValueStmt kernel, Frame frame) {
+        return new SetCellValueStmt(address(kernel.cell, frame), address(kernel.value, frame), kernel.sourceSpan);
+    }
+
+    @Override
+    public final Kernel visitSkipStmt(SkipStmt kernel, Frame frame) {
+        return kernel;
+    }
+
+    @Override
+    public final Kernel visitStack(Stack kernel, Frame frame) {
+        return notGenerated(kernel);
+    }
+
+    @Override
+    public final Kernel visitStr(Str kernel, Frame frame) {
+        return kernel;
+    }
+
+    @Override
+    public final Kernel visitSubtractStmt(SubtractStmt kernel, Frame frame) {
+        return new SubtractStmt(address(kernel.a, frame), address(kernel.b, frame), address(kernel.x, frame),
+            kernel.sourceSpan);
+    }
+
+    @Override
+    public final Kernel visitThrowStmt(ThrowStmt kernel, Frame frame) {
+        return new ThrowStmt(address(kernel.error, frame), kernel.nativeCause, kernel.sourceSpan);
+    }
+
+    @Override
+    public final Kernel visitToken(Token kernel, Frame frame) {
+        return kernel;
+    }
+
+    @Override
+    public final Kernel visitTryStmt(TryStmt kernel, Frame frame) throws Exception {
+        return new TryStmt(addressStmt(kernel.body, frame), addressStmt(kernel.catchStmt, frame), kernel.sourceSpan);
+    }
+
+    @Override
+    public final Kernel visitTupleDef(TupleDef kernel, Frame frame) {
+        return notGenerated(kernel);
+    }
+
+    @Override
+    public final Kernel visitValueDef(ValueDef kernel, Frame frame) {
+        return notGenerated(kernel);
+    }
+
+    @Override
+    public final Kernel visitVar(Var kernel, Frame frame) {
+        return notGenerated(kernel);
+    }
+
+    @Override
+    public final Kernel visitVarSet(VarSet kernel, Frame frame) {
+        return notGenerated(kernel);
+    }
+
+    /*
+     * A frame is the compile-time image of one runtime environment. A null frame is an unknown environment.
+     */
+    static final class Frame {
+        private final Frame parent;
+        private final List<Ident> idents;
+        private final boolean slotted;
+
+        private Frame(Frame parent, List<Ident> idents, boolean slotted) {
+            this.parent = parent;
+            this.idents = idents;
+            this.slotted = slotted;
+        }
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.lang;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.infra.Blackhole;
+import org.torqlang.core.klvm.*;
+import org.torqlang.core.util.SourceSpan;
+
+import java.util.List;
+
+/*
+ * Apply a function that routes a path with a case expression of 24 clauses, two per resource, to a path matching the
+ * second clause and a path matching the last clause.
+ *
+ * Results (ns/path):
+ *
+ *     Case statements only:         routeFirst 424, routeLast 3971
+ *     Dispatch by label and arity:  routeFirst 383, routeLast 2243
+ *     Dispatch by field values:     routeFirst 402, routeLast 396
+ *
+ * Every path is a tuple, so dispatching by label and arity only halves the case statements tried. Dispatching by the
+ * literal at the first feature selects the clauses of a resource in constant time.
+ */
+public class BenchCaseDispatch {
+
+    private static final Ident PATH = Ident.create("path");
+    private static final Ident RESULT = Ident.create("result");
+    private static final Ident ROUTE = Ident.create("route");
+
+    private static final Stmt APPLY_ROUTE = new ApplyStmt(ROUTE, List.of(PATH, RESULT),
+        SourceSpan.emptySourceSpan());
+
+    public static void main(String[] args) {
+        BenchCaseDispatchState state = new BenchCaseDispatchState();
+        try {
+            state.setup();
+        } catch (Exception exc) {
+            throw new IllegalStateException(exc);
+        }
+        int count = 1_000_000;
+        for (int i = 0; i < 5; i++) {
+            System.out.println("Round " + i);
+            measure("routeFirst", count, state, state.firstPath, Int32.of(1));
+            measure("routeLast", count, state, state.lastPath, Int32.of(BenchCaseDispatchState.RESOURCE_COUNT));
+        }
+    }
+
+    private static void measure(String name, int count, BenchCaseDispatchState state, CompleteTuple path,
+                                Int32 expected)
+    {
+        Value result = null;
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            result = perform(state, path);
+        }
+        long elapsed = System.nanoTime() - start;
+        if (!expected.equals(result)) {
+            throw new IllegalStateException("Unexpected result: " + result);
+        }
+        System.out.printf("  %s: %.1f ns/path%n", name, (double) elapsed / count);
+    }
+
+    private static Value perform(BenchCaseDispatchState state, CompleteTuple path) {
+        Var result = new Var();
+        Env env = Env.create(List.of(
+            new EnvEntry(ROUTE, new Var(state.route)),
+            new EnvEntry(PATH, new Var(path)),
+            new EnvEntry(RESULT, result)
+        ));
+        Machine.compute(new Stack(APPLY_ROUTE, env, null), 100_000);
+        return (Value) result.valueOrVarSet();
+    }
+
+    //@Benchmark
+    public void routeFirst(BenchCaseDispatchState state, Blackhole blackhole) {
+        blackhole.consume(perform(state, state.firstPath));
+    }
+
+    //@Benchmark
+    public void routeLast(BenchCaseDispatchState state, Blackhole blackhole) {
+        blackhole.consume(perform(state, state.lastPath));
+    }
+
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.lang;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.torqlang.core.klvm.*;
+
+import java.util.List;
+
+@State(Scope.Benchmark)
+public class BenchCaseDispatchState {
+
+    public static final int RESOURCE_COUNT = 12;
+
+    public Value route;
+    public CompleteTuple firstPath;
+    public CompleteTuple lastPath;
+
+    /*
+     * A function with a case clause per path, such as ['resource-0'] and ['resource-0', id]
+     */
+    private static String createSource() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("route = func (path) in\n");
+        sb.append("    case path\n");
+        for (int i = 0; i < RESOURCE_COUNT; i++) {
+            sb.append("        of ['resource-").append(i).append("'] then\n");
+            sb.append("            ").append(i).append("\n");
+            sb.append("        of ['resource-").append(i).append("', id] then\n");
+            sb.append("            id + ").append(i).append("\n");
+        }
+        sb.append("        else\n");
+        sb.append("            -1\n");
+        sb.append("    end\n");
+        sb.append("end");
+        return sb.toString();
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        EvaluatorPerformed e = Evaluator.builder()
+            .addVar(Ident.create("route"))
+            .setSource(createSource())
+            .perform();
+        route = (Value) e.varAtName("route").valueOrVarSet();
+        firstPath = CompleteTuple.create(List.of(Str.of("resource-0"), Int32.of(1)));
+        lastPath = CompleteTuple.create(List.of(Str.of("resource-" + (RESOURCE_COUNT - 1)), Int32.of(1)));
+    }
+
+}
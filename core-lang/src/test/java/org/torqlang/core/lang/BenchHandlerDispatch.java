@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.lang;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.infra.Blackhole;
+import org.torqlang.core.klvm.*;
+import org.torqlang.core.util.SourceSpan;
+
+import java.util.List;
+
+/*
+ * Apply the ask handler of an actor with 24 handlers, one per route, to a request for the first route and a request
+ * for the last route. The handler is applied on a bare machine, as an actor does for each request, without a mailbox
+ * or a response envelope.
+ *
+ * Results (ns/request):
+ *
+ *     Case statements only:   askFirst 641, askLast 7245
+ *     Dispatch by label:      askFirst 709, askLast 705
+ *
+ * Matching each handler in turn fails 23 case statements and creates 23 `$else` closures before the last route
+ * matches. Dispatching by label and arity selects the handler in constant time, at the cost of one more closure for
+ * the first route.
+ */
+public class BenchHandlerDispatch {
+
+    private static final Stmt APPLY_HANDLER = new ApplyStmt(Ident.$HANDLER, List.of(Ident.$NEXT),
+        SourceSpan.emptySourceSpan());
+
+    public static void main(String[] args) {
+        BenchHandlerDispatchState state = new BenchHandlerDispatchState();
+        try {
+            state.setup();
+        } catch (Exception exc) {
+            throw new IllegalStateException(exc);
+        }
+        int count = 1_000_000;
+        for (int i = 0; i < 5; i++) {
+            System.out.println("Round " + i);
+            measure("askFirst", count, state, state.firstMessage, Int32.of(1));
+            measure("askLast", count, state, state.lastMessage, Int32.of(BenchHandlerDispatchState.HANDLER_COUNT));
+        }
+    }
+
+    private static void measure(String name, int count, BenchHandlerDispatchState state, CompleteRec message,
+                                Int32 expected)
+    {
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            perform(state, message);
+        }
+        long elapsed = System.nanoTime() - start;
+        if (!expected.equals(state.response)) {
+            throw new IllegalStateException("Unexpected response: " + state.response);
+        }
+        System.out.printf("  %s: %.1f ns/request%n", name, (double) elapsed / count);
+    }
+
+    private static Value perform(BenchHandlerDispatchState state, CompleteRec message) {
+        Env env = Env.create(
+            new EnvEntry(Ident.$HANDLER, new Var(state.askHandler)),
+            new EnvEntry(Ident.$NEXT, new Var(message))
+        );
+        Machine.compute(new Stack(APPLY_HANDLER, env, null), 100_000);
+        return state.response;
+    }
+
+    //@Benchmark
+    public void askFirst(BenchHandlerDispatchState state, Blackhole blackhole) {
+        blackhole.consume(perform(state, state.firstMessage));
+    }
+
+    //@Benchmark
+    public void askLast(BenchHandlerDispatchState state, Blackhole blackhole) {
+        blackhole.consume(perform(state, state.lastMessage));
+    }
+
+}
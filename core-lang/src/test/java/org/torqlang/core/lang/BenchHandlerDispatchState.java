@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.lang;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.torqlang.core.klvm.*;
+import org.torqlang.core.util.SourceSpan;
+
+import java.util.List;
+
+@State(Scope.Benchmark)
+public class BenchHandlerDispatchState {
+
+    public static final int HANDLER_COUNT = 24;
+
+    public Value askHandler;
+    public CompleteRec firstMessage;
+    public CompleteRec lastMessage;
+    public Value response;
+
+    private static CompleteRec createMessage(int route) {
+        return Rec.completeRecBuilder()
+            .setLabel(Str.of("route-" + route))
+            .addField(Str.of("id"), Int32.of(1))
+            .build();
+    }
+
+    /*
+     * An actor with a handler per route, such as 'route-0'#{'id': id}
+     */
+    private static String createSource() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("begin\n");
+        sb.append("    actor Routes() in\n");
+        for (int i = 0; i < HANDLER_COUNT; i++) {
+            sb.append("        handle ask 'route-").append(i).append("'#{'id': id} in\n");
+            sb.append("            id + ").append(i).append("\n");
+            sb.append("        end\n");
+        }
+        sb.append("    end\n");
+        sb.append("    routes_cfg = Routes.cfg()\n");
+        sb.append("end");
+        return sb.toString();
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        CompleteProc respond = (ys, env, machine) -> response = ys.get(0).resolveValue(env);
+        EvaluatorPerformed e = Evaluator.builder()
+            .addVar(Ident.$RESPOND, new Var(respond))
+            .addVar(Ident.create("routes_cfg"))
+            .setSource(createSource())
+            .perform();
+        ActorCfg cfg = (ActorCfg) e.varAtName("routes_cfg").valueOrVarSet();
+        // Construct the handlers the same way an actor does when it is configured
+        Var handlersVar = new Var();
+        Env env = Env.create(
+            new EnvEntry(Ident.$HANDLERS_CTOR, new Var(cfg.handlersCtor())),
+            new EnvEntry(Ident.$HANDLERS, handlersVar)
+        );
+        Stmt stmt = new ApplyStmt(Ident.$HANDLERS_CTOR, List.of(Ident.$HANDLERS), SourceSpan.emptySourceSpan());
+        Machine.compute(new Stack(stmt, env, null), 100_000);
+        askHandler = (Value) ((Tuple) handlersVar.valueOrVarSet()).valueAt(0);
+        firstMessage = createMessage(0);
+        lastMessage = createMessage(HANDLER_COUNT - 1);
+    }
+
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.lang;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+
+/*
+ * Lex and parse the Northwind orders fixture (24,830 bytes):
+ *
+ * -- lexString lexes the fixture as a String using JsonLexer, which allocates a token per call.
+ * -- lexBytes lexes the fixture as UTF-8 bytes using JsonByteLexer, which reuses one token.
+ * -- parseString parses the fixture as a String using JsonParser, which encodes the String first.
+ * -- parseBytes parses the fixture as UTF-8 bytes using JsonParser.
+ * -- parseKernel parses the fixture as UTF-8 bytes into kernel values using KernelJsonParser.
+ *
+ * The main method reports throughput in MB/s of UTF-8 input.
+ *
+ * --- 2026 October ---
+ *
+ * Java 17, one CPU, last of five rounds
+ *
+ * Before JsonByteLexer, when JsonParser lexed the String with JsonLexer and unquoted every string into a StringBuilder
+ * sized at twice the string length:
+ *
+ *   lexString: 673.4 MB/s
+ *   parseString: 249.1 MB/s
+ *   parseKernel: 65.6 MB/s
+ *
+ * After:
+ *
+ *   lexString: 692.0 MB/s
+ *   lexBytes: 806.4 MB/s
+ *   parseString: 285.0 MB/s
+ *   parseBytes: 391.9 MB/s
+ *   parseKernel: 68.2 MB/s
+ */
+public class BenchJsonLexer {
+
+    private static volatile Object sink;
+
+    public static void main(String[] args) throws Exception {
+        BenchJsonLexerState state = new BenchJsonLexerState();
+        state.setup();
+        int count = 2_000;
+        for (int i = 0; i < 5; i++) {
+            System.out.println("Round " + i);
+            measure("lexString", state, count, () -> lexString(state));
+            measure("lexBytes", state, count, () -> lexBytes(state));
+            measure("parseString", state, count, () -> parseString(state));
+            measure("parseBytes", state, count, () -> parseBytes(state));
+            measure("parseKernel", state, count, () -> parseKernel(state));
+        }
+    }
+
+    private static void measure(String name, BenchJsonLexerState state, int count, Parse parse) {
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            sink = parse.perform();
+        }
+        long elapsed = System.nanoTime() - start;
+        double megabytes = (double) state.ordersBytes.length * count / (1024 * 1024);
+        System.out.printf("  %s: %,.1f MB/s%n", name, megabytes / (elapsed / 1_000_000_000.0));
+    }
+
+    private static Object lexBytes(BenchJsonLexerState state) {
+        JsonByteLexer lexer = new JsonByteLexer(state.ordersBytes);
+        JsonByteLexerToken token = lexer.nextToken();
+        int count = 0;
+        while (token.type() != JsonLexerTokenType.EOF) {
+            token = lexer.nextToken();
+            count++;
+        }
+        return count;
+    }
+
+    private static Object lexString(BenchJsonLexerState state) {
+        JsonLexer lexer = new JsonLexer(state.ordersText);
+        JsonLexerToken token = lexer.nextToken();
+        int count = 0;
+        while (token.type() != JsonLexerTokenType.EOF) {
+            token = lexer.nextToken();
+            count++;
+        }
+        return count;
+    }
+
+    private static Object parseKernel(BenchJsonLexerState state) {
+        KernelJsonParser parser = new KernelJsonParser();
+        parser.feed(ByteBuffer.wrap(state.ordersBytes));
+        return parser.finish();
+    }
+
+    private static Object parseBytes(BenchJsonLexerState state) {
+        return JsonParser.parse(state.ordersBytes);
+    }
+
+    private static Object parseString(BenchJsonLexerState state) {
+        return JsonParser.parse(state.ordersText);
+    }
+
+    //@Benchmark
+    public void lexBytes(BenchJsonLexerState state, Blackhole blackhole) {
+        blackhole.consume(lexBytes(state));
+    }
+
+    //@Benchmark
+    public void lexString(BenchJsonLexerState state, Blackhole blackhole) {
+        blackhole.consume(lexString(state));
+    }
+
+    //@Benchmark
+    public void parseBytes(BenchJsonLexerState state, Blackhole blackhole) {
+        blackhole.consume(parseBytes(state));
+    }
+
+    //@Benchmark
+    public void parseKernel(BenchJsonLexerState state, Blackhole blackhole) {
+        blackhole.consume(parseKernel(state));
+    }
+
+    //@Benchmark
+    public void parseString(BenchJsonLexerState state, Blackhole blackhole) {
+        blackhole.consume(parseString(state));
+    }
+
+    @FunctionalInterface
+    private interface Parse {
+        Object perform();
+    }
+
+}
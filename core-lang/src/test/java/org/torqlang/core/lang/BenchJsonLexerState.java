@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.lang;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.FileNotFoundException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+@State(Scope.Benchmark)
+public class BenchJsonLexerState {
+
+    public static final String ORDERS_RESOURCE = "/northwind/orders.json";
+
+    public byte[] ordersBytes;
+    public String ordersText;
+
+    @Setup
+    public void setup() throws Exception {
+        try (InputStream s = BenchJsonLexerState.class.getResourceAsStream(ORDERS_RESOURCE)) {
+            if (s == null) {
+                throw new FileNotFoundException(ORDERS_RESOURCE);
+            }
+            ordersBytes = s.readAllBytes();
+        }
+        ordersText = new String(ordersBytes, StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.lang;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.infra.Blackhole;
+import org.torqlang.core.klvm.*;
+
+/*
+ * Compute the same program generated with and without lexical addressing, by `new Generator(true)` and
+ * `new Generator(false)`. The factorial is of 100 in Dec128 arithmetic. The deep closure recurses 1000 times through a
+ * function that reads variables captured from two enclosing functions.
+ *
+ * Results (us/op, median of 20 rounds from four runs, one CPU):
+ *
+ *     factorial      unaddressed 107.9, addressed 87.9
+ *     deepClosure    unaddressed 1879, addressed 1575
+ */
+public class BenchLexicalAddress {
+
+    public static void main(String[] args) throws Exception {
+        BenchLexicalAddressState state = new BenchLexicalAddressState();
+        state.setup();
+        checkResult(perform(state.factorialAddressed, Dec128.of("100")),
+            perform(state.factorialUnaddressed, Dec128.of("100")));
+        checkResult(perform(state.deepClosureAddressed, Int32.of(1000)),
+            perform(state.deepClosureUnaddressed, Int32.of(1000)));
+        for (int i = 0; i < 5; i++) {
+            System.out.println("Round " + i);
+            measure("factorialUnaddressed", 20_000, state.factorialUnaddressed, Dec128.of("100"));
+            measure("factorialAddressed", 20_000, state.factorialAddressed, Dec128.of("100"));
+            measure("deepClosureUnaddressed", 2_000, state.deepClosureUnaddressed, Int32.of(1000));
+            measure("deepClosureAddressed", 2_000, state.deepClosureAddressed, Int32.of(1000));
+        }
+    }
+
+    private static void checkResult(Object addressed, Object unaddressed) {
+        if (!addressed.equals(unaddressed)) {
+            throw new IllegalStateException("Addressed and unaddressed results differ");
+        }
+    }
+
+    private static void measure(String name, int count, Stmt stmt, Complete a) {
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            perform(stmt, a);
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("  %s: %.1f us/op%n", name, elapsed / 1_000.0 / count);
+    }
+
+    private static Object perform(Stmt stmt, Complete a) {
+        Var x = new Var();
+        Env env = Env.create(
+            new EnvEntry(Ident.create("a"), new Var(a)),
+            new EnvEntry(Ident.create("x"), x)
+        );
+        Machine.compute(new Stack(stmt, env, null), Long.MAX_VALUE);
+        return x.valueOrVarSet();
+    }
+
+    //@Benchmark
+    public void factorialAddressed(BenchLexicalAddressState state, Blackhole blackhole) {
+        blackhole.consume(perform(state.factorialAddressed, Dec128.of("100")));
+    }
+
+    //@Benchmark
+    public void factorialUnaddressed(BenchLexicalAddressState state, Blackhole blackhole) {
+        blackhole.consume(perform(state.factorialUnaddressed, Dec128.of("100")));
+    }
+
+    //@Benchmark
+    public void deepClosureAddressed(BenchLexicalAddressState state, Blackhole blackhole) {
+        blackhole.consume(perform(state.deepClosureAddressed, Int32.of(1000)));
+    }
+
+    //@Benchmark
+    public void deepClosureUnaddressed(BenchLexicalAddressState state, Blackhole blackhole) {
+        blackhole.consume(perform(state.deepClosureUnaddressed, Int32.of(1000)));
+    }
+
+}
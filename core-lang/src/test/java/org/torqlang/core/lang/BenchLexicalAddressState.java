@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.lang;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.torqlang.core.klvm.Stmt;
+
+@State(Scope.Benchmark)
+public class BenchLexicalAddressState {
+
+    public static final String FACTORIAL = """
+        begin
+            func fact(x) in
+                func fact_cps(n, k) in
+                    if n < 2m then
+                        k
+                    else
+                        fact_cps(n - 1m, n * k)
+                    end
+                end
+                fact_cps(x, 1m)
+            end
+            x = fact(a)
+        end""";
+
+    // The innermost function references identifiers declared several levels
+    // out, so every unaddressed lookup walks the full environment chain.
+    public static final String DEEP_CLOSURE = """
+        begin
+            func outer(n) in
+                var a = 1
+                var b = 2
+                var c = 3
+                func middle(m) in
+                    var d = 4
+                    var e = 5
+                    func inner(i, acc) in
+                        var f = i + d
+                        if i < 1 then
+                            acc
+                        else
+                            inner(i - 1, acc + a + b + c + e + f - f)
+                        end
+                    end
+                    inner(m, 0)
+                end
+                middle(n)
+            end
+            x = outer(a)
+        end""";
+
+    public Stmt factorialAddressed;
+    public Stmt factorialUnaddressed;
+    public Stmt deepClosureAddressed;
+    public Stmt deepClosureUnaddressed;
+
+    private static Stmt generate(String source, boolean lexicalAddressing) throws Exception {
+        Parser p = new Parser(source);
+        SntcOrExpr sntcOrExpr = p.parse();
+        return new Generator(lexicalAddressing).acceptSntc(sntcOrExpr);
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        factorialAddressed = generate(FACTORIAL, true);
+        factorialUnaddressed = generate(FACTORIAL, false);
+        deepClosureAddressed = generate(DEEP_CLOSURE, true);
+        deepClosureUnaddressed = generate(DEEP_CLOSURE, false);
+    }
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.lang;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.torqlang.core.klvm.*;
+
+@State(Scope.Benchmark)
+public class BenchSumOddIntsState {
+
+    public static final String SUM_ODD_INTS = """
+        sum_odd_ints = func (first, last, zero) in
+            func sum_odd(i, sum) in
+                if i > last then
+                    sum
+                elseif i % 2 != 0 then
+                    sum_odd(i + 1, sum + i)
+                else
+                    sum_odd(i + 1, sum)
+                end
+            end
+            sum_odd(first, zero)
+        end""";
+
+    public final Int32 first = Int32.I32_1;
+    public final Int32 last = Int32.of(10_000);
+
+    public Value sumOddInts;
+
+    @Setup
+    public void setup() throws Exception {
+        EvaluatorPerformed e = Evaluator.builder()
+            .addVar(Ident.create("sum_odd_ints"))
+            .setSource(SUM_ODD_INTS)
+            .perform();
+        sumOddInts = (Value) e.varAtName("sum_odd_ints").valueOrVarSet();
+    }
+
+}
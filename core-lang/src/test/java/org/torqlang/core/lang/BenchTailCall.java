@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.lang;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.infra.Blackhole;
+import org.torqlang.core.klvm.*;
+
+/*
+ * An accumulator-style recursion of 10M tail calls. The machine runs it in constant stack space: each call leaves
+ * the procedure body in the next-statement register instead of pushing a stack entry. The benchmark reports the
+ * time per run and the deepest stack observed between time slices.
+ */
+public class BenchTailCall {
+
+    private static final Int64 EXPECTED = Int64.of(50_000_005_000_000L);
+
+    public static void main(String[] args) throws Exception {
+        BenchTailCallState state = new BenchTailCallState();
+        state.setup();
+        for (int i = 0; i < 5; i++) {
+            System.out.println("Round " + i);
+            long start = System.nanoTime();
+            int maxStackSize = perform(state.accumulate, state.iterations);
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("  accumulate: %.3f ms/op, max stack size: %d%n", elapsed / 1_000_000.0, maxStackSize);
+        }
+    }
+
+    private static int perform(Stmt stmt, Int32 a) {
+        Var x = new Var();
+        Env env = Env.create(
+            new EnvEntry(Ident.create("a"), new Var(a)),
+            new EnvEntry(Ident.create("x"), x)
+        );
+        Machine machine = new Machine(new Stack(stmt, env, null));
+        int maxStackSize = 0;
+        ComputeAdvice advice = machine.compute(10_000);
+        while (advice == ComputePreempt.SINGLETON) {
+            maxStackSize = Math.max(maxStackSize, machine.stack().size);
+            advice = machine.compute(10_000);
+        }
+        if (!EXPECTED.equals(x.valueOrVarSet())) {
+            throw new IllegalStateException("Unexpected result: " + x.valueOrVarSet());
+        }
+        return maxStackSize;
+    }
+
+    //@Benchmark
+    public void accumulate(BenchTailCallState state, Blackhole blackhole) {
+        blackhole.consume(perform(state.accumulate, state.iterations));
+    }
+
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.lang;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.torqlang.core.klvm.Int32;
+import org.torqlang.core.klvm.Stmt;
+
+@State(Scope.Benchmark)
+public class BenchTailCallState {
+
+    public static final String ACCUMULATE = """
+        begin
+            func accumulate(n, acc) in
+                if n == 0 then
+                    acc
+                else
+                    accumulate(n - 1, acc + n)
+                end
+            end
+            x = accumulate(a, 0L)
+        end""";
+
+    public final Int32 iterations = Int32.of(10_000_000);
+
+    public Stmt accumulate;
+
+    @Setup
+    public void setup() throws Exception {
+        Parser p = new Parser(ACCUMULATE);
+        accumulate = new Generator().acceptSntc(p.parse());
+    }
+
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.lang;
+
+import org.junit.jupiter.api.Test;
+import org.torqlang.core.klvm.Ident;
+import org.torqlang.core.klvm.Int32;
+import org.torqlang.core.klvm.Var;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestCompilationCache {
+
+    @Test
+    public void testEvaluator() throws Exception {
+        CompilationCache cache = CompilationCache.create();
+        String source = "x = a + 1";
+        EvaluatorPerformed first = Evaluator.builder()
+            .setCompilationCache(cache)
+            .addVar(Ident.create("a"), new Var(Int32.of(1)))
+            .addVar(Ident.create("x"))
+            .setSource(source)
+            .perform();
+        EvaluatorPerformed second = Evaluator.builder()
+            .setCompilationCache(cache)
+            .addVar(Ident.create("a"), new Var(Int32.of(2)))
+            .addVar(Ident.create("x"))
+            .setSource(source)
+            .perform();
+        assertSame(first.kernel(), second.kernel());
+        assertSame(first.sntcOrExpr(), second.sntcOrExpr());
+        assertEquals(Int32.of(2), first.varAtName("x").valueOrVarSet());
+        assertEquals(Int32.of(3), second.varAtName("x").valueOrVarSet());
+        assertEquals(1, cache.missCount());
+        assertEquals(1, cache.hitCount());
+        // The same source generated as an expression is a different entry
+        EvaluatorGenerated expr = Evaluator.builder()
+            .setCompilationCache(cache)
+            .setExprIdent(Ident.create("y"))
+            .setSource(source)
+            .generate();
+        assertNotSame(first.kernel(), expr.kernel());
+        assertEquals(2, cache.missCount());
+        assertEquals(2, cache.size());
+        // A null cache always parses and generates
+        EvaluatorGenerated uncached = Evaluator.builder()
+            .setCompilationCache(null)
+            .setSource(source)
+            .generate();
+        assertNotSame(first.kernel(), uncached.kernel());
+        assertEquals(first.kernel().toString(), uncached.kernel().toString());
+    }
+
+    @Test
+    public void testEviction() throws Exception {
+        CompilationCache cache = new CompilationCache(2, 10);
+        assertEquals("a", cache.compute("a", null, () -> "a"));
+        assertEquals("b", cache.compute("b", null, () -> "b"));
+        // Touch "a" so that "b" is the least recently used
+        assertEquals("a", cache.compute("a", null, () -> "not-a"));
+        assertEquals("c", cache.compute("c", null, () -> "c"));
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.evictionCount());
+        assertEquals("a", cache.compute("a", null, () -> "not-a"));
+        assertEquals("b2", cache.compute("b", null, () -> "b2"));
+        // Evict by total source length
+        assertEquals("long", cache.compute("0123456789", null, () -> "long"));
+        assertEquals(1, cache.size());
+        assertEquals(10, cache.sourceLength());
+        // A source longer than the bound is compiled but not cached
+        assertEquals("too-long", cache.compute("0123456789X", null, () -> "too-long"));
+        assertEquals(1, cache.size());
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.sourceLength());
+        assertThrows(IllegalArgumentException.class, () -> new CompilationCache(0, 10));
+    }
+
+    @Test
+    public void testFailureNotCached() {
+        CompilationCache cache = CompilationCache.create();
+        String source = "x = ";
+        for (int i = 0; i < 2; i++) {
+            assertThrows(ParserError.class, () -> Evaluator.builder()
+                .setCompilationCache(cache)
+                .setSource(source)
+                .generate());
+        }
+        assertEquals(0, cache.size());
+        assertEquals(2, cache.missCount());
+    }
+
+}
@@ -10,10 +10,35 @@ package org.torqlang.core.lang;
 import org.junit.jupiter.api.Test;
 import org.torqlang.core.klvm.*;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class TestEvalCases {
 
+    private static EvaluatorPerformed performPath(String source, Complete path) throws Exception {
+        return Evaluator.builder()
+            .addVar(Ident.create("a"), new Var(path))
+            .addVar(Ident.create("p"), new Var(Str.of("products")))
+            .addVar(Ident.create("x"))
+            .setSource(source)
+            .perform();
+    }
+
+    private static ValueOrVarSet matchPath(String source, Complete path) throws Exception {
+        return performPath(source, path).varAtName("x").valueOrVarSet();
+    }
+
+    private static Complete path(String... names) {
+        List<Complete> values = new ArrayList<>(names.length);
+        for (String name : names) {
+            values.add(Str.of(name));
+        }
+        return CompleteTuple.create(values);
+    }
+
     @Test
     public void test01() throws Exception {
         String source = """
@@ -41,31 +66,43 @@ public class TestEvalCases {
             .perform();
         assertEquals(source, e.sntcOrExpr().toString());
         String expected = """
-            local $else in
-                $create_proc(proc ($r) in // free vars: a
-                    local $else in
-                        $create_proc(proc ($r) in
-                            $bind('not found', $r)
-                        end, $else)
-                        case a of 'supplier'#{'company': $v0} then
-                            case $v0 of {'name': name, 'address': $_0} then
-                                $bind(name, $r)
+            local $v0 in
+                $create_proc(proc ($r) in
+                    $bind('not found', $r)
+                end, $v0)
+                dispatch a of
+                    'customer'#1 then
+                        local $else in
+                            $create_proc(proc ($r) in // free vars: $v0
+                                $v0($r)
+                            end, $else)
+                            case a of 'customer'#{'name': $v1} then
+                                case $v1 of {'first': first, 'last': last} then
+                                    $bind(last, x)
+                                else
+                                    $else(x)
+                                end
                             else
-                                $else($r)
+                                $else(x)
+                            end
+                        end
+                    'supplier'#1 then
+                        local $else in
+                            $create_proc(proc ($r) in // free vars: $v0
+                                $v0($r)
+                            end, $else)
+                            case a of 'supplier'#{'company': $v2} then
+                                case $v2 of {'name': name, 'address': $_0} then
+                                    $bind(name, x)
+                                else
+                                    $else(x)
+                                end
+                            else
+                                $else(x)
                             end
-                        else
-                            $else($r)
                         end
-                    end
-                end, $else)
-                case a of 'customer'#{'name': $v1} then
-                    case $v1 of {'first': first, 'last': last} then
-                        $bind(last, x)
-                    else
-                        $else(x)
-                    end
                 else
-                    $else(x)
+                    $v0(x)
                 end
             end""";
         assertEquals(expected, e.kernel().toString());
@@ -97,23 +134,21 @@ public class TestEvalCases {
             .perform();
         assertEquals(source, e.sntcOrExpr().toString());
         String expected = """
-            local $else in
-                $create_proc(proc ($r) in // free vars: a
-                    case a of 'supplier'#{'company': $v0} then
-                        case $v0 of {'name': name, 'address': $_0} then
-                            $bind(name, $r)
+            dispatch a of
+                'customer'#1 then
+                    case a of 'customer'#{'name': $v0} then
+                        case $v0 of {'first': first, 'last': last} then
+                            $bind(last, x)
                         end
                     end
-                end, $else)
-                case a of 'customer'#{'name': $v1} then
-                    case $v1 of {'first': first, 'last': last} then
-                        $bind(last, x)
-                    else
-                        $else(x)
+                'supplier'#1 then
+                    case a of 'supplier'#{'company': $v1} then
+                        case $v1 of {'name': name, 'address': $_0} then
+                            $bind(name, x)
+                        end
                     end
-                else
-                    $else(x)
-                end
+            else
+                skip
             end""";
         assertEquals(expected, e.kernel().toString());
         assertEquals(Str.of("Lincoln"), e.varAtName("x").valueOrVarSet());
@@ -161,25 +196,23 @@ public class TestEvalCases {
         String expected = """
             local check_customer in
                 $create_proc(proc (c, $r) in
-                    local $else in
-                        $create_proc(proc () in // free vars: $r, c
-                            case c of 'supplier'#{'company': $v0} then
-                                case $v0 of {'name': name, 'address': $_0} then
-                                    $bind(name, $r)
+                    dispatch c of
+                        'customer'#1 then
+                            case c of 'customer'#{'name': $v0} then
+                                case $v0 of {'first': first, 'last': last} then
+                                    $bind(last, $r)
                                     $jump_throw(3)
                                 end
                             end
-                        end, $else)
-                        case c of 'customer'#{'name': $v1} then
-                            case $v1 of {'first': first, 'last': last} then
-                                $bind(last, $r)
-                                $jump_throw(3)
-                            else
-                                $else()
+                        'supplier'#1 then
+                            case c of 'supplier'#{'company': $v1} then
+                                case $v1 of {'name': name, 'address': $_0} then
+                                    $bind(name, $r)
+                                    $jump_throw(3)
+                                end
                             end
-                        else
-                            $else()
-                        end
+                    else
+                        skip
                     end
                     $bind('not found', $r)
                     $jump_throw(3)
@@ -226,41 +259,29 @@ public class TestEvalCases {
         String expected = """
             local check_customer in
                 $create_proc(proc (c, $r) in
-                    local $guard, $while in
-                        $create_proc(proc ($r) in
-                            $bind(true, $r)
-                        end, $guard)
-                        $create_proc(proc () in // free vars: $guard, $r, $while, c
-                            local $v0 in
-                                $guard($v0)
-                                if $v0 then
-                                    local $else in
-                                        $create_proc(proc () in // free vars: $r, c
-                                            case c of 'supplier'#{'company': $v1} then
-                                                case $v1 of {'name': name, 'address': $_0} then
-                                                    $bind(name, $r)
-                                                    $jump_throw(3)
-                                                end
-                                            end
-                                        end, $else)
-                                        case c of 'customer'#{'name': $v2} then
-                                            case $v2 of {'first': first, 'last': last} then
-                                                $bind(last, $r)
-                                                $jump_throw(3)
-                                            else
-                                                $else()
-                                            end
-                                        else
-                                            $else()
-                                        end
+                    loop $v0 in
+                        $bind(true, $v0)
+                    while $v0 do
+                        dispatch c of
+                            'customer'#1 then
+                                case c of 'customer'#{'name': $v1} then
+                                    case $v1 of {'first': first, 'last': last} then
+                                        $bind(last, $r)
+                                        $jump_throw(3)
                                     end
-                                    $bind('not found', $r)
-                                    $jump_throw(3)
-                                    $while()
                                 end
-                            end
-                        end, $while)
-                        $while()
+                            'supplier'#1 then
+                                case c of 'supplier'#{'company': $v2} then
+                                    case $v2 of {'name': name, 'address': $_0} then
+                                        $bind(name, $r)
+                                        $jump_throw(3)
+                                    end
+                                end
+                        else
+                            skip
+                        end
+                        $bind('not found', $r)
+                        $jump_throw(3)
                     end
                     $jump_catch(3)
                 end, check_customer)
@@ -359,4 +380,48 @@ public class TestEvalCases {
         assertEquals(Str.of("n is less than or equal to 10"), e.varAtName("x").valueOrVarSet());
     }
 
+    @Test
+    public void test06() throws Exception {
+        String source = """
+            x = case a
+                of ['orders'] then
+                    'orders'
+                of ['orders', 'recent'] then
+                    'recent orders'
+                of ['orders', 'summary'] then
+                    'order summary'
+                of ['orders', id] when id == 'none' then
+                    'no order'
+                of ['customers', id] then
+                    'customer'
+                of ['orders', id] then
+                    'order'
+                of [~p, id] then
+                    'escaped'
+                else
+                    'not found'
+            end""";
+        EvaluatorPerformed e = performPath(source, path("orders"));
+        assertEquals(source, e.sntcOrExpr().toString());
+        // Paths are dispatched on arity, then on the first name, and then on the second name of 'orders' paths
+        String kernel = e.kernel().toString();
+        assertTrue(kernel.contains("dispatch a of"));
+        assertTrue(kernel.contains("dispatch a[0] of"));
+        assertTrue(kernel.contains("dispatch a[0, 1] of"));
+        assertEquals(Str.of("orders"), e.varAtName("x").valueOrVarSet());
+        // Each path matches the same clause as matching each clause in source order
+        assertEquals(Str.of("recent orders"), matchPath(source, path("orders", "recent")));
+        assertEquals(Str.of("order summary"), matchPath(source, path("orders", "summary")));
+        assertEquals(Str.of("no order"), matchPath(source, path("orders", "none")));
+        assertEquals(Str.of("order"), matchPath(source, path("orders", "7")));
+        assertEquals(Str.of("customer"), matchPath(source, path("customers", "7")));
+        assertEquals(Str.of("escaped"), matchPath(source, path("products", "7")));
+        assertEquals(Str.of("not found"), matchPath(source, path("customers")));
+        assertEquals(Str.of("not found"), matchPath(source, path("users", "7")));
+        assertEquals(Str.of("not found"), matchPath(source, path("orders", "7", "items")));
+        assertEquals(Str.of("not found"), matchPath(source, Str.of("orders")));
+        CompleteRec orderRec = Rec.completeRecBuilder().addField(Str.of("orders"), Str.of("recent")).build();
+        assertEquals(Str.of("not found"), matchPath(source, orderRec));
+    }
+
 }
@@ -38,25 +38,20 @@ public class TestEvalForLoop {
         String expected = """
             local counter in
                 $select_apply(Cell, ['new'], 0, counter)
-                local $iter, $for in
+                local $iter in
                     $select_apply(RangeIter, ['new'], 0, a, $iter)
-                    $create_proc(proc () in // free vars: $for, $iter, counter
-                        local i, $v0 in
-                            $iter(i)
-                            $ne(i, eof, $v0)
-                            if $v0 then
-                                local $v1 in
-                                    local $v2 in
-                                        $get(counter, $v2)
-                                        $add($v2, 1, $v1)
-                                    end
-                                    $set(counter, $v1)
-                                end
-                                $for()
+                    loop i, $v0 in
+                        $iter(i)
+                        $ne(i, eof, $v0)
+                    while $v0 do
+                        local $v1 in
+                            local $v2 in
+                                $get(counter, $v2)
+                                $add($v2, 1, $v1)
                             end
+                            $set(counter, $v1)
                         end
-                    end, $for)
-                    $for()
+                    end
                 end
                 $get(counter, x)
             end""";
@@ -91,31 +86,26 @@ public class TestEvalForLoop {
         String expected = """
             local counter in
                 $select_apply(Cell, ['new'], 0, counter)
-                local $iter, $for in
+                local $iter in
                     $select_apply(RangeIter, ['new'], 0, a, $iter)
-                    $create_proc(proc () in // free vars: $for, $iter, counter
-                        local i, $v0 in
-                            $iter(i)
-                            $ne(i, eof, $v0)
-                            if $v0 then
-                                local $v3 in
-                                    local $v1 in
-                                        local $v2 in
-                                            $get(counter, $v2)
-                                            $add($v2, 1, $v1)
-                                        end
-                                        $set(counter, $v1)
-                                    end
-                                    $eq(i, 2, $v3)
-                                    if $v3 then
-                                        $jump_throw(1)
-                                    end
-                                    $for()
+                    loop i, $v0 in
+                        $iter(i)
+                        $ne(i, eof, $v0)
+                    while $v0 do
+                        local $v3 in
+                            local $v1 in
+                                local $v2 in
+                                    $get(counter, $v2)
+                                    $add($v2, 1, $v1)
                                 end
+                                $set(counter, $v1)
+                            end
+                            $eq(i, 2, $v3)
+                            if $v3 then
+                                $jump_throw(1)
                             end
                         end
-                    end, $for)
-                    $for()
+                    end
                     $jump_catch(1)
                 end
                 $get(counter, x)
@@ -162,47 +152,42 @@ public class TestEvalForLoop {
         String expected = """
             local c in
                 $select_apply(Cell, ['new'], 0, c)
-                local $iter, $for in
+                local $iter in
                     $select_apply(RangeIter, ['new'], 0, k, $iter)
-                    $create_proc(proc () in // free vars: $for, $iter, c
-                        local i, $v0 in
-                            $iter(i)
-                            $ne(i, eof, $v0)
-                            if $v0 then
-                                local $v3, $v6, $v7 in
-                                    local $v1 in
-                                        local $v2 in
-                                            $get(c, $v2)
-                                            $add($v2, 1, $v1)
-                                        end
-                                        $set(c, $v1)
-                                    end
-                                    $eq(i, 1, $v3)
-                                    if $v3 then
-                                        local $v4 in
-                                            local $v5 in
-                                                $get(c, $v5)
-                                                $add($v5, 10, $v4)
-                                            end
-                                            $set(c, $v4)
-                                        end
-                                        $jump_throw(2)
-                                    end
-                                    $eq(i, 1, $v6)
-                                    if $v6 then
-                                        $jump_throw(1)
-                                    end
-                                    $eq(i, 2, $v7)
-                                    if $v7 then
-                                        $jump_throw(1)
+                    loop i, $v0 in
+                        $iter(i)
+                        $ne(i, eof, $v0)
+                    while $v0 do
+                        local $v3, $v6, $v7 in
+                            local $v1 in
+                                local $v2 in
+                                    $get(c, $v2)
+                                    $add($v2, 1, $v1)
+                                end
+                                $set(c, $v1)
+                            end
+                            $eq(i, 1, $v3)
+                            if $v3 then
+                                local $v4 in
+                                    local $v5 in
+                                        $get(c, $v5)
+                                        $add($v5, 10, $v4)
                                     end
-                                    $jump_catch(2)
-                                    $for()
+                                    $set(c, $v4)
                                 end
+                                $jump_throw(2)
                             end
+                            $eq(i, 1, $v6)
+                            if $v6 then
+                                $jump_throw(1)
+                            end
+                            $eq(i, 2, $v7)
+                            if $v7 then
+                                $jump_throw(1)
+                            end
+                            $jump_catch(2)
                         end
-                    end, $for)
-                    $for()
+                    end
                     $jump_catch(1)
                 end
                 $get(c, z)
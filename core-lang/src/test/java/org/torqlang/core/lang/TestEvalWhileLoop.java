@@ -37,29 +37,19 @@ public class TestEvalWhileLoop {
         String expected = """
             local c in
                 $select_apply(Cell, ['new'], 0, c)
-                local $guard, $while in
-                    $create_proc(proc ($r) in // free vars: a, c
-                        local $v0 in
-                            $get(c, $v0)
-                            $lt($v0, a, $r)
-                        end
-                    end, $guard)
-                    $create_proc(proc () in // free vars: $guard, $while, c
-                        local $v1 in
-                            $guard($v1)
-                            if $v1 then
-                                local $v2 in
-                                    local $v3 in
-                                        $get(c, $v3)
-                                        $add($v3, 1, $v2)
-                                    end
-                                    $set(c, $v2)
-                                end
-                                $while()
-                            end
+                loop $v0 in
+                    local $v1 in
+                        $get(c, $v1)
+                        $lt($v1, a, $v0)
+                    end
+                while $v0 do
+                    local $v2 in
+                        local $v3 in
+                            $get(c, $v3)
+                            $add($v3, 1, $v2)
                         end
-                    end, $while)
-                    $while()
+                        $set(c, $v2)
+                    end
                 end
                 $get(c, x)
             end""";
@@ -103,37 +93,27 @@ public class TestEvalWhileLoop {
         String expected = """
             local c in
                 $select_apply(Cell, ['new'], 0, c)
-                local $guard, $while in
-                    $create_proc(proc ($r) in
-                        $bind(true, $r)
-                    end, $guard)
-                    $create_proc(proc () in // free vars: $guard, $while, a, c
-                        local $v0 in
-                            $guard($v0)
-                            if $v0 then
-                                local $v1 in
-                                    local $v2 in
-                                        $get(c, $v2)
-                                        $ge($v2, a, $v1)
-                                    end
-                                    if $v1 then
-                                        $jump_throw(1)
-                                    end
-                                    local $v3 in
-                                        local $v4 in
-                                            $get(c, $v4)
-                                            $add($v4, 1, $v3)
-                                        end
-                                        $set(c, $v3)
-                                    end
-                                    $while()
-                                end
+                loop $v0 in
+                    $bind(true, $v0)
+                while $v0 do
+                    local $v1 in
+                        local $v2 in
+                            $get(c, $v2)
+                            $ge($v2, a, $v1)
+                        end
+                        if $v1 then
+                            $jump_throw(1)
+                        end
+                        local $v3 in
+                            local $v4 in
+                                $get(c, $v4)
+                                $add($v4, 1, $v3)
                             end
+                            $set(c, $v3)
                         end
-                    end, $while)
-                    $while()
-                    $jump_catch(1)
+                    end
                 end
+                $jump_catch(1)
                 $get(c, x)
             end""";
         assertEquals(expected, e.kernel().toString());
@@ -183,70 +163,88 @@ public class TestEvalWhileLoop {
                     $select_apply(Cell, ['new'], $v0, i)
                 end
                 $select_apply(Cell, ['new'], 0, c)
-                local $guard, $while in
-                    $create_proc(proc ($r) in
-                        $bind(true, $r)
-                    end, $guard)
-                    $create_proc(proc () in // free vars: $guard, $while, c, i
-                        local $v1 in
-                            $guard($v1)
-                            if $v1 then
-                                local $v6, $v10, $v12 in
-                                    local $v2 in
-                                        local $v3 in
-                                            $get(i, $v3)
-                                            $add($v3, 1, $v2)
-                                        end
-                                        $set(i, $v2)
-                                    end
-                                    local $v4 in
-                                        local $v5 in
-                                            $get(c, $v5)
-                                            $add($v5, 1, $v4)
-                                        end
-                                        $set(c, $v4)
-                                    end
-                                    local $v7 in
-                                        $get(i, $v7)
-                                        $eq($v7, 1, $v6)
-                                    end
-                                    if $v6 then
-                                        local $v8 in
-                                            local $v9 in
-                                                $get(c, $v9)
-                                                $add($v9, 10, $v8)
-                                            end
-                                            $set(c, $v8)
-                                        end
-                                        $jump_throw(2)
-                                    end
-                                    local $v11 in
-                                        $get(i, $v11)
-                                        $eq($v11, 1, $v10)
-                                    end
-                                    if $v10 then
-                                        $jump_throw(1)
-                                    end
-                                    local $v13 in
-                                        $get(i, $v13)
-                                        $eq($v13, 2, $v12)
-                                    end
-                                    if $v12 then
-                                        $jump_throw(1)
-                                    end
-                                    $jump_catch(2)
-                                    $while()
+                loop $v1 in
+                    $bind(true, $v1)
+                while $v1 do
+                    local $v6, $v10, $v12 in
+                        local $v2 in
+                            local $v3 in
+                                $get(i, $v3)
+                                $add($v3, 1, $v2)
+                            end
+                            $set(i, $v2)
+                        end
+                        local $v4 in
+                            local $v5 in
+                                $get(c, $v5)
+                                $add($v5, 1, $v4)
+                            end
+                            $set(c, $v4)
+                        end
+                        local $v7 in
+                            $get(i, $v7)
+                            $eq($v7, 1, $v6)
+                        end
+                        if $v6 then
+                            local $v8 in
+                                local $v9 in
+                                    $get(c, $v9)
+                                    $add($v9, 10, $v8)
                                 end
+                                $set(c, $v8)
                             end
+                            $jump_throw(2)
+                        end
+                        local $v11 in
+                            $get(i, $v11)
+                            $eq($v11, 1, $v10)
+                        end
+                        if $v10 then
+                            $jump_throw(1)
+                        end
+                        local $v13 in
+                            $get(i, $v13)
+                            $eq($v13, 2, $v12)
+                        end
+                        if $v12 then
+                            $jump_throw(1)
                         end
-                    end, $while)
-                    $while()
-                    $jump_catch(1)
+                        $jump_catch(2)
+                    end
                 end
+                $jump_catch(1)
                 $get(c, x)
             end""";
         assertEquals(expected, e.kernel().toString());
         assertEquals(Int32.of(13), e.varAtName("x").valueOrVarSet());
     }
 
+    @Test
+    public void testNestedWithBreak() throws Exception {
+        String source = """
+            begin
+                var c = Cell.new(0)
+                var i = Cell.new(0)
+                while @i < a do
+                    var j = Cell.new(0)
+                    while true do
+                        if @j >= 10 then
+                            break
+                        end
+                        j := @j + 1
+                        c := @c + 1
+                    end
+                    i := @i + 1
+                end
+                x = @c
+            end""";
+        EvaluatorPerformed e = Evaluator.builder()
+            .addVar(CellPack.CELL_IDENT, new Var(CellPack.CELL_CLS))
+            .addVar(Ident.create("a"), new Var(Int32.of(10_000)))
+            .addVar(Ident.create("x"))
+            .setSource(source)
+            .perform();
+        assertEquals(Int32.of(100_000), e.varAtName("x").valueOrVarSet());
+    }
+
 }
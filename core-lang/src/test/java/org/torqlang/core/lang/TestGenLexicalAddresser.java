@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.lang;
+
+import org.junit.jupiter.api.Test;
+import org.torqlang.core.klvm.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestGenLexicalAddresser {
+
+    private static final String FACTORIAL = """
+        begin
+            func fact(x) in
+                func fact_cps(n, k) in
+                    if n < 2m then
+                        k
+                    else
+                        fact_cps(n - 1m, n * k)
+                    end
+                end
+                fact_cps(x, 1m)
+            end
+            x = fact(a)
+        end""";
+
+    private static void collectApplyStmts(Stmt stmt, List<ApplyStmt> collector) {
+        if (stmt instanceof ApplyStmt applyStmt) {
+            collector.add(applyStmt);
+        } else if (stmt instanceof LocalStmt localStmt) {
+            collectApplyStmts(localStmt.body, collector);
+        } else if (stmt instanceof SeqStmt seqStmt) {
+            for (Stmt next : seqStmt.seq) {
+                collectApplyStmts(next, collector);
+            }
+        } else if (stmt instanceof CreateProcStmt createProcStmt) {
+            collectApplyStmts(createProcStmt.procDef.stmt, collector);
+        } else if (stmt instanceof IfElseStmt ifElseStmt) {
+            collectApplyStmts(ifElseStmt.consequent, collector);
+            collectApplyStmts(ifElseStmt.alternate, collector);
+        }
+    }
+
+    private static void collectProcDefs(Stmt stmt, List<ProcDef> collector) {
+        if (stmt instanceof LocalStmt localStmt) {
+            collectProcDefs(localStmt.body, collector);
+        } else if (stmt instanceof SeqStmt seqStmt) {
+            for (Stmt next : seqStmt.seq) {
+                collectProcDefs(next, collector);
+            }
+        } else if (stmt instanceof CreateProcStmt createProcStmt) {
+            collector.add(createProcStmt.procDef);
+            collectProcDefs(createProcStmt.procDef.stmt, collector);
+        }
+    }
+
+    private static Stmt generate(String source, boolean lexicalAddressing) throws Exception {
+        Parser p = new Parser(source);
+        SntcOrExpr sntcOrExpr = p.parse();
+        return new Generator(lexicalAddressing).acceptSntc(sntcOrExpr);
+    }
+
+    @Test
+    public void testFactorial() throws Exception {
+        Stmt addressed = generate(FACTORIAL, true);
+        Stmt unaddressed = generate(FACTORIAL, false);
+
+        // Lexical addresses are invisible in the kernel format
+        assertEquals(unaddressed.toString(), addressed.toString());
+
+        List<ApplyStmt> applyStmts = new ArrayList<>();
+        collectApplyStmts(addressed, applyStmts);
+        assertEquals(3, applyStmts.size());
+
+        // fact_cps($v1, $v2, $r) -- inside `local $v1, $v2` inside `local $v0` inside `proc (n, k, $r)`
+        ApplyStmt recursive = applyStmts.get(0);
+        assertEquals("fact_cps", ((Ident) recursive.x).name);
+        assertAddress(3, 0, recursive.x);
+        assertAddress(0, 0, recursive.ys.get(0));
+        assertAddress(0, 1, recursive.ys.get(1));
+        assertAddress(2, 2, recursive.ys.get(2));
+
+        // fact_cps(x, 1m, $r) -- inside `local fact_cps` inside `proc (x, $r)`
+        ApplyStmt first = applyStmts.get(1);
+        assertAddress(0, 0, first.x);
+        assertAddress(1, 0, first.ys.get(0));
+        assertAddress(1, 1, first.ys.get(2));
+
+        // fact(a, x) -- `a` and `x` are bound by the caller, so they are left unaddressed
+        ApplyStmt root = applyStmts.get(2);
+        assertAddress(0, 0, root.x);
+        assertFalse(((Ident) root.ys.get(0)).isAddressed());
+        assertFalse(((Ident) root.ys.get(1)).isAddressed());
+
+        // Free identifiers are captured from the enclosing environment, where body addresses do not apply
+        List<ProcDef> procDefs = new ArrayList<>();
+        collectProcDefs(addressed, procDefs);
+        assertEquals(2, procDefs.size());
+        for (ProcDef procDef : procDefs) {
+            for (Ident freeIdent : procDef.freeIdents) {
+                assertFalse(freeIdent.isAddressed(), freeIdent.name);
+            }
+        }
+
+        List<ApplyStmt> unaddressedStmts = new ArrayList<>();
+        collectApplyStmts(unaddressed, unaddressedStmts);
+        for (ApplyStmt applyStmt : unaddressedStmts) {
+            assertFalse(((Ident) applyStmt.x).isAddressed());
+        }
+    }
+
+    @Test
+    public void testFactorialPerform() throws Exception {
+        for (boolean lexicalAddressing : new boolean[]{true, false}) {
+            Stmt stmt = generate(FACTORIAL, lexicalAddressing);
+            Var x = new Var();
+            Env env = Env.create(
+                new EnvEntry(Ident.create("a"), new Var(Dec128.of("10"))),
+                new EnvEntry(Ident.create("x"), x)
+            );
+            Machine.compute(new Stack(stmt, env, null), 10_000);
+            assertEquals(Dec128.of("3628800"), x.valueOrVarSet());
+        }
+    }
+
+    private void assertAddress(int depth, int slot, CompleteOrIdent completeOrIdent) {
+        Ident ident = (Ident) completeOrIdent;
+        assertTrue(ident.isAddressed(), ident.name);
+        assertEquals(depth, ident.depth, ident.name);
+        assertEquals(slot, ident.slot, ident.name);
+    }
+
+}
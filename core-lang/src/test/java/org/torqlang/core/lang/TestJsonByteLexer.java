@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.lang;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.torqlang.core.lang.JsonLexerTokenType.*;
+
+public class TestJsonByteLexer {
+
+    private static JsonByteLexer lexer(String source) {
+        return new JsonByteLexer(source.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String stringValue(String source) {
+        JsonByteLexerToken token = lexer(source).nextToken();
+        assertEquals(STRING, token.type(), source);
+        return token.stringValue();
+    }
+
+    @Test
+    public void test() {
+        //            1         2         3         4
+        //  01234567890123456789012345678901234567890123
+        String source = """
+            [0, -1, 1.0, false, true, null, "my-string"]""";
+        JsonByteLexer lexer = lexer(source);
+        JsonLexer expectedLexer = new JsonLexer(source);
+        JsonLexerToken expected;
+        JsonByteLexerToken next;
+        do {
+            expected = expectedLexer.nextToken();
+            next = lexer.nextToken();
+            assertSame(lexer.token(), next);
+            assertEquals(expected.type(), next.type());
+            assertEquals(expected.begin(), next.begin());
+            assertEquals(expected.end(), next.end());
+            assertEquals(expected.substring(), next.substring());
+            assertEquals(expectedLexer.charPos(), lexer.bytePos());
+        } while (expected.type() != EOF);
+        // Once EOF, you keep getting EOF
+        assertEquals(EOF, lexer.nextToken().type());
+    }
+
+    @Test
+    public void testByteBuffer() {
+        byte[] bytes = "xx[\"one\", 2]xx".getBytes(StandardCharsets.UTF_8);
+        List<ByteBuffer> buffers = List.of(
+            ByteBuffer.wrap(bytes, 2, 10),
+            ByteBuffer.allocateDirect(10).put(bytes, 2, 10).flip()
+        );
+        for (ByteBuffer buffer : buffers) {
+            JsonByteLexer lexer = JsonByteLexer.create(buffer);
+            assertEquals("[", lexer.nextToken().substring());
+            JsonByteLexerToken next = lexer.nextToken();
+            assertEquals("one", next.stringValue());
+            assertEquals(1, next.begin());
+            assertEquals(6, next.end());
+            assertTrue(lexer.nextToken().isCommaChar());
+            assertEquals(2, lexer.nextToken().longValue());
+            assertTrue(lexer.nextToken().isRightBracketChar());
+            assertEquals(EOF, lexer.nextToken().type());
+            assertEquals(10, lexer.bytePos());
+            // The buffer is not consumed
+            assertEquals(10, buffer.remaining());
+        }
+    }
+
+    @Test
+    public void testErrors() {
+        List<String> sources = List.of(
+            "\"abc",
+            "\"abc\\\"",
+            "1.",
+            "1.x",
+            "1x",
+            "1e",
+            "-",
+            "--1",
+            "truex",
+            "fals",
+            "nul",
+            "wrong"
+        );
+        for (String source : sources) {
+            JsonByteLexer lexer = lexer(source);
+            assertThrows(IllegalArgumentException.class, lexer::nextToken, source);
+        }
+        Exception exc = assertThrows(IllegalArgumentException.class, lexer("\"abc")::nextToken);
+        assertEquals(JsonLexer.STRING_IS_MISSING_CLOSING_QUOTE + " - [0, 4] STRING: \"abc", exc.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> stringValue("\"\\x\""));
+        assertThrows(IllegalArgumentException.class, () -> stringValue("\"\\u12\""));
+        assertThrows(IllegalArgumentException.class, () -> stringValue("\"\\u12g4\""));
+    }
+
+    @Test
+    public void testNumbers() {
+        JsonByteLexer lexer = lexer("0 -1 +2 9223372036854775807 -9223372036854775808 123456789012345678 " +
+            "1.5 1.5E+10 2e3");
+        assertEquals(0, lexer.nextToken().longValue());
+        assertEquals(-1, lexer.nextToken().longValue());
+        assertEquals(2, lexer.nextToken().longValue());
+        assertEquals(Long.MAX_VALUE, lexer.nextToken().longValue());
+        assertEquals(Long.MIN_VALUE, lexer.nextToken().longValue());
+        assertEquals(123456789012345678L, lexer.nextToken().longValue());
+        JsonByteLexerToken next = lexer.nextToken();
+        assertTrue(next.isDecimal());
+        assertEquals(1.5, next.doubleValue());
+        assertThrows(IllegalStateException.class, next::longValue);
+        assertEquals(1.5E+10, lexer.nextToken().doubleValue());
+        next = lexer.nextToken();
+        assertTrue(next.isDecimal());
+        assertEquals(2000.0, next.doubleValue());
+    }
+
+    @Test
+    public void testStrings() {
+        assertEquals("", stringValue("\"\""));
+        assertEquals("my-string", stringValue("\"my-string\""));
+        assertEquals("é中😀", stringValue("\"é中😀\""));
+        assertEquals("tab\t quote\" slash/ é😀", stringValue("\"tab\\t quote\\\" slash\\/ \\u00e9\\ud83d\\ude00\""));
+        // An escaped backslash does not escape the closing quote
+        JsonByteLexer lexer = lexer("[\"a\\\\\", \"b\"]");
+        lexer.nextToken();
+        JsonByteLexerToken next = lexer.nextToken();
+        assertTrue(next.isEscaped());
+        assertEquals("a\\", next.stringValue());
+        assertTrue(lexer.nextToken().isCommaChar());
+        next = lexer.nextToken();
+        assertFalse(next.isEscaped());
+        assertEquals("b", next.stringValue());
+        assertThrows(IllegalStateException.class, () -> lexer("1").nextToken().stringValue());
+    }
+
+    @Test
+    public void testStringsAtEveryWordOffset() {
+        // Place the closing quote and an escape at every offset of the eight-byte words scanned
+        for (int length = 0; length < 24; length++) {
+            String chars = "abcdefghijklmnopqrstuvwxyz".substring(0, length);
+            assertEquals(chars, stringValue("\"" + chars + "\""));
+            for (int i = 0; i <= length; i++) {
+                String escaped = chars.substring(0, i) + "\\\"" + chars.substring(i);
+                String unescaped = chars.substring(0, i) + "\"" + chars.substring(i);
+                assertEquals(unescaped, stringValue("\"" + escaped + "\""), escaped);
+                String multibyte = chars.substring(0, i) + "中" + chars.substring(i);
+                assertEquals(multibyte, stringValue("\"" + multibyte + "\""), multibyte);
+            }
+        }
+    }
+
+}
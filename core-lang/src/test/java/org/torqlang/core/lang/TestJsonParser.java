@@ -9,6 +9,8 @@ package org.torqlang.core.lang;
 
 import org.junit.jupiter.api.Test;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 
@@ -70,6 +72,18 @@ public class TestJsonParser {
         assertFalse(b);
     }
 
+    @Test
+    public void testBytes() {
+        String source = """
+            {"name": "Karen Toh", "city": "Las Vegas", "notes": "tab\\t \\u00e9 é中😀", "total": 1505.5}""";
+        byte[] bytes = source.getBytes(StandardCharsets.UTF_8);
+        Object expected = Map.of("name", "Karen Toh", "city", "Las Vegas", "notes", "tab\t é é中😀",
+            "total", 1505.5);
+        assertEquals(expected, JsonParser.parse(source));
+        assertEquals(expected, JsonParser.parse(bytes));
+        assertEquals(expected, new JsonParser(ByteBuffer.wrap(bytes)).parse());
+    }
+
     @Test
     public void testErrors() {
         {
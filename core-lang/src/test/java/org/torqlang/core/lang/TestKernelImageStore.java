@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.lang;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.torqlang.core.klvm.*;
+import org.torqlang.core.util.SourceSpan;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestKernelImageStore {
+
+    private static final String SOURCE = """
+        begin
+            func fact(n) in
+                if n < 2 then 1 else n * fact(n - 1) end
+            end
+            var c = Cell.new(0)
+            var total = Cell.new(0)
+            while @c < 5 do
+                total := @total + fact(@c)
+                c := @c + 1
+            end
+            var r = 'order'#{'name': 'abc', 'values': [&c, 2.5, 3.0m, 4L, true, null, eof]}
+            var n = case r
+                of 'order'#{'name': name, ...} then name
+                else 'none'
+            end
+            try
+                var z = 1 / 0
+            catch 'error'#{'name': _, ...} then
+                x = [@total, n, r.values.0]
+            end
+        end""";
+
+    private static EvaluatorPerformed perform(CompilationCache cache) throws Exception {
+        return Evaluator.builder()
+            .setCompilationCache(cache)
+            .addVar(CellPack.CELL_IDENT, new Var(CellPack.CELL_CLS))
+            .addVar(Ident.create("x"))
+            .setSource(SOURCE)
+            .perform();
+    }
+
+    @Test
+    public void testEncodeDecode() throws Exception {
+        Kernel kernel = new Generator().acceptSntc(new Parser(SOURCE).parse());
+        byte[] image = KernelImage.encode(SOURCE, "test", List.of(kernel));
+        List<Kernel> decoded = KernelImage.decode(ByteBuffer.wrap(image), SOURCE, "test");
+        assertNotNull(decoded);
+        assertEquals(1, decoded.size());
+        assertNotSame(kernel, decoded.get(0));
+        assertEquals(kernel.toString(), decoded.get(0).toString());
+        // Source spans survive the round trip
+        assertEquals(SOURCE, ((Stmt) decoded.get(0)).source());
+        // Another source or variant is not decoded
+        assertNull(KernelImage.decode(ByteBuffer.wrap(image), SOURCE + " ", "test"));
+        assertNull(KernelImage.decode(ByteBuffer.wrap(image), SOURCE, "other"));
+        // Runtime values cannot be encoded
+        SourceSpan emptySpan = SourceSpan.emptySourceSpan();
+        Stmt bindClosure = new BindCompleteToIdentStmt(new CompleteClosure(
+            new ProcDef(List.of(), new SkipStmt(emptySpan), emptySpan), Map.of()), Ident.create("x"), emptySpan);
+        assertThrows(IllegalArgumentException.class, () -> KernelImage.encode("", "test", List.of(bindClosure)));
+    }
+
+    @Test
+    public void testEncodeDecodeDispatch() throws Exception {
+        String source = """
+            actor Routes() in
+                handle ask 'get'#{'id': id} in
+                    id
+                end
+                handle ask 'count' in
+                    0
+                end
+                handle ask ['orders', 'recent'] in
+                    'recent'
+                end
+                handle ask ['orders', 'summary'] in
+                    'summary'
+                end
+                handle ask {'x': x, ...} in
+                    x
+                end
+            end""";
+        Kernel kernel = new Generator().acceptSntc(new Parser(source).parse());
+        assertTrue(kernel.toString().contains("dispatch $m of"));
+        assertTrue(kernel.toString().contains("dispatch $m[0, 1] of"));
+        byte[] image = KernelImage.encode(source, "test", List.of(kernel));
+        List<Kernel> decoded = KernelImage.decode(ByteBuffer.wrap(image), source, "test");
+        assertNotNull(decoded);
+        assertEquals(kernel.toString(), decoded.get(0).toString());
+    }
+
+    @Test
+    public void testLoadAfterStore(@TempDir Path dir) throws Exception {
+        KernelImageStore store = new KernelImageStore(dir);
+        EvaluatorPerformed compiled = perform(CompilationCache.create(store));
+        assertNotNull(compiled.sntcOrExpr());
+        assertEquals(1, store.missCount());
+        assertEquals(1, store.storeCount());
+        assertTrue(Files.isRegularFile(store.imagePath(SOURCE, "Evaluator")));
+        // A new cache, as if in a new process, loads the kernel instead of parsing
+        EvaluatorPerformed loaded = perform(CompilationCache.create(store));
+        assertNull(loaded.sntcOrExpr());
+        assertEquals(1, store.loadCount());
+        assertEquals(compiled.kernel().toString(), loaded.kernel().toString());
+        assertEquals(compiled.varAtName("x").valueOrVarSet().toString(),
+            loaded.varAtName("x").valueOrVarSet().toString());
+        assertEquals("[34, 'abc', &c]", loaded.varAtName("x").valueOrVarSet().toString());
+    }
+
+    @Test
+    public void testRejectAndRecompile(@TempDir Path dir) throws Exception {
+        KernelImageStore store = new KernelImageStore(dir);
+        perform(CompilationCache.create(store));
+        Path path = store.imagePath(SOURCE, "Evaluator");
+        // An image of another format version is rejected and replaced
+        byte[] image = Files.readAllBytes(path);
+        ByteBuffer.wrap(image).putInt(4, KernelImage.FORMAT_VERSION + 1);
+        Files.write(path, image);
+        EvaluatorPerformed recompiled = perform(CompilationCache.create(store));
+        assertNotNull(recompiled.sntcOrExpr());
+        assertEquals(1, store.rejectCount());
+        assertEquals(2, store.storeCount());
+        assertNull(perform(CompilationCache.create(store)).sntcOrExpr());
+        assertEquals(1, store.loadCount());
+        // A corrupt image is rejected and replaced
+        image = Files.readAllBytes(path);
+        Files.write(path, List.of("corrupt"));
+        assertNotNull(perform(CompilationCache.create(store)).sntcOrExpr());
+        assertEquals(2, store.rejectCount());
+        Files.write(path, Arrays.copyOf(image, image.length / 2));
+        assertNotNull(perform(CompilationCache.create(store)).sntcOrExpr());
+        assertEquals(3, store.rejectCount());
+        assertNull(perform(CompilationCache.create(store)).sntcOrExpr());
+        assertEquals(2, store.loadCount());
+    }
+
+}
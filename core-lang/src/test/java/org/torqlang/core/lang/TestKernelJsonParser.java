@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.lang;
+
+import org.junit.jupiter.api.Test;
+import org.torqlang.core.klvm.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestKernelJsonParser {
+
+    private static final String ORDERS = """
+        [
+            {"id": 30, "customer": {"name": "Karen Toh", "city": "Las Vegas"}, "paid": true, "total": 1505.5},
+            {"id": 31, "customer": {"name": "Christina Lee", "city": "New York"}, "paid": false, "total": -2.25e+2},
+            {"id": 32, "customer": null, "paid": false, "total": 0,
+                "notes": "tab\\t quote\\" slash\\/ \\u00e9\\ud83d\\ude00"}
+        ]""";
+
+    private static Complete parseNative(String source) {
+        return ValueTools.toKernelValue(JsonParser.parse(source));
+    }
+
+    private static Complete parseInChunks(String source, int chunkSize) {
+        byte[] bytes = source.getBytes(StandardCharsets.UTF_8);
+        KernelJsonParser parser = new KernelJsonParser();
+        for (int i = 0; i < bytes.length; i += chunkSize) {
+            parser.feed(ByteBuffer.wrap(bytes, i, Math.min(chunkSize, bytes.length - i)));
+        }
+        return parser.finish();
+    }
+
+    @Test
+    public void test() {
+        List<String> sources = List.of(
+            "null",
+            "true",
+            "false",
+            "0",
+            "-1",
+            "+2",
+            "9223372036854775807",
+            "-9223372036854775808",
+            "0.005",
+            "1.5E+10",
+            "\"my-string\"",
+            "\"é中😀\"",
+            "[]",
+            "{}",
+            " \t\r\n[1, [2, \"three\"], {}] ",
+            "{\"one\": {\"two\": [2, {\"three\": 3}]}}",
+            "{\"$label\": \"order\", \"$rec\": {\"id\": 1}}",
+            "{\"$label\": true, \"$rec\": [1, 2]}",
+            "{\"$label\": \"order\", \"id\": 1}",
+            ORDERS
+        );
+        for (String source : sources) {
+            Complete expected = parseNative(source);
+            assertEquals(expected, KernelJsonParser.parse(source), source);
+            assertEquals(expected, parseInChunks(source, 1), source);
+            assertEquals(expected, parseInChunks(source, 7), source);
+        }
+    }
+
+    @Test
+    public void testBlank() {
+        assertNull(KernelJsonParser.parse(""));
+        assertNull(KernelJsonParser.parse(" \r\n"));
+    }
+
+    @Test
+    public void testDuplicateKeys() {
+        assertEquals(parseNative("{\"a\": 2, \"b\": 3}"), KernelJsonParser.parse("{\"a\": 1, \"b\": 3, \"a\": 2}"));
+    }
+
+    @Test
+    public void testErrors() {
+        List<String> sources = List.of(
+            "[1, 2",
+            "[1 2]",
+            "[1, 2,]",
+            "{\"a\" 1}",
+            "{\"a\": 1,}",
+            "{1: 2}",
+            "[1}",
+            "nul",
+            "truex",
+            "12x",
+            "--1",
+            "1.2.3",
+            "\"abc",
+            "\"\\x\"",
+            "1 2",
+            "{\"$label\": \"order\", \"$rec\": 1}",
+            "{\"$label\": \"a\", \"$rec\": {\"$label\": \"b\", \"$rec\": []}}"
+        );
+        for (String source : sources) {
+            assertThrows(IllegalArgumentException.class, () -> KernelJsonParser.parse(source), source);
+        }
+    }
+
+    @Test
+    public void testInternedKeys() {
+        CompleteTuple orders = (CompleteTuple) parseInChunks(ORDERS, 5);
+        CompleteRec first = (CompleteRec) orders.valueAt(0);
+        CompleteRec second = (CompleteRec) orders.valueAt(1);
+        assertEquals(first.fieldCount(), second.fieldCount());
+        for (int i = 0; i < first.fieldCount(); i++) {
+            assertSame(first.featureAt(i), second.featureAt(i));
+        }
+    }
+
+    @Test
+    public void testInvalidUtf8() {
+        byte[] bytes = {'"', 'a', (byte) 0xE4, (byte) 0xB8, 'b', (byte) 0xFF, '"'};
+        KernelJsonParser parser = new KernelJsonParser();
+        parser.feed(ByteBuffer.wrap(bytes));
+        assertEquals(Str.of("a\uFFFDb\uFFFD"), parser.finish());
+    }
+
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.lang;
+
+import org.junit.jupiter.api.Test;
+import org.torqlang.core.klvm.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestKernelJsonWriter {
+
+    /*
+     * Format as ApiHandler did before KernelJsonWriter: convert to a native value, format as a string, and write the
+     * string as UTF-8
+     */
+    private static String formatNative(Complete value) {
+        String json = JsonFormatter.SINGLETON.format(ValueTools.toNativeValue(value));
+        return new String(json.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+    }
+
+    private static Complete parse(String source) throws Exception {
+        return Evaluator.builder()
+            .addVar(Ident.create("x"))
+            .setSource("x = " + source)
+            .perform()
+            .varAtName("x")
+            .resolveValue()
+            .checkComplete();
+    }
+
+    @Test
+    public void test() throws Exception {
+        List<String> sources = List.of(
+            "null",
+            "true",
+            "false",
+            "0",
+            "-1",
+            "9223372036854775807L",
+            "0.005",
+            "1.5f",
+            "1.11m",
+            "eof",
+            "'my-string'",
+            "'tab\\t quote\" backslash\\\\ nul\\u0000 del\\u007f'",
+            "'é中😀'",
+            "[]",
+            "[1, [2, 'three'], {}]",
+            "{'one': 1}",
+            "{'one': {'two': [2, {'three': 3}]}}",
+            "'order'#{'id': 1}",
+            "'orders'#[1, 2]"
+        );
+        for (String source : sources) {
+            Complete value = parse(source);
+            if (source.contains("#")) {
+                // A native labeled record is a map of two entries in no particular order
+                assertEquals(new JsonParser(formatNative(value)).parse(),
+                    new JsonParser(KernelJsonWriter.format(value)).parse(), source);
+            } else {
+                assertEquals(formatNative(value), KernelJsonWriter.format(value), source);
+            }
+        }
+        assertEquals("{\"$label\":\"order\",\"$rec\":{\"id\":1}}", KernelJsonWriter.format(parse("'order'#{'id': 1}")));
+    }
+
+    @Test
+    public void testAppend() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        List<ByteBuffer> accepted = new ArrayList<>();
+        KernelJsonWriter writer = KernelJsonWriter.create(new KernelJsonWriter.ByteSink() {
+            @Override
+            public ByteBuffer acquire() {
+                return ByteBuffer.allocate(256);
+            }
+
+            @Override
+            public void accept(ByteBuffer buffer) {
+                accepted.add(buffer);
+                out.write(buffer.array(), buffer.position(), buffer.remaining());
+            }
+        });
+        writer.appendAscii('[');
+        writer.append(parse("{'id': 1}"));
+        writer.appendAscii(',');
+        writer.append(parse("'two'"));
+        writer.flush();
+        writer.appendAscii(']');
+        writer.flush();
+        assertEquals(2, accepted.size());
+        assertEquals("[{\"id\":1},\"two\"]", out.toString(StandardCharsets.UTF_8));
+        assertThrows(IllegalArgumentException.class, () -> writer.appendAscii('\u00e9'));
+    }
+
+    @Test
+    public void testErrors() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> KernelJsonWriter.format(parse("{1: 'one', 'two': 2}")));
+        IllegalArgumentException exc = assertThrows(IllegalArgumentException.class,
+            () -> KernelJsonWriter.format(Char.of('a')));
+        assertTrue(exc.getMessage().startsWith("Invalid JSON request: "));
+    }
+
+    @Test
+    public void testFieldOrder() throws Exception {
+        Complete value = parse("{'c': 3, 'a': 1, 'b': [true, null]}");
+        String json = KernelJsonWriter.format(value);
+        assertEquals("{\"a\":1,\"b\":[true,null],\"c\":3}", json);
+        assertEquals(new JsonParser(formatNative(value)).parse(), new JsonParser(json).parse());
+    }
+
+    @Test
+    public void testSmallBuffers() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            sb.append("aé中😀\n");
+        }
+        Complete value = CompleteTuple.create(List.of(Str.of(sb.toString()), Int64.of(Long.MIN_VALUE),
+            Str.of("\ud83d")));
+        List<ByteBuffer> accepted = new ArrayList<>();
+        KernelJsonWriter.write(value, new KernelJsonWriter.ByteSink() {
+            @Override
+            public ByteBuffer acquire() {
+                return ByteBuffer.allocate(KernelJsonWriter.MIN_BUFFER_CAPACITY);
+            }
+
+            @Override
+            public void accept(ByteBuffer buffer) {
+                accepted.add(buffer);
+            }
+        });
+        assertTrue(accepted.size() > 1);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (ByteBuffer buffer : accepted) {
+            assertEquals(0, buffer.position());
+            out.write(buffer.array(), 0, buffer.limit());
+        }
+        assertEquals(formatNative(value), out.toString(StandardCharsets.UTF_8));
+        // A lone surrogate is replaced the same way as String.getBytes
+        assertTrue(out.toString(StandardCharsets.UTF_8).endsWith(",\"?\"]"));
+        assertThrows(IllegalArgumentException.class, () -> KernelJsonWriter.write(Str.of("abc"),
+            new KernelJsonWriter.ByteSink() {
+                @Override
+                public ByteBuffer acquire() {
+                    return ByteBuffer.allocate(KernelJsonWriter.MIN_BUFFER_CAPACITY - 1);
+                }
+
+                @Override
+                public void accept(ByteBuffer buffer) {
+                }
+            }));
+    }
+
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.lang;
+
+import org.junit.jupiter.api.Test;
+import org.torqlang.core.klvm.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestTailCall {
+
+    private static Stmt generate(String source) throws Exception {
+        Parser p = new Parser(source);
+        return new Generator().acceptSntc(p.parse());
+    }
+
+    @Test
+    public void testConstantStack() throws Exception {
+        Stmt stmt = generate(BenchTailCallState.ACCUMULATE);
+        Var x = new Var();
+        Env env = Env.create(
+            new EnvEntry(Ident.create("a"), new Var(Int32.of(100_000))),
+            new EnvEntry(Ident.create("x"), x)
+        );
+        Machine machine = new Machine(new Stack(stmt, env, null));
+        ComputeAdvice advice = machine.compute(1_000);
+        while (advice == ComputePreempt.SINGLETON) {
+            assertTrue(machine.stack().size <= 3);
+            advice = machine.compute(1_000);
+        }
+        assertEquals(ComputeEnd.SINGLETON, advice);
+        assertEquals(Int64.of(5_000_050_000L), x.valueOrVarSet());
+    }
+
+    @Test
+    public void testWaitInTailCall() throws Exception {
+        String source = """
+            begin
+                func add(n) in
+                    n + y
+                end
+                x = add(1)
+            end""";
+        Stmt stmt = generate(source);
+        Var x = new Var();
+        Var y = new Var();
+        Env env = Env.create(
+            new EnvEntry(Ident.create("x"), x),
+            new EnvEntry(Ident.create("y"), y)
+        );
+        Machine machine = new Machine(new Stack(stmt, env, null));
+        ComputeAdvice advice = machine.compute(1_000);
+        // The procedure body was computed from the next-statement register, but the waiting statement is still
+        // placed on the stack so that it can be computed again
+        assertInstanceOf(ComputeWait.class, advice);
+        assertInstanceOf(AddStmt.class, machine.stack().stmt);
+        assertNull(machine.stack().next);
+        y.bindToValue(Int32.of(2), null);
+        advice = machine.compute(1_000);
+        assertEquals(ComputeEnd.SINGLETON, advice);
+        assertEquals(Int32.of(3), x.valueOrVarSet());
+    }
+
+}
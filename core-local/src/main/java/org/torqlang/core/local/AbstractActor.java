@@ -7,19 +7,30 @@
 
 package org.torqlang.core.local;
 
+import org.torqlang.core.klvm.FailedValue;
 import org.torqlang.core.util.GetStackTrace;
 
 import java.util.concurrent.Executor;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.torqlang.core.local.OnMessageResult.NOT_FINISHED;
 
 public abstract class AbstractActor implements ActorRef {
 
     /*
-     * Concurrency invariants:
+     * Concurrency invariants for a mailbox that is not concurrent:
      *     1. All access to the mailbox value must be synchronized on mailboxLock
-     *     2. All access to the state value must be synchronized on mailboxLock
+     *     2. All changes to the state value must be synchronized on mailboxLock
+     *     3. The mailbox must not block in offer(), because the producer would block while holding mailboxLock
+     *
+     * Concurrency invariants for a concurrent mailbox:
+     *     1. Any thread may add to the mailbox, but only the thread that moves the state from WAITING to SCHEDULED
+     *        may execute the dispatcher, and only the dispatcher may peek or remove envelopes
+     *     2. Producers never evaluate isExecutable(), which reads actor state owned by the dispatcher. Instead, they
+     *        schedule a WAITING actor, and the dispatcher returns to WAITING if the actor is not executable.
+     *     3. After a failure, the mailbox is drained by whichever thread holds the failedDrain flag
      */
 
     private final Address address;
@@ -28,8 +39,20 @@ public abstract class AbstractActor implements ActorRef {
     private final Logger logger;
     private final Mailbox mailbox;
     private final Object mailboxLock = new Object();
+    private final AtomicReference<State> state = new AtomicReference<>(State.WAITING);
+    private final AtomicBoolean failedDrain = new AtomicBoolean();
 
-    private volatile State state = State.WAITING;
+    // Set by the dispatcher when the current message is not finished but the actor must yield. See continueLater().
+    private boolean continuing;
+
+    // Dispatch limits, which are set before the actor receives its first message
+    private int throughput = 1;
+    private long throughputNanos;
+
+    // Dispatch metrics, which are written only by the dispatcher that holds the actor
+    private volatile long dispatchCount;
+    private volatile long dispatchedMessageCount;
+    private volatile int maxMessagesPerDispatch;
 
     protected AbstractActor(Address address, Mailbox mailbox, Executor executor, Logger logger) {
         this.address = address;
@@ -42,10 +65,51 @@ public abstract class AbstractActor implements ActorRef {
         return address;
     }
 
+    /*
+     * Request that the dispatcher call onContinue() before it selects another message. Control messages that are
+     * already in the mailbox are still selected first. Must be called from onMessage() or onContinue().
+     *
+     * A continuation never passes through the mailbox or the executor queue unless the dispatch reaches its
+     * throughput limit, in which case the actor is rescheduled and continues on its next dispatch.
+     */
+    protected final void continueLater() {
+        continuing = true;
+    }
+
+    /*
+     * The number of times the actor was dispatched by its executor.
+     */
+    public final long dispatchCount() {
+        return dispatchCount;
+    }
+
+    /*
+     * The number of messages processed across all dispatches. Divide by dispatchCount() for the average number of
+     * messages processed per dispatch.
+     */
+    public final long dispatchedMessageCount() {
+        return dispatchedMessageCount;
+    }
+
+    /*
+     * Return true if the dispatcher has work, either a continuation or an executable mailbox
+     */
+    private boolean isReady() {
+        return continuing || isExecutable(mailbox);
+    }
+
+    private boolean isThroughputReached(int processed, long start) {
+        return processed >= throughput || (throughputNanos > 0 && System.nanoTime() - start >= throughputNanos);
+    }
+
     protected boolean isExecutable(Mailbox mailbox) {
         return !mailbox.isEmpty();
     }
 
+    public final int maxMessagesPerDispatch() {
+        return maxMessagesPerDispatch;
+    }
+
     protected void logError(String message) {
         logger.error(address().toString(), message);
     }
@@ -58,6 +122,13 @@ public abstract class AbstractActor implements ActorRef {
         return logger;
     }
 
+    /*
+     * Continue the message that requested continueLater(). Actors that call continueLater() must override this method.
+     */
+    protected OnMessageResult onContinue() {
+        throw new IllegalStateException("Continuation not supported");
+    }
+
     protected abstract OnMessageResult onMessage(Envelope[] next);
 
     protected void onReceivedAfterFailed(Envelope envelope) {
@@ -68,14 +139,27 @@ public abstract class AbstractActor implements ActorRef {
         logger.error(address.toString(), String.format("Message received after SUCCESSFUL: %s", envelope));
     }
 
+    /*
+     * The mailbox rejected the envelope because it is full. A requester receives a FailedValue so that it does not
+     * wait forever.
+     */
+    protected void onRejectedByMailbox(Envelope envelope) {
+        if (envelope.isRequest()) {
+            FailedValue failedValue = FailedValue.create(address.toString(), new MailboxFullError(address));
+            envelope.requester().send(Envelope.createResponse(failedValue, envelope.requestId()));
+        } else {
+            logger.error(address.toString(), String.format("Message rejected by full mailbox: %s", envelope));
+        }
+    }
+
     protected void onRejectedByExecutor(RejectedExecutionException exc) {
         logger.error(address.toString(), String.format("Actor rejected by executor:\n%s",
             GetStackTrace.apply(exc, true)));
     }
 
     /*
-     * INVARIANT: The mailbox is locked during this call so that implementations can empty the mailbox while responding
-     * to pending requests with the error.
+     * INVARIANT: The mailbox is locked (or, if concurrent, exclusively held for draining) during this call so that
+     * implementations can empty the mailbox while responding to pending requests with the error.
      */
     protected void onUnhandledError(Mailbox mailbox, Throwable throwable) {
         logger.error(address.toString(), String.format("Unhandled error\n" +
@@ -91,28 +175,131 @@ public abstract class AbstractActor implements ActorRef {
         return new Envelope[]{mailbox.removeNext()};
     }
 
+    /*
+     * Select the next message, or return null if the dispatcher should call onContinue() instead.
+     */
+    private Envelope[] selectNextOrContinue() {
+        if (continuing) {
+            Envelope next = mailbox.peekNext();
+            if (next == null || !next.isControl()) {
+                continuing = false;
+                return null;
+            }
+        }
+        return selectNext(mailbox);
+    }
+
+    private void recordDispatch(int processed) {
+        dispatchCount++;
+        dispatchedMessageCount += processed;
+        if (processed > maxMessagesPerDispatch) {
+            maxMessagesPerDispatch = processed;
+        }
+    }
+
     @Override
     public final void send(Envelope envelope) {
+        if (mailbox.isConcurrent()) {
+            sendConcurrent(envelope);
+            return;
+        }
+        boolean rejected = false;
         synchronized (mailboxLock) {
-            if (state == State.FAILED) {
+            State current = state.get();
+            if (current == State.FAILED) {
                 onReceivedAfterFailed(envelope);
-            } else if (state == State.SUCCESSFUL) {
+            } else if (current == State.SUCCESSFUL) {
                 onReceivedAfterSuccessful(envelope);
+            } else if (!mailbox.offer(envelope)) {
+                rejected = true;
             } else {
-                mailbox.add(envelope);
                 // If we are ACTIVE, SCHEDULED, or WAITING-not-executable, there is nothing to do. However, if we are
                 // WAITING-executable, we must schedule for execution.
-                if (state == State.WAITING && isExecutable(mailbox)) {
+                if (current == State.WAITING && isExecutable(mailbox)) {
                     dispatcher.schedule();
                 }
             }
         }
+        // Respond to a rejected request outside the lock so that we never hold our lock while sending
+        if (rejected) {
+            onRejectedByMailbox(envelope);
+        }
     }
 
-    public final State state() {
-        synchronized (mailboxLock) {
-            return state;
+    private void sendConcurrent(Envelope envelope) {
+        State current = state.get();
+        if (current == State.FAILED) {
+            onReceivedAfterFailed(envelope);
+            return;
+        }
+        if (current == State.SUCCESSFUL) {
+            onReceivedAfterSuccessful(envelope);
+            return;
+        }
+        if (!mailbox.offer(envelope)) {
+            onRejectedByMailbox(envelope);
+            return;
+        }
+        // The add happens before we read the state, and the dispatcher sets WAITING before it reads the mailbox size.
+        // Therefore, either we see WAITING and schedule, or the dispatcher sees our envelope and schedules itself.
+        current = state.get();
+        if (current == State.WAITING) {
+            if (state.compareAndSet(State.WAITING, State.SCHEDULED)) {
+                dispatcher.execute();
+            }
+        } else if (current == State.FAILED) {
+            // We may have added our envelope after the mailbox was drained
+            drainAfterFailed();
+        }
+    }
+
+    /*
+     * Drain the mailbox after a failure, passing each envelope to onReceivedAfterFailed(). Only one thread at a time
+     * may drain. A thread that cannot acquire the drain flag relies on the holder to recheck the mailbox after release.
+     */
+    private void drainAfterFailed() {
+        do {
+            if (!failedDrain.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                Envelope next = mailbox.removeNext();
+                while (next != null) {
+                    onReceivedAfterFailed(next);
+                    next = mailbox.removeNext();
+                }
+            } finally {
+                failedDrain.set(false);
+            }
+        } while (!mailbox.isEmpty());
+    }
+
+    /*
+     * Limit how long a dispatch may hold its executor thread. A dispatch processes messages until the mailbox is not
+     * executable, `throughput` messages are processed, or `throughputNanos` have elapsed, whichever comes first. A
+     * `throughputNanos` of zero means no time limit. Must be called before the actor receives its first message.
+     */
+    protected final void setThroughput(int throughput, long throughputNanos) {
+        if (throughput < 1) {
+            throw new IllegalArgumentException("Throughput must be greater than zero: " + throughput);
+        }
+        if (throughputNanos < 0) {
+            throw new IllegalArgumentException("Throughput nanos must not be negative: " + throughputNanos);
         }
+        this.throughput = throughput;
+        this.throughputNanos = throughputNanos;
+    }
+
+    public final State state() {
+        return state.get();
+    }
+
+    public final int throughput() {
+        return throughput;
+    }
+
+    public final long throughputNanos() {
+        return throughputNanos;
     }
 
     public enum State {
@@ -125,8 +312,22 @@ public abstract class AbstractActor implements ActorRef {
 
     private final class Dispatcher implements Runnable {
 
+        private void execute() {
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException exc) {
+                state.set(State.FAILED);
+                mailbox.close();
+                onRejectedByExecutor(exc);
+            }
+        }
+
         @Override
         public final void run() {
+            if (mailbox.isConcurrent()) {
+                runConcurrent();
+                return;
+            }
             // Because we have just been invoked by the executor, we know we are in the SCHEDULED state.
             try {
                 Envelope[] next;
@@ -134,31 +335,108 @@ public abstract class AbstractActor implements ActorRef {
                     // A message can be selected because we were previously scheduled as "executable", and now we
                     // are running. We must transition from SCHEDULED to ACTIVE as soon as we select a message from
                     // the mailbox.
-                    next = selectNext(mailbox);
-                    state = State.ACTIVE;
+                    next = selectNextOrContinue();
+                    state.set(State.ACTIVE);
                 }
-                // CRITICAL: Do not synchronize on the mailboxLock during onMessage(). Releasing the lock allows
-                // messages to be received while processing the current message.
-                OnMessageResult result = onMessage(next);
+                long start = throughputNanos > 0 ? System.nanoTime() : 0;
+                int processed = 0;
+                while (true) {
+                    // CRITICAL: Do not synchronize on the mailboxLock during onMessage(). Releasing the lock allows
+                    // messages to be received while processing the current message.
+                    OnMessageResult result = next != null ? onMessage(next) : onContinue();
+                    processed++;
+                    synchronized (mailboxLock) {
+                        if (result == OnMessageResult.FINISHED) {
+                            recordDispatch(processed);
+                            state.set(State.SUCCESSFUL);
+                            mailbox.close();
+                            return;
+                        }
+                        // We just completed processing of a single message, and we are not finished. We must either
+                        // remain ACTIVE and select the next message, or transition to SCHEDULED or WAITING.
+                        if (!isReady()) {
+                            recordDispatch(processed);
+                            state.set(State.WAITING);
+                            return;
+                        }
+                        if (isThroughputReached(processed, start)) {
+                            // Yield our thread so that other actors can run
+                            recordDispatch(processed);
+                            schedule();
+                            return;
+                        }
+                        next = selectNextOrContinue();
+                    }
+                }
+            } catch (Throwable throwable) {
                 synchronized (mailboxLock) {
+                    // We have just been interrupted by an unhandled error. We must transition from ACTIVE to FAILED.
+                    state.set(State.FAILED);
+                    mailbox.close();
+                    onUnhandledError(mailbox, throwable);
+                }
+            }
+        }
+
+        private void runConcurrent() {
+            // Because we have just been invoked by the executor, we know we are in the SCHEDULED state and that we are
+            // the only dispatcher. We may have been scheduled by a producer even though we are not executable.
+            try {
+                int seenSize = mailbox.size();
+                if (!isReady()) {
+                    waitOrReschedule(seenSize);
+                    return;
+                }
+                state.set(State.ACTIVE);
+                long start = throughputNanos > 0 ? System.nanoTime() : 0;
+                int processed = 0;
+                while (true) {
+                    Envelope[] next = selectNextOrContinue();
+                    OnMessageResult result = next != null ? onMessage(next) : onContinue();
+                    processed++;
                     if (result == OnMessageResult.FINISHED) {
-                        state = State.SUCCESSFUL;
+                        recordDispatch(processed);
+                        state.set(State.SUCCESSFUL);
+                        mailbox.close();
+                        return;
+                    }
+                    seenSize = mailbox.size();
+                    if (!isReady()) {
+                        recordDispatch(processed);
+                        waitOrReschedule(seenSize);
                         return;
                     }
-                    // We just completed processing of a single message, and we are not finished. We must transition
-                    // from ACTIVE to either SCHEDULED or WAITING.
-                    if (isExecutable(mailbox)) {
-                        schedule();
-                    } else {
-                        state = State.WAITING;
+                    if (isThroughputReached(processed, start)) {
+                        recordDispatch(processed);
+                        state.set(State.SCHEDULED);
+                        execute();
+                        return;
                     }
                 }
             } catch (Throwable throwable) {
-                synchronized (mailboxLock) {
-                    // We have just been interrupted by an unhandled error. We must transition from ACTIVE to FAILED.
-                    state = State.FAILED;
+                // Acquire the drain flag before publishing FAILED so that producers cannot drain concurrently with
+                // onUnhandledError(), which may empty the mailbox.
+                failedDrain.set(true);
+                try {
+                    state.set(State.FAILED);
+                    mailbox.close();
                     onUnhandledError(mailbox, throwable);
+                } finally {
+                    failedDrain.set(false);
                 }
+                drainAfterFailed();
+            }
+        }
+
+        /*
+         * Transition to WAITING, unless envelopes arrived since we read the mailbox size and decided we are not
+         * executable. Only producers change the size while we decide, and they only increase it, so any difference
+         * means a producer may have missed our WAITING state.
+         */
+        private void waitOrReschedule(int seenSize) {
+            state.set(State.WAITING);
+            if (mailbox.size() != seenSize && state.compareAndSet(State.WAITING, State.SCHEDULED)) {
+                execute();
             }
         }
 
@@ -167,10 +445,11 @@ public abstract class AbstractActor implements ActorRef {
          */
         private void schedule() {
             try {
-                state = State.SCHEDULED;
+                state.set(State.SCHEDULED);
                 executor.execute(this);
             } catch (RejectedExecutionException exc) {
-                state = State.FAILED;
+                state.set(State.FAILED);
+                mailbox.close();
                 onRejectedByExecutor(exc);
             }
         }
@@ -10,7 +10,9 @@ package org.torqlang.core.local;
 import org.torqlang.core.klvm.*;
 import org.torqlang.core.lang.ActorExpr;
 import org.torqlang.core.lang.ActorSntc;
+import org.torqlang.core.lang.CompilationCache;
 import org.torqlang.core.lang.Generator;
+import org.torqlang.core.lang.KernelImageStore;
 import org.torqlang.core.lang.Parser;
 import org.torqlang.core.util.ListTools;
 import org.torqlang.core.util.SourceSpan;
@@ -39,7 +41,8 @@ import java.util.concurrent.TimeUnit;
  * ======================
  * INIT
  *   properties: (none)
- *   methods:    setAddress, setArgs, setTrace, setSystem, setSource, setActorSntc, setActorCfg
+ *   methods:    setAddress, setArgs, setCompilationCache, setTrace, setSystem, setSource, setActorSntc,
+ *               setActorCfg
  * READY
  *   properties: source
  *   methods:    parse, rewrite, generate, construct, configure, spawn
@@ -62,13 +65,21 @@ import java.util.concurrent.TimeUnit;
  *   properties: source, actorSntc, actorIdent, actorExpr, createActorRecStmt, actorRec, actorCfg, actorRef
  *   methods:    (none)
  *
- * Not shown above are the properties system, address, args, and trace, which are available after INIT.
+ * Not shown above are the properties system, address, args, trace, throughput, throughputNanos, and
+ * compilationCache, which are available after INIT. Throughput values that are not set default to those of the
+ * system.
+ *
+ * Generating from source (READY) consults the compilation cache, which is the default cache unless set otherwise. On
+ * a hit, the builder moves directly to GENERATED with the cached actorSntc, actorIdent, actorExpr, and
+ * createActorRecStmt, skipping the parse, rewrite, and generate steps. Set a null cache to always run them. If the
+ * cache has an image store, a miss loads actorIdent and createActorRecStmt from the store before parsing. An actor
+ * loaded from a store has a null actorSntc and actorExpr.
  */
 public final class ActorBuilder implements ActorBuilderInit, ActorBuilderReady, ActorBuilderParsed,
     ActorBuilderRewritten, ActorBuilderGenerated, ActorBuilderConstructed, ActorBuilderConfigured, ActorBuilderSpawned
 {
     private static final Str CFG = Str.of("cfg");
-    private static final int TIME_SLICE_10_000 = 10_000;
+    private static final String IMAGE_VARIANT = "ActorBuilder";
 
     private State state;
 
@@ -77,6 +88,8 @@ public final class ActorBuilder implements ActorBuilderInit, ActorBuilderReady,
     private ActorSystem system;
     private String source;
     private boolean trace;
+    private Integer throughput;
+    private Long throughputNanos;
     private ActorExpr actorExpr;
     private ActorSntc actorSntc;
     private Ident actorIdent;
@@ -85,9 +98,30 @@ public final class ActorBuilder implements ActorBuilderInit, ActorBuilderReady,
     private List<? extends CompleteOrIdent> args = List.of();
     private ActorCfg actorCfg;
     private LocalActor localActor;
+    private CompilationCache compilationCache;
 
     ActorBuilder() {
         state = State.INIT;
+        compilationCache = CompilationCache.defaultCache();
+    }
+
+    private static Compiled compile(String source, KernelImageStore imageStore) throws Exception {
+        if (imageStore != null) {
+            List<Kernel> kernels = imageStore.load(source, IMAGE_VARIANT);
+            if (kernels != null && kernels.size() == 2) {
+                return new Compiled(null, (Ident) kernels.get(0), null, (Stmt) kernels.get(1));
+            }
+        }
+        Parser p = new Parser(source);
+        ActorSntc actorSntc = (ActorSntc) p.parse();
+        Ident actorIdent = actorSntc.name;
+        ActorExpr actorExpr = new ActorExpr(actorSntc.formalArgs, actorSntc.body, actorSntc);
+        Generator g = new Generator();
+        Stmt createActorRecStmt = g.acceptExpr(actorExpr, actorIdent);
+        if (imageStore != null) {
+            imageStore.store(source, IMAGE_VARIANT, List.of(actorIdent, createActorRecStmt));
+        }
+        return new Compiled(actorSntc, actorIdent, actorExpr, createActorRecStmt);
     }
 
     @Override
@@ -170,6 +204,10 @@ public final class ActorBuilder implements ActorBuilderInit, ActorBuilderReady,
         }
     }
 
+    public final CompilationCache compilationCache() {
+        return compilationCache;
+    }
+
     @Override
     public final ActorCfg config() {
         return actorCfg;
@@ -194,7 +232,7 @@ public final class ActorBuilder implements ActorBuilderInit, ActorBuilderReady,
         localStmts.add(new ApplyStmt(Ident.$ACTOR_CFGTR, argsWithTarget, SourceSpan.emptySourceSpan()));
         SeqStmt seqStmt = new SeqStmt(localStmts, SourceSpan.emptySourceSpan());
         Stack stack = new Stack(seqStmt, env, null);
-        Machine.compute(stack, TIME_SLICE_10_000);
+        Machine.compute(stack, timeSlice());
         try {
             actorCfg = (ActorCfg) env.get(Ident.$R).resolveValue();
         } catch (Exception exc) {
@@ -218,7 +256,7 @@ public final class ActorBuilder implements ActorBuilderInit, ActorBuilderReady,
         }
         Env env = Env.create(LocalActor.rootEnv(), new EnvEntry(actorIdent, new Var()));
         Stack stack = new Stack(createActorRecStmt, env, null);
-        Machine.compute(stack, TIME_SLICE_10_000);
+        Machine.compute(stack, timeSlice());
         try {
             actorRec = (Rec) env.get(actorIdent).resolveValue();
         } catch (Exception exc) {
@@ -241,6 +279,16 @@ public final class ActorBuilder implements ActorBuilderInit, ActorBuilderReady,
 
     @Override
     public final ActorBuilderGenerated generate() throws Exception {
+        if (state == State.READY && compilationCache != null) {
+            Compiled compiled = compilationCache.compute(source, ActorBuilder.class,
+                () -> compile(source, compilationCache.imageStore()));
+            actorSntc = compiled.actorSntc;
+            actorIdent = compiled.actorIdent;
+            actorExpr = compiled.actorExpr;
+            createActorRecStmt = compiled.createActorRecStmt;
+            state = State.GENERATED;
+            return this;
+        }
         parseRewrite();
         if (state != State.REWRITTEN) {
             throw new IllegalStateException("Cannot generate at state: " + state);
@@ -272,8 +320,7 @@ public final class ActorBuilder implements ActorBuilderInit, ActorBuilderReady,
     }
 
     private void parseRewriteGenerate() throws Exception {
-        parseRewrite();
-        if (state == State.REWRITTEN) {
+        if (state == State.READY || state == State.PARSED || state == State.REWRITTEN) {
             generate();
         }
     }
@@ -372,6 +419,15 @@ public final class ActorBuilder implements ActorBuilderInit, ActorBuilderReady,
         return this;
     }
 
+    @Override
+    public final ActorBuilderInit setCompilationCache(CompilationCache compilationCache) {
+        if (state != State.INIT) {
+            throw new IllegalStateException("Cannot setCompilationCache at state: " + state);
+        }
+        this.compilationCache = compilationCache;
+        return this;
+    }
+
     @Override
     public final ActorBuilderReady setSource(String source) {
         if (state != State.INIT) {
@@ -391,6 +447,30 @@ public final class ActorBuilder implements ActorBuilderInit, ActorBuilderReady,
         return this;
     }
 
+    @Override
+    public final ActorBuilderInit setThroughput(int throughput) {
+        if (state != State.INIT) {
+            throw new IllegalStateException("Cannot setThroughput at state: " + state);
+        }
+        if (throughput < 1) {
+            throw new IllegalArgumentException("Throughput must be greater than zero: " + throughput);
+        }
+        this.throughput = throughput;
+        return this;
+    }
+
+    @Override
+    public final ActorBuilderInit setThroughputNanos(long throughputNanos) {
+        if (state != State.INIT) {
+            throw new IllegalStateException("Cannot setThroughputNanos at state: " + state);
+        }
+        if (throughputNanos < 0) {
+            throw new IllegalArgumentException("Throughput nanos must not be negative: " + throughputNanos);
+        }
+        this.throughputNanos = throughputNanos;
+        return this;
+    }
+
     @Override
     public final ActorBuilderInit setTrace(boolean trace) {
         if (state != State.INIT) {
@@ -432,6 +512,8 @@ public final class ActorBuilder implements ActorBuilderInit, ActorBuilderReady,
         checkAddress();
         checkSystem();
         localActor = new LocalActor(address, system, trace);
+        localActor.setThroughput(throughput != null ? throughput : system.throughput(),
+            throughputNanos != null ? throughputNanos : system.throughputNanos());
         localActor.configure(actorCfg);
         state = State.SPAWNED;
         return this;
@@ -441,6 +523,17 @@ public final class ActorBuilder implements ActorBuilderInit, ActorBuilderReady,
         return system;
     }
 
+    /*
+     * Construct and configure compute on the caller's thread until done, so the time slice only sets how often the
+     * machine returns to check for completion.
+     */
+    private long timeSlice() {
+        return system != null ? system.timeSlice() : ActorSystemDefaults.DEFAULT_TIME_SLICE;
+    }
+
+    private record Compiled(ActorSntc actorSntc, Ident actorIdent, ActorExpr actorExpr, Stmt createActorRecStmt) {
+    }
+
     private enum State {
         INIT,
         READY,
@@ -11,6 +11,7 @@ import org.torqlang.core.klvm.ActorCfg;
 import org.torqlang.core.klvm.CompleteOrIdent;
 import org.torqlang.core.klvm.Rec;
 import org.torqlang.core.lang.ActorSntc;
+import org.torqlang.core.lang.CompilationCache;
 
 import java.util.List;
 
@@ -30,12 +31,18 @@ public interface ActorBuilderInit {
 
     ActorBuilderInit setAddress(Address address);
 
+    ActorBuilderInit setCompilationCache(CompilationCache compilationCache);
+
     ActorBuilderInit setArgs(List<? extends CompleteOrIdent> args);
 
     ActorBuilderReady setSource(String source);
 
     ActorBuilderInit setSystem(ActorSystem system);
 
+    ActorBuilderInit setThroughput(int throughput);
+
+    ActorBuilderInit setThroughputNanos(long throughputNanos);
+
     ActorBuilderInit setTrace(boolean trace);
 
     ActorBuilderSpawned spawn(ActorCfg actorCfg) throws Exception;
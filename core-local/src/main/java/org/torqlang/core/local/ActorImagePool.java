@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.local;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * A bounded pool of actors spawned from the same image. Each acquired actor must be sent exactly one request. After
+ * the actor responds and its computation ends, the actor resets its per-request state and returns itself to the pool.
+ *
+ * An actor that is not idle after it responds, such as an actor with pending parent var triggers or unbound responses,
+ * is retired instead of returned. A failed actor is never returned. Therefore, a pool never hands out an actor that
+ * could observe a previous request.
+ *
+ * If the pool is empty, `acquire` spawns a new actor. The spawned actor joins the pool when it is released, unless the
+ * pool is full, in which case it is retired. An image never contains mutable state (see `CaptureImage`), therefore
+ * recycling an actor is indistinguishable from spawning a new one.
+ */
+public final class ActorImagePool {
+
+    private final Address address;
+    private final ActorImage image;
+    private final int size;
+    private final ArrayBlockingQueue<LocalActor> idleActors;
+
+    private final AtomicLong acquireCount = new AtomicLong();
+    private final AtomicLong releaseCount = new AtomicLong();
+    private final AtomicLong retireCount = new AtomicLong();
+    private final AtomicLong saturationCount = new AtomicLong();
+
+    public ActorImagePool(Address address, ActorImage image, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Size must be greater than zero: " + size);
+        }
+        this.address = address;
+        this.image = image;
+        this.size = size;
+        this.idleActors = new ArrayBlockingQueue<>(size);
+        for (int i = 0; i < size; i++) {
+            idleActors.add(new LocalActor(address, image, this));
+        }
+    }
+
+    /*
+     * Return an idle actor, or spawn a new actor if the pool is empty. The caller must send the actor exactly one
+     * request.
+     */
+    public final ActorRef acquire() {
+        acquireCount.incrementAndGet();
+        LocalActor actor = idleActors.poll();
+        if (actor == null) {
+            saturationCount.incrementAndGet();
+            actor = new LocalActor(address, image, this);
+        }
+        return actor;
+    }
+
+    public final long acquireCount() {
+        return acquireCount.get();
+    }
+
+    public final Address address() {
+        return address;
+    }
+
+    public final int idleCount() {
+        return idleActors.size();
+    }
+
+    public final ActorImage image() {
+        return image;
+    }
+
+    /*
+     * Called by an idle actor after its per-request state is reset
+     */
+    final void release(LocalActor actor) {
+        if (!idleActors.offer(actor)) {
+            retireCount.incrementAndGet();
+        }
+        releaseCount.incrementAndGet();
+    }
+
+    public final long releaseCount() {
+        return releaseCount.get();
+    }
+
+    /*
+     * Called by an actor that cannot be reset after it responds
+     */
+    final void retire() {
+        retireCount.incrementAndGet();
+    }
+
+    /*
+     * The number of actors released but not returned to the pool, either because they were not idle or because the
+     * pool was full.
+     */
+    public final long retireCount() {
+        return retireCount.get();
+    }
+
+    /*
+     * The number of acquires that found the pool empty and spawned a new actor. A saturation count that grows with
+     * the acquire count indicates the pool is too small for the request concurrency.
+     */
+    public final long saturationCount() {
+        return saturationCount.get();
+    }
+
+    public final int size() {
+        return size;
+    }
+
+}
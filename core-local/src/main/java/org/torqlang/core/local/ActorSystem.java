@@ -10,6 +10,7 @@ package org.torqlang.core.local;
 import org.torqlang.core.klvm.CompleteRec;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 
 public interface ActorSystem {
 
@@ -17,16 +18,48 @@ public interface ActorSystem {
         return new ActorSystemBuilder();
     }
 
+    /*
+     * Return a shared executor for actors that may block, created on first use. See blockingExecutor().
+     */
+    static Executor defaultBlockingExecutor() {
+        return ActorSystemDefaults.blockingExecutor();
+    }
+
+    /*
+     * Create a work-stealing executor with actor affinity. See ActorSystemDefaults.createWorkStealingExecutor().
+     */
+    static ExecutorService createWorkStealingExecutor() {
+        return ActorSystemDefaults.createWorkStealingExecutor(ActorSystemDefaults.defaultParallelism());
+    }
+
+    static ExecutorService createWorkStealingExecutor(int parallelism) {
+        return ActorSystemDefaults.createWorkStealingExecutor(parallelism);
+    }
+
     static Executor defaultExecutor() {
         return ActorSystemDefaults.DEFAULT_EXECUTOR;
     }
 
+    /*
+     * Return a shared work-stealing executor, created on first use, for systems that choose it over the default
+     * fixed thread pool.
+     */
+    static Executor workStealingExecutor() {
+        return ActorSystemDefaults.workStealingExecutor();
+    }
+
     static ActorSystem defaultSystem() {
         return ActorSystemDefaults.DEFAULT_SYSTEM;
     }
 
     ActorRefObj actorAt(Address address);
 
+    /*
+     * The executor for actors that may block their thread, such as native actors that perform I/O. Actors that may
+     * block must never run on executor(), which is shared with the KLVM actors. See NativeActorCfg.
+     */
+    Executor blockingExecutor();
+
     Logger createLogger();
 
     Mailbox createMailbox();
@@ -36,4 +69,25 @@ public interface ActorSystem {
     CompleteRec moduleAt(String path);
 
     String name();
+
+    /*
+     * The default maximum number of messages an actor processes per dispatch. See AbstractActor.setThroughput().
+     */
+    int throughput();
+
+    /*
+     * The initial number of kernel steps an actor computes before it is preempted.
+     */
+    long timeSlice();
+
+    /*
+     * The target latency in nanoseconds of a preempted time slice. Actors adapt their step count toward this target.
+     * Zero means the step count is fixed at timeSlice().
+     */
+    long timeSliceNanos();
+
+    /*
+     * The default maximum time in nanoseconds an actor processes messages per dispatch, or zero for no limit.
+     */
+    long throughputNanos();
 }
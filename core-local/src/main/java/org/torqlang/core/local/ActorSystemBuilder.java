@@ -14,6 +14,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 
 public final class ActorSystemBuilder {
 
@@ -29,6 +30,16 @@ public final class ActorSystemBuilder {
     private final Map<Address, ActorRefObj> actorsMap = new HashMap<>();
     private String name;
     private Executor executor;
+    private Executor blockingExecutor;
+    private boolean concurrentMailbox;
+    private Supplier<Mailbox> mailboxFactory;
+    private int mailboxCapacity;
+    private OverflowPolicy overflowPolicy;
+    private long blockTimeoutNanos = BoundedMailbox.DEFAULT_BLOCK_TIMEOUT_NANOS;
+    private int throughput = ActorSystemDefaults.DEFAULT_THROUGHPUT;
+    private long throughputNanos;
+    private long timeSlice = ActorSystemDefaults.DEFAULT_TIME_SLICE;
+    private long timeSliceNanos = ActorSystemDefaults.DEFAULT_TIME_SLICE_NANOS;
 
     public ActorSystemBuilder addActor(String path, ActorRefObj actorRefObj) {
         LocalAddress address = LocalAddress.create(path);
@@ -52,6 +63,14 @@ public final class ActorSystemBuilder {
         return this;
     }
 
+    public final Executor blockingExecutor() {
+        return blockingExecutor;
+    }
+
+    public final long blockTimeoutNanos() {
+        return blockTimeoutNanos;
+    }
+
     public final ActorSystem build() {
         List<ActorEntry> actors = new ArrayList<>(actorsMap.size());
         for (Map.Entry<Address, ActorRefObj> entry : actorsMap.entrySet()) {
@@ -62,13 +81,42 @@ public final class ActorSystemBuilder {
         for (Map.Entry<String, CompleteRec> entry : effectiveModulesMap.entrySet()) {
             modules.add(new ModuleEntry(entry.getKey(), entry.getValue()));
         }
-        return new BasicActorSystem(name, executor, actors, modules);
+        return new BasicActorSystem(name, executor, blockingExecutor, actors, modules, effectiveMailboxFactory(),
+            throughput, throughputNanos, timeSlice, timeSliceNanos);
+    }
+
+    public final boolean concurrentMailbox() {
+        return concurrentMailbox;
+    }
+
+    private Supplier<Mailbox> effectiveMailboxFactory() {
+        if (mailboxFactory != null) {
+            if (mailboxCapacity > 0) {
+                throw new IllegalStateException("Cannot set both a mailbox factory and a bounded mailbox");
+            }
+            return mailboxFactory;
+        }
+        if (mailboxCapacity > 0) {
+            int capacity = mailboxCapacity;
+            OverflowPolicy policy = overflowPolicy;
+            long timeoutNanos = blockTimeoutNanos;
+            return () -> Mailbox.createBounded(capacity, policy, timeoutNanos);
+        }
+        return concurrentMailbox ? Mailbox::createConcurrent : Mailbox::createDefault;
     }
 
     public final Executor executor() {
         return executor;
     }
 
+    public final int mailboxCapacity() {
+        return mailboxCapacity;
+    }
+
+    public final Supplier<Mailbox> mailboxFactory() {
+        return mailboxFactory;
+    }
+
     public final Map<String, CompleteRec> modules() {
         return Map.copyOf(modulesMap);
     }
@@ -77,14 +125,165 @@ public final class ActorSystemBuilder {
         return name;
     }
 
+    public final OverflowPolicy overflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /*
+     * Replace the system blocking executor returned by ActorSystem.blockingExecutor(). Native actors that may block
+     * are constructed with that executor. This does not change the executor of any other actor.
+     */
+    public final ActorSystemBuilder setBlockingExecutor(Executor blockingExecutor) {
+        this.blockingExecutor = blockingExecutor;
+        return this;
+    }
+
+    /*
+     * Bound the requests and notifies held by each actor mailbox in this system. When a mailbox is full, the overflow
+     * policy decides whether to reject, drop the oldest notify, or block the producer. See BoundedMailbox.
+     */
+    public final ActorSystemBuilder setBoundedMailbox(int capacity, OverflowPolicy overflowPolicy) {
+        return setBoundedMailbox(capacity, overflowPolicy, BoundedMailbox.DEFAULT_BLOCK_TIMEOUT_NANOS);
+    }
+
+    /*
+     * Same as setBoundedMailbox(int, OverflowPolicy), but a producer blocked by the BLOCK policy is rejected after
+     * `blockTimeoutNanos` instead of the default of one second.
+     */
+    public final ActorSystemBuilder setBoundedMailbox(int capacity, OverflowPolicy overflowPolicy,
+                                                      long blockTimeoutNanos)
+    {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be greater than zero: " + capacity);
+        }
+        if (overflowPolicy == null) {
+            throw new NullPointerException("overflowPolicy");
+        }
+        if (blockTimeoutNanos < 1) {
+            throw new IllegalArgumentException("Block timeout nanos must be greater than zero: " + blockTimeoutNanos);
+        }
+        this.mailboxCapacity = capacity;
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutNanos = blockTimeoutNanos;
+        return this;
+    }
+
+    /*
+     * Use lock-free mailboxes for actors in this system. See ConcurrentMailbox.
+     */
+    public final ActorSystemBuilder setConcurrentMailbox(boolean concurrentMailbox) {
+        this.concurrentMailbox = concurrentMailbox;
+        return this;
+    }
+
     public final ActorSystemBuilder setExecutor(Executor executor) {
         this.executor = executor;
         return this;
     }
 
+    /*
+     * Create actor mailboxes with the given factory instead of the built-in mailboxes. A factory whose mailboxes may
+     * block in offer() must create concurrent mailboxes. See AbstractActor.
+     */
+    public final ActorSystemBuilder setMailboxFactory(Supplier<Mailbox> mailboxFactory) {
+        this.mailboxFactory = mailboxFactory;
+        return this;
+    }
+
     public final ActorSystemBuilder setName(String name) {
         this.name = name;
         return this;
     }
 
+    /*
+     * Set the default maximum number of messages an actor processes per dispatch before it yields its thread. A
+     * higher value saves executor hand-offs when an actor has a backlog, while a lower value is fairer to other
+     * actors. See AbstractActor.setThroughput().
+     */
+    public final ActorSystemBuilder setThroughput(int throughput) {
+        if (throughput < 1) {
+            throw new IllegalArgumentException("Throughput must be greater than zero: " + throughput);
+        }
+        this.throughput = throughput;
+        return this;
+    }
+
+    /*
+     * Set the default maximum time an actor processes messages per dispatch, or zero for no time limit.
+     */
+    public final ActorSystemBuilder setThroughputNanos(long throughputNanos) {
+        if (throughputNanos < 0) {
+            throw new IllegalArgumentException("Throughput nanos must not be negative: " + throughputNanos);
+        }
+        this.throughputNanos = throughputNanos;
+        return this;
+    }
+
+    /*
+     * Set the initial number of kernel steps an actor computes before it is preempted and yields to other messages.
+     */
+    public final ActorSystemBuilder setTimeSlice(long timeSlice) {
+        if (timeSlice < TimeSlice.MIN_STEPS || timeSlice > TimeSlice.MAX_STEPS) {
+            throw new IllegalArgumentException("Time slice must be between " + TimeSlice.MIN_STEPS + " and " +
+                TimeSlice.MAX_STEPS + ": " + timeSlice);
+        }
+        this.timeSlice = timeSlice;
+        return this;
+    }
+
+    /*
+     * Set the target latency of a preempted time slice. Each actor times its preempted slices and adapts its step
+     * count toward this target. Zero fixes the step count at the initial time slice.
+     */
+    public final ActorSystemBuilder setTimeSliceNanos(long timeSliceNanos) {
+        if (timeSliceNanos < 0) {
+            throw new IllegalArgumentException("Time slice nanos must not be negative: " + timeSliceNanos);
+        }
+        this.timeSliceNanos = timeSliceNanos;
+        return this;
+    }
+
+    /*
+     * Run every actor in this system, including the KLVM actors, on the shared blocking executor, which uses a
+     * virtual thread per dispatch. Use this for systems dominated by actors that block. See
+     * ActorSystem.defaultBlockingExecutor().
+     *
+     * Throw IllegalStateException if the runtime has no virtual threads (before Java 21). There, the shared blocking
+     * executor is a bounded pool of platform threads, which is suitable for a few blocking actors but not for a whole
+     * system.
+     */
+    public final ActorSystemBuilder setVirtualThreadExecutor() {
+        if (!ActorSystemDefaults.hasVirtualThreads()) {
+            throw new IllegalStateException("Virtual threads are not available in this runtime");
+        }
+        this.executor = ActorSystemDefaults.blockingExecutor();
+        this.blockingExecutor = this.executor;
+        return this;
+    }
+
+    /*
+     * Run actors on the shared work-stealing executor instead of the default fixed thread pool. An actor that
+     * reschedules itself stays on its worker's local queue unless another worker steals it.
+     */
+    public final ActorSystemBuilder setWorkStealingExecutor() {
+        this.executor = ActorSystemDefaults.workStealingExecutor();
+        return this;
+    }
+
+    public final int throughput() {
+        return throughput;
+    }
+
+    public final long throughputNanos() {
+        return throughputNanos;
+    }
+
+    public final long timeSlice() {
+        return timeSlice;
+    }
+
+    public final long timeSliceNanos() {
+        return timeSliceNanos;
+    }
+
 }
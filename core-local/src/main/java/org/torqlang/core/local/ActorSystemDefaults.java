@@ -7,28 +7,105 @@
 
 package org.torqlang.core.local;
 
+import java.lang.reflect.Method;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 final class ActorSystemDefaults {
 
+    static final int DEFAULT_THROUGHPUT = 8;
+    static final long DEFAULT_TIME_SLICE = 10_000;
+    static final long DEFAULT_TIME_SLICE_NANOS = 1_000_000;
+    static final int MAX_BLOCKING_THREADS = 256;
+
+    private static final Method VIRTUAL_THREAD_EXECUTOR_FACTORY = findVirtualThreadExecutorFactory();
+
     static final ActorSystem DEFAULT_SYSTEM;
     static final ExecutorService DEFAULT_EXECUTOR;
 
     static {
-        int availableProcessors = Runtime.getRuntime().availableProcessors();
-        DEFAULT_EXECUTOR = Executors.newFixedThreadPool(Math.max(4, availableProcessors));
+        DEFAULT_EXECUTOR = Executors.newFixedThreadPool(defaultParallelism());
         DEFAULT_SYSTEM = ActorSystem.builder()
             .setName("Default")
             .setExecutor(DEFAULT_EXECUTOR)
             .build();
     }
 
+    static ExecutorService blockingExecutor() {
+        return BlockingExecutorHolder.EXECUTOR;
+    }
+
+    /*
+     * Create an executor for actors that may block. On Java 21 and later, each dispatch runs on a new virtual thread,
+     * which unmounts from its carrier thread while blocked on I/O. We look up the factory reflectively because we
+     * compile for Java 17. Before Java 21, we fall back to at most MAX_BLOCKING_THREADS daemon platform threads,
+     * created as needed and reclaimed when idle. Dispatches beyond that limit wait in a queue until a thread is free.
+     * Either way, blocked actors never hold threads from the shared executor.
+     */
+    static ExecutorService createBlockingExecutor() {
+        if (VIRTUAL_THREAD_EXECUTOR_FACTORY != null) {
+            try {
+                return (ExecutorService) VIRTUAL_THREAD_EXECUTOR_FACTORY.invoke(null);
+            } catch (ReflectiveOperationException exc) {
+                throw new IllegalStateException("Cannot create a virtual thread executor", exc);
+            }
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_BLOCKING_THREADS, MAX_BLOCKING_THREADS,
+            60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+                Thread thread = new Thread(r, "torq-blocking-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static Method findVirtualThreadExecutorFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException exc) {
+            return null;
+        }
+    }
+
+    static boolean hasVirtualThreads() {
+        return VIRTUAL_THREAD_EXECUTOR_FACTORY != null;
+    }
+
+    static int defaultParallelism() {
+        return Math.max(4, Runtime.getRuntime().availableProcessors());
+    }
+
+    /*
+     * A work-stealing pool with one deque per worker. When an actor dispatcher reschedules itself from a worker, the
+     * pool pushes it onto that worker's own deque, so the actor tends to stay on the same thread and cache. Idle
+     * workers steal from the other end of busy deques. Async mode makes each local deque FIFO, which is fairer for
+     * event-style tasks that never join.
+     */
+    static ExecutorService createWorkStealingExecutor(int parallelism) {
+        ForkJoinPool.ForkJoinWorkerThreadFactory threadFactory = pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("torq-worker-" + thread.getPoolIndex());
+            return thread;
+        };
+        return new ForkJoinPool(parallelism, threadFactory, null, true);
+    }
+
     static ExecutorService executor() {
         return DEFAULT_EXECUTOR;
     }
 
+    static ExecutorService workStealingExecutor() {
+        return WorkStealingExecutorHolder.EXECUTOR;
+    }
+
     static void shutdownAndAwait(long millis) throws InterruptedException {
         DEFAULT_EXECUTOR.shutdown();
         if (!DEFAULT_EXECUTOR.awaitTermination(millis, TimeUnit.MILLISECONDS)) {
@@ -36,4 +113,18 @@ final class ActorSystemDefaults {
         }
     }
 
+    /*
+     * Create the shared blocking executor on first use only
+     */
+    private static final class BlockingExecutorHolder {
+        private static final ExecutorService EXECUTOR = createBlockingExecutor();
+    }
+
+    /*
+     * Create the shared work-stealing executor on first use only
+     */
+    private static final class WorkStealingExecutorHolder {
+        private static final ExecutorService EXECUTOR = createWorkStealingExecutor(defaultParallelism());
+    }
+
 }
@@ -11,10 +11,16 @@ public final class ApiRoute {
 
     public final ApiPath apiPath;
     public final ApiTarget apiTarget;
+    public final ApiRouteMode mode;
 
     public ApiRoute(ApiPath apiPath, ApiTarget apiTarget) {
+        this(apiPath, apiTarget, ApiRouteMode.REQUEST_RESPONSE);
+    }
+
+    public ApiRoute(ApiPath apiPath, ApiTarget apiTarget, ApiRouteMode mode) {
         this.apiPath = apiPath;
         this.apiTarget = apiTarget;
+        this.mode = mode;
     }
 
     public ApiRoute(ApiPath apiPath, ActorImage actorImage) {
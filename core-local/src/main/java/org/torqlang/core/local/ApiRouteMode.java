@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.local;
+
+/*
+ * How a route writes the responses of its target actor.
+ *
+ *     REQUEST_RESPONSE   the single response value is written as JSON
+ *     JSON_ARRAY_STREAM  the target is a stream publisher; the values of each batch are written as elements of one
+ *                        JSON array as they arrive
+ *     NDJSON_STREAM      the target is a stream publisher; each value is written as one line of newline-delimited
+ *                        JSON as it arrives
+ *
+ * A stream publisher responds to each request with zero or more batches, each a tuple of values, followed by an
+ * `eof#{'more': more}` response. If `more` is true, the same request is sent again for the next batch, which is the
+ * protocol used by `Stream.new`.
+ */
+public enum ApiRouteMode {
+    REQUEST_RESPONSE,
+    JSON_ARRAY_STREAM,
+    NDJSON_STREAM
+}
@@ -13,18 +13,36 @@ import org.torqlang.core.util.BinarySearchTools;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 
 public class BasicActorSystem implements ActorSystem {
 
     private final String name;
     private final Executor executor;
+    private final Executor blockingExecutor;
     private final ActorEntry[] actors;
     private final ModuleEntry[] modules;
+    private final Supplier<Mailbox> mailboxFactory;
+    private final int throughput;
+    private final long throughputNanos;
+    private final long timeSlice;
+    private final long timeSliceNanos;
 
-    BasicActorSystem(String name, Executor executor, List<ActorEntry> actors, List<ModuleEntry> modules) {
+    BasicActorSystem(String name, Executor executor, Executor blockingExecutor, List<ActorEntry> actors,
+                     List<ModuleEntry> modules, Supplier<Mailbox> mailboxFactory, int throughput, long throughputNanos,
+                     long timeSlice, long timeSliceNanos)
+    {
         this.name = name;
+        this.throughput = throughput;
+        this.throughputNanos = throughputNanos;
+        this.timeSlice = timeSlice;
+        this.timeSliceNanos = timeSliceNanos;
+        this.mailboxFactory = mailboxFactory != null ?
+            mailboxFactory : Mailbox::createDefault;
         this.executor = executor != null ?
             executor : ActorSystemDefaults.executor();
+        this.blockingExecutor = blockingExecutor != null ?
+            blockingExecutor : ActorSystemDefaults.blockingExecutor();
         this.actors = actors.toArray(new ActorEntry[0]);
         Arrays.sort(this.actors);
         this.modules = modules.toArray(new ModuleEntry[0]);
@@ -40,6 +58,11 @@ public class BasicActorSystem implements ActorSystem {
         return actors[i].actorRefObj;
     }
 
+    @Override
+    public final Executor blockingExecutor() {
+        return blockingExecutor;
+    }
+
     @Override
     public final Logger createLogger() {
         return Logger.createDefault();
@@ -47,7 +70,7 @@ public class BasicActorSystem implements ActorSystem {
 
     @Override
     public final Mailbox createMailbox() {
-        return Mailbox.createDefault();
+        return mailboxFactory.get();
     }
 
     @Override
@@ -69,4 +92,24 @@ public class BasicActorSystem implements ActorSystem {
         return name;
     }
 
+    @Override
+    public final int throughput() {
+        return throughput;
+    }
+
+    @Override
+    public final long throughputNanos() {
+        return throughputNanos;
+    }
+
+    @Override
+    public final long timeSlice() {
+        return timeSlice;
+    }
+
+    @Override
+    public final long timeSliceNanos() {
+        return timeSliceNanos;
+    }
+
 }
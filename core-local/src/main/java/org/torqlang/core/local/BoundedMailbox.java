@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.local;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * A mailbox that holds at most `capacity` requests and notifies. Control messages and responses are always accepted.
+ * When the mailbox is full, offer() applies the overflow policy. See OverflowPolicy.
+ *
+ * All methods synchronize on the mailbox, which makes it safe for concurrent producers and a single consumer. Because
+ * producers never hold the actor lock while they are blocked, a bounded mailbox is always treated as concurrent.
+ *
+ * A producer blocked by the BLOCK policy waits at most `blockTimeoutNanos`, and then its envelope is rejected as with
+ * REJECT. The actor closes its mailbox when it finishes or fails, because nothing will remove another envelope, and
+ * closing wakes and rejects every blocked producer.
+ *
+ * Note that DROP_OLDEST replaces a notify without changing the size. This is safe for the actor dispatcher because it
+ * only evicts notifies when the mailbox is full, and a full mailbox is already executable unless the actor is waiting
+ * on a response, in which case a notify does not change what is executable.
+ */
+public final class BoundedMailbox implements Mailbox {
+
+    public static final long DEFAULT_BLOCK_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final LinkedListMailbox envelopes = new LinkedListMailbox(EnvelopeComparator.SINGLETON);
+    private final int capacity;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutNanos;
+
+    private int boundedSize;
+    private long droppedCount;
+    private boolean closed;
+
+    public BoundedMailbox(int capacity, OverflowPolicy overflowPolicy) {
+        this(capacity, overflowPolicy, DEFAULT_BLOCK_TIMEOUT_NANOS);
+    }
+
+    public BoundedMailbox(int capacity, OverflowPolicy overflowPolicy, long blockTimeoutNanos) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be greater than zero: " + capacity);
+        }
+        if (overflowPolicy == null) {
+            throw new NullPointerException("overflowPolicy");
+        }
+        if (blockTimeoutNanos < 1) {
+            throw new IllegalArgumentException("Block timeout nanos must be greater than zero: " + blockTimeoutNanos);
+        }
+        this.capacity = capacity;
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutNanos = blockTimeoutNanos;
+    }
+
+    private static boolean isBounded(Envelope envelope) {
+        return !envelope.isControl() && !envelope.isResponse();
+    }
+
+    /*
+     * Add the envelope regardless of capacity.
+     */
+    @Override
+    public final synchronized void add(Envelope envelope) {
+        envelopes.add(envelope);
+        if (isBounded(envelope)) {
+            boundedSize++;
+        }
+    }
+
+    public final long blockTimeoutNanos() {
+        return blockTimeoutNanos;
+    }
+
+    public final int capacity() {
+        return capacity;
+    }
+
+    /*
+     * Wake producers blocked by the BLOCK policy and reject their envelopes. Envelopes offered later are rejected if
+     * the mailbox is full.
+     */
+    @Override
+    public final synchronized void close() {
+        closed = true;
+        notifyAll();
+    }
+
+    /*
+     * The number of notifies evicted by the DROP_OLDEST policy.
+     */
+    public final synchronized long droppedCount() {
+        return droppedCount;
+    }
+
+    private boolean dropOldestNotify() {
+        for (LinkedListMailbox.Entry entry = envelopes.firstEntry(); entry != null; entry = entry.next()) {
+            if (entry.message().isNotify()) {
+                envelopes.remove(entry);
+                boundedSize--;
+                droppedCount++;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public final boolean isConcurrent() {
+        return true;
+    }
+
+    @Override
+    public final synchronized boolean isEmpty() {
+        return envelopes.isEmpty();
+    }
+
+    @Override
+    public final synchronized boolean offer(Envelope envelope) {
+        if (!isBounded(envelope) || boundedSize < capacity) {
+            add(envelope);
+            return true;
+        }
+        if (overflowPolicy == OverflowPolicy.DROP_OLDEST) {
+            if (!envelope.isNotify() || !dropOldestNotify()) {
+                return false;
+            }
+        } else if (overflowPolicy == OverflowPolicy.BLOCK) {
+            long deadline = System.nanoTime() + blockTimeoutNanos;
+            try {
+                while (boundedSize >= capacity) {
+                    long remaining = deadline - System.nanoTime();
+                    if (closed || remaining <= 0) {
+                        return false;
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                }
+            } catch (InterruptedException exc) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            if (closed) {
+                return false;
+            }
+        } else {
+            return false;
+        }
+        add(envelope);
+        return true;
+    }
+
+    public final OverflowPolicy overflowPolicy() {
+        return overflowPolicy;
+    }
+
+    @Override
+    public final synchronized Envelope peekNext() {
+        return envelopes.peekNext();
+    }
+
+    @Override
+    public final synchronized Envelope removeNext() {
+        Envelope answer = envelopes.removeNext();
+        if (answer != null && isBounded(answer)) {
+            boundedSize--;
+            if (overflowPolicy == OverflowPolicy.BLOCK) {
+                notifyAll();
+            }
+        }
+        return answer;
+    }
+
+    @Override
+    public final synchronized int size() {
+        return envelopes.size();
+    }
+
+}
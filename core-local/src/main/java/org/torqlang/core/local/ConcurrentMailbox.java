@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.local;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/*
+ * A lock-free mailbox for many producers and a single consumer. Envelopes are kept in one FIFO lane per priority, and
+ * lanes are read in priority order. The priorities are the same as EnvelopeComparator, therefore envelopes are
+ * removed in the same order as a LinkedListMailbox using EnvelopeComparator.
+ *
+ * Any thread may call add, isEmpty, and size. Only the actor that owns the mailbox may call peekNext and removeNext.
+ */
+public final class ConcurrentMailbox implements Mailbox {
+
+    private static final int CONTROL_RESPONSE = 0;
+    private static final int CONTROL = 1;
+    private static final int RESPONSE = 2;
+    private static final int REQUEST_OR_NOTIFY = 3;
+
+    private final Lane[] lanes = {new Lane(), new Lane(), new Lane(), new Lane()};
+    private final AtomicInteger size = new AtomicInteger();
+
+    private static int laneIndex(Envelope envelope) {
+        if (envelope.isControl()) {
+            return envelope.isResponse() ? CONTROL_RESPONSE : CONTROL;
+        }
+        return envelope.isResponse() ? RESPONSE : REQUEST_OR_NOTIFY;
+    }
+
+    @Override
+    public final void add(Envelope envelope) {
+        lanes[laneIndex(envelope)].add(envelope);
+        // Increment the size after the envelope is linked so that a consumer observing a size change will find it
+        size.incrementAndGet();
+    }
+
+    @Override
+    public final boolean isConcurrent() {
+        return true;
+    }
+
+    @Override
+    public final boolean isEmpty() {
+        return size.get() == 0;
+    }
+
+    @Override
+    public final Envelope peekNext() {
+        for (Lane lane : lanes) {
+            Envelope next = lane.peek();
+            if (next != null) {
+                return next;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public final Envelope removeNext() {
+        for (Lane lane : lanes) {
+            Envelope next = lane.poll();
+            if (next != null) {
+                size.decrementAndGet();
+                return next;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public final int size() {
+        return size.get();
+    }
+
+    /*
+     * An intrusive multi-producer single-consumer queue [Vyukov]. Producers swap themselves into the tail and then link
+     * the previous tail to themselves. The consumer owns the head, which is always a stub node.
+     */
+    private static final class Lane {
+
+        private final AtomicReference<Node> tail;
+        private Node head;
+
+        private Lane() {
+            Node stub = new Node(null);
+            head = stub;
+            tail = new AtomicReference<>(stub);
+        }
+
+        private void add(Envelope envelope) {
+            Node node = new Node(envelope);
+            Node prev = tail.getAndSet(node);
+            prev.next = node;
+        }
+
+        private Node nextNode() {
+            Node next = head.next;
+            if (next == null && tail.get() != head) {
+                // A producer has swapped the tail but not yet linked it. The link is imminent.
+                do {
+                    Thread.onSpinWait();
+                    next = head.next;
+                } while (next == null);
+            }
+            return next;
+        }
+
+        private Envelope peek() {
+            Node next = nextNode();
+            return next != null ? next.envelope : null;
+        }
+
+        private Envelope poll() {
+            Node next = nextNode();
+            if (next == null) {
+                return null;
+            }
+            Envelope answer = next.envelope;
+            next.envelope = null;
+            head = next;
+            return answer;
+        }
+    }
+
+    private static final class Node {
+        private Envelope envelope;
+        private volatile Node next;
+
+        private Node(Envelope envelope) {
+            this.envelope = envelope;
+        }
+    }
+
+}
@@ -70,6 +70,25 @@ public class LinkedListMailbox implements Mailbox {
         return first != null ? first.message : null;
     }
 
+    /*
+     * Unlink the given entry, which must belong to this mailbox.
+     */
+    public final void remove(Entry entry) {
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else {
+            first = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        } else {
+            last = entry.prev;
+        }
+        entry.next = null;
+        entry.prev = null;
+        size--;
+    }
+
     @Override
     public final Envelope removeNext() {
         if (first == null) {
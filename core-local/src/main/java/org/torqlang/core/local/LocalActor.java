@@ -31,19 +31,22 @@ import static org.torqlang.core.util.SourceSpan.emptySourceSpan;
  * Notify and Request messages are computation requests. Response messages affect the machines state, and Control
  * messages affect the actor lifecycle.
  *
- * Priority 0: Control message are the highest priority. Examples of control messages are Resume, Stop, and Debug.
+ * Priority 0: Control message are the highest priority. Examples of control messages are SyncVar, Stop, and Debug.
  * Priority 1: Response messages are higher priority than request messages because the actor may be waiting on an
  *             unbound variable fulfilled by the response.
  * Priority 2: Request and notify message have the same priority, they are requesting that the actor perform a
  *             computation.
  *
+ * Preemption -- When a computation exhausts its time slice, we ask the dispatcher to continue it before selecting
+ * another message, except for control messages, which are selected first. See AbstractActor.continueLater().
  */
 final class LocalActor extends AbstractActor {
 
     private static final Env ROOT_ENV = createRootEnv();
 
     private final ActorSystem system;
-    private final IdentityHashMap<Var, List<ChildVar>> triggers = new IdentityHashMap<>();
+
+    private final TimeSlice timeSlice;
 
     private boolean trace;
     private Machine machine;
@@ -53,6 +56,8 @@ final class LocalActor extends AbstractActor {
     private Object waitState;
     private int childCount;
     private FailedValue failedValue; // We are halted if not null
+    private IdentityHashMap<Var, List<ChildVar>> triggers; // Created by the first act that shares a parent var
+    private ActorImagePool pool; // Not null if we return ourselves to a pool after each request
 
     private List<Envelope> selectableResponses = Collections.emptyList();
     private List<Envelope> suspendedResponses = Collections.emptyList();
@@ -62,13 +67,20 @@ final class LocalActor extends AbstractActor {
         machine = new Machine(this, null);
     }
 
+    LocalActor(Address address, ActorImage image, ActorImagePool pool) {
+        this(address, image, false);
+        this.pool = pool;
+    }
+
     LocalActor(Address address, ActorSystem system, boolean trace) {
         this(address, system, null, null, trace);
     }
 
     private LocalActor(Address address, ActorSystem system, EnvEntry askHandlerEntry, EnvEntry tellHandlerEntry, boolean trace) {
         super(address, system.createMailbox(), system.executor(), system.createLogger());
+        setThroughput(system.throughput(), system.throughputNanos());
         this.system = system;
+        this.timeSlice = new TimeSlice(system.timeSlice(), system.timeSliceNanos());
         this.askHandlerEntry = askHandlerEntry;
         this.tellHandlerEntry = tellHandlerEntry;
         this.trace = trace;
@@ -187,6 +199,9 @@ final class LocalActor extends AbstractActor {
             logInfo("Adding bind dependency on var " + triggerVar + " to synchronize parent var " +
                     parentVar + " with child var: " + childVar + " at child " + child.address());
         }
+        if (triggers == null) {
+            triggers = new IdentityHashMap<>();
+        }
         List<ChildVar> childVars = triggers.get(triggerVar);
         if (childVars == null) {
             childVars = new ArrayList<>();
@@ -284,7 +299,8 @@ final class LocalActor extends AbstractActor {
         if (trace) {
             logInfo("Computing");
         }
-        ComputeAdvice advice = machine.compute(10_000);
+        long start = timeSlice.isAdaptive() ? System.nanoTime() : 0;
+        ComputeAdvice advice = machine.compute(timeSlice.steps());
         if (advice.isWait()) {
             ComputeWait computeWait = (ComputeWait) advice;
             if (trace) {
@@ -296,9 +312,14 @@ final class LocalActor extends AbstractActor {
             }
             waitState = computeWait.barrier;
         } else if (advice.isPreempt()) {
-            send(Resume.SINGLETON);
+            if (timeSlice.isAdaptive()) {
+                timeSlice.adapt(System.nanoTime() - start);
+            }
+            continueLater();
         } else if (advice.isHalt()) {
             throw new MachineHaltError((ComputeHalt) advice);
+        } else if (pool != null && activeRequest == null) {
+            releaseToPool();
         }
         return advice;
     }
@@ -354,7 +375,7 @@ final class LocalActor extends AbstractActor {
 
         activeRequest = envelope;
 
-        if (!triggers.isEmpty()) {
+        if (triggers != null && !triggers.isEmpty()) {
             throw new IllegalStateException("Triggers exist");
         }
         if (machine.stack() != null) {
@@ -439,10 +460,16 @@ final class LocalActor extends AbstractActor {
         return NOT_FINISHED;
     }
 
-    private OnMessageResult onControl(Envelope envelope) {
-        if (envelope == Resume.SINGLETON) {
-            return onResume();
+    @Override
+    protected final OnMessageResult onContinue() {
+        if (trace) {
+            logInfo("Resuming computation");
         }
+        computeTimeSlice();
+        return NOT_FINISHED;
+    }
+
+    private OnMessageResult onControl(Envelope envelope) {
         if (envelope.isResponse()) {
             throw new IllegalArgumentException("Invalid control response");
         }
@@ -578,14 +605,6 @@ final class LocalActor extends AbstractActor {
         }
     }
 
-    private OnMessageResult onResume() {
-        if (trace) {
-            logInfo("Resuming computation");
-        }
-        computeTimeSlice();
-        return NOT_FINISHED;
-    }
-
     private OnMessageResult onStop(Envelope envelope) {
         if (envelope.requester() != null) {
             envelope.requester().send(Envelope.createControlResponse(Stop.SINGLETON, envelope.requestId()));
@@ -649,6 +668,7 @@ final class LocalActor extends AbstractActor {
     private void performCallbackToAct(List<CompleteOrIdent> ys, Env env, Machine machine) {
 
         LocalActor child = new LocalActor(nextChildAddress(), system, trace);
+        child.setThroughput(throughput(), throughputNanos());
 
         ActStmt actStmt = (ActStmt) machine.current().stmt;
 
@@ -727,6 +747,28 @@ final class LocalActor extends AbstractActor {
         return responses.toArray(new Envelope[0]);
     }
 
+    /*
+     * Our computation ended after responding. If we are idle, reset our per-request state and return to the pool.
+     * Otherwise, retire from the pool so that the next request cannot observe this one. Envelopes sent to us after
+     * release are processed by this dispatch or the next, so the release must be the last change to our state.
+     */
+    private void releaseToPool() {
+        ActorImagePool releaseTo = pool;
+        if ((triggers != null && !triggers.isEmpty()) || !selectableResponses.isEmpty() ||
+            !suspendedResponses.isEmpty())
+        {
+            pool = null;
+            releaseTo.retire();
+            return;
+        }
+        if (trace) {
+            logInfo("Returning to pool");
+        }
+        // The machine retains its last stack entry after it ends, therefore we start over with a new machine
+        machine = new Machine(this, null);
+        releaseTo.release(this);
+    }
+
     private void sendResponse(List<CompleteOrIdent> ys, Env env, Machine machine) throws WaitVarException {
         if (ys.size() != 1) {
             throw new InvalidArgCountError(1, ys, "LocalActor.sendResponse");
@@ -757,28 +799,14 @@ final class LocalActor extends AbstractActor {
 
     private ActorRefObj spawnActorCfg(ActorCfg parentCfg) throws WaitException {
 
-        // Only complete values are shared across process boundaries.
-
-        HashMap<Ident, Complete> childCapturedEnvMap = new HashMap<>();
+        // Only complete values are shared across process boundaries. A handlers constructor is made complete once and
+        // the complete copy is shared by every child spawned from it. The copy has the same captured environment
+        // layout as the original, including the root procedures it captured, which are the same in every actor.
 
-        for (EnvEntry rootEntry : ROOT_ENV) {
-            childCapturedEnvMap.put(rootEntry.ident, (Complete) rootEntry.var.valueOrVarSet());
-        }
-
-        Closure parentHandlersCtor = parentCfg.handlersCtor();
-        Env parentCapturedEnv = parentHandlersCtor.capturedEnv();
-        for (EnvEntry parentEntry : parentCapturedEnv) {
-            // Root env entries have already been added.
-            if (ROOT_ENV.contains(parentEntry.ident)) {
-                continue;
-            }
-            ValueOrVar parentValueOrVar = parentEntry.var.resolveValueOrVar();
-            childCapturedEnvMap.put(parentEntry.ident, parentValueOrVar.checkComplete());
-        }
-
-        Closure childHandlersCtor = new CompleteClosure(parentHandlersCtor.procDef(), childCapturedEnvMap);
+        Closure childHandlersCtor = (Closure) parentCfg.handlersCtor().checkComplete();
         Configure configure = new Configure(new ActorCfg(parentCfg.args(), childHandlersCtor));
         LocalActor childActor = new LocalActor(nextChildAddress(), system, trace);
+        childActor.setThroughput(throughput(), throughputNanos());
 
         childActor.send(Envelope.createControlNotify(configure));
 
@@ -827,33 +855,6 @@ final class LocalActor extends AbstractActor {
         }
     }
 
-    private static final class Resume implements Envelope {
-        private static final Resume SINGLETON = new Resume();
-
-        private Resume() {
-        }
-
-        @Override
-        public final boolean isControl() {
-            return true;
-        }
-
-        @Override
-        public final Object message() {
-            return Null.SINGLETON;
-        }
-
-        @Override
-        public final Object requestId() {
-            return null;
-        }
-
-        @Override
-        public final ActorRef requester() {
-            return null;
-        }
-    }
-
     static final class StreamCls implements CompleteObj {
         static final StreamCls SINGLETON = new StreamCls();
 
@@ -12,12 +12,37 @@ package org.torqlang.core.local;
  */
 public interface Mailbox {
 
+    static Mailbox createBounded(int capacity, OverflowPolicy overflowPolicy) {
+        return new BoundedMailbox(capacity, overflowPolicy);
+    }
+
+    static Mailbox createBounded(int capacity, OverflowPolicy overflowPolicy, long blockTimeoutNanos) {
+        return new BoundedMailbox(capacity, overflowPolicy, blockTimeoutNanos);
+    }
+
+    static Mailbox createConcurrent() {
+        return new ConcurrentMailbox();
+    }
+
     static Mailbox createDefault() {
         return new LinkedListMailbox(EnvelopeComparator.SINGLETON);
     }
 
     void add(Envelope envelope);
 
+    /**
+     * Called once the actor has finished or failed. A mailbox that blocks producers in offer() must release them.
+     */
+    default void close() {
+    }
+
+    /**
+     * Return true if this mailbox is safe for concurrent producers and a single consumer without external locking.
+     */
+    default boolean isConcurrent() {
+        return false;
+    }
+
     boolean isEmpty();
 
     /**
@@ -25,6 +50,15 @@ public interface Mailbox {
      */
     Envelope peekNext();
 
+    /**
+     * Add the envelope if there is room, possibly blocking the caller until there is room. Return false if the
+     * envelope was rejected, in which case the caller is responsible for it. Unbounded mailboxes always add.
+     */
+    default boolean offer(Envelope envelope) {
+        add(envelope);
+        return true;
+    }
+
     /**
      * Remove and return the next message or null if mailbox is empty.
      */
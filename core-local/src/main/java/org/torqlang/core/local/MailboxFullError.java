@@ -0,0 +1,20 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.local;
+
+import org.torqlang.core.klvm.MachineError;
+
+public class MailboxFullError extends MachineError {
+    public static final String MAILBOX_FULL = "Mailbox full";
+    public final Address address;
+
+    public MailboxFullError(Address address) {
+        super(MAILBOX_FULL + ": " + address);
+        this.address = address;
+    }
+}
@@ -7,6 +7,14 @@
 
 package org.torqlang.core.local;
 
+/*
+ * A configuration that spawns an actor implemented in Java, typically by extending AbstractActor.
+ *
+ * Blocking contract: the shared system.executor() runs the KLVM actors, and a blocked thread is a thread lost to every
+ * actor in the system. Therefore, an actor that may block while processing a message -- for example, by calling JDBC,
+ * file or socket I/O, a lock, or Thread.sleep() -- must be constructed with system.blockingExecutor(). An actor that
+ * only computes and sends messages should be constructed with system.executor().
+ */
 public interface NativeActorCfg {
 
     ActorRef spawn(Address address, ActorSystem system, boolean trace);
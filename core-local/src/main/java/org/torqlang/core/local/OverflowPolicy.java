@@ -0,0 +1,26 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.local;
+
+/*
+ * What a bounded mailbox does with a request or notify when it is full. Control messages and responses are never
+ * subject to the bound because rejecting them would break the actor protocol.
+ *
+ *     REJECT       reject the envelope; a request receives a FailedValue response
+ *     DROP_OLDEST  a notify replaces the oldest queued notify; a request is rejected as with REJECT
+ *     BLOCK        block the producer until there is room, for at most the block timeout, and then reject
+ *
+ * BLOCK should be used with care. A producer running on an executor thread holds that thread while it is blocked. The
+ * block timeout bounds the wait, so producers blocked on one full actor cannot hold the shared threads indefinitely,
+ * and producers blocked on an actor that finishes or fails are released and rejected at once.
+ */
+public enum OverflowPolicy {
+    REJECT,
+    DROP_OLDEST,
+    BLOCK
+}
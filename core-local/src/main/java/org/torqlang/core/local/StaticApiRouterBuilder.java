@@ -21,12 +21,24 @@ public final class StaticApiRouterBuilder {
         return this;
     }
 
+    public final StaticApiRouterBuilder addRoute(String pathExpr, ActorImage actorImage, ApiRouteMode mode) {
+        ApiPath path = new ApiPath(pathExpr);
+        routes.add(new ApiRoute(path, ApiTarget.create(actorImage), mode));
+        return this;
+    }
+
     public final StaticApiRouterBuilder addRoute(String pathExpr, ActorRef actorRef) {
         ApiPath path = new ApiPath(pathExpr);
         routes.add(new ApiRoute(path, actorRef));
         return this;
     }
 
+    public final StaticApiRouterBuilder addRoute(String pathExpr, ActorRef actorRef, ApiRouteMode mode) {
+        ApiPath path = new ApiPath(pathExpr);
+        routes.add(new ApiRoute(path, ApiTarget.create(actorRef), mode));
+        return this;
+    }
+
     public final ApiRouter build() {
         routes.sort(Comparator.comparing(a -> a.apiPath));
         return new StaticApiRouter(routes.toArray(new ApiRoute[0]));
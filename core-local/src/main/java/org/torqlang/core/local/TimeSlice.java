@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.local;
+
+/*
+ * The number of kernel steps an actor computes before it is preempted. The cost of a step varies widely (compare an
+ * Int32 add with a Dec128 multiply or a native call), so a fixed step count gives unpredictable slice latency. When
+ * a target latency is given, each preempted slice is timed and the step count is moved halfway toward the count that
+ * would have met the target. Moving halfway damps the noise from GC pauses and JIT compilation.
+ *
+ * A time slice belongs to a single actor and is only accessed by its dispatcher.
+ */
+final class TimeSlice {
+
+    static final long MIN_STEPS = 1_000;
+    static final long MAX_STEPS = 10_000_000;
+
+    private final long targetNanos;
+    private long steps;
+
+    TimeSlice(long steps, long targetNanos) {
+        this.steps = steps;
+        this.targetNanos = targetNanos;
+    }
+
+    /*
+     * Adjust the step count given the elapsed time of a slice that computed all of its steps.
+     */
+    final void adapt(long elapsedNanos) {
+        if (elapsedNanos <= 0) {
+            return;
+        }
+        double proposed = steps * ((double) targetNanos / elapsedNanos);
+        long next = (long) ((steps + proposed) / 2);
+        steps = Math.max(MIN_STEPS, Math.min(MAX_STEPS, next));
+    }
+
+    final boolean isAdaptive() {
+        return targetNanos > 0;
+    }
+
+    final long steps() {
+        return steps;
+    }
+
+}
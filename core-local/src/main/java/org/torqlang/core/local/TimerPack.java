@@ -79,6 +79,7 @@ final class TimerPack {
 
         public Timer(Address address, ActorSystem system, boolean trace, Num periodNum, Str timeUnitStr) {
             super(address, system.createMailbox(), system.executor(), system.createLogger());
+            setThroughput(system.throughput(), system.throughputNanos());
             this.trace = trace;
             this.periodNum = periodNum;
             this.timeUnitStr = timeUnitStr;
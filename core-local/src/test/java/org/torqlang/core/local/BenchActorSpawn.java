@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.local;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.infra.Blackhole;
+import org.torqlang.core.klvm.CompleteRec;
+import org.torqlang.core.klvm.Rec;
+import org.torqlang.core.klvm.Str;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Spawn actors in three ways, and acquire actors from a pool:
+ *
+ * -- createFromImage spawns an actor from a captured image and sends it nothing. It measures the spawn alone.
+ * -- spawnImage spawns an actor from a captured image and asks it one question, as ApiHandler does for every
+ *    request.
+ * -- acquirePooled acquires an actor from an ActorImagePool and asks it one question, as ApiHandler does for every
+ *    request when it has an actor pool size.
+ * -- spawnCfg asks an actor to spawn a child from an actor configuration, which is what `spawn(Greeter.cfg(name))`
+ *    does in Torqlang. The child is asked one question.
+ *
+ * The main method reports spawns per second and the bytes allocated per spawn by all threads.
+ */
+public class BenchActorSpawn {
+
+    private static final Address IMAGE_ADDRESS = Address.create("Hello");
+    private static final CompleteRec HELLO_MESSAGE = Rec.completeRecBuilder()
+        .addField(Str.of("hello"), Str.of("World"))
+        .build();
+    private static final Str EXPECTED = Str.of("Hello, World!");
+
+    private static volatile Object sink;
+
+    /*
+     * Return the bytes allocated so far by all live threads. The management API is called reflectively because this
+     * module does not read java.management.
+     */
+    private static long allocatedBytes() throws Exception {
+        Object threadMXBean = Class.forName("java.lang.management.ManagementFactory")
+            .getMethod("getThreadMXBean").invoke(null);
+        Class<?> beanClass = Class.forName("com.sun.management.ThreadMXBean");
+        Method getAllThreadIds = beanClass.getMethod("getAllThreadIds");
+        Method getThreadAllocatedBytes = beanClass.getMethod("getThreadAllocatedBytes", long[].class);
+        long[] threadIds = (long[]) getAllThreadIds.invoke(threadMXBean);
+        long total = 0;
+        for (long bytes : (long[]) getThreadAllocatedBytes.invoke(threadMXBean, (Object) threadIds)) {
+            if (bytes > 0) {
+                total += bytes;
+            }
+        }
+        return total;
+    }
+
+    public static void main(String[] args) throws Exception {
+        BenchActorSpawnState state = new BenchActorSpawnState();
+        state.setup();
+        int count = 100_000;
+        for (int i = 0; i < 5; i++) {
+            System.out.println("Round " + i);
+            measure("createFromImage", count * 10, () -> createFromImage(state));
+            measure("spawnImage", count, () -> spawnImage(state));
+            measure("acquirePooled", count, () -> acquirePooled(state));
+            measure("spawnCfg", count, () -> spawnCfg(state));
+        }
+        System.exit(0);
+    }
+
+    private static void measure(String name, int count, Spawn spawn) throws Exception {
+        long startBytes = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            sink = spawn.perform();
+        }
+        long elapsed = System.nanoTime() - start;
+        long bytes = allocatedBytes() - startBytes;
+        System.out.printf("  %s: %,.0f spawns/sec, %,d bytes/spawn%n", name,
+            count / (elapsed / 1_000_000_000.0), bytes / count);
+    }
+
+    private static Object acquirePooled(BenchActorSpawnState state) throws Exception {
+        ActorRef actorRef = state.helloPool.acquire();
+        return checkResponse(RequestClient.builder().sendAndAwaitResponse(actorRef, HELLO_MESSAGE,
+            1, TimeUnit.SECONDS));
+    }
+
+    private static ActorRef createFromImage(BenchActorSpawnState state) {
+        return Actor.spawn(IMAGE_ADDRESS, state.helloImage);
+    }
+
+    private static Object spawnCfg(BenchActorSpawnState state) throws Exception {
+        return checkResponse(RequestClient.builder().sendAndAwaitResponse(state.spawner, HELLO_MESSAGE,
+            1, TimeUnit.SECONDS));
+    }
+
+    private static Object spawnImage(BenchActorSpawnState state) throws Exception {
+        ActorRef actorRef = Actor.spawn(IMAGE_ADDRESS, state.helloImage);
+        return checkResponse(RequestClient.builder().sendAndAwaitResponse(actorRef, HELLO_MESSAGE,
+            1, TimeUnit.SECONDS));
+    }
+
+    private static Object checkResponse(Object response) {
+        if (!EXPECTED.equals(response)) {
+            throw new IllegalStateException("Unexpected response: " + response);
+        }
+        return response;
+    }
+
+    //@Benchmark
+    public void acquirePooled(BenchActorSpawnState state, Blackhole blackhole) throws Exception {
+        blackhole.consume(acquirePooled(state));
+    }
+
+    //@Benchmark
+    public void createFromImage(BenchActorSpawnState state, Blackhole blackhole) {
+        blackhole.consume(createFromImage(state));
+    }
+
+    //@Benchmark
+    public void spawnCfg(BenchActorSpawnState state, Blackhole blackhole) throws Exception {
+        blackhole.consume(spawnCfg(state));
+    }
+
+    //@Benchmark
+    public void spawnImage(BenchActorSpawnState state, Blackhole blackhole) throws Exception {
+        blackhole.consume(spawnImage(state));
+    }
+
+    @FunctionalInterface
+    private interface Spawn {
+        Object perform() throws Exception;
+    }
+
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.local;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+public class BenchActorSpawnState {
+
+    public static final String HELLO = """
+        actor Hello() in
+            func greet(name) in
+                'Hello, ' + name + '!'
+            end
+            handle ask {'hello': name} in
+                greet(name)
+            end
+        end""";
+
+    public static final String SPAWNER = """
+        actor Spawner() in
+            func greet(name) in
+                'Hello, ' + name + '!'
+            end
+            actor Greeter(name) in
+                handle ask 'greet' in
+                    greet(name)
+                end
+            end
+            handle ask {'hello': name} in
+                var greeter = spawn(Greeter.cfg(name))
+                greeter.ask('greet')
+            end
+        end""";
+
+    public ActorImage helloImage;
+    public ActorImagePool helloPool;
+    public ActorRef spawner;
+
+    @Setup
+    public void setup() throws Exception {
+        helloImage = Actor.captureImage(HELLO);
+        helloPool = new ActorImagePool(Address.create("Hello"), helloImage, 16);
+        spawner = Actor.builder()
+            .setAddress(Address.create("Spawner"))
+            .spawn(SPAWNER)
+            .actorRef();
+    }
+
+}
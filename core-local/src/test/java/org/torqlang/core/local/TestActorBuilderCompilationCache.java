@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.local;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.torqlang.core.klvm.Str;
+import org.torqlang.core.lang.CompilationCache;
+import org.torqlang.core.lang.KernelImageStore;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestActorBuilderCompilationCache {
+
+    @Test
+    public void test() throws Exception {
+        String source = """
+            actor HelloWorld() in
+                handle ask 'hello' in
+                    'Hello, World!'
+                end
+            end""";
+        CompilationCache cache = CompilationCache.create();
+        ActorBuilderGenerated first = Actor.builder()
+            .setCompilationCache(cache)
+            .setSource(source)
+            .generate();
+        ActorBuilderGenerated second = Actor.builder()
+            .setCompilationCache(cache)
+            .setSource(source)
+            .generate();
+        assertSame(first.createActorRecStmt(), second.createActorRecStmt());
+        assertSame(first.actorExpr(), second.actorExpr());
+        assertEquals(first.actorIdent(), second.actorIdent());
+        assertEquals(1, cache.missCount());
+        assertEquals(1, cache.hitCount());
+        // Actors spawned from the cached kernel code run independently
+        for (int i = 0; i < 2; i++) {
+            ActorRef actorRef = Actor.builder()
+                .setAddress(Address.create(getClass().getName() + "Actor" + i))
+                .setCompilationCache(cache)
+                .spawn(source)
+                .actorRef();
+            Object response = RequestClient.builder().sendAndAwaitResponse(actorRef, Str.of("hello"),
+                100, TimeUnit.MILLISECONDS);
+            assertEquals(Str.of("Hello, World!"), response);
+        }
+        assertEquals(1, cache.missCount());
+        assertEquals(3, cache.hitCount());
+    }
+
+    @Test
+    public void testImageStore(@TempDir Path dir) throws Exception {
+        String source = """
+            actor HelloImage() in
+                handle ask 'hello' in
+                    'Hello, Image!'
+                end
+            end""";
+        KernelImageStore store = new KernelImageStore(dir);
+        ActorBuilderGenerated compiled = Actor.builder()
+            .setCompilationCache(CompilationCache.create(store))
+            .setSource(source)
+            .generate();
+        assertNotNull(compiled.actorSntc());
+        assertEquals(1, store.storeCount());
+        // A new cache, as if in a new process, loads the kernel code instead of parsing
+        ActorBuilderGenerated loaded = Actor.builder()
+            .setCompilationCache(CompilationCache.create(store))
+            .setSource(source)
+            .generate();
+        assertNull(loaded.actorSntc());
+        assertNull(loaded.actorExpr());
+        assertEquals(1, store.loadCount());
+        assertEquals(compiled.actorIdent(), loaded.actorIdent());
+        assertEquals(compiled.createActorRecStmt().toString(), loaded.createActorRecStmt().toString());
+        ActorRef actorRef = Actor.builder()
+            .setAddress(Address.create(getClass().getName() + "ImageActor"))
+            .setCompilationCache(CompilationCache.create(store))
+            .spawn(source)
+            .actorRef();
+        Object response = RequestClient.builder().sendAndAwaitResponse(actorRef, Str.of("hello"),
+            100, TimeUnit.MILLISECONDS);
+        assertEquals(Str.of("Hello, Image!"), response);
+        assertEquals(2, store.loadCount());
+    }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.local;
+
+import org.junit.jupiter.api.Test;
+import org.torqlang.core.klvm.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestActorImagePool {
+
+    private static final String SOURCE = """
+        actor HelloOrFail() in
+            handle ask {'hello': name} in
+                'Hello, ' + name + '!'
+            end
+            handle ask 'fail' in
+                throw 'error'#{'message': 'Failed'}
+            end
+        end""";
+
+    private static Object ask(ActorRef actorRef, Complete message) throws Exception {
+        return RequestClient.builder()
+            .setAddress(Address.create("TestActorImagePoolClient"))
+            .send(actorRef, message)
+            .awaitResponse(1000, TimeUnit.MILLISECONDS);
+    }
+
+    private static CompleteRec hello(String name) {
+        return Rec.completeRecBuilder().addField(Str.of("hello"), Str.of(name)).build();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long stop = System.currentTimeMillis() + 1000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > stop) {
+                fail("Timed out");
+            }
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    public void testFailedActorIsNotReturned() throws Exception {
+        ActorImagePool pool = new ActorImagePool(Address.create("HelloOrFail"), Actor.captureImage(SOURCE), 1);
+        ActorRef actorRef = pool.acquire();
+        Object response = ask(actorRef, Str.of("fail"));
+        assertInstanceOf(FailedValue.class, response);
+        assertEquals(0, pool.idleCount());
+        assertEquals(0, pool.releaseCount());
+        // The empty pool spawns a new actor
+        ActorRef nextRef = pool.acquire();
+        assertNotSame(actorRef, nextRef);
+        assertEquals(1, pool.saturationCount());
+        assertEquals(Str.of("Hello, World!"), ask(nextRef, hello("World")));
+        awaitTrue(() -> pool.idleCount() == 1);
+        assertSame(nextRef, pool.acquire());
+    }
+
+    @Test
+    public void testRecycle() throws Exception {
+        ActorImagePool pool = new ActorImagePool(Address.create("HelloOrFail"), Actor.captureImage(SOURCE), 2);
+        assertEquals(2, pool.idleCount());
+        ActorRef firstRef = pool.acquire();
+        assertEquals(Str.of("Hello, A!"), ask(firstRef, hello("A")));
+        awaitTrue(() -> pool.releaseCount() == 1);
+        assertEquals(2, pool.idleCount());
+        // Recycled actors are reset and respond like new actors
+        for (String name : List.of("B", "C", "D")) {
+            ActorRef actorRef = pool.acquire();
+            assertEquals(Str.of("Hello, " + name + "!"), ask(actorRef, hello(name)));
+        }
+        awaitTrue(() -> pool.releaseCount() == 4);
+        assertEquals(4, pool.acquireCount());
+        assertEquals(0, pool.saturationCount());
+        assertEquals(0, pool.retireCount());
+    }
+
+    @Test
+    public void testSaturation() throws Exception {
+        ActorImagePool pool = new ActorImagePool(Address.create("HelloOrFail"), Actor.captureImage(SOURCE), 2);
+        ActorRef ref1 = pool.acquire();
+        ActorRef ref2 = pool.acquire();
+        ActorRef ref3 = pool.acquire();
+        assertEquals(0, pool.idleCount());
+        assertEquals(1, pool.saturationCount());
+        assertEquals(Str.of("Hello, 1!"), ask(ref1, hello("1")));
+        assertEquals(Str.of("Hello, 2!"), ask(ref2, hello("2")));
+        assertEquals(Str.of("Hello, 3!"), ask(ref3, hello("3")));
+        awaitTrue(() -> pool.releaseCount() == 3);
+        // The pool is bounded, therefore one of the three actors is retired
+        assertEquals(2, pool.idleCount());
+        assertEquals(1, pool.retireCount());
+    }
+
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.local;
+
+import org.junit.jupiter.api.Test;
+import org.torqlang.core.klvm.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestAskDispatch {
+
+    private static Object ask(ActorRef actorRef, Complete message) throws Exception {
+        return RequestClient.builder()
+            .setAddress(Address.create("TestAskDispatchClient"))
+            .send(actorRef, message)
+            .awaitResponse(1000, TimeUnit.MILLISECONDS);
+    }
+
+    private static CompleteRec rec(String label, String... features) {
+        CompleteRecBuilder builder = Rec.completeRecBuilder().setLabel(Str.of(label));
+        for (int i = 0; i < features.length; i++) {
+            builder.addField(Str.of(features[i]), Int32.of(i));
+        }
+        return builder.build();
+    }
+
+    @Test
+    public void testDispatch() throws Exception {
+        String source = """
+            actor Dispatch() in
+                handle ask 'a' in
+                    1
+                end
+                handle ask 'b'#{'x': x} in
+                    x
+                end
+            end""";
+        ActorBuilderGenerated g = Actor.builder()
+            .setAddress(Address.create(getClass().getName() + "Actor"))
+            .setSource(source)
+            .generate();
+        String expected = """
+            local $actor_cfgtr in
+                $create_actor_cfgtr(proc ($r) in // free vars: $respond
+                    local $v0, $v6 in
+                        $create_proc(proc ($m) in // free vars: $respond
+                            local $v2 in
+                                $create_proc(proc () in // free vars: $m
+                                    local $v1 in
+                                        local $v3 in
+                                            $create_rec({'request': $m}, $v3)
+                                            $create_rec('error'#{'name': 'org.torqlang.core.lang.AskNotHandledError', 'message': 'Actor could not match request message with an \\'ask\\' handler.', 'details': $v3}, $v1)
+                                        end
+                                        throw $v1
+                                    end
+                                end, $v2)
+                                dispatch $m of
+                                    'a' then
+                                        local $else in
+                                            $create_proc(proc () in // free vars: $v2
+                                                $v2()
+                                            end, $else)
+                                            case $m of 'a' then
+                                                local $v4 in
+                                                    $bind(1, $v4)
+                                                    $respond($v4)
+                                                end
+                                            else
+                                                $else()
+                                            end
+                                        end
+                                    'b'#1 then
+                                        local $else in
+                                            $create_proc(proc () in // free vars: $v2
+                                                $v2()
+                                            end, $else)
+                                            case $m of 'b'#{'x': x} then
+                                                local $v5 in
+                                                    $bind(x, $v5)
+                                                    $respond($v5)
+                                                end
+                                            else
+                                                $else()
+                                            end
+                                        end
+                                else
+                                    $v2()
+                                end
+                            end
+                        end, $v0)
+                        $create_proc(proc ($m) in
+                            local $v7 in
+                                local $v8 in
+                                    $create_rec({'notify': $m}, $v8)
+                                    $create_rec('error'#{'name': 'org.torqlang.core.lang.TellNotHandledError', 'message': 'Actor could not match notify message with a \\'tell\\' handler.', 'details': $v8}, $v7)
+                                end
+                                throw $v7
+                            end
+                        end, $v6)
+                        $create_tuple('handlers'#[$v0, $v6], $r)
+                    end
+                end, $actor_cfgtr)
+                $create_rec('Dispatch'#{'cfg': $actor_cfgtr}, Dispatch)
+            end""";
+        assertEquals(expected, g.createActorRecStmt().toString());
+        ActorRef actorRef = g.spawn().actorRef();
+        assertEquals(Int32.of(1), ask(actorRef, Str.of("a")));
+        assertEquals(Int32.of(0), ask(actorRef, rec("b", "x")));
+        assertInstanceOf(FailedValue.class, ask(actorRef, rec("b", "y")));
+    }
+
+    /*
+     * Dispatching must match the same handler as matching each handler in source order
+     */
+    @Test
+    public void testSourceOrder() throws Exception {
+        String source = """
+            actor Dispatch() in
+                var c = 'c'
+                handle ask 'a'#{'x': 0} in
+                    'a1-zero'
+                end
+                handle ask 'b' in
+                    'b'
+                end
+                handle ask 'a'#{'x': x} in
+                    'a1'
+                end
+                handle ask 'a'#{'x': x, 'y': y} in
+                    'a2'
+                end
+                handle ask [x, y] in
+                    'pair'
+                end
+                handle ask ~c in
+                    'escaped'
+                end
+                handle ask 'a'#{'x': x, ...} in
+                    'a-partial'
+                end
+                handle ask 'b' in
+                    'b-unreachable'
+                end
+                handle ask 'd' in
+                    'd'
+                end
+            end""";
+        ActorRef actorRef = Actor.builder()
+            .setAddress(Address.create(getClass().getName() + "Actor"))
+            .spawn(source)
+            .actorRef();
+        assertEquals(Str.of("a1-zero"), ask(actorRef, rec("a", "x")));
+        CompleteRec aOne = Rec.completeRecBuilder().setLabel(Str.of("a")).addField(Str.of("x"), Int32.I32_1).build();
+        assertEquals(Str.of("a1"), ask(actorRef, aOne));
+        assertEquals(Str.of("b"), ask(actorRef, Str.of("b")));
+        assertEquals(Str.of("a2"), ask(actorRef, rec("a", "x", "y")));
+        assertEquals(Str.of("pair"), ask(actorRef, CompleteTuple.create(List.of(Int32.I32_0, Int32.I32_1))));
+        assertEquals(Str.of("escaped"), ask(actorRef, Str.of("c")));
+        // Same key as 'a2', but only matched by a handler after the escaped identifier
+        assertEquals(Str.of("a-partial"), ask(actorRef, rec("a", "x", "z")));
+        assertEquals(Str.of("a-partial"), ask(actorRef, rec("a", "w", "x", "y")));
+        assertEquals(Str.of("d"), ask(actorRef, Str.of("d")));
+        Object response = ask(actorRef, Str.of("e"));
+        assertInstanceOf(FailedValue.class, response);
+        assertTrue(response.toString().contains("org.torqlang.core.lang.AskNotHandledError"));
+        assertInstanceOf(FailedValue.class, ask(actorRef, Int32.I32_0));
+        assertInstanceOf(FailedValue.class, ask(actorRef, rec("b", "x")));
+    }
+
+}
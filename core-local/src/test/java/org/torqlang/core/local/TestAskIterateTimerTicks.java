@@ -64,25 +64,20 @@ public class TestAskIterateTimerTicks {
                                             $bind('request'#{'ticks': 5}, $v6)
                                             $select_apply(Stream, ['new'], $v4, $v6, timer_stream)
                                         end
-                                        local $iter, $for in
+                                        local $iter in
                                             $select_apply(ValueIter, ['new'], timer_stream, $iter)
-                                            $create_proc(proc () in // free vars: $for, $iter, tick_count
-                                                local tick, $v7 in
-                                                    $iter(tick)
-                                                    $ne(tick, eof, $v7)
-                                                    if $v7 then
-                                                        local $v8 in
-                                                            local $v9 in
-                                                                $get(tick_count, $v9)
-                                                                $add($v9, 1, $v8)
-                                                            end
-                                                            $set(tick_count, $v8)
-                                                        end
-                                                        $for()
+                                            loop tick, $v7 in
+                                                $iter(tick)
+                                                $ne(tick, eof, $v7)
+                                            while $v7 do
+                                                local $v8 in
+                                                    local $v9 in
+                                                        $get(tick_count, $v9)
+                                                        $add($v9, 1, $v8)
                                                     end
+                                                    $set(tick_count, $v8)
                                                 end
-                                            end, $for)
-                                            $for()
+                                            end
                                         end
                                         $get(tick_count, $v3)
                                         $respond($v3)
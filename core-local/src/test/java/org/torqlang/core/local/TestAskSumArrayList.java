@@ -58,25 +58,20 @@ public class TestAskSumArrayList {
                                 case $m of 'perform' then
                                     local $v4, sum in
                                         $select_apply(Cell, ['new'], 0, sum)
-                                        local $iter, $for in
+                                        local $iter in
                                             $select_apply(ValueIter, ['new'], one_thru_five, $iter)
-                                            $create_proc(proc () in // free vars: $for, $iter, sum
-                                                local i, $v5 in
-                                                    $iter(i)
-                                                    $ne(i, eof, $v5)
-                                                    if $v5 then
-                                                        local $v6 in
-                                                            local $v7 in
-                                                                $get(sum, $v7)
-                                                                $add($v7, i, $v6)
-                                                            end
-                                                            $set(sum, $v6)
-                                                        end
-                                                        $for()
+                                            loop i, $v5 in
+                                                $iter(i)
+                                                $ne(i, eof, $v5)
+                                            while $v5 do
+                                                local $v6 in
+                                                    local $v7 in
+                                                        $get(sum, $v7)
+                                                        $add($v7, i, $v6)
                                                     end
+                                                    $set(sum, $v6)
                                                 end
-                                            end, $for)
-                                            $for()
+                                            end
                                         end
                                         $get(sum, $v4)
                                         $respond($v4)
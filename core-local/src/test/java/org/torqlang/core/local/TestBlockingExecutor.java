@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.local;
+
+import org.junit.jupiter.api.Test;
+import org.torqlang.core.klvm.Int32;
+import org.torqlang.core.klvm.Rec;
+import org.torqlang.core.klvm.Str;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestBlockingExecutor {
+
+    @Test
+    public void testBlockingActorDoesNotStarveSystem() throws Exception {
+        // A single thread for the KLVM actors makes starvation certain if the blocking actor were to share it
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            ActorSystem system = ActorSystem.builder()
+                .setName("BlockingSystem")
+                .setExecutor(executor)
+                .build();
+            assertSame(ActorSystem.defaultBlockingExecutor(), system.blockingExecutor());
+            CountDownLatch blocked = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            AbstractActor blockingActor = new AbstractActor(Address.create("BlockingActor"), system.createMailbox(),
+                system.blockingExecutor(), system.createLogger())
+            {
+                @Override
+                protected OnMessageResult onMessage(Envelope[] next) {
+                    blocked.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException exc) {
+                        throw new IllegalStateException(exc);
+                    }
+                    return OnMessageResult.NOT_FINISHED;
+                }
+            };
+            blockingActor.send(Envelope.createNotify("block"));
+            assertTrue(blocked.await(1, TimeUnit.SECONDS));
+            String source = """
+                actor Doubler() in
+                    handle ask {'double': n} in
+                        n * 2
+                    end
+                end""";
+            ActorRef actorRef = Actor.builder()
+                .setSystem(system)
+                .spawn(source)
+                .actorRef();
+            Object response = RequestClient.builder()
+                .sendAndAwaitResponse(actorRef, Rec.completeRecBuilder()
+                    .addField(Str.of("double"), Int32.of(21)).build(), 1, TimeUnit.SECONDS);
+            assertEquals(Int32.of(42), response);
+            release.countDown();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testBlockingExecutorWithoutVirtualThreads() {
+        if (ActorSystemDefaults.hasVirtualThreads()) {
+            return;
+        }
+        // Without virtual threads, the fallback pool must not grow without limit
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) ActorSystem.defaultBlockingExecutor();
+        assertEquals(ActorSystemDefaults.MAX_BLOCKING_THREADS, executor.getMaximumPoolSize());
+        assertTrue(executor.allowsCoreThreadTimeOut());
+    }
+
+    @Test
+    public void testVirtualThreadExecutor() throws Exception {
+        if (!ActorSystemDefaults.hasVirtualThreads()) {
+            IllegalStateException exc = assertThrows(IllegalStateException.class,
+                () -> ActorSystem.builder().setVirtualThreadExecutor());
+            assertEquals("Virtual threads are not available in this runtime", exc.getMessage());
+            return;
+        }
+        ActorSystem system = ActorSystem.builder()
+            .setName("VirtualThreadSystem")
+            .setVirtualThreadExecutor()
+            .build();
+        assertSame(ActorSystem.defaultBlockingExecutor(), system.executor());
+        assertSame(system.executor(), system.blockingExecutor());
+        String source = """
+            actor Doubler() in
+                handle ask {'double': n} in
+                    n * 2
+                end
+            end""";
+        ActorRef actorRef = Actor.builder()
+            .setSystem(system)
+            .spawn(source)
+            .actorRef();
+        Object response = RequestClient.builder()
+            .sendAndAwaitResponse(actorRef, Rec.completeRecBuilder()
+                .addField(Str.of("double"), Int32.of(21)).build(), 1, TimeUnit.SECONDS);
+        assertEquals(Int32.of(42), response);
+    }
+
+}
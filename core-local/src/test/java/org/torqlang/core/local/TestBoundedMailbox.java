@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.local;
+
+import org.junit.jupiter.api.Test;
+import org.torqlang.core.klvm.FailedValue;
+
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestBoundedMailbox {
+
+    private static final ActorRef REQUESTER = new ActorRef() {
+        @Override
+        public Address address() {
+            return Address.create("TestRequester");
+        }
+
+        @Override
+        public void send(Envelope envelope) {
+        }
+    };
+
+    @Test
+    public void testBlock() throws Exception {
+        BoundedMailbox mailbox = new BoundedMailbox(1, OverflowPolicy.BLOCK);
+        assertTrue(mailbox.offer(Envelope.createNotify("notify-1")));
+        CountDownLatch offered = new CountDownLatch(1);
+        Thread producer = new Thread(() -> {
+            if (mailbox.offer(Envelope.createNotify("notify-2"))) {
+                offered.countDown();
+            }
+        });
+        producer.start();
+        assertFalse(offered.await(100, TimeUnit.MILLISECONDS));
+        assertEquals("notify-1", mailbox.removeNext().message());
+        assertTrue(offered.await(1, TimeUnit.SECONDS));
+        assertEquals("notify-2", mailbox.removeNext().message());
+        producer.join();
+        // An interrupted producer gives up
+        assertTrue(mailbox.offer(Envelope.createNotify("notify-3")));
+        Thread.currentThread().interrupt();
+        assertFalse(mailbox.offer(Envelope.createNotify("notify-4")));
+        assertTrue(Thread.interrupted());
+    }
+
+    @Test
+    public void testBlockTimeout() {
+        BoundedMailbox mailbox = new BoundedMailbox(1, OverflowPolicy.BLOCK, TimeUnit.MILLISECONDS.toNanos(50));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(50), mailbox.blockTimeoutNanos());
+        assertTrue(mailbox.offer(Envelope.createNotify("notify-1")));
+        long start = System.nanoTime();
+        assertFalse(mailbox.offer(Envelope.createNotify("notify-2")));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        assertEquals(1, mailbox.size());
+        assertThrows(IllegalArgumentException.class, () -> new BoundedMailbox(1, OverflowPolicy.BLOCK, 0));
+    }
+
+    @Test
+    public void testBlockUntilClosed() throws Exception {
+        BoundedMailbox mailbox = new BoundedMailbox(1, OverflowPolicy.BLOCK, TimeUnit.MINUTES.toNanos(1));
+        assertTrue(mailbox.offer(Envelope.createNotify("notify-1")));
+        BlockingQueue<Boolean> offered = new LinkedBlockingQueue<>();
+        Thread producer = new Thread(() -> offered.add(mailbox.offer(Envelope.createNotify("notify-2"))));
+        producer.start();
+        assertNull(offered.poll(100, TimeUnit.MILLISECONDS));
+        mailbox.close();
+        assertEquals(Boolean.FALSE, offered.poll(1, TimeUnit.SECONDS));
+        producer.join();
+        assertEquals(1, mailbox.size());
+    }
+
+    @Test
+    public void testBlockedProducerReleasedWhenActorFinishes() throws Exception {
+        ActorSystem system = ActorSystem.builder()
+            .setName("BlockedProducerSystem")
+            .setBoundedMailbox(1, OverflowPolicy.BLOCK, TimeUnit.MINUTES.toNanos(1))
+            .build();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Address address = Address.create(getClass().getName() + "FinishingActor");
+        AbstractActor actor = new AbstractActor(address, system.createMailbox(), system.executor(),
+            system.createLogger())
+        {
+            @Override
+            protected OnMessageResult onMessage(Envelope[] next) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException exc) {
+                    throw new IllegalStateException(exc);
+                }
+                return OnMessageResult.FINISHED;
+            }
+        };
+        BlockingQueue<Envelope> responses = new LinkedBlockingQueue<>();
+        ActorRef requester = new ActorRef() {
+            @Override
+            public Address address() {
+                return Address.create("TestBlockedRequester");
+            }
+
+            @Override
+            public void send(Envelope envelope) {
+                responses.add(envelope);
+            }
+        };
+        // The first request is active, and the second request fills the mailbox
+        actor.send(Envelope.createRequest("request-1", requester, 1));
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        actor.send(Envelope.createRequest("request-2", requester, 2));
+        CountDownLatch returned = new CountDownLatch(1);
+        Thread producer = new Thread(() -> {
+            actor.send(Envelope.createRequest("request-3", requester, 3));
+            returned.countDown();
+        });
+        producer.start();
+        assertFalse(returned.await(100, TimeUnit.MILLISECONDS));
+        // Finishing the actor closes its mailbox and releases the producer well before its timeout
+        release.countDown();
+        assertTrue(returned.await(1, TimeUnit.SECONDS));
+        producer.join();
+        assertEquals(AbstractActor.State.SUCCESSFUL, actor.state());
+        Envelope response = responses.poll(1, TimeUnit.SECONDS);
+        assertNotNull(response);
+        assertEquals(3, response.requestId());
+        FailedValue failedValue = (FailedValue) response.message();
+        assertInstanceOf(MailboxFullError.class, failedValue.nativeCause());
+    }
+
+    @Test
+    public void testDropOldest() {
+        BoundedMailbox mailbox = new BoundedMailbox(2, OverflowPolicy.DROP_OLDEST);
+        assertTrue(mailbox.offer(Envelope.createNotify("notify-1")));
+        assertTrue(mailbox.offer(Envelope.createRequest("request-1", REQUESTER, 1)));
+        // A notify replaces the oldest notify, but a request is rejected
+        assertTrue(mailbox.offer(Envelope.createNotify("notify-2")));
+        assertFalse(mailbox.offer(Envelope.createRequest("request-2", REQUESTER, 2)));
+        assertEquals(1, mailbox.droppedCount());
+        assertEquals(2, mailbox.size());
+        assertEquals("request-1", mailbox.removeNext().message());
+        assertEquals("notify-2", mailbox.removeNext().message());
+        // A notify is rejected when there is no notify to drop
+        assertTrue(mailbox.offer(Envelope.createRequest("request-3", REQUESTER, 3)));
+        assertTrue(mailbox.offer(Envelope.createRequest("request-4", REQUESTER, 4)));
+        assertFalse(mailbox.offer(Envelope.createNotify("notify-3")));
+        assertEquals(1, mailbox.droppedCount());
+    }
+
+    @Test
+    public void testReject() {
+        BoundedMailbox mailbox = new BoundedMailbox(2, OverflowPolicy.REJECT);
+        assertTrue(mailbox.isConcurrent());
+        assertTrue(mailbox.offer(Envelope.createNotify("notify-1")));
+        assertTrue(mailbox.offer(Envelope.createRequest("request-1", REQUESTER, 1)));
+        assertFalse(mailbox.offer(Envelope.createNotify("notify-2")));
+        assertFalse(mailbox.offer(Envelope.createRequest("request-2", REQUESTER, 2)));
+        // Responses and control messages are not bounded
+        assertTrue(mailbox.offer(Envelope.createResponse("response-1", 3)));
+        assertTrue(mailbox.offer(Envelope.createControlNotify("control-notify-1")));
+        assertEquals(4, mailbox.size());
+        assertEquals("control-notify-1", mailbox.removeNext().message());
+        assertEquals("response-1", mailbox.removeNext().message());
+        assertEquals("notify-1", mailbox.removeNext().message());
+        assertTrue(mailbox.offer(Envelope.createNotify("notify-3")));
+        assertFalse(mailbox.offer(Envelope.createNotify("notify-4")));
+        assertEquals(0, mailbox.droppedCount());
+        assertThrows(IllegalArgumentException.class, () -> new BoundedMailbox(0, OverflowPolicy.REJECT));
+    }
+
+    @Test
+    public void testRejectRequestWithFailedValue() throws Exception {
+        ActorSystem system = ActorSystem.builder()
+            .setName("BoundedMailboxSystem")
+            .setBoundedMailbox(1, OverflowPolicy.REJECT)
+            .build();
+        assertInstanceOf(BoundedMailbox.class, system.createMailbox());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Address address = Address.create(getClass().getName() + "Actor");
+        AbstractActor actor = new AbstractActor(address, system.createMailbox(), system.executor(),
+            system.createLogger())
+        {
+            @Override
+            protected OnMessageResult onMessage(Envelope[] next) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException exc) {
+                    throw new IllegalStateException(exc);
+                }
+                return OnMessageResult.NOT_FINISHED;
+            }
+        };
+        BlockingQueue<Envelope> responses = new LinkedBlockingQueue<>();
+        ActorRef requester = new ActorRef() {
+            @Override
+            public Address address() {
+                return Address.create("TestRejectRequester");
+            }
+
+            @Override
+            public void send(Envelope envelope) {
+                responses.add(envelope);
+            }
+        };
+        actor.send(Envelope.createRequest("request-1", requester, 1));
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        actor.send(Envelope.createRequest("request-2", requester, 2));
+        actor.send(Envelope.createRequest("request-3", requester, 3));
+        Envelope response = responses.poll(1, TimeUnit.SECONDS);
+        assertNotNull(response);
+        assertEquals(3, response.requestId());
+        FailedValue failedValue = (FailedValue) response.message();
+        assertInstanceOf(MailboxFullError.class, failedValue.nativeCause());
+        release.countDown();
+    }
+
+    @Test
+    public void testMailboxFactory() {
+        ActorSystem system = ActorSystem.builder()
+            .setName("MailboxFactorySystem")
+            .setMailboxFactory(() -> Mailbox.createBounded(10, OverflowPolicy.DROP_OLDEST))
+            .build();
+        BoundedMailbox mailbox = (BoundedMailbox) system.createMailbox();
+        assertEquals(10, mailbox.capacity());
+        assertEquals(OverflowPolicy.DROP_OLDEST, mailbox.overflowPolicy());
+        assertThrows(IllegalStateException.class, () -> ActorSystem.builder()
+            .setMailboxFactory(Mailbox::createConcurrent)
+            .setBoundedMailbox(10, OverflowPolicy.REJECT)
+            .build());
+    }
+
+}
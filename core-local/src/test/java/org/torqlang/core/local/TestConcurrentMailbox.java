@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.local;
+
+import org.junit.jupiter.api.Test;
+import org.torqlang.core.klvm.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestConcurrentMailbox {
+
+    private static final ActorRef REQUESTER = new ActorRef() {
+        @Override
+        public Address address() {
+            return Address.create("TestRequester");
+        }
+
+        @Override
+        public void send(Envelope envelope) {
+        }
+    };
+
+    @Test
+    public void testConcurrentAsks() throws Exception {
+        ActorSystem system = ActorSystem.builder()
+            .setName("ConcurrentMailboxSystem")
+            .setConcurrentMailbox(true)
+            .build();
+        assertTrue(system.createMailbox().isConcurrent());
+        String source = """
+            actor Doubler() in
+                handle ask {'double': n} in
+                    n * 2
+                end
+            end""";
+        ActorRef actorRef = Actor.builder()
+            .setSystem(system)
+            .setAddress(Address.create(getClass().getName() + "Actor"))
+            .spawn(source)
+            .actorRef();
+        int producerCount = 8;
+        int requestCount = 100;
+        ExecutorService producers = Executors.newFixedThreadPool(producerCount);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int p = 0; p < producerCount; p++) {
+                int producer = p;
+                futures.add(producers.submit(() -> {
+                    int correct = 0;
+                    for (int i = 0; i < requestCount; i++) {
+                        int n = producer * requestCount + i;
+                        CompleteRec m = Rec.completeRecBuilder().addField(Str.of("double"), Int32.of(n)).build();
+                        Object response = RequestClient.builder()
+                            .setAddress(Address.create("ConcurrentClient" + n))
+                            .send(actorRef, m)
+                            .awaitResponse(1, TimeUnit.SECONDS);
+                        if (Int32.of(n * 2).equals(response)) {
+                            correct++;
+                        }
+                    }
+                    return correct;
+                }));
+            }
+            for (Future<Integer> future : futures) {
+                assertEquals(requestCount, future.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            producers.shutdown();
+        }
+    }
+
+    @Test
+    public void testConcurrentProducers() throws Exception {
+        Mailbox mailbox = Mailbox.createConcurrent();
+        int producerCount = 4;
+        int messageCount = 10_000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producerCount; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException exc) {
+                    throw new IllegalStateException(exc);
+                }
+                for (int i = 0; i < messageCount; i++) {
+                    mailbox.add(Envelope.createNotify(new int[]{producer, i}));
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        // Consume while producing and verify FIFO order per producer
+        int[] nextExpected = new int[producerCount];
+        int received = 0;
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (received < producerCount * messageCount) {
+            Envelope next = mailbox.removeNext();
+            if (next == null) {
+                assertTrue(System.currentTimeMillis() < deadline, "Timed out");
+                Thread.onSpinWait();
+                continue;
+            }
+            int[] message = (int[]) next.message();
+            assertEquals(nextExpected[message[0]], message[1]);
+            nextExpected[message[0]]++;
+            received++;
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(mailbox.isEmpty());
+        assertEquals(0, mailbox.size());
+        assertNull(mailbox.removeNext());
+    }
+
+    @Test
+    public void testPriorityOrder() {
+        Mailbox concurrent = Mailbox.createConcurrent();
+        Mailbox linkedList = Mailbox.createDefault();
+        assertTrue(concurrent.isConcurrent());
+        assertFalse(linkedList.isConcurrent());
+        List<Envelope> envelopes = List.of(
+            Envelope.createNotify("notify-1"),
+            Envelope.createRequest("request-1", REQUESTER, 1),
+            Envelope.createResponse("response-1", 2),
+            Envelope.createControlNotify("control-notify-1"),
+            Envelope.createControlResponse("control-response-1", 3),
+            Envelope.createNotify("notify-2"),
+            Envelope.createResponse("response-2", 4),
+            Envelope.createControlRequest("control-request-1", REQUESTER, 5),
+            Envelope.createControlResponse("control-response-2", 6)
+        );
+        for (Envelope envelope : envelopes) {
+            concurrent.add(envelope);
+            linkedList.add(envelope);
+        }
+        assertEquals(envelopes.size(), concurrent.size());
+        while (!linkedList.isEmpty()) {
+            assertSame(linkedList.peekNext(), concurrent.peekNext());
+            assertSame(linkedList.removeNext(), concurrent.removeNext());
+        }
+        assertTrue(concurrent.isEmpty());
+        assertNull(concurrent.peekNext());
+    }
+
+}
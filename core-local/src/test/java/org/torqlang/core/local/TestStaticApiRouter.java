@@ -9,6 +9,7 @@ package org.torqlang.core.local;
 
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 
@@ -87,4 +88,19 @@ public class TestStaticApiRouter {
         assertNull(router.findRoute(new ApiPath("/orders/1/customer/address")));
     }
 
+    @Test
+    public void testModes() throws Exception {
+
+        ActorImage testActorImage = Actor.builder()
+            .setSystem(ActorSystem.defaultSystem())
+            .actorImage(SOURCE);
+
+        ApiRouter router = ApiRouter.staticBuilder()
+            .addRoute("/orders", testActorImage)
+            .addRoute("/orders/stream", testActorImage, ApiRouteMode.NDJSON_STREAM)
+            .build();
+        assertEquals(ApiRouteMode.REQUEST_RESPONSE, router.findRoute(new ApiPath("/orders")).mode);
+        assertEquals(ApiRouteMode.NDJSON_STREAM, router.findRoute(new ApiPath("/orders/stream")).mode);
+    }
+
 }
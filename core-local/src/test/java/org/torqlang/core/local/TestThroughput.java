@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.local;
+
+import org.junit.jupiter.api.Test;
+import org.torqlang.core.klvm.Int32;
+import org.torqlang.core.klvm.Rec;
+import org.torqlang.core.klvm.Str;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestThroughput {
+
+    private static final int MESSAGE_COUNT = 100;
+
+    /*
+     * The last message is counted down before its dispatch is recorded, so wait for the dispatcher to finish
+     */
+    private static void awaitRecorded(CountingActor actor) throws Exception {
+        assertTrue(actor.finished.await(5, TimeUnit.SECONDS));
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (actor.dispatchedMessageCount() < MESSAGE_COUNT) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out");
+            Thread.sleep(1);
+        }
+    }
+
+    private static CountingActor sendAll(ActorSystem system, int throughput) throws Exception {
+        CountingActor actor = new CountingActor(system, throughput);
+        // Hold the first message until the rest are queued so that every dispatch finds a backlog
+        actor.send(Envelope.createNotify(0));
+        assertTrue(actor.started.await(1, TimeUnit.SECONDS));
+        for (int i = 1; i < MESSAGE_COUNT; i++) {
+            actor.send(Envelope.createNotify(i));
+        }
+        actor.release.countDown();
+        awaitRecorded(actor);
+        return actor;
+    }
+
+    @Test
+    public void testActorBuilder() throws Exception {
+        ActorSystem system = ActorSystem.builder()
+            .setName("ActorBuilderThroughputSystem")
+            .setThroughput(4)
+            .build();
+        String source = """
+            actor Doubler() in
+                handle ask {'double': n} in
+                    n * 2
+                end
+            end""";
+        ActorBuilderSpawned spawned = Actor.builder()
+            .setSystem(system)
+            .setThroughput(16)
+            .setThroughputNanos(1_000_000)
+            .spawn(source);
+        AbstractActor actor = (AbstractActor) spawned.actorRef();
+        assertEquals(16, actor.throughput());
+        assertEquals(1_000_000, actor.throughputNanos());
+        Object response = RequestClient.builder()
+            .sendAndAwaitResponse(actor, Rec.completeRecBuilder()
+                .addField(Str.of("double"), Int32.of(21)).build(), 1, TimeUnit.SECONDS);
+        assertEquals(Int32.of(42), response);
+        // Unset values default to the system
+        AbstractActor defaultActor = (AbstractActor) Actor.builder()
+            .setSystem(system)
+            .spawn(source)
+            .actorRef();
+        assertEquals(4, defaultActor.throughput());
+        assertEquals(0, defaultActor.throughputNanos());
+        assertThrows(IllegalArgumentException.class, () -> ActorSystem.builder().setThroughput(0));
+    }
+
+    @Test
+    public void testThroughput() throws Exception {
+        for (boolean concurrent : new boolean[]{false, true}) {
+            for (int throughput : new int[]{1, 8, MESSAGE_COUNT}) {
+                ActorSystem system = ActorSystem.builder()
+                    .setName("ThroughputSystem")
+                    .setConcurrentMailbox(concurrent)
+                    .build();
+                CountingActor actor = sendAll(system, throughput);
+                assertEquals(MESSAGE_COUNT, actor.dispatchedMessageCount());
+                assertTrue(actor.maxMessagesPerDispatch() <= throughput);
+                // The backlog is queued before the first message completes, so every dispatch is full but the last
+                int expectedDispatches = (MESSAGE_COUNT + throughput - 1) / throughput;
+                assertEquals(expectedDispatches, actor.dispatchCount());
+            }
+        }
+    }
+
+    @Test
+    public void testThroughputNanos() throws Exception {
+        ActorSystem system = ActorSystem.builder()
+            .setName("ThroughputNanosSystem")
+            .build();
+        CountingActor actor = new CountingActor(system, MESSAGE_COUNT);
+        actor.setThroughput(MESSAGE_COUNT, 1);
+        actor.release.countDown();
+        for (int i = 0; i < MESSAGE_COUNT; i++) {
+            actor.send(Envelope.createNotify(i));
+        }
+        awaitRecorded(actor);
+        // Each message exceeds a one nanosecond limit, so each dispatch processes exactly one message
+        assertEquals(MESSAGE_COUNT, actor.dispatchCount());
+        assertEquals(1, actor.maxMessagesPerDispatch());
+    }
+
+    private static final class CountingActor extends AbstractActor {
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final CountDownLatch finished = new CountDownLatch(MESSAGE_COUNT);
+
+        private CountingActor(ActorSystem system, int throughput) {
+            super(Address.create("CountingActor"), system.createMailbox(), system.executor(), system.createLogger());
+            setThroughput(throughput, 0);
+        }
+
+        @Override
+        protected OnMessageResult onMessage(Envelope[] next) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException exc) {
+                throw new IllegalStateException(exc);
+            }
+            finished.countDown();
+            return OnMessageResult.NOT_FINISHED;
+        }
+    }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.local;
+
+import org.junit.jupiter.api.Test;
+import org.torqlang.core.klvm.Int32;
+import org.torqlang.core.klvm.Rec;
+import org.torqlang.core.klvm.Str;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestTimeSlice {
+
+    private static final String COUNTER = """
+        actor Counter() in
+            import system.Cell
+            handle ask {'count': n} in
+                var c = Cell.new(0)
+                while @c < n do
+                    c := @c + 1
+                end
+                @c
+            end
+        end""";
+
+    @Test
+    public void testAdapt() {
+        TimeSlice timeSlice = new TimeSlice(10_000, 1_000_000);
+        assertTrue(timeSlice.isAdaptive());
+        // Too slow: move halfway toward 5,000 steps
+        timeSlice.adapt(2_000_000);
+        assertEquals(7_500, timeSlice.steps());
+        // Too fast: move halfway toward 15,000 steps
+        timeSlice.adapt(500_000);
+        assertEquals(11_250, timeSlice.steps());
+        // Ignore a clock that did not advance
+        timeSlice.adapt(0);
+        assertEquals(11_250, timeSlice.steps());
+        // Clamp to the limits
+        for (int i = 0; i < 100; i++) {
+            timeSlice.adapt(1_000_000_000);
+        }
+        assertEquals(TimeSlice.MIN_STEPS, timeSlice.steps());
+        for (int i = 0; i < 100; i++) {
+            timeSlice.adapt(1);
+        }
+        assertEquals(TimeSlice.MAX_STEPS, timeSlice.steps());
+        assertFalse(new TimeSlice(10_000, 0).isAdaptive());
+    }
+
+    @Test
+    public void testContinueWithoutMailbox() throws Exception {
+        ActorSystem system = ActorSystem.builder()
+            .setName("TimeSliceSystem")
+            .setTimeSlice(TimeSlice.MIN_STEPS)
+            .setTimeSliceNanos(0)
+            .setThroughput(4)
+            .build();
+        AbstractActor actor = (AbstractActor) Actor.builder()
+            .setSystem(system)
+            .spawn(COUNTER)
+            .actorRef();
+        Object response = RequestClient.builder()
+            .sendAndAwaitResponse(actor, Rec.completeRecBuilder()
+                .addField(Str.of("count"), Int32.of(10_000)).build(), 5, TimeUnit.SECONDS);
+        assertEquals(Int32.of(10_000), response);
+        // The computation is preempted many times. Each continuation counts as a message but never enters the
+        // mailbox, and the throughput limit still yields the executor thread between dispatches.
+        long messages = actor.dispatchedMessageCount();
+        assertTrue(messages > 10, "Messages: " + messages);
+        assertTrue(actor.maxMessagesPerDispatch() <= 4);
+        assertTrue(actor.dispatchCount() >= messages / 4);
+    }
+
+    @Test
+    public void testSystemSettings() {
+        ActorSystem system = ActorSystem.builder()
+            .setName("TimeSliceSettingsSystem")
+            .build();
+        assertEquals(ActorSystemDefaults.DEFAULT_TIME_SLICE, system.timeSlice());
+        assertEquals(ActorSystemDefaults.DEFAULT_TIME_SLICE_NANOS, system.timeSliceNanos());
+        assertThrows(IllegalArgumentException.class, () -> ActorSystem.builder().setTimeSlice(1));
+        assertThrows(IllegalArgumentException.class, () -> ActorSystem.builder().setTimeSliceNanos(-1));
+    }
+
+}
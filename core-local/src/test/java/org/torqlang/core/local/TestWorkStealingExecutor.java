@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.local;
+
+import org.junit.jupiter.api.Test;
+import org.torqlang.core.klvm.Int32;
+import org.torqlang.core.klvm.Str;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestWorkStealingExecutor {
+
+    @Test
+    public void testExecutor() {
+        ForkJoinPool pool = (ForkJoinPool) ActorSystem.workStealingExecutor();
+        assertTrue(pool.getAsyncMode());
+        assertSame(pool, ActorSystem.workStealingExecutor());
+        ForkJoinPool created = (ForkJoinPool) ActorSystem.createWorkStealingExecutor(2);
+        assertEquals(2, created.getParallelism());
+        created.shutdown();
+    }
+
+    @Test
+    public void testConcurrentMath() throws Exception {
+        ActorSystem system = ActorSystem.builder()
+            .setName("WorkStealingSystem")
+            .setWorkStealingExecutor()
+            .build();
+        assertSame(ActorSystem.workStealingExecutor(), system.executor());
+        String source = """
+            actor ConcurrentMath() in
+                actor Number(n) in
+                    handle ask 'get' in
+                        n
+                    end
+                end
+                var n1 = spawn(Number.cfg(1)),
+                    n2 = spawn(Number.cfg(2)),
+                    n3 = spawn(Number.cfg(3))
+                handle ask 'calculate' in
+                    n1.ask('get') + n2.ask('get') * n3.ask('get')
+                end
+            end""";
+        for (int i = 0; i < 10; i++) {
+            ActorRef actorRef = Actor.builder()
+                .setSystem(system)
+                .spawn(source)
+                .actorRef();
+            Object response = RequestClient.builder()
+                .sendAndAwaitResponse(actorRef, Str.of("calculate"), 1, TimeUnit.SECONDS);
+            assertEquals(Int32.of(7), response);
+        }
+    }
+
+}
@@ -8,44 +8,87 @@
 package org.torqlang.core.server;
 
 import org.eclipse.jetty.http.*;
+import org.eclipse.jetty.io.ByteBufferPool;
 import org.eclipse.jetty.io.Content;
+import org.eclipse.jetty.io.RetainableByteBuffer;
 import org.eclipse.jetty.server.Handler;
 import org.eclipse.jetty.server.Request;
 import org.eclipse.jetty.server.Response;
+import org.eclipse.jetty.util.BufferUtil;
 import org.eclipse.jetty.util.Callback;
 import org.eclipse.jetty.util.Fields;
+import org.eclipse.jetty.util.IteratingCallback;
 import org.torqlang.core.klvm.*;
-import org.torqlang.core.lang.JsonFormatter;
-import org.torqlang.core.lang.JsonParser;
+import org.torqlang.core.lang.KernelJsonParser;
+import org.torqlang.core.lang.KernelJsonWriter;
 import org.torqlang.core.lang.ValueTools;
 import org.torqlang.core.local.*;
 import org.torqlang.core.local.ApiTarget.ApiTargetActorImage;
 import org.torqlang.core.local.ApiTarget.ApiTargetActorRef;
 
 import java.net.URLDecoder;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
+/*
+ * An API handler routes each request to an actor. A route to an actor image spawns a new actor per request, unless
+ * the handler has an actor pool size, in which case the route acquires an actor from a pool of actors spawned from
+ * its image. A pool is created with the first request to its image, and each pool holds up to `actorPoolSize` idle
+ * actors. See `ActorImagePool`.
+ *
+ * A streaming route writes the batches of a stream publisher as a JSON array or as newline-delimited JSON while they
+ * arrive. See `ApiRouteMode`. A streaming route to an actor image always spawns a new actor because a publisher is
+ * asked once per batch, whereas a pooled actor accepts exactly one request.
+ */
 public final class ApiHandler extends Handler.Abstract.NonBlocking {
 
     private static final String APPLICATION_JSON_CHARSET_UTF_8 = "application/json; charset=utf-8";
+    private static final String APPLICATION_NDJSON_CHARSET_UTF_8 = "application/x-ndjson; charset=utf-8";
     private static final String TEXT_PLAIN_CHARSET_UTF_8 = "text/plain; charset=utf-8";
 
     private static final String RESPONSE_ADDRESS_PREFIX = "ApiHandler.ResponseAddress";
+    private static final int RESPONSE_BUFFER_SIZE = 8192;
+    private static final Address API_HANDLER_ADDRESS = Address.create("api-handler");
 
     private final ActorSystem system;
     private final ApiRouter router;
     private final ContextProvider contextProvider;
+    private final int actorPoolSize;
+    private final ConcurrentHashMap<ActorImage, ActorImagePool> actorPools = new ConcurrentHashMap<>();
 
     public ApiHandler(ActorSystem system, ApiRouter router, ContextProvider contextProvider) {
+        this(system, router, contextProvider, 0);
+    }
+
+    public ApiHandler(ActorSystem system, ApiRouter router, ContextProvider contextProvider, int actorPoolSize) {
+        if (actorPoolSize < 0) {
+            throw new IllegalArgumentException("Actor pool size must not be negative: " + actorPoolSize);
+        }
         this.system = system;
         this.router = router;
         this.contextProvider = contextProvider;
+        this.actorPoolSize = actorPoolSize;
     }
 
     public static ApiHandlerBuilder builder() {
         return new ApiHandlerBuilder();
     }
 
+    /*
+     * Return the pool for the given image, or null if pooling is disabled or the image has not received a request
+     */
+    public final ActorImagePool actorPool(ActorImage image) {
+        return actorPools.get(image);
+    }
+
+    public final int actorPoolSize() {
+        return actorPoolSize;
+    }
+
     @Override
     public final boolean handle(Request request, Response response, Callback callback) {
         String method = request.getMethod();
@@ -69,9 +112,7 @@ public final class ApiHandler extends Handler.Abstract.NonBlocking {
         if (method.equals(HttpMethod.GET.name())) {
             sendRequestMessage(request, response, callback, pathInContext, method, headersRec, queryRec, null);
         } else {
-            Content.Source.asStringAsync(request, StandardCharsets.UTF_8)
-                .thenAccept((requestText -> sendRequestMessage(request, response, callback, pathInContext, method,
-                    headersRec, queryRec, requestText)));
+            new RequestBodyReader(request, response, callback, pathInContext, method, headersRec, queryRec).run();
         }
 
         return true;
@@ -83,7 +124,7 @@ public final class ApiHandler extends Handler.Abstract.NonBlocking {
 
     private void sendRequestMessage(Request request, Response response, Callback callback,
                                     String pathInContext, String method, CompleteRec headersRec, CompleteRec queryRec,
-                                    String requestText)
+                                    Complete bodyValue)
     {
         ApiPath apiPath = new ApiPath(pathInContext);
         ApiRoute route = router.findRoute(apiPath);
@@ -92,10 +133,15 @@ public final class ApiHandler extends Handler.Abstract.NonBlocking {
             return;
         }
         try {
-            ActorBuilderInit actorInit = Actor.builder().setSystem(system);
             ActorRef actorRef;
+            boolean streaming = route.mode != ApiRouteMode.REQUEST_RESPONSE;
             if (route.apiTarget instanceof ApiTargetActorImage targetActorImage) {
-                actorRef = Actor.spawn(Address.create("api-handler"), targetActorImage.value());
+                if (actorPoolSize > 0 && !streaming) {
+                    actorRef = actorPools.computeIfAbsent(targetActorImage.value(),
+                        image -> new ActorImagePool(API_HANDLER_ADDRESS, image, actorPoolSize)).acquire();
+                } else {
+                    actorRef = Actor.spawn(API_HANDLER_ADDRESS, targetActorImage.value());
+                }
             } else {
                 actorRef = ((ApiTargetActorRef) route.apiTarget).actorRef;
             }
@@ -104,15 +150,17 @@ public final class ApiHandler extends Handler.Abstract.NonBlocking {
                 .addField(Str.of("headers"), headersRec)
                 .addField(Str.of("path"), ValueTools.toKernelValue(apiPath.segs))
                 .addField(Str.of("query"), queryRec);
-            if (requestText != null) {
-                Complete bodyValue = requestText.isBlank() ?
-                    Null.SINGLETON : ValueTools.toKernelValue(new JsonParser(requestText).parse());
+            if (bodyValue != null) {
                 requestRecBuilder.addField(Str.of("body"), bodyValue);
             }
             requestRecBuilder.addField(Str.of("context"), contextProvider.apply(request));
             CompleteRec requestRec = requestRecBuilder.build();
-            ActorRef responseActor = new ResponseActor(request, response, callback);
-            actorRef.send(Envelope.createRequest(requestRec, responseActor, Null.SINGLETON));
+            if (streaming) {
+                new StreamResponseActor(request, response, callback, route.mode, actorRef, requestRec).fetchNext();
+            } else {
+                ActorRef responseActor = new ResponseActor(request, response, callback);
+                actorRef.send(Envelope.createRequest(requestRec, responseActor, Null.SINGLETON));
+            }
         } catch (Exception exc) {
             Response.writeError(request, response, callback, exc);
         }
@@ -122,6 +170,67 @@ public final class ApiHandler extends Handler.Abstract.NonBlocking {
         return system;
     }
 
+    /*
+     * Parse the request body as JSON while its chunks arrive, then send the request message. A blank body is null.
+     */
+    private final class RequestBodyReader implements Runnable {
+        private final Request request;
+        private final Response response;
+        private final Callback callback;
+        private final String pathInContext;
+        private final String method;
+        private final CompleteRec headersRec;
+        private final CompleteRec queryRec;
+        private final KernelJsonParser parser = new KernelJsonParser();
+
+        private RequestBodyReader(Request request, Response response, Callback callback, String pathInContext,
+                                  String method, CompleteRec headersRec, CompleteRec queryRec)
+        {
+            this.request = request;
+            this.response = response;
+            this.callback = callback;
+            this.pathInContext = pathInContext;
+            this.method = method;
+            this.headersRec = headersRec;
+            this.queryRec = queryRec;
+        }
+
+        @Override
+        public final void run() {
+            while (true) {
+                Content.Chunk chunk = request.read();
+                if (chunk == null) {
+                    request.demand(this);
+                    return;
+                }
+                if (Content.Chunk.isFailure(chunk)) {
+                    Response.writeError(request, response, callback, chunk.getFailure());
+                    return;
+                }
+                Complete bodyValue = null;
+                try {
+                    parser.feed(chunk.getByteBuffer());
+                    if (chunk.isLast()) {
+                        bodyValue = parser.finish();
+                        if (bodyValue == null) {
+                            bodyValue = Null.SINGLETON;
+                        }
+                    }
+                } catch (Exception exc) {
+                    Response.writeError(request, response, callback, exc);
+                    return;
+                } finally {
+                    chunk.release();
+                }
+                if (bodyValue != null) {
+                    sendRequestMessage(request, response, callback, pathInContext, method, headersRec, queryRec,
+                        bodyValue);
+                    return;
+                }
+            }
+        }
+    }
+
     private static class ResponseActor implements ActorRef {
         private final Address address;
         private final Request request;
@@ -153,17 +262,340 @@ public final class ApiHandler extends Handler.Abstract.NonBlocking {
                     response.getHeaders().put(HttpHeader.CONTENT_TYPE, TEXT_PLAIN_CHARSET_UTF_8);
                     Content.Sink.write(response, true, failedValue.toDetailsString(), callback);
                 } else {
-                    // TODO: Replace with a kernel-to-json instead of kernel-to-native-to-json
-                    Object nativeResponseValue = ValueTools.toNativeValue(message);
-                    String jsonResponseText = JsonFormatter.SINGLETON.format(nativeResponseValue);
+                    List<RetainableByteBuffer> buffers = writeJson(message);
                     response.setStatus(200);
                     response.getHeaders().put(HttpHeader.CONTENT_TYPE, APPLICATION_JSON_CHARSET_UTF_8);
-                    Content.Sink.write(response, true, jsonResponseText, callback);
+                    new BufferWriter(response, buffers, callback).iterate();
                 }
             } catch (Exception exc) {
                 Response.writeError(request, response, callback, exc);
             }
         }
+
+        /*
+         * Write the JSON text of a kernel value into buffers acquired from the Jetty buffer pool. The buffers are
+         * released if the value cannot be written.
+         */
+        private List<RetainableByteBuffer> writeJson(Complete message) throws Exception {
+            ByteBufferPool pool = request.getComponents().getByteBufferPool();
+            List<RetainableByteBuffer> buffers = new ArrayList<>();
+            try {
+                KernelJsonWriter.write(message, new KernelJsonWriter.ByteSink() {
+                    @Override
+                    public ByteBuffer acquire() {
+                        RetainableByteBuffer buffer = pool.acquire(RESPONSE_BUFFER_SIZE, false);
+                        buffers.add(buffer);
+                        ByteBuffer byteBuffer = buffer.getByteBuffer();
+                        BufferUtil.clearToFill(byteBuffer);
+                        return byteBuffer;
+                    }
+
+                    @Override
+                    public void accept(ByteBuffer buffer) {
+                        // The buffer is written after the entire value is written
+                    }
+                });
+            } catch (Exception exc) {
+                for (RetainableByteBuffer buffer : buffers) {
+                    buffer.release();
+                }
+                throw exc;
+            }
+            return buffers;
+        }
+    }
+
+    /*
+     * Write pooled buffers in order, releasing each buffer after it is written. The last buffer completes the
+     * response.
+     */
+    private static final class BufferWriter extends IteratingCallback {
+        private final Response response;
+        private final List<RetainableByteBuffer> buffers;
+        private final Callback callback;
+        private int next;
+
+        private BufferWriter(Response response, List<RetainableByteBuffer> buffers, Callback callback) {
+            this.response = response;
+            this.buffers = buffers;
+            this.callback = callback;
+        }
+
+        @Override
+        protected final void onCompleteFailure(Throwable cause) {
+            for (int i = Math.max(next - 1, 0); i < buffers.size(); i++) {
+                buffers.get(i).release();
+            }
+            callback.failed(cause);
+        }
+
+        @Override
+        protected final void onCompleteSuccess() {
+            callback.succeeded();
+        }
+
+        @Override
+        protected final Action process() {
+            if (next > 0) {
+                buffers.get(next - 1).release();
+            }
+            if (next == buffers.size()) {
+                return Action.SUCCEEDED;
+            }
+            RetainableByteBuffer buffer = buffers.get(next++);
+            response.write(next == buffers.size(), buffer.getByteBuffer(), this);
+            return Action.SCHEDULED;
+        }
+    }
+
+    /*
+     * Write the batches of a stream publisher to the response while they arrive. Each batch is written into pooled
+     * buffers that are queued for Jetty. An `eof#{'more': true}` response queues a request for the next batch behind
+     * those buffers, therefore the publisher is not asked for the next batch until the client has accepted the
+     * current batch. A slow client slows the publisher instead of growing the queue.
+     *
+     * Responses are received on the publisher thread, one at a time. The queue is drained by `process`, which Jetty
+     * runs on one thread at a time.
+     *
+     * The buffer being written belongs to the callback side: only `process` and `onCompleteFailure` release it, and
+     * Jetty never runs them concurrently. After a failure, both sides may drain the queue, but `poll` hands each
+     * queued buffer to exactly one of them, so no buffer is released twice.
+     */
+    private static final class StreamResponseActor extends IteratingCallback implements ActorRef {
+        private static final Object FETCH_NEXT = new Object();
+
+        private final Address address;
+        private final Request request;
+        private final Response response;
+        private final Callback callback;
+        private final boolean jsonArray;
+        private final ActorRef publisher;
+        private final CompleteRec requestRec;
+        private final ConcurrentLinkedQueue<Object> pending = new ConcurrentLinkedQueue<>();
+
+        // Used by the publisher thread
+        private final PendingSink sink;
+        private final KernelJsonWriter writer;
+        private boolean started;
+        private long valueCount;
+
+        // Used by process
+        private RetainableByteBuffer writing;
+        private boolean lastWritten;
+
+        private StreamResponseActor(Request request, Response response, Callback callback, ApiRouteMode mode,
+                                    ActorRef publisher, CompleteRec requestRec)
+        {
+            address = Address.create(RESPONSE_ADDRESS_PREFIX + "." + request.getId());
+            this.request = request;
+            this.response = response;
+            this.callback = callback;
+            this.jsonArray = mode == ApiRouteMode.JSON_ARRAY_STREAM;
+            this.publisher = publisher;
+            this.requestRec = requestRec;
+            this.sink = new PendingSink(request.getComponents().getByteBufferPool());
+            this.writer = KernelJsonWriter.create(sink);
+        }
+
+        @Override
+        public final Address address() {
+            return address;
+        }
+
+        private void fail(Throwable cause) {
+            sink.releaseCurrent();
+            if (!started) {
+                started = true;
+                Response.writeError(request, response, callback, cause);
+                return;
+            }
+            pending.add(cause);
+            iterate();
+        }
+
+        private void fetchNext() {
+            publisher.send(Envelope.createRequest(requestRec, this, Null.SINGLETON));
+        }
+
+        @Override
+        protected final void onCompleteFailure(Throwable cause) {
+            if (writing != null) {
+                writing.release();
+                writing = null;
+            }
+            releaseQueued();
+            callback.failed(cause);
+        }
+
+        @Override
+        protected final void onCompleteSuccess() {
+            callback.succeeded();
+        }
+
+        @Override
+        protected final Action process() throws Throwable {
+            if (writing != null) {
+                writing.release();
+                writing = null;
+            }
+            if (lastWritten) {
+                return Action.SUCCEEDED;
+            }
+            while (true) {
+                Object next = pending.poll();
+                if (next == null) {
+                    return Action.IDLE;
+                }
+                if (next instanceof PendingWrite pendingWrite) {
+                    writing = pendingWrite.buffer;
+                    lastWritten = pendingWrite.last;
+                    response.write(pendingWrite.last, writing.getByteBuffer(), this);
+                    return Action.SCHEDULED;
+                }
+                if (next == FETCH_NEXT) {
+                    fetchNext();
+                } else {
+                    throw (Throwable) next;
+                }
+            }
+        }
+
+        private void releaseQueued() {
+            Object next;
+            while ((next = pending.poll()) != null) {
+                if (next instanceof PendingWrite pendingWrite) {
+                    pendingWrite.buffer.release();
+                }
+            }
+        }
+
+        @Override
+        public final void send(Envelope envelope) {
+            if (isFailed()) {
+                return;
+            }
+            try {
+                Complete message = (Complete) envelope.message();
+                if (!envelope.isResponse()) {
+                    fail(new IllegalStateException("Not a response: " + envelope));
+                    return;
+                }
+                if (message instanceof FailedValue failedValue) {
+                    if (!started) {
+                        started = true;
+                        response.setStatus(500);
+                        response.getHeaders().put(HttpHeader.CONTENT_TYPE, TEXT_PLAIN_CHARSET_UTF_8);
+                        Content.Sink.write(response, true, failedValue.toDetailsString(), callback);
+                    } else {
+                        fail(new IllegalStateException(failedValue.toDetailsString()));
+                    }
+                    return;
+                }
+                CompleteRec messageRec = (CompleteRec) message;
+                if (messageRec.fieldCount() == 0) {
+                    // An empty batch has nothing to write
+                    return;
+                }
+                startResponse();
+                if (messageRec.label().equals(Eof.SINGLETON)) {
+                    Bool more = (Bool) messageRec.valueAt(0);
+                    if (more.value) {
+                        pending.add(FETCH_NEXT);
+                    } else {
+                        writeEnd();
+                    }
+                } else {
+                    writeBatch((CompleteTuple) messageRec);
+                }
+                iterate();
+            } catch (Exception exc) {
+                fail(exc);
+            }
+            if (isFailed()) {
+                // Release buffers queued after onCompleteFailure drained the queue
+                releaseQueued();
+            }
+        }
+
+        private void startResponse() {
+            if (started) {
+                return;
+            }
+            started = true;
+            response.setStatus(200);
+            response.getHeaders().put(HttpHeader.CONTENT_TYPE,
+                jsonArray ? APPLICATION_JSON_CHARSET_UTF_8 : APPLICATION_NDJSON_CHARSET_UTF_8);
+        }
+
+        private void writeBatch(CompleteTuple batch) throws Exception {
+            for (int i = 0; i < batch.fieldCount(); i++) {
+                if (jsonArray) {
+                    writer.appendAscii(valueCount == 0 ? '[' : ',');
+                }
+                writer.append(batch.valueAt(i));
+                if (!jsonArray) {
+                    writer.appendAscii('\n');
+                }
+                valueCount++;
+            }
+            writer.flush();
+        }
+
+        private void writeEnd() throws Exception {
+            if (jsonArray) {
+                if (valueCount == 0) {
+                    writer.appendAscii('[');
+                }
+                writer.appendAscii(']');
+            }
+            // The last buffer completes the response, and for NDJSON it is empty
+            sink.last = true;
+            writer.flush();
+        }
+
+        /*
+         * Queue each buffer written by the JSON writer
+         */
+        private final class PendingSink implements KernelJsonWriter.ByteSink {
+            private final ByteBufferPool pool;
+            private RetainableByteBuffer current;
+            private boolean last;
+
+            private PendingSink(ByteBufferPool pool) {
+                this.pool = pool;
+            }
+
+            @Override
+            public final void accept(ByteBuffer buffer) {
+                pending.add(new PendingWrite(current, last));
+                current = null;
+            }
+
+            @Override
+            public final ByteBuffer acquire() {
+                current = pool.acquire(RESPONSE_BUFFER_SIZE, false);
+                ByteBuffer byteBuffer = current.getByteBuffer();
+                BufferUtil.clearToFill(byteBuffer);
+                return byteBuffer;
+            }
+
+            private void releaseCurrent() {
+                if (current != null) {
+                    current.release();
+                    current = null;
+                }
+            }
+        }
+
+        private static final class PendingWrite {
+            private final RetainableByteBuffer buffer;
+            private final boolean last;
+
+            private PendingWrite(RetainableByteBuffer buffer, boolean last) {
+                this.buffer = buffer;
+                this.last = last;
+            }
+        }
     }
 
 }
@@ -15,12 +15,22 @@ public final class ApiHandlerBuilder {
     private ActorSystem system;
     private ApiRouter apiRouter;
     private ContextProvider contextProvider;
+    private int actorPoolSize;
 
     ApiHandlerBuilder() {
     }
 
     public ApiHandler build() {
-        return new ApiHandler(system, apiRouter, contextProvider);
+        return new ApiHandler(system, apiRouter, contextProvider, actorPoolSize);
+    }
+
+    /*
+     * Recycle request-scoped actors from a pool of up to `actorPoolSize` idle actors per image route. A size of zero,
+     * the default, spawns a new actor per request.
+     */
+    public final ApiHandlerBuilder setActorPoolSize(int actorPoolSize) {
+        this.actorPoolSize = actorPoolSize;
+        return this;
     }
 
     public final ApiHandlerBuilder setApiRouter(ApiRouter apiRouter) {
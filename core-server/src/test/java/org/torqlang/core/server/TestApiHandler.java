@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.server;
+
+import org.eclipse.jetty.io.ArrayByteBufferPool;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.server.handler.ContextHandler;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.torqlang.core.klvm.*;
+import org.torqlang.core.lang.KernelJsonWriter;
+import org.torqlang.core.local.*;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestApiHandler {
+
+    private final AtomicInteger echoRequestCount = new AtomicInteger();
+
+    private ArrayByteBufferPool.Tracking bufferPool;
+    private Server server;
+    private ServerConnector connector;
+
+    /*
+     * An actor that answers every request with the request body, or with null when the request has no body
+     */
+    private static ActorRef createEchoResponder(AtomicInteger requestCount) {
+        Address address = Address.create("EchoResponder");
+        return new ActorRef() {
+            @Override
+            public Address address() {
+                return address;
+            }
+
+            @Override
+            public void send(Envelope envelope) {
+                requestCount.incrementAndGet();
+                Complete body = ((CompleteRec) envelope.message()).findValue(Str.of("body"));
+                Complete value = body != null ? body : Null.SINGLETON;
+                CompletableFuture.runAsync(() ->
+                    envelope.requester().send(Envelope.createResponse(value, envelope.requestId())));
+            }
+        };
+    }
+
+    /*
+     * A tuple of records whose JSON is several times the 8 KB response buffer. The strings mix 2-, 3- and 4-byte
+     * UTF-8 characters so that some of them straddle a buffer boundary.
+     */
+    private static CompleteTuple createLargeValue() {
+        CompleteTupleBuilder builder = Rec.completeTupleBuilder();
+        for (int i = 0; i < 500; i++) {
+            builder.addValue(Rec.completeRecBuilder()
+                .addField(Str.of("id"), Int32.of(i))
+                .addField(Str.of("text"), Str.of("héllo ✓ 𝄞 \"quoted\"\n" + i))
+                .build());
+        }
+        return builder.build();
+    }
+
+    /*
+     * An actor that answers every request with `value` on another thread
+     */
+    private static ActorRef createResponder(String name, Complete value) {
+        Address address = Address.create(name);
+        return new ActorRef() {
+            @Override
+            public Address address() {
+                return address;
+            }
+
+            @Override
+            public void send(Envelope envelope) {
+                CompletableFuture.runAsync(() ->
+                    envelope.requester().send(Envelope.createResponse(value, envelope.requestId())));
+            }
+        };
+    }
+
+    private HttpURLConnection open(String method, String path) throws Exception {
+        URL url = new URL("http://localhost:" + connector.getLocalPort() + "/api" + path);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod(method);
+        return connection;
+    }
+
+    private static byte[] readBody(HttpURLConnection connection) throws Exception {
+        try (InputStream in = connection.getInputStream()) {
+            return in.readAllBytes();
+        }
+    }
+
+    @BeforeEach
+    public void startServer() throws Exception {
+        ApiHandler apiHandler = ApiHandler.builder()
+            .setApiRouter(ApiRouter.staticBuilder()
+                .addRoute("/echo", createEchoResponder(echoRequestCount), ApiRouteMode.REQUEST_RESPONSE)
+                .addRoute("/large", createResponder("LargeResponder", createLargeValue()),
+                    ApiRouteMode.REQUEST_RESPONSE)
+                .build())
+            .setContextProvider(request -> Rec.completeRecBuilder().build())
+            .build();
+        bufferPool = new ArrayByteBufferPool.Tracking();
+        server = new Server(new QueuedThreadPool(), null, bufferPool);
+        connector = new ServerConnector(server);
+        connector.setPort(0);
+        server.addConnector(connector);
+        server.setHandler(new ContextHandler(apiHandler, "/api"));
+        server.start();
+    }
+
+    @AfterEach
+    public void stopServer() throws Exception {
+        server.stop();
+        assertTrue(bufferPool.getLeaks().isEmpty(), bufferPool::dumpLeaks);
+    }
+
+    @Test
+    public void testEmptyBody() throws Exception {
+        HttpURLConnection connection = open("POST", "/echo");
+        connection.setDoOutput(true);
+        connection.setFixedLengthStreamingMode(0);
+        connection.getOutputStream().close();
+        assertEquals(200, connection.getResponseCode());
+        assertEquals("null", new String(readBody(connection), StandardCharsets.UTF_8));
+        assertEquals(1, echoRequestCount.get());
+    }
+
+    @Test
+    public void testMalformedBody() throws Exception {
+        HttpURLConnection connection = open("POST", "/echo");
+        connection.setDoOutput(true);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write("{\"a\":1,".getBytes(StandardCharsets.UTF_8));
+        }
+        assertEquals(500, connection.getResponseCode());
+        assertEquals(0, echoRequestCount.get());
+    }
+
+    @Test
+    public void testMultiChunkBody() throws Exception {
+        // Record fields are echoed in sorted order
+        String json = "{\"id\":7,\"list\":[1,2.5,true,null,\"x\"],\"text\":\"héllo ✓ 𝄞 héllo ✓ 𝄞\"}";
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        HttpURLConnection connection = open("POST", "/echo");
+        connection.setDoOutput(true);
+        // Send the body as 8-byte chunks, pausing after each so the handler reads it across several chunks. The
+        // chunk boundaries split tokens and multi-byte characters.
+        int chunkSize = 8;
+        connection.setChunkedStreamingMode(chunkSize);
+        try (OutputStream out = connection.getOutputStream()) {
+            for (int i = 0; i < body.length; i += chunkSize) {
+                out.write(body, i, Math.min(chunkSize, body.length - i));
+                out.flush();
+                Thread.sleep(20);
+            }
+        }
+        assertEquals(200, connection.getResponseCode());
+        assertEquals(json, new String(readBody(connection), StandardCharsets.UTF_8));
+        assertEquals(1, echoRequestCount.get());
+    }
+
+    @Test
+    public void testLargeResponse() throws Exception {
+        byte[] expected = KernelJsonWriter.format(createLargeValue()).getBytes(StandardCharsets.UTF_8);
+        assertTrue(expected.length > 3 * 8192);
+        HttpURLConnection connection = open("GET", "/large");
+        assertEquals(200, connection.getResponseCode());
+        assertEquals("application/json; charset=utf-8", connection.getContentType());
+        assertArrayEquals(expected, readBody(connection));
+    }
+
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2024 Torqware LLC. All rights reserved.
+ *
+ * You should have received a copy of the Torqlang License v1.0 along with this program.
+ * If not, see <http://torqlang.github.io/licensing/torqlang-license-v1_0>.
+ */
+
+package org.torqlang.core.server;
+
+import org.eclipse.jetty.io.ArrayByteBufferPool;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.server.handler.ContextHandler;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.torqlang.core.klvm.*;
+import org.torqlang.core.local.*;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestApiHandlerStream {
+
+    private final AtomicInteger endlessRequestCount = new AtomicInteger();
+
+    private ArrayByteBufferPool.Tracking bufferPool;
+    private Server server;
+    private ServerConnector connector;
+
+    /*
+     * A publisher that answers request `i` with `batches[i]` on another thread, followed by `eof#{'more': true}`, or
+     * by `eof#{'more': false}` after the last batch. Each stream needs its own publisher.
+     */
+    private static ActorRef createPublisher(String name, List<CompleteTuple> batches) {
+        Address address = Address.create(name);
+        return new ActorRef() {
+            private int nextBatch;
+
+            @Override
+            public Address address() {
+                return address;
+            }
+
+            @Override
+            public void send(Envelope envelope) {
+                int index = nextBatch++;
+                CompletableFuture.runAsync(() -> {
+                    envelope.requester().send(Envelope.createResponse(batches.get(index), envelope.requestId()));
+                    CompleteRec eof = Rec.completeRecBuilder()
+                        .setLabel(Eof.SINGLETON)
+                        .addField(Str.of("more"), Bool.of(index + 1 < batches.size()))
+                        .build();
+                    envelope.requester().send(Envelope.createResponse(eof, envelope.requestId()));
+                });
+            }
+        };
+    }
+
+    private static List<CompleteTuple> createBatches() {
+        return List.of(
+            Rec.completeTupleBuilder().addValue(Int32.I32_1).addValue(Str.of("a")).build(),
+            Rec.completeTupleBuilder().addValue(Int32.I32_3).build(),
+            Rec.completeTupleBuilder()
+                .addValue(Rec.completeRecBuilder().addField(Str.of("b"), Bool.TRUE).build())
+                .build()
+        );
+    }
+
+    /*
+     * A publisher that always has more: each request is answered with a batch of long strings and
+     * `eof#{'more': true}`, so the stream only ends when the client goes away.
+     */
+    private static ActorRef createEndlessPublisher(AtomicInteger requestCount) {
+        Address address = Address.create("EndlessPublisher");
+        CompleteTupleBuilder batchBuilder = Rec.completeTupleBuilder();
+        for (int i = 0; i < 100; i++) {
+            batchBuilder.addValue(Str.of("x".repeat(1000)));
+        }
+        CompleteTuple batch = batchBuilder.build();
+        CompleteRec eof = Rec.completeRecBuilder()
+            .setLabel(Eof.SINGLETON)
+            .addField(Str.of("more"), Bool.TRUE)
+            .build();
+        return new ActorRef() {
+            @Override
+            public Address address() {
+                return address;
+            }
+
+            @Override
+            public void send(Envelope envelope) {
+                requestCount.incrementAndGet();
+                CompletableFuture.runAsync(() -> {
+                    envelope.requester().send(Envelope.createResponse(batch, envelope.requestId()));
+                    envelope.requester().send(Envelope.createResponse(eof, envelope.requestId()));
+                });
+            }
+        };
+    }
+
+    private HttpURLConnection get(String path) throws Exception {
+        URL url = new URL("http://localhost:" + connector.getLocalPort() + "/api" + path);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod("GET");
+        return connection;
+    }
+
+    private static String readBody(HttpURLConnection connection) throws Exception {
+        try (InputStream in = connection.getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @BeforeEach
+    public void startServer() throws Exception {
+        ApiHandler apiHandler = ApiHandler.builder()
+            .setApiRouter(ApiRouter.staticBuilder()
+                .addRoute("/array", createPublisher("ArrayPublisher", createBatches()),
+                    ApiRouteMode.JSON_ARRAY_STREAM)
+                .addRoute("/ndjson", createPublisher("NdjsonPublisher", createBatches()),
+                    ApiRouteMode.NDJSON_STREAM)
+                .addRoute("/empty", createPublisher("EmptyPublisher", List.of(Rec.completeTupleBuilder().build())),
+                    ApiRouteMode.JSON_ARRAY_STREAM)
+                .addRoute("/endless", createEndlessPublisher(endlessRequestCount), ApiRouteMode.JSON_ARRAY_STREAM)
+                .build())
+            .setContextProvider(request -> Rec.completeRecBuilder().build())
+            .build();
+        bufferPool = new ArrayByteBufferPool.Tracking();
+        server = new Server(new QueuedThreadPool(), null, bufferPool);
+        connector = new ServerConnector(server);
+        connector.setPort(0);
+        server.addConnector(connector);
+        server.setHandler(new ContextHandler(apiHandler, "/api"));
+        server.start();
+    }
+
+    @AfterEach
+    public void stopServer() throws Exception {
+        server.stop();
+        assertTrue(bufferPool.getLeaks().isEmpty(), bufferPool::dumpLeaks);
+    }
+
+    @Test
+    public void testClientDisconnectMidStream() throws Exception {
+        try (Socket socket = new Socket("localhost", connector.getLocalPort())) {
+            OutputStream out = socket.getOutputStream();
+            out.write("GET /api/endless HTTP/1.1\r\nHost: localhost\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            // Read part of the stream, then drop the connection without reading the rest
+            InputStream in = socket.getInputStream();
+            byte[] received = in.readNBytes(64 * 1024);
+            assertEquals(64 * 1024, received.length);
+            assertTrue(new String(received, 0, 15, StandardCharsets.US_ASCII).startsWith("HTTP/1.1 200"));
+        }
+        // Writes to the closed connection fail, and the failed stream stops asking the publisher for more
+        long deadline = System.currentTimeMillis() + 10_000;
+        int previousCount = -1;
+        int currentCount = endlessRequestCount.get();
+        while (currentCount != previousCount) {
+            assertTrue(System.currentTimeMillis() < deadline, "Publisher still being asked for more");
+            Thread.sleep(500);
+            previousCount = currentCount;
+            currentCount = endlessRequestCount.get();
+        }
+        // Stopping the server asserts every pooled buffer written or queued by the stream was released
+    }
+
+    @Test
+    public void testEmptyJsonArrayStream() throws Exception {
+        HttpURLConnection connection = get("/empty");
+        assertEquals(200, connection.getResponseCode());
+        assertEquals("[]", readBody(connection));
+    }
+
+    @Test
+    public void testJsonArrayStream() throws Exception {
+        HttpURLConnection connection = get("/array");
+        assertEquals(200, connection.getResponseCode());
+        assertEquals("application/json; charset=utf-8", connection.getContentType());
+        assertEquals("[1,\"a\",3,{\"b\":true}]", readBody(connection));
+    }
+
+    @Test
+    public void testNdjsonStream() throws Exception {
+        HttpURLConnection connection = get("/ndjson");
+        assertEquals(200, connection.getResponseCode());
+        assertEquals("application/x-ndjson; charset=utf-8", connection.getContentType());
+        assertEquals("1\n\"a\"\n3\n{\"b\":true}\n", readBody(connection));
+    }
+
+}